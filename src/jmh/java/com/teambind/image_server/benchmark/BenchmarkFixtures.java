@@ -0,0 +1,121 @@
+package com.teambind.image_server.benchmark;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * 벤치마크 입력 이미지 생성기
+ * <p>
+ * 외부 파일 없이 오프라인으로 실행할 수 있도록 목표 크기(예: 100KB, 10MB)에 가까운 JPG/PNG/GIF를 생성합니다.
+ * - 부드러운 그라디언트 + 고정 시드 노이즈로 사진에 가까운 압축률을 만듦
+ * - 인코딩 결과 크기를 보고 픽셀 수를 비율로 보정 (최대 4회)
+ * - 생성 결과는 benchmark.fixtures.dir에 캐시하여 포크 간/실행 간 동일 입력 보장
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public final class BenchmarkFixtures {
+	
+	private static final long SEED = 20250124L;
+	private static final int MAX_ATTEMPTS = 4;
+	
+	private BenchmarkFixtures() {
+	}
+	
+	/**
+	 * 목표 크기의 이미지 바이트
+	 *
+	 * @param format      JPG | PNG | GIF
+	 * @param targetBytes 목표 파일 크기
+	 * @return 인코딩된 이미지 바이트 (목표 대비 약 ±15%)
+	 */
+	public static byte[] image(String format, long targetBytes) {
+		Path cached = fixturesDir().resolve(format.toLowerCase() + "-" + targetBytes + "." + format.toLowerCase());
+		try {
+			if (Files.exists(cached)) {
+				return Files.readAllBytes(cached);
+			}
+			byte[] bytes = generate(format, targetBytes);
+			Files.createDirectories(cached.getParent());
+			Files.write(cached, bytes);
+			return bytes;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+	
+	/**
+	 * "100KB", "10MB" 형식 파싱
+	 */
+	public static long parseSize(String size) {
+		String upper = size.toUpperCase();
+		if (upper.endsWith("MB")) {
+			return Long.parseLong(upper.substring(0, upper.length() - 2)) * 1024 * 1024;
+		}
+		if (upper.endsWith("KB")) {
+			return Long.parseLong(upper.substring(0, upper.length() - 2)) * 1024;
+		}
+		return Long.parseLong(upper);
+	}
+	
+	private static byte[] generate(String format, long targetBytes) throws IOException {
+		// 첫 추정: 픽셀당 약 1바이트
+		double pixels = targetBytes;
+		byte[] encoded = null;
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			int width = (int) Math.max(16, Math.sqrt(pixels * 4 / 3));
+			int height = Math.max(16, width * 3 / 4);
+			encoded = encode(render(width, height), format);
+			double ratio = (double) targetBytes / encoded.length;
+			if (ratio > 0.85 && ratio < 1.15) {
+				break;
+			}
+			pixels = (double) width * height * ratio;
+		}
+		return encoded;
+	}
+	
+	private static BufferedImage render(int width, int height) {
+		Random random = new Random(SEED);
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				int r = clamp(x * 255 / width + random.nextInt(48) - 24);
+				int g = clamp(y * 255 / height + random.nextInt(48) - 24);
+				int b = clamp((x + y) * 127 / (width + height) + 64 + random.nextInt(48) - 24);
+				image.setRGB(x, y, (r << 16) | (g << 8) | b);
+			}
+		}
+		return image;
+	}
+	
+	private static byte[] encode(BufferedImage image, String format) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		String imageIoFormat = switch (format.toUpperCase()) {
+			case "JPG", "JPEG" -> "jpg";
+			case "PNG" -> "png";
+			case "GIF" -> "gif";
+			default -> throw new IllegalArgumentException("Unsupported fixture format: " + format);
+		};
+		if (!ImageIO.write(image, imageIoFormat, out)) {
+			throw new IllegalStateException("No ImageIO writer for " + imageIoFormat);
+		}
+		return out.toByteArray();
+	}
+	
+	private static int clamp(int value) {
+		return Math.max(0, Math.min(255, value));
+	}
+	
+	private static Path fixturesDir() {
+		return Paths.get(System.getProperty("benchmark.fixtures.dir",
+				System.getProperty("java.io.tmpdir") + "/image-server-jmh-fixtures"));
+	}
+}
@@ -0,0 +1,57 @@
+package com.teambind.image_server.benchmark;
+
+import com.teambind.image_server.util.convertor.ImageUtil;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebP 변환 핫패스 벤치마크
+ * <p>
+ * 원본 크기(100KB ~ 10MB) × 포맷(JPG/PNG/GIF) × WebP 품질 조합으로
+ * ImageUtil.toWebp / toWebpThumbnail 처리 시간을 측정합니다.
+ * 입력 이미지는 BenchmarkFixtures가 고정 시드로 생성합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class ImageConversionBenchmark {
+	
+	@Param({"100KB", "1MB", "5MB", "10MB"})
+	public String size;
+	
+	@Param({"JPG", "PNG", "GIF"})
+	public String format;
+	
+	@Param({"0.6", "0.8", "0.95"})
+	public float quality;
+	
+	private byte[] source;
+	private MockMultipartFile file;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		source = BenchmarkFixtures.image(format, BenchmarkFixtures.parseSize(size));
+		file = new MockMultipartFile("file", "benchmark." + format.toLowerCase(), "image/" + format.toLowerCase(), source);
+	}
+	
+	@Benchmark
+	public byte[] toWebp() throws IOException {
+		return ImageUtil.toWebpFromBytes(source, quality);
+	}
+	
+	@Benchmark
+	public byte[] toWebpMultipart() throws IOException {
+		return ImageUtil.toWebp(file, quality);
+	}
+	
+	@Benchmark
+	public byte[] toWebpThumbnail() throws IOException {
+		return ImageUtil.toWebpThumbnail(file, 256, 256, quality);
+	}
+}
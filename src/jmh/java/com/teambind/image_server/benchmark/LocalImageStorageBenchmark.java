@@ -0,0 +1,59 @@
+package com.teambind.image_server.benchmark;
+
+import com.teambind.image_server.util.store.LocalImageStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * LocalImageStorage.store 벤치마크
+ * <p>
+ * 변환 결과 크기(100KB ~ 10MB)별로 디렉토리 생성 + 파일 쓰기 비용을 측정합니다.
+ * 매 호출마다 새 날짜 경로 대신 고정 경로를 덮어써 디렉토리 생성 비용은 첫 호출 이후 제외됩니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class LocalImageStorageBenchmark {
+	
+	@Param({"100KB", "1MB", "5MB", "10MB"})
+	public String size;
+	
+	private Path baseDir;
+	private LocalImageStorage storage;
+	private byte[] bytes;
+	private int sequence;
+	
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		baseDir = Files.createTempDirectory("image-server-jmh-storage");
+		storage = new LocalImageStorage(baseDir.toString());
+		bytes = BenchmarkFixtures.image("JPG", BenchmarkFixtures.parseSize(size));
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try (Stream<Path> paths = Files.walk(baseDir)) {
+			paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+		}
+	}
+	
+	@Benchmark
+	public String storeOverwrite() {
+		return storage.store(bytes, "PRODUCT/2025/01/24/benchmark.webp");
+	}
+	
+	@Benchmark
+	public String storeNewFile() {
+		// 파일 수가 무한히 늘지 않도록 1024개 경로를 순환
+		return storage.store(bytes, "PRODUCT/2025/01/24/benchmark-" + (sequence++ & 1023) + ".webp");
+	}
+}
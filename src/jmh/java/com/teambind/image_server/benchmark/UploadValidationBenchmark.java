@@ -0,0 +1,109 @@
+package com.teambind.image_server.benchmark;
+
+import com.teambind.image_server.config.InitialSetup;
+import com.teambind.image_server.dto.request.ImageUploadRequest;
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.util.helper.ExtensionParser;
+import com.teambind.image_server.util.validator.*;
+import jakarta.validation.ConstraintValidatorContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 요청 검증 체인 벤치마크
+ * <p>
+ * ExtensionParser.extensionParse 단독 비용과, 컨트롤러 @Valid 단계에서 실행되는 검증기
+ * (ImageUploadRequestValidator → ImageFileValidator → ReferenceTypeConstraintValidator)를
+ * 같은 순서로 호출한 비용을 측정합니다. Bean Validation 프레임워크 오버헤드는 포함하지 않습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class UploadValidationBenchmark {
+	
+	@Param({"1", "10"})
+	public int fileCount;
+	
+	private ExtensionParser extensionParser;
+	private ImageUploadRequestValidator requestValidator;
+	private ImageFileValidator fileValidator;
+	private ReferenceTypeConstraintValidator referenceTypeConstraintValidator;
+	private ConstraintValidatorContext context;
+	private ImageUploadRequest request;
+	private String[] fileNames;
+	
+	@Setup(Level.Trial)
+	public void setUp() {
+		InitialSetup.EXTENSION_MAP.clear();
+		for (String code : List.of("JPG", "JPEG", "PNG", "GIF", "WEBP")) {
+			InitialSetup.EXTENSION_MAP.put(code, Extension.builder().code(code).name(code).build());
+		}
+		ReferenceType product = ReferenceType.builder().code("PRODUCT").name("상품").allowsMultiple(true).maxImages(10).build();
+		ReferenceType profile = ReferenceType.builder().code("PROFILE").name("프로필").allowsMultiple(false).maxImages(1).build();
+		InitialSetup.ALL_REFERENCE_TYPE_MAP.put("PRODUCT", product);
+		InitialSetup.ALL_REFERENCE_TYPE_MAP.put("PROFILE", profile);
+		InitialSetup.MULTI_IMAGE_REFERENCE_TYPE_MAP.put("PRODUCT", product);
+		InitialSetup.MONO_IMAGE_REFERENCE_TYPE_MAP.put("PROFILE", profile);
+		
+		extensionParser = new ExtensionParser();
+		ReferenceTypeValidator referenceTypeValidator = new ReferenceTypeValidator();
+		requestValidator = new ImageUploadRequestValidator(referenceTypeValidator);
+		fileValidator = new ImageFileValidator(new ExtensionValidator(extensionParser));
+		referenceTypeConstraintValidator = new ReferenceTypeConstraintValidator(referenceTypeValidator);
+		context = noOpContext();
+		
+		byte[] content = new byte[1024];
+		if (fileCount == 1) {
+			request = ImageUploadRequest.builder()
+					.file(new MockMultipartFile("file", "photo.jpg", "image/jpeg", content))
+					.uploaderId("user-1")
+					.category("PROFILE")
+					.build();
+		} else {
+			List<MultipartFile> files = new java.util.ArrayList<>();
+			for (int i = 0; i < fileCount; i++) {
+				files.add(new MockMultipartFile("files", "photo-" + i + ".png", "image/png", content));
+			}
+			request = ImageUploadRequest.builder()
+					.files(files)
+					.uploaderId("user-1")
+					.category("PRODUCT")
+					.build();
+		}
+		
+		fileNames = new String[]{"photo.jpg", "IMG_20250124_101500.JPEG", "banner-final.png", "anim.gif", "x.webp"};
+	}
+	
+	@Benchmark
+	public void extensionParse(Blackhole blackhole) {
+		for (String fileName : fileNames) {
+			blackhole.consume(extensionParser.extensionParse(fileName));
+		}
+	}
+	
+	@Benchmark
+	public boolean validatorChain() {
+		return requestValidator.isValid(request, context)
+				& fileValidator.isValid(request.getFile(), context)
+				& fileValidator.isValid(request.getFiles(), context)
+				& referenceTypeConstraintValidator.isValid(request.getCategory(), context);
+	}
+	
+	// 검증 실패 메시지 빌더 체인만 흉내 내는 컨텍스트 (정상 입력에서는 호출되지 않음)
+	private static ConstraintValidatorContext noOpContext() {
+		return (ConstraintValidatorContext) Proxy.newProxyInstance(
+				ConstraintValidatorContext.class.getClassLoader(),
+				new Class<?>[]{ConstraintValidatorContext.class, ConstraintValidatorContext.ConstraintViolationBuilder.class},
+				(proxy, method, args) -> method.getReturnType().isInstance(proxy) ? proxy : null);
+	}
+}
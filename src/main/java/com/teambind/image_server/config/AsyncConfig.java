@@ -1,8 +1,11 @@
 package com.teambind.image_server.config;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -21,19 +24,67 @@ import java.util.concurrent.ThreadPoolExecutor;
 @Slf4j
 public class AsyncConfig {
 	
+	public static final String EXECUTION_MODE_PLATFORM = "platform";
+	public static final String EXECUTION_MODE_VIRTUAL = "virtual";
+	
+	/**
+	 * 이미지 처리 실행 모드
+	 * - platform: 단건 업로드는 플랫폼 스레드 풀에서 I/O와 인코딩을 모두 처리 (기본값)
+	 * - virtual: 단건 업로드의 I/O는 가상 스레드, 디코딩/인코딩은 imageEncodeExecutor에서 처리
+	 * 배치 업로드의 인코딩은 두 모드 모두 imageEncodeExecutor로 팬아웃합니다. (ImageEncodeDispatcher.runAll)
+	 */
+	@Value("${images.processing.execution-mode:platform}")
+	private String executionMode;
+	
+	/**
+	 * 인코딩 전용 스레드 수 (0 이하이면 가용 코어 수)
+	 */
+	@Value("${images.processing.encode-threads:0}")
+	private int encodeThreads;
+	
+	/**
+	 * 정리 작업의 파일 삭제 스레드 수
+	 */
+	@Value("${images.cleanup.delete-threads:4}")
+	private int deleteThreads;
+	
 	/**
-	 * 이미지 처리 전용 ThreadPoolTaskExecutor
+	 * 디스크/DB 대조 작업의 파티션 병렬 처리 스레드 수
+	 */
+	@Value("${images.reconcile.threads:4}")
+	private int reconcileThreads;
+	
+	/**
+	 * 이미지 처리 전용 Executor
 	 * <p>
-	 * 설정:
+	 * 실행 모드가 virtual이면 작업마다 가상 스레드를 생성하는 SimpleAsyncTaskExecutor를 사용합니다.
+	 * 동시 작업 수의 상한은 ImageProcessingAdmission이 보장하므로 별도 풀 크기 제한을 두지 않습니다.
+	 * <p>
+	 * platform 모드 설정:
 	 * - 기본 스레드: 10개 (동시 처리 가능한 이미지 수)
 	 * - 최대 스레드: 20개 (부하 시 증가)
 	 * - 큐 용량: 500개 (대기 가능한 작업 수)
-	 * - 거부 정책: CallerRunsPolicy (큐 초과 시 호출 스레드가 직접 처리)
+	 * - 거부 정책: AbortPolicy (큐 초과 시 TaskRejectedException → 429 응답)
+	 * <p>
+	 * 실제 부하 제어는 ImageProcessingAdmission이 먼저 수행하므로 정상적으로는 거절이 발생하지 않습니다.
+	 * CallerRunsPolicy를 쓰면 큐가 가득 찼을 때 HTTP 요청 스레드가 직접 WebP 변환을 수행해
+	 * 비동기 업로드 응답이 수 초로 늘어나므로 사용하지 않습니다.
 	 *
-	 * @return ThreadPoolTaskExecutor
+	 * @return AsyncTaskExecutor
 	 */
 	@Bean(name = "imageProcessingExecutor")
-	public ThreadPoolTaskExecutor imageProcessingExecutor() {
+	public AsyncTaskExecutor imageProcessingExecutor() {
+		if (EXECUTION_MODE_VIRTUAL.equalsIgnoreCase(executionMode)) {
+			SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("image-io-");
+			executor.setVirtualThreads(true);
+			
+			// 애플리케이션 종료 시 실행 중인 작업 완료를 기다림
+			executor.setTaskTerminationTimeout(60_000);
+			
+			log.info("Image Processing Executor initialized: executionMode=virtual");
+			return executor;
+		}
+		
 		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
 		
 		// 코어 스레드 풀 크기 (항상 유지되는 워커 스레드 수)
@@ -52,8 +103,8 @@ public class AsyncConfig {
 		executor.setKeepAliveSeconds(60);
 		
 		// 거부 정책: 큐가 가득 찼을 때 처리 방식
-		// CallerRunsPolicy: 호출한 스레드(HTTP 요청 스레드)가 직접 처리
-		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+		// AbortPolicy: 요청 스레드가 변환을 떠안지 않도록 즉시 거절 (ImageSaveService에서 429로 변환)
+		executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
 		
 		// 애플리케이션 종료 시 대기 중인 작업 완료 후 종료
 		executor.setWaitForTasksToCompleteOnShutdown(true);
@@ -61,9 +112,105 @@ public class AsyncConfig {
 		
 		executor.initialize();
 		
-		log.info("Image Processing Executor initialized: corePoolSize={}, maxPoolSize={}, queueCapacity={}",
+		log.info("Image Processing Executor initialized: executionMode=platform, corePoolSize={}, maxPoolSize={}, queueCapacity={}",
 				executor.getCorePoolSize(), executor.getMaxPoolSize(), executor.getQueueCapacity());
 		
 		return executor;
 	}
+	
+	/**
+	 * 이미지 디코딩/인코딩 전용 ThreadPoolTaskExecutor
+	 * <p>
+	 * 다음 CPU 작업이 이 풀에서 실행됩니다.
+	 * - 배치 업로드의 디코딩/인코딩: 실행 모드와 무관하게 항상 (ImageEncodeDispatcher.runAll)
+	 * - 단건 업로드와 리사이즈의 디코딩/인코딩: virtual 모드에서만 (platform 모드는 호출한 스레드에서 실행)
+	 * <p>
+	 * 설정:
+	 * - 스레드 수: 가용 코어 수 (CPU 과다 구독 방지)
+	 * - 큐: 무제한 (대기 작업 수는 ImageProcessingAdmission이 제한)
+	 *
+	 * @return ThreadPoolTaskExecutor
+	 */
+	@Bean(name = "imageEncodeExecutor")
+	public ThreadPoolTaskExecutor imageEncodeExecutor() {
+		int threads = encodeThreads > 0 ? encodeThreads : Runtime.getRuntime().availableProcessors();
+		
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(threads);
+		executor.setMaxPoolSize(threads);
+		executor.setThreadNamePrefix("image-encode-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(60);
+		executor.initialize();
+		
+		log.info("Image Encode Executor initialized: threads={}", threads);
+		
+		return executor;
+	}
+	
+	/**
+	 * 파일 삭제 전용 ThreadPoolTaskExecutor
+	 * <p>
+	 * 정리 작업이 청크마다 수백 개 파일을 지울 때 unlink 왕복(특히 네트워크 볼륨)을 병렬로 처리합니다.
+	 * 호출자가 청크 단위로 완료를 기다리므로 큐는 청크 크기 이상 쌓이지 않습니다.
+	 *
+	 * @return ThreadPoolTaskExecutor
+	 */
+	@Bean(name = "fileDeleteExecutor")
+	public ThreadPoolTaskExecutor fileDeleteExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(deleteThreads);
+		executor.setMaxPoolSize(deleteThreads);
+		executor.setThreadNamePrefix("file-delete-");
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(30);
+		executor.initialize();
+		
+		log.info("File Delete Executor initialized: threads={}", deleteThreads);
+		
+		return executor;
+	}
+	
+	/**
+	 * 디스크/DB 대조 전용 ThreadPoolTaskExecutor
+	 * <p>
+	 * 일자 디렉토리(파티션)마다 파일 목록 조회와 DB 경로 조회를 병렬로 처리합니다.
+	 * 정리 작업의 fileDeleteExecutor와 나눠, 대조가 오래 걸려도 정리 작업의 파일 삭제가 밀리지 않게 합니다.
+	 *
+	 * @return ThreadPoolTaskExecutor
+	 */
+	@Bean(name = "storageReconcileExecutor")
+	public ThreadPoolTaskExecutor storageReconcileExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(reconcileThreads);
+		executor.setMaxPoolSize(reconcileThreads);
+		executor.setThreadNamePrefix("storage-reconcile-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		executor.initialize();
+		
+		log.info("Storage Reconcile Executor initialized: threads={}", reconcileThreads);
+		
+		return executor;
+	}
+	
+	/**
+	 * 관리 API로 시작한 디스크/DB 대조 작업 실행용 ThreadPoolTaskExecutor
+	 * <p>
+	 * 대조 전체를 요청 스레드 대신 여기서 실행하고, 파티션 작업은 storageReconcileExecutor에 넘깁니다.
+	 * 파티션 작업을 기다리는 스레드라 storageReconcileExecutor와 같은 풀을 쓰면 스레드가 모자라 멈출 수 있으므로 나눕니다.
+	 * 동시 실행은 ShedLock 잠금으로 한 건이므로 스레드 하나로 충분합니다.
+	 *
+	 * @return ThreadPoolTaskExecutor
+	 */
+	@Bean(name = "storageReconcileJobExecutor")
+	public ThreadPoolTaskExecutor storageReconcileJobExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("storage-reconcile-job-");
+		executor.setWaitForTasksToCompleteOnShutdown(false);
+		executor.initialize();
+		
+		return executor;
+	}
 }
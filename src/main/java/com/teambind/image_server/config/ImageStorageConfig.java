@@ -0,0 +1,56 @@
+package com.teambind.image_server.config;
+
+import com.teambind.image_server.util.store.ImageStorage;
+import com.teambind.image_server.util.store.LocalImageStorage;
+import com.teambind.image_server.util.store.S3ImageStorage;
+import com.teambind.image_server.util.store.ShardedLocalImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 이미지 파일 저장소 설정
+ * <p>
+ * images.storage.type에 맞는 ImageStorage 구현 하나를 등록합니다.
+ * 업로드 파이프라인(ImageSaveService, ImageProcessingTaskQueue)과 정리 작업은 ImageStorage만 사용하므로
+ * 저장소를 바꿔도 파이프라인 코드는 그대로입니다.
+ * <p>
+ * 스풀(images.upload.spool-dir)과 리사이즈 캐시는 저장소 종류와 무관하게 images.upload.dir 아래 로컬 디렉토리를 씁니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Configuration
+@Slf4j
+public class ImageStorageConfig {
+	
+	@Bean
+	public ImageStorage imageStorage(ImageStorageProperties properties, @Value("${images.upload.dir}") String uploadDir) {
+		String type = properties.getType();
+		if (ImageStorageProperties.TYPE_SHARDED.equalsIgnoreCase(type)) {
+			// 환경 변수가 비어 있으면 빈 문자열 하나로 바인딩되므로 제외
+			return new ShardedLocalImageStorage(properties.getSharded().getDirs().stream()
+					.filter(dir -> dir != null && !dir.isBlank())
+					.toList(), properties.getFsync());
+		}
+		if (ImageStorageProperties.TYPE_S3.equalsIgnoreCase(type)) {
+			ImageStorageProperties.S3 s3 = properties.getS3();
+			if (isBlank(s3.getEndpoint()) || isBlank(s3.getBucket())) {
+				throw new IllegalStateException("images.storage.s3.endpoint and bucket are required for s3 storage");
+			}
+			return new S3ImageStorage(s3.getEndpoint(), s3.getRegion(), s3.getBucket(), s3.getAccessKey(),
+					s3.getSecretKey(), s3.getKeyPrefix(), s3.isPathStyle(), Duration.ofMillis(s3.getTimeoutMs()));
+		}
+		if (!ImageStorageProperties.TYPE_LOCAL.equalsIgnoreCase(type)) {
+			throw new IllegalStateException("Unknown images.storage.type: " + type);
+		}
+		return new LocalImageStorage(uploadDir, properties.getFsync());
+	}
+	
+	private static boolean isBlank(String value) {
+		return value == null || value.isBlank();
+	}
+}
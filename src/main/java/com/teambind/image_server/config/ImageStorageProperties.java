@@ -0,0 +1,89 @@
+package com.teambind.image_server.config;
+
+import com.teambind.image_server.util.store.LocalImageStorage;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 이미지 파일 저장소 설정
+ * <p>
+ * type으로 저장소 구현을 고릅니다.
+ * - local: images.upload.dir 한 디렉토리 (기본값)
+ * - sharded: sharded.dirs 볼륨들에 경로 해시로 분산
+ * - s3: S3 호환 객체 저장소
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@ConfigurationProperties(prefix = "images.storage")
+@Getter
+@Setter
+public class ImageStorageProperties {
+	
+	public static final String TYPE_LOCAL = "local";
+	public static final String TYPE_SHARDED = "sharded";
+	public static final String TYPE_S3 = "s3";
+	
+	/**
+	 * 저장소 구현 (local | sharded | s3)
+	 */
+	private String type = TYPE_LOCAL;
+	
+	/**
+	 * 로컬 저장(local, sharded) 시 디스크 동기화 수준 (none | data | full)
+	 */
+	private LocalImageStorage.FsyncMode fsync = LocalImageStorage.FsyncMode.DATA;
+	
+	private Sharded sharded = new Sharded();
+	
+	private S3 s3 = new S3();
+	
+	@Getter
+	@Setter
+	public static class Sharded {
+		
+		/**
+		 * 볼륨 디렉토리 목록 (디렉토리 이름이 볼륨 이름이므로 서로 달라야 함)
+		 */
+		private List<String> dirs = new ArrayList<>();
+	}
+	
+	@Getter
+	@Setter
+	public static class S3 {
+		
+		/**
+		 * 엔드포인트 (예: https://s3.ap-northeast-2.amazonaws.com, http://minio:9000)
+		 */
+		private String endpoint;
+		
+		private String region = "us-east-1";
+		
+		private String bucket;
+		
+		private String accessKey;
+		
+		private String secretKey;
+		
+		/**
+		 * 객체 키 접두사 (예: images/)
+		 */
+		private String keyPrefix = "";
+		
+		/**
+		 * path-style 주소 사용 여부 (false면 virtual-hosted style)
+		 */
+		private boolean pathStyle = true;
+		
+		/**
+		 * 연결/응답 대기 시간
+		 */
+		private long timeoutMs = 10000;
+	}
+}
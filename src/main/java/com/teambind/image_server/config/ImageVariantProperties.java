@@ -0,0 +1,58 @@
+package com.teambind.image_server.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 반응형 변형(Variant) 프로파일 설정
+ * <p>
+ * 참조 타입별로 생성할 가로 폭 목록을 정의합니다.
+ * 예: PRODUCT → 320/640/1280, PROFILE → 96/256
+ * 프로파일이 없는 참조 타입은 변형을 생성하지 않습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@ConfigurationProperties(prefix = "images.variants")
+@Getter
+@Setter
+public class ImageVariantProperties {
+	
+	/**
+	 * 변형 이미지 WebP 품질 (0.0f ~ 1.0f)
+	 */
+	private float quality = 0.8f;
+	
+	/**
+	 * 참조 타입 코드(대문자) → 가로 폭 목록
+	 */
+	private Map<String, List<Integer>> profiles = new HashMap<>();
+	
+	/**
+	 * 참조 타입의 변형 폭 목록 (오름차순, 중복/0 이하 제거)
+	 *
+	 * @param referenceTypeCode 참조 타입 코드
+	 * @return 가로 폭 목록 (프로파일이 없으면 빈 목록)
+	 */
+	public List<Integer> widthsFor(String referenceTypeCode) {
+		if (referenceTypeCode == null) {
+			return List.of();
+		}
+		List<Integer> widths = profiles.get(referenceTypeCode.toUpperCase());
+		if (widths == null) {
+			return List.of();
+		}
+		return widths.stream()
+				.filter(width -> width != null && width > 0)
+				.distinct()
+				.sorted()
+				.toList();
+	}
+}
@@ -10,17 +10,26 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 참조 타입/확장자 기준 데이터 적재
+ * <p>
+ * 애플리케이션 시작 시와 매일 00:30에 DB에서 읽어 ReferenceDataRegistry 스냅샷을 교체합니다.
+ * 운영 중 즉시 반영이 필요하면 관리자 API(ReferenceDataRefreshService)로 재적재하며,
+ * 다른 노드에는 ControlMessagePublisher가 컨트롤 토픽으로 재적재를 알립니다.
+ * <p>
+ * static 맵 필드는 현재 스냅샷의 읽기 뷰입니다. 재적재 중에도 이전 스냅샷 전체 또는 새 스냅샷 전체만 보입니다.
+ */
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class InitialSetup {
-	public static final Map<String, ReferenceType> ALL_REFERENCE_TYPE_MAP = new ConcurrentHashMap<>();
-	public static final Map<String, Extension> EXTENSION_MAP = new ConcurrentHashMap<>();
-	public static final Map<String, ReferenceType> MONO_IMAGE_REFERENCE_TYPE_MAP = new ConcurrentHashMap<>();
-	public static final Map<String, ReferenceType> MULTI_IMAGE_REFERENCE_TYPE_MAP = new ConcurrentHashMap<>();
+	public static final Map<String, ReferenceType> ALL_REFERENCE_TYPE_MAP = ReferenceDataRegistry.referenceTypesView();
+	public static final Map<String, Extension> EXTENSION_MAP = ReferenceDataRegistry.extensionsView();
+	public static final Map<String, ReferenceType> MONO_IMAGE_REFERENCE_TYPE_MAP = ReferenceDataRegistry.monoReferenceTypesView();
+	public static final Map<String, ReferenceType> MULTI_IMAGE_REFERENCE_TYPE_MAP = ReferenceDataRegistry.multiReferenceTypesView();
 	private final ReferenceTypeRepository referenceTypeRepository;
 	private final ExtensionRepository extensionRepository;
 	
@@ -36,35 +45,21 @@ public class InitialSetup {
 	
 	@Scheduled(cron = "0 30 0 * * *")
 	public void loadData() {
-		loadExtension();
-		loadReferenceType();
-
-	}
-	
-	private void loadReferenceType() {
-		synchronized (ALL_REFERENCE_TYPE_MAP) {
-			ALL_REFERENCE_TYPE_MAP.clear();
-			MONO_IMAGE_REFERENCE_TYPE_MAP.clear();
-			MULTI_IMAGE_REFERENCE_TYPE_MAP.clear();
-			referenceTypeRepository.findAll().forEach(r -> {
-				ALL_REFERENCE_TYPE_MAP.put(r.getCode(), r);
-				if (r.getAllowsMultiple()) {
-					MULTI_IMAGE_REFERENCE_TYPE_MAP.put(r.getCode(), r);
-				} else {
-					MONO_IMAGE_REFERENCE_TYPE_MAP.put(r.getCode(), r);
-				}
-			});
-		}
+		reload();
 	}
 	
-	private void loadExtension() {
-		synchronized (EXTENSION_MAP) {
-			EXTENSION_MAP.clear();
-			extensionRepository.findAll().forEach(e -> {
-				EXTENSION_MAP.put(e.getCode(), e);
-			});
-		}
+	/**
+	 * DB에서 새 스냅샷을 만든 뒤 한 번에 교체
+	 * - 조회 중 예외가 나면 기존 스냅샷을 그대로 유지
+	 *
+	 * @return 교체된 스냅샷
+	 */
+	public ReferenceDataRegistry.Snapshot reload() {
+		List<Extension> extensions = extensionRepository.findAll();
+		List<ReferenceType> referenceTypes = referenceTypeRepository.findAll();
+		ReferenceDataRegistry.Snapshot snapshot = ReferenceDataRegistry.publish(referenceTypes, extensions);
+		log.info("Reference data reloaded: version={}, referenceTypes={}, extensions={}",
+				snapshot.version(), snapshot.referenceTypes().size(), snapshot.extensions().size());
+		return snapshot;
 	}
-	
-	
 }
@@ -0,0 +1,190 @@
+package com.teambind.image_server.config;
+
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.ReferenceType;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * 참조 타입/확장자 스냅샷 레지스트리 (Copy-on-Write)
+ * <p>
+ * 기존 InitialSetup은 static ConcurrentHashMap을 clear 후 다시 채웠기 때문에, 재적재 도중 조회하면
+ * null이 반환되어 정상 업로드가 검증에서 거절되는 구간이 있었습니다.
+ * <p>
+ * 이 레지스트리는 네 개의 맵을 하나의 불변 스냅샷으로 묶어 AtomicReference로 교체합니다.
+ * - 조회: volatile 읽기 한 번 + 불변 맵 조회 (락 없음)
+ * - 재적재: DB에서 새 스냅샷을 완성한 뒤 한 번에 교체 (부분 상태가 보이지 않음)
+ * <p>
+ * InitialSetup의 static 맵 필드는 이 스냅샷을 바라보는 뷰(SnapshotMapView)로 유지되어 기존 호출부는 그대로입니다.
+ * 뷰에 대한 put/remove/clear는 테스트/벤치마크 준비용이며, 해당 맵만 복사 후 교체합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public final class ReferenceDataRegistry {
+	
+	private static final AtomicReference<Snapshot> CURRENT = new AtomicReference<>(Snapshot.EMPTY);
+	
+	private ReferenceDataRegistry() {
+	}
+	
+	public static Snapshot current() {
+		return CURRENT.get();
+	}
+	
+	/**
+	 * 새 스냅샷으로 교체 (버전은 이전 스냅샷 + 1)
+	 *
+	 * @return 교체된 스냅샷
+	 */
+	public static Snapshot publish(Collection<ReferenceType> referenceTypes, Collection<Extension> extensions) {
+		Map<String, ReferenceType> all = new HashMap<>();
+		Map<String, ReferenceType> mono = new HashMap<>();
+		Map<String, ReferenceType> multi = new HashMap<>();
+		for (ReferenceType referenceType : referenceTypes) {
+			all.put(referenceType.getCode(), referenceType);
+			if (Boolean.TRUE.equals(referenceType.getAllowsMultiple())) {
+				multi.put(referenceType.getCode(), referenceType);
+			} else {
+				mono.put(referenceType.getCode(), referenceType);
+			}
+		}
+		Map<String, Extension> extensionMap = new HashMap<>();
+		for (Extension extension : extensions) {
+			extensionMap.put(extension.getCode(), extension);
+		}
+		return update(previous -> new Snapshot(Map.copyOf(all), Map.copyOf(mono), Map.copyOf(multi),
+				Map.copyOf(extensionMap), previous.version() + 1, Instant.now()));
+	}
+	
+	static Snapshot update(UnaryOperator<Snapshot> updater) {
+		return CURRENT.updateAndGet(updater);
+	}
+	
+	/**
+	 * 불변 스냅샷
+	 *
+	 * @param referenceTypes      전체 참조 타입 (코드 → 타입)
+	 * @param monoReferenceTypes  단일 이미지 참조 타입
+	 * @param multiReferenceTypes 다중 이미지 참조 타입
+	 * @param extensions          확장자 (코드 → 확장자)
+	 * @param version             적재 버전 (교체될 때마다 증가)
+	 * @param loadedAt            적재 시각
+	 */
+	public record Snapshot(Map<String, ReferenceType> referenceTypes,
+	                       Map<String, ReferenceType> monoReferenceTypes,
+	                       Map<String, ReferenceType> multiReferenceTypes,
+	                       Map<String, Extension> extensions,
+	                       long version,
+	                       Instant loadedAt) {
+		
+		static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), 0, Instant.EPOCH);
+	}
+	
+	/**
+	 * 현재 스냅샷의 맵 하나를 바라보는 Map 뷰
+	 * <p>
+	 * 읽기는 항상 최신 스냅샷을 따르고, 쓰기는 해당 맵만 복사해 새 스냅샷으로 교체합니다.
+	 */
+	static final class SnapshotMapView<V> extends AbstractMap<String, V> {
+		
+		private final Function<Snapshot, Map<String, V>> reader;
+		private final Wither<V> wither;
+		
+		SnapshotMapView(Function<Snapshot, Map<String, V>> reader, Wither<V> wither) {
+			this.reader = reader;
+			this.wither = wither;
+		}
+		
+		private Map<String, V> map() {
+			return reader.apply(CURRENT.get());
+		}
+		
+		@Override
+		public V get(Object key) {
+			return key == null ? null : map().get(key);
+		}
+		
+		@Override
+		public boolean containsKey(Object key) {
+			return key != null && map().containsKey(key);
+		}
+		
+		@Override
+		public int size() {
+			return map().size();
+		}
+		
+		@Override
+		public Collection<V> values() {
+			return map().values();
+		}
+		
+		@Override
+		public Set<String> keySet() {
+			return map().keySet();
+		}
+		
+		@Override
+		public Set<Entry<String, V>> entrySet() {
+			return map().entrySet();
+		}
+		
+		@Override
+		public V put(String key, V value) {
+			V previous = get(key);
+			modify(copy -> copy.put(key, value));
+			return previous;
+		}
+		
+		@Override
+		public V remove(Object key) {
+			V previous = get(key);
+			modify(copy -> copy.remove(key));
+			return previous;
+		}
+		
+		@Override
+		public void clear() {
+			modify(Map::clear);
+		}
+		
+		private void modify(Consumer<Map<String, V>> change) {
+			update(snapshot -> {
+				Map<String, V> copy = new HashMap<>(reader.apply(snapshot));
+				change.accept(copy);
+				return wither.with(snapshot, Map.copyOf(copy));
+			});
+		}
+	}
+	
+	@FunctionalInterface
+	interface Wither<V> {
+		Snapshot with(Snapshot snapshot, Map<String, V> map);
+	}
+	
+	static Map<String, ReferenceType> referenceTypesView() {
+		return new SnapshotMapView<>(Snapshot::referenceTypes, (s, m) ->
+				new Snapshot(m, s.monoReferenceTypes(), s.multiReferenceTypes(), s.extensions(), s.version(), s.loadedAt()));
+	}
+	
+	static Map<String, ReferenceType> monoReferenceTypesView() {
+		return new SnapshotMapView<>(Snapshot::monoReferenceTypes, (s, m) ->
+				new Snapshot(s.referenceTypes(), m, s.multiReferenceTypes(), s.extensions(), s.version(), s.loadedAt()));
+	}
+	
+	static Map<String, ReferenceType> multiReferenceTypesView() {
+		return new SnapshotMapView<>(Snapshot::multiReferenceTypes, (s, m) ->
+				new Snapshot(s.referenceTypes(), s.monoReferenceTypes(), m, s.extensions(), s.version(), s.loadedAt()));
+	}
+	
+	static Map<String, Extension> extensionsView() {
+		return new SnapshotMapView<>(Snapshot::extensions, (s, m) ->
+				new Snapshot(s.referenceTypes(), s.monoReferenceTypes(), s.multiReferenceTypes(), m, s.version(), s.loadedAt()));
+	}
+}
@@ -0,0 +1,33 @@
+package com.teambind.image_server.config;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.provider.jdbctemplate.JdbcTemplateLockProvider;
+import net.javacrumbs.shedlock.spring.annotation.EnableSchedulerLock;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * ShedLock 설정
+ * <p>
+ * shedlock 테이블(schema-mariadb.sql)을 잠금 저장소로 사용하여, 여러 노드 중 하나만 작업을 실행하도록 합니다.
+ * 노드 간 시계 차이의 영향을 받지 않도록 잠금 시각은 DB 시간을 사용합니다.
+ * - @SchedulerLock: 메서드 단위 잠금
+ * - LockProvider: 정리 작업처럼 샤드별로 잠금 이름을 나누는 경우 직접 사용 (ImageCleanupCoordinator)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Configuration
+@EnableSchedulerLock(defaultLockAtMostFor = "10m")
+public class ShedLockConfig {
+	
+	@Bean
+	public LockProvider lockProvider(JdbcTemplate jdbcTemplate) {
+		return new JdbcTemplateLockProvider(JdbcTemplateLockProvider.Configuration.builder()
+				.withJdbcTemplate(jdbcTemplate)
+				.withTableName("shedlock")
+				.usingDbTime()
+				.build());
+	}
+}
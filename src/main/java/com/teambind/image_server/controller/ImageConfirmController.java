@@ -2,13 +2,17 @@ package com.teambind.image_server.controller;
 
 
 import com.teambind.image_server.dto.request.ImageBatchConfirmRequest;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
 import com.teambind.image_server.service.ImageConfirmService;
+import com.teambind.image_server.service.ImageConfirmWaiter;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
 /**
  * 이미지 확정 컨트롤러
@@ -22,22 +26,33 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class ImageConfirmController {
 	private final ImageConfirmService imageConfirmService;
+	private final ImageConfirmWaiter imageConfirmWaiter;
 	
 	/**
 	 * 단일 이미지 확정
 	 * - imageId가 빈 문자열("")이면 해당 referenceId의 모든 이미지 삭제
 	 * - imageId가 유효하면 해당 이미지를 referenceId에 연결
+	 * - 이미지가 아직 처리 중(TEMP)이면 처리 완료까지 최대 images.confirm.wait-timeout-ms 동안 기다린 뒤 확정
 	 *
 	 * @param imageId     확정할 이미지 ID (빈 문자열 허용)
 	 * @param referenceId 참조 ID
-	 * @return 200 OK
+	 * @return 200 OK (대기한 경우 비동기로 응답)
 	 */
 	@PostMapping("/confirm/{referenceId}")
-	public ResponseEntity<Void> confirmImage(
+	public DeferredResult<ResponseEntity<Void>> confirmImage(
 			@RequestParam @NotBlank(message = "이미지 ID는 필수입니다") String imageId,
 			@PathVariable(name = "referenceId") @NotBlank(message = "참조 ID는 필수입니다") String referenceId) {
-		imageConfirmService.confirmImage(imageId, referenceId);
-		return ResponseEntity.ok().build();
+		try {
+			imageConfirmService.confirmImage(imageId, referenceId);
+		} catch (CustomException e) {
+			if (e.getErrorcode() != ErrorCode.IMAGE_PROCESSING_IN_PROGRESS) {
+				throw e;
+			}
+			return imageConfirmWaiter.confirmWhenProcessed(imageId, referenceId);
+		}
+		DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>();
+		result.setResult(ResponseEntity.ok().build());
+		return result;
 	}
 	
 	/**
@@ -0,0 +1,51 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.service.ImageStatusStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * 이미지 처리 상태 이벤트 컨트롤러 (Server-Sent Events)
+ * - 업로드 직후 TEMP 상태 이미지의 READY/FAILED 전환을 푸시로 전달
+ * - 확정(confirm) 재시도 폴링을 대체
+ */
+@RestController
+@RequestMapping("/api/v1/images")
+@RequiredArgsConstructor
+public class ImageEventController {
+	private final ImageStatusStreamService imageStatusStreamService;
+	
+	/**
+	 * 단일 이미지 처리 상태 구독
+	 *
+	 * @param imageId 이미지 ID
+	 * @return status 이벤트 1회 후 종료되는 SSE 스트림
+	 */
+	@GetMapping(value = "/{imageId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> subscribe(@PathVariable(name = "imageId") String imageId) {
+		return stream(imageStatusStreamService.subscribe(List.of(imageId)));
+	}
+	
+	/**
+	 * 다중 이미지 처리 상태 구독 (배치 업로드용)
+	 *
+	 * @param imageIds 이미지 ID 목록 (쉼표 구분, 최대 images.events.max-ids개)
+	 * @return 이미지별 status 이벤트 후 종료되는 SSE 스트림
+	 */
+	@GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public ResponseEntity<SseEmitter> subscribeAll(@RequestParam(name = "ids") List<String> imageIds) {
+		return stream(imageStatusStreamService.subscribe(imageIds));
+	}
+	
+	// nginx 프록시 버퍼링을 끄지 않으면 이벤트가 스트림 종료 시점에 한꺼번에 전달됨
+	private ResponseEntity<SseEmitter> stream(SseEmitter emitter) {
+		return ResponseEntity.ok()
+				.header("X-Accel-Buffering", "no")
+				.body(emitter);
+	}
+}
@@ -0,0 +1,68 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.service.ImageResizeService;
+import com.teambind.image_server.util.convertor.ResizeSpec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 온디맨드 리사이즈 컨트롤러
+ * - GET /images/{imageId}?w=&h=&fit=&q=
+ * - nginx가 캐시 파일을 먼저 찾고(try_files), 없을 때만 이 엔드포인트로 전달됨
+ */
+@RestController
+@RequestMapping("/images")
+public class ImageResizeController {
+	private static final MediaType IMAGE_WEBP = MediaType.parseMediaType("image/webp");
+	
+	private final ImageResizeService imageResizeService;
+	private final int maxDimension;
+	private final int defaultQuality;
+	
+	public ImageResizeController(
+			ImageResizeService imageResizeService,
+			@Value("${images.resize.max-dimension:4096}") int maxDimension,
+			@Value("${images.resize.default-quality:80}") int defaultQuality) {
+		this.imageResizeService = imageResizeService;
+		this.maxDimension = maxDimension;
+		this.defaultQuality = defaultQuality;
+	}
+	
+	/**
+	 * 리사이즈 이미지 조회
+	 *
+	 * @param imageId 이미지 ID
+	 * @param w       가로 폭 (선택)
+	 * @param h       세로 높이 (선택, w/h 중 하나는 필수)
+	 * @param fit     cover | contain | fill (선택, 기본 cover)
+	 * @param q       품질 1~100 (선택)
+	 * @return WebP 이미지
+	 */
+	@GetMapping("/{imageId}")
+	public ResponseEntity<Resource> resize(
+			@PathVariable(name = "imageId") String imageId,
+			@RequestParam(name = "w", required = false) String w,
+			@RequestParam(name = "h", required = false) String h,
+			@RequestParam(name = "fit", required = false) String fit,
+			@RequestParam(name = "q", required = false) String q) {
+		ResizeSpec spec = ResizeSpec.parse(w, h, fit, q, maxDimension, defaultQuality);
+		Path path = imageResizeService.resize(imageId, spec);
+		
+		return ResponseEntity.ok()
+				.contentType(IMAGE_WEBP)
+				.cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePublic().immutable())
+				.body(new FileSystemResource(path));
+	}
+}
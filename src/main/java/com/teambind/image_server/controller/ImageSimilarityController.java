@@ -0,0 +1,36 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.service.ImageSimilarityService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 유사 이미지 검색 컨트롤러
+ * - 지각 해시(dHash) 해밍 거리 기반 근접 중복 검색
+ */
+@RestController
+@RequestMapping("/api/v1/images")
+@RequiredArgsConstructor
+public class ImageSimilarityController {
+	private final ImageSimilarityService imageSimilarityService;
+	
+	/**
+	 * 유사 이미지 조회
+	 *
+	 * @param imageId     기준 이미지 ID
+	 * @param maxDistance 최대 해밍 거리 (0 ~ 15, 기본 10)
+	 * @param limit       최대 결과 수 (기본 20)
+	 * @return 유사 이미지 목록 (id, imageUrl, distance)
+	 */
+	@GetMapping("/{imageId}/similar")
+	public ResponseEntity<List<Map<String, Object>>> findSimilar(
+			@PathVariable(name = "imageId") String imageId,
+			@RequestParam(name = "maxDistance", defaultValue = "10") int maxDistance,
+			@RequestParam(name = "limit", defaultValue = "20") int limit) {
+		return ResponseEntity.ok(imageSimilarityService.findSimilar(imageId, maxDistance, limit));
+	}
+}
@@ -0,0 +1,41 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.event.publish.OutboxDeadLetterStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 아웃박스 dead-letter 관리 컨트롤러
+ * - images.outbox.dead-letter.dir 파일을 조회/재발행 (운영은 공유 볼륨이라 어느 노드로 요청해도 됨)
+ */
+@RestController
+@RequestMapping("/api/v1/admin/outbox/dead-letter")
+@RequiredArgsConstructor
+public class OutboxAdminController {
+	private final OutboxDeadLetterStore outboxDeadLetterStore;
+	
+	/**
+	 * dead-letter 파일에 쌓인 이벤트 수 조회
+	 */
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> current() {
+		return ResponseEntity.ok(Map.of("count", outboxDeadLetterStore.count()));
+	}
+	
+	/**
+	 * dead-letter 이벤트를 아웃박스에 다시 넣어 재발행
+	 *
+	 * @return 다시 넣은 이벤트 수, 더 새로운 상태가 있어 건너뛴 이벤트 수
+	 */
+	@PostMapping("/replay")
+	public ResponseEntity<Map<String, Object>> replay() {
+		OutboxDeadLetterStore.ReplayResult result = outboxDeadLetterStore.replay();
+		return ResponseEntity.ok(Map.of("replayed", result.replayed(), "skipped", result.skipped()));
+	}
+}
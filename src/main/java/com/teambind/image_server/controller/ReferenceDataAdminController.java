@@ -0,0 +1,52 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.config.ReferenceDataRegistry;
+import com.teambind.image_server.service.ReferenceDataRefreshService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * 기준 데이터(참조 타입, 확장자) 관리 컨트롤러
+ * - 참조 타입/확장자 테이블 변경 후 00:30 정기 적재를 기다리지 않고 즉시 반영
+ */
+@RestController
+@RequestMapping("/api/v1/admin/reference-data")
+@RequiredArgsConstructor
+public class ReferenceDataAdminController {
+	private final ReferenceDataRefreshService referenceDataRefreshService;
+	
+	/**
+	 * 현재 스냅샷 정보 조회
+	 */
+	@GetMapping
+	public ResponseEntity<Map<String, Object>> current() {
+		return ResponseEntity.ok(describe(ReferenceDataRegistry.current()));
+	}
+	
+	/**
+	 * 기준 데이터 재적재
+	 *
+	 * @param scope cluster(기본값, 모든 노드) | local(이 노드만)
+	 * @return 교체된 스냅샷 정보 (version, referenceTypes, extensions, loadedAt)
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<Map<String, Object>> refresh(
+			@RequestParam(name = "scope", defaultValue = "cluster") String scope) {
+		ReferenceDataRegistry.Snapshot snapshot = "local".equalsIgnoreCase(scope)
+				? referenceDataRefreshService.refreshLocal()
+				: referenceDataRefreshService.refreshCluster();
+		return ResponseEntity.ok(describe(snapshot));
+	}
+	
+	private Map<String, Object> describe(ReferenceDataRegistry.Snapshot snapshot) {
+		return Map.of(
+				"version", snapshot.version(),
+				"referenceTypes", snapshot.referenceTypes().keySet(),
+				"extensions", snapshot.extensions().keySet(),
+				"loadedAt", snapshot.loadedAt().toString()
+		);
+	}
+}
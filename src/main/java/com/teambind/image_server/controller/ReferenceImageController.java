@@ -0,0 +1,51 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.dto.request.ReferenceImagesBatchRequest;
+import com.teambind.image_server.dto.response.ReferenceImagesResponse;
+import com.teambind.image_server.service.ReferenceImageQueryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * 참조 대상별 이미지 조회 컨트롤러
+ * - 강한 ETag를 응답하며, If-None-Match가 일치하면 본문 없이 304 응답
+ * - 목록 화면용 일괄 조회 (참조 대상 N개를 요청 한 번, IN 쿼리 한 번으로 조회)
+ */
+@RestController
+@RequestMapping("/api/v1/references")
+@RequiredArgsConstructor
+public class ReferenceImageController {
+	private final ReferenceImageQueryService referenceImageQueryService;
+	
+	/**
+	 * 참조 대상의 이미지 목록 조회 (sequence 오름차순)
+	 * - If-None-Match 비교와 304 응답은 ResponseEntity의 ETag로 Spring MVC가 처리
+	 *
+	 * @param referenceId 참조 ID (상품 ID, 게시글 ID 등)
+	 * @return 이미지 목록 (연결된 이미지가 없으면 빈 목록)
+	 */
+	@GetMapping("/{referenceId}/images")
+	public ResponseEntity<ReferenceImagesResponse> getImages(@PathVariable(name = "referenceId") String referenceId) {
+		ReferenceImageQueryService.CachedImages cached = referenceImageQueryService.getImages(referenceId);
+		return ResponseEntity.ok()
+				.eTag(cached.etag())
+				.cacheControl(CacheControl.noCache())
+				.body(cached.response());
+	}
+	
+	/**
+	 * 여러 참조 대상의 이미지 목록 일괄 조회
+	 *
+	 * @param request 참조 ID 목록 (최대 100개), firstOnly (대표 이미지만 응답)
+	 * @return 요청 순서대로 참조 대상별 이미지 목록 (이미지가 없으면 빈 목록)
+	 */
+	@PostMapping("/images:batchGet")
+	public ResponseEntity<List<ReferenceImagesResponse>> batchGetImages(@Valid @RequestBody ReferenceImagesBatchRequest request) {
+		return ResponseEntity.ok(referenceImageQueryService.getImages(request.getReferenceIds(), request.isFirstOnly()));
+	}
+}
@@ -0,0 +1,57 @@
+package com.teambind.image_server.controller;
+
+import com.teambind.image_server.service.StorageReconcileService;
+import com.teambind.image_server.service.StorageReconcileService.ReconcileJob;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 디스크/DB 대조 관리 컨트롤러
+ * - 대조는 백그라운드 작업으로 실행하고 작업 id를 202로 응답
+ * - 다른 노드에서 대조가 실행 중이면 409
+ * - 작업은 시작한 노드에만 보관되므로 nginx를 거치지 않고 같은 노드로 조회
+ */
+@RestController
+@RequestMapping("/api/v1/admin/storage/reconcile")
+@RequiredArgsConstructor
+public class StorageReconcileController {
+	private final StorageReconcileService storageReconcileService;
+	
+	/**
+	 * 고아 파일과 끊어진 경로 보고 작업 시작 (삭제하지 않음)
+	 */
+	@PostMapping
+	public ResponseEntity<ReconcileJob> report() {
+		return start(StorageReconcileService.Mode.REPORT);
+	}
+	
+	/**
+	 * 유예 기간이 지난 고아 파일을 속도 제한을 두고 삭제하는 작업 시작
+	 */
+	@PostMapping("/delete")
+	public ResponseEntity<ReconcileJob> delete() {
+		return start(StorageReconcileService.Mode.DELETE);
+	}
+	
+	/**
+	 * 작업 상태와 결과 조회
+	 */
+	@GetMapping("/jobs/{jobId}")
+	public ResponseEntity<ReconcileJob> job(@PathVariable String jobId) {
+		return storageReconcileService.findJob(jobId)
+				.map(ResponseEntity::ok)
+				.orElseGet(() -> ResponseEntity.notFound().build());
+	}
+	
+	private ResponseEntity<ReconcileJob> start(StorageReconcileService.Mode mode) {
+		return storageReconcileService.start(mode)
+				.map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+				.orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT).build());
+	}
+}
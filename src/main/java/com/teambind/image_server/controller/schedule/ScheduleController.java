@@ -1,6 +1,7 @@
 package com.teambind.image_server.controller.schedule;
 
 
+import com.teambind.image_server.service.ImageCleanupService;
 import com.teambind.image_server.service.ScheduleService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -17,8 +18,8 @@ public class ScheduleController {
 	
 	// Crown Job By Api
 	@GetMapping("/cleanup")
-	public void cleanup() {
-		scheduleService.cleanUpUnusedImages();
+	public ImageCleanupService.CleanupResult cleanup() {
+		return scheduleService.cleanUpUnusedImages();
 	}
 	
 }
@@ -0,0 +1,23 @@
+package com.teambind.image_server.dto.request;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReferenceImagesBatchRequest {
+	
+	@NotNull(message = "참조 ID 리스트는 필수입니다")
+	@Size(min = 1, max = 100, message = "참조 ID는 1개 이상 100개 이하로 요청해야 합니다")
+	private List<@NotBlank(message = "참조 ID는 빈 값일 수 없습니다") String> referenceIds;
+	
+	// true이면 참조 대상별 대표 이미지(sequence 0)만 응답
+	private boolean firstOnly;
+}
@@ -0,0 +1,19 @@
+package com.teambind.image_server.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 참조 대상에 연결된 이미지 (순서 포함)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReferenceImageResponse {
+	private String imageId;
+	private String imageUrl;
+	private Integer sequence;
+}
@@ -0,0 +1,20 @@
+package com.teambind.image_server.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 참조 대상별 이미지 목록 (sequence 오름차순, 첫 번째가 대표 이미지)
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReferenceImagesResponse {
+	private String referenceId;
+	private List<ReferenceImageResponse> images;
+}
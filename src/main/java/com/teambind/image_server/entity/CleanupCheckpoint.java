@@ -0,0 +1,44 @@
+package com.teambind.image_server.entity;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 정리 작업 진행 위치 (샤드 + 상태별 키셋 커서)
+ * <p>
+ * 청크를 지울 때마다 같은 트랜잭션에서 마지막 행의 (created_at, image_id)를 기록하므로,
+ * 실행 중 노드가 죽어도 다음 실행이 그 위치부터 이어서 처리합니다. 해당 상태를 끝까지 처리하면 커서를 비웁니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Entity
+@Table(name = "cleanup_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CleanupCheckpoint {
+	// {샤드 이름}:{상태} (예: cleanup-shard-0:TEMP)
+	@Id
+	@Column(name = "name", length = 64)
+	private String name;
+	
+	// 마지막으로 지운 행 (처음부터 처리하면 NULL)
+	@Column(name = "cursor_created_at")
+	private LocalDateTime cursorCreatedAt;
+	
+	@Column(name = "cursor_image_id")
+	private String cursorImageId;
+	
+	// 누적 삭제 행 수
+	@Column(name = "deleted_rows", nullable = false)
+	private long deletedRows;
+	
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+}
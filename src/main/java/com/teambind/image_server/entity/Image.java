@@ -10,7 +10,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "images")
+@Table(
+		name = "images",
+		indexes = @Index(name = "idx_images_status_created", columnList = "status, created_at, image_id")
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -47,6 +50,10 @@ public class Image {
 	@OneToMany(mappedBy = "image", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<StatusHistory> statusHistories = new ArrayList<>();
 	
+	@OneToMany(mappedBy = "image", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+	@Builder.Default
+	private List<ImageVariant> variants = new ArrayList<>();
+	
 	
 	@Column(name = "created_at", updatable = false)
 	private LocalDateTime createdAt;
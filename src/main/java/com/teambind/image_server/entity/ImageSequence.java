@@ -34,10 +34,12 @@ import java.util.Objects;
 public class ImageSequence implements Comparable<ImageSequence> {
 	
 	/**
-	 * 기본 키 (Auto Increment)
+	 * 기본 키 (시퀀스, 50개 단위로 미리 할당)
+	 * IDENTITY는 INSERT마다 키를 받아와야 해서 JDBC 배치가 꺼지므로 시퀀스를 사용합니다.
 	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_sequence_seq")
+	@SequenceGenerator(name = "image_sequence_seq", sequenceName = "image_sequence_seq", allocationSize = 50)
 	@Column(name = "id")
 	private Long id;
 	
@@ -0,0 +1,72 @@
+package com.teambind.image_server.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 이미지 변형 엔티티
+ * <p>
+ * 원본 이미지를 참조 타입별 프로파일 폭으로 리사이즈한 WebP 파일 정보입니다.
+ * 가장 작은 변형이 썸네일로 표시됩니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Entity
+@Table(name = "image_variants")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageVariant {
+	// IDENTITY는 JDBC 배치를 막으므로 시퀀스 (50개 단위 할당)
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "image_variants_seq")
+	@SequenceGenerator(name = "image_variants_seq", sequenceName = "image_variants_seq", allocationSize = 50)
+	private Long id;
+	
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
+	@JoinColumn(name = "image_id")
+	private Image image;
+	
+	/**
+	 * 변형 코드 (예: W320, W640)
+	 */
+	@Column(name = "variant_code", nullable = false, length = 32)
+	private String variantCode;
+	
+	@Column(name = "is_thumbnail", nullable = false)
+	private boolean isThumbnail;
+	
+	@Column(name = "uploader_id")
+	private String uploaderId;
+	
+	@Column(name = "uploaded_at")
+	private LocalDateTime uploadedAt;
+	
+	private Integer width;
+	
+	private Integer height;
+	
+	@Column(length = 1000)
+	private String url;
+	
+	@Column(name = "storage_location", length = 1000)
+	private String storageLocation;
+	
+	@Column(name = "file_size")
+	private Long fileSize;
+	
+	/**
+	 * 폭 기준 변형 코드 생성
+	 *
+	 * @param width 변형 폭
+	 * @return 변형 코드 (예: W320)
+	 */
+	public static String codeOf(int width) {
+		return "W" + width;
+	}
+}
@@ -0,0 +1,64 @@
+package com.teambind.image_server.entity;
+
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka 발행 대기 이벤트 (트랜잭셔널 아웃박스)
+ * <p>
+ * 이미지 확정 등 도메인 변경과 같은 트랜잭션에서 저장되고,
+ * OutboxRelay가 커밋된 행을 선점(claimed_by/claimed_at)하여 일괄 발행한 뒤 삭제합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Entity
+@Table(name = "event_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+	// 릴레이의 발행/병합 순서 기준이므로 커밋 순서를 따르는 AUTO_INCREMENT 사용
+	// (노드마다 50개씩 미리 할당받는 시퀀스는 노드 간 id 순서가 커밋 순서와 달라짐)
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	@Column(name = "topic", nullable = false)
+	private String topic;
+	
+	// Kafka 메시지 키 (없으면 NULL)
+	@Column(name = "event_key")
+	private String eventKey;
+	
+	// JSON 직렬화된 메시지
+	@Lob
+	@Column(name = "payload", nullable = false)
+	private String payload;
+	
+	@Column(name = "created_at", nullable = false)
+	private LocalDateTime createdAt;
+	
+	// 발행 실패 횟수 (성공하면 행이 삭제됨)
+	@Column(name = "attempts", nullable = false)
+	private int attempts;
+	
+	@Column(name = "last_error", length = 1000)
+	private String lastError;
+	
+	// 다음 발행 시도 시각 (실패 후 지수 백오프, 아직 실패한 적 없으면 NULL)
+	@Column(name = "next_attempt_at")
+	private LocalDateTime nextAttemptAt;
+	
+	// 발행 중인 릴레이 실행 토큰과 선점 시각 (발행 대기 중이면 NULL)
+	@Column(name = "claimed_by", length = 36)
+	private String claimedBy;
+	
+	@Column(name = "claimed_at")
+	private LocalDateTime claimedAt;
+}
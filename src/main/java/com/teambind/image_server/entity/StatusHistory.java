@@ -15,8 +15,10 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 public class StatusHistory {
+	// IDENTITY는 JDBC 배치를 막으므로 시퀀스 (50개 단위 할당)
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "status_history_seq")
+	@SequenceGenerator(name = "status_history_seq", sequenceName = "status_history_seq", allocationSize = 50)
 	private Long id;
 	
 	@ManyToOne(fetch = FetchType.LAZY, optional = false)
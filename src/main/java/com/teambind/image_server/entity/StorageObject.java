@@ -38,4 +38,12 @@ public class StorageObject {
 	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "converted_format_id")
 	private Extension convertedFormat;
+	
+	// 원본 업로드 바이트의 SHA-256 (중복 업로드 재사용 키, 같은 파일을 여러 행이 공유할 수 있음)
+	@Column(name = "content_hash", length = 64)
+	private String contentHash;
+	
+	// 변환된 이미지의 64비트 dHash (근접 중복 검색용, 변환 실패 폴백 시 NULL)
+	@Column(name = "perceptual_hash")
+	private Long perceptualHash;
 }
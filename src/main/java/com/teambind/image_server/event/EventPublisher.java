@@ -2,55 +2,88 @@ package com.teambind.image_server.event;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teambind.image_server.entity.OutboxEvent;
+import com.teambind.image_server.metrics.EventPublishMetrics;
+import com.teambind.image_server.repository.OutboxEventRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.retry.support.RetryTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.concurrent.TimeUnit;
-
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Kafka 이벤트 발행
+ * <p>
+ * - publish: 호출한 트랜잭션 안에서 아웃박스(event_outbox)에 저장하고, 커밋 후 OutboxRelay가 일괄 발행
+ * 도메인 변경이 롤백되면 이벤트도 남지 않고, Kafka 장애가 요청 지연으로 이어지지 않습니다.
+ * - sendAsync: 아웃박스를 거치지 않는 즉시 비동기 발행 (노드 간 제어 메시지처럼 유실돼도 되는 메시지용)
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventPublisher {
 	private final KafkaTemplate<String, Object> kafkaTemplate;
 	private final ObjectMapper objectMapper;
-	private final RetryTemplate kafkaRetryTemplate;
-
-
+	private final OutboxEventRepository outboxEventRepository;
+	private final EventPublishMetrics metrics;
+	
+	/**
+	 * 아웃박스에 이벤트 저장 (반드시 도메인 변경과 같은 트랜잭션에서 호출)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
 	public void publish(String topic, Object message) {
+		publish(topic, null, message);
+	}
+	
+	/**
+	 * 키를 지정하여 아웃박스에 이벤트 저장
+	 * - 같은 키는 같은 파티션으로 발행되어 순서가 보장되고, 릴레이가 최신 상태 하나로 병합함
+	 * - 키가 있으면 도메인 변경을 먼저 flush하여 같은 키의 동시 변경과 행 잠금으로 직렬화된 뒤 id(AUTO_INCREMENT)를 받음
+	 *   (릴레이는 같은 키 안에서 id 순서를 커밋 순서로 보고 병합함)
+	 *
+	 * @param key 메시지 키 (referenceId)
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void publish(String topic, String key, Object message) {
+		if (key != null) {
+			outboxEventRepository.flush();
+		}
+		outboxEventRepository.save(OutboxEvent.builder()
+				.topic(topic)
+				.eventKey(key)
+				.payload(toJson(topic, message))
+				.createdAt(LocalDateTime.now())
+				.build());
+		log.debug("Event stored in outbox: topic={}", topic);
+	}
+	
+	/**
+	 * 즉시 비동기 발행 (결과를 기다리지 않으며 실패는 로그와 메트릭만 남김)
+	 */
+	public void sendAsync(String topic, Object message) {
+		String payload = toJson(topic, message);
+		long startNanos = metrics.sendStarted();
+		CompletableFuture<?> future;
 		try {
-			String json = objectMapper.writeValueAsString(message);
-			
-			// 재시도 로직 적용
-			kafkaRetryTemplate.execute(
-					context -> {
-						// 재시도 시도
-						try {
-							log.debug("Attempting to publish to Kafka: topic={}, attempt={}",
-									topic, context.getRetryCount() + 1);
-							
-							// 동기 방식으로 전송 결과 확인
-							kafkaTemplate.send(topic, json).get(5, TimeUnit.SECONDS);
-							
-							log.info("Event published successfully: topic={}", topic);
-							return null;
-						} catch (Exception e) {
-							log.warn("Kafka publish failed (attempt {}): topic={}, error={}",
-									context.getRetryCount() + 1, topic, e.getMessage());
-							throw new RuntimeException("Kafka send failed", e);
-						}
-					},
-					context -> {
-						// 모든 재시도 실패 시
-						log.error("All retry attempts exhausted for Kafka publish: topic={}, totalAttempts={}",
-								topic, context.getRetryCount());
-						return null;
-					}
-			);
-
+			future = kafkaTemplate.send(topic, payload);
+		} catch (RuntimeException e) {
+			future = CompletableFuture.failedFuture(e);
+		}
+		future.whenComplete((result, e) -> {
+			metrics.sendCompleted(topic, startNanos, e);
+			if (e != null) {
+				log.warn("Kafka publish failed: topic={}, error={}", topic, e.getMessage());
+			}
+		});
+	}
+	
+	private String toJson(String topic, Object message) {
+		try {
+			return objectMapper.writeValueAsString(message);
 		} catch (JsonProcessingException e) {
 			log.error("Failed to serialize message to JSON: topic={}", topic, e);
 			throw new RuntimeException("Failed to serialize message to JSON", e);
@@ -0,0 +1,24 @@
+package com.teambind.image_server.event.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 노드 간 제어 메시지 (컨트롤 토픽)
+ * - type: 제어 종류 (예: REFERENCE_DATA_REFRESH)
+ * - key: 제어 대상 (예: 캐시 무효화할 referenceId, 없으면 null)
+ * - originNodeId: 발행한 노드 (자기 메시지는 무시)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ControlMessage {
+	public static final String REFERENCE_DATA_REFRESH = "REFERENCE_DATA_REFRESH";
+	public static final String REFERENCE_IMAGES_INVALIDATE = "REFERENCE_IMAGES_INVALIDATE";
+	
+	private String type;
+	private String key;
+	private String originNodeId;
+	private String issuedAt;
+}
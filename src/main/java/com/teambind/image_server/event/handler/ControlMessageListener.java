@@ -0,0 +1,58 @@
+package com.teambind.image_server.event.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teambind.image_server.event.events.ControlMessage;
+import com.teambind.image_server.event.publish.ControlMessagePublisher;
+import com.teambind.image_server.service.ReferenceDataRefreshService;
+import com.teambind.image_server.service.ReferenceImageQueryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * 컨트롤 토픽 리스너
+ * <p>
+ * 모든 노드가 메시지를 받아야 하므로 노드마다 고유한 컨슈머 그룹을 사용하고,
+ * 재시작한 노드가 지난 메시지를 재처리하지 않도록 latest부터 읽습니다. (시작 시 어차피 전체 적재)
+ * images.control.enabled=false이면 리스너를 시작하지 않습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ControlMessageListener {
+	
+	private final ControlMessagePublisher controlMessagePublisher;
+	private final ReferenceDataRefreshService referenceDataRefreshService;
+	private final ReferenceImageQueryService referenceImageQueryService;
+	private final ObjectMapper objectMapper;
+	
+	@KafkaListener(
+			id = "imageServerControlListener",
+			topics = "${images.control.topic:image-server-control}",
+			groupId = "image-server-control-#{T(java.util.UUID).randomUUID().toString()}",
+			autoStartup = "${images.control.enabled:true}",
+			properties = "auto.offset.reset=latest")
+	public void onMessage(String payload) {
+		ControlMessage message;
+		try {
+			message = objectMapper.readValue(payload, ControlMessage.class);
+		} catch (JsonProcessingException e) {
+			log.warn("Ignoring malformed control message: payload={}", payload);
+			return;
+		}
+		if (controlMessagePublisher.isOwn(message) || message.getType() == null) {
+			return;
+		}
+		
+		switch (message.getType()) {
+			case ControlMessage.REFERENCE_DATA_REFRESH -> referenceDataRefreshService.handle(message);
+			case ControlMessage.REFERENCE_IMAGES_INVALIDATE -> referenceImageQueryService.evictLocal(message.getKey());
+			default -> log.debug("Ignoring unknown control message: type={}", message.getType());
+		}
+	}
+}
@@ -5,6 +5,7 @@ import com.teambind.image_server.entity.ImageSequence;
 import com.teambind.image_server.event.events.ImagesConfirmedEvent;
 import com.teambind.image_server.event.publish.ImageChangeEventPublisher;
 import com.teambind.image_server.service.ImageSequenceService;
+import com.teambind.image_server.service.ReferenceImageQueryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -16,8 +17,8 @@ import java.util.List;
 /**
  * 이미지 시퀀스 관련 이벤트 핸들러
  * <p>
- * 이미지 확정 이벤트를 받아서 ImageSequence를 생성하고 외부 이벤트를 발행합니다.
- * TransactionalEventListener를 사용하여 트랜잭션 내에서 안전하게 처리됩니다.
+ * 이미지 확정 이벤트를 받아서 ImageSequence를 갱신하고 외부 이벤트를 아웃박스에 저장합니다.
+ * TransactionalEventListener를 사용하여 확정 트랜잭션과 함께 처리됩니다.
  *
  * @author Image Server Team
  * @since 2.0
@@ -29,25 +30,26 @@ public class ImageSequenceEventHandler {
 	
 	private final ImageSequenceService imageSequenceService;
 	private final ImageChangeEventPublisher eventPublisher;
+	private final ReferenceImageQueryService referenceImageQueryService;
 	
 	/**
 	 * 이미지 확정 이벤트 핸들러
 	 * <p>
-	 * 트랜잭션 커밋 후에 실행되며, 다음 단계로 진행됩니다:
-	 * 1. ImageSequence 재생성 (기존 삭제 + 새로 생성)
-	 * 2. 외부 시스템에 이미지 변경 이벤트 발행
+	 * 확정 트랜잭션의 커밋 직전에 같은 트랜잭션 안에서 실행되며, 다음 단계로 진행됩니다:
+	 * 1. ImageSequence 갱신 (삭제/이동/추가된 이미지만 반영)
+	 * 2. 외부 시스템용 이미지 변경 이벤트를 아웃박스에 저장
 	 * <p>
-	 * AFTER_COMMIT을 사용하여 DB 커밋이 성공한 후에만 Kafka 발행을 수행합니다.
-	 * 이를 통해 DB 저장의 안전성을 보장하고, Kafka 발행 실패가 DB 트랜잭션에 영향을 주지 않도록 합니다.
-	 * Kafka 발행 실패 시에도 DB는 안전하게 저장됩니다.
+	 * 이미지 상태, 시퀀스, 아웃박스가 한 트랜잭션으로 커밋되므로 어느 하나만 반영되는 일이 없고,
+	 * 실제 Kafka 발행은 커밋 후 OutboxRelay가 수행하므로 Kafka 장애가 확정 요청을 지연시키지 않습니다.
+	 * 여기서 예외가 나면 확정 전체가 롤백됩니다.
 	 *
 	 * @param event 이미지 확정 이벤트
 	 */
-	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	@TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
 	public void handleImagesConfirmed(ImagesConfirmedEvent event) {
 		log.info("Handling ImagesConfirmedEvent: referenceId={}, imageCount={}",
 				event.getReferenceId(), event.getImageCount());
-
+		
 		try {
 			// 1. 이미지가 없는 경우 (전체 삭제)
 			if (event.isEmpty()) {
@@ -55,27 +57,27 @@ public class ImageSequenceEventHandler {
 						event.getReferenceId());
 				imageSequenceService.deleteSequences(event.getReferenceId());
 				
-				// 전체 삭제 이벤트 발행 (빈 배열)
+				// 전체 삭제 이벤트 저장 (빈 배열)
 				if (event.getReferenceTypeCode() != null) {
 					eventPublisher.imagesDeletedEvent(event.getReferenceId(), event.getReferenceTypeCode());
-					log.info("Published empty array deletion event for referenceId: {}", event.getReferenceId());
+					log.info("Stored empty array deletion event for referenceId: {}", event.getReferenceId());
 				}
 				return;
 			}
 			
-			// 2. ImageSequence 재생성 (기존 삭제 + 새로 생성)
-			List<ImageSequence> sequences = imageSequenceService.recreateSequences(
+			// 2. ImageSequence 갱신 (기존 시퀀스와 비교하여 바뀐 부분만 반영)
+			List<ImageSequence> sequences = imageSequenceService.syncSequences(
 					event.getReferenceId(),
 					event.getConfirmedImages()
 			);
 			
-			log.info("Created {} image sequences for referenceId: {}",
+			log.info("Synced {} image sequences for referenceId: {}",
 					sequences.size(), event.getReferenceId());
 			
-			// 3. 외부 이벤트 발행 (Kafka, RabbitMQ 등)
+			// 3. 외부 이벤트 저장 (커밋 후 OutboxRelay가 Kafka로 발행)
 			if (!sequences.isEmpty()) {
 				eventPublisher.imagesChangeEvent(sequences);
-				log.info("Published image change event for referenceId: {}",
+				log.info("Stored image change event for referenceId: {}",
 						event.getReferenceId());
 			}
 			
@@ -85,4 +87,13 @@ public class ImageSequenceEventHandler {
 			throw e; // 예외를 다시 던져서 트랜잭션 롤백
 		}
 	}
+	
+	/**
+	 * 확정 커밋 후 참조 이미지 조회 캐시 무효화 (다른 노드에도 전파)
+	 * - 커밋 이후에 무효화해야 다시 채워지는 값이 새 시퀀스가 됨
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+	public void evictReferenceImages(ImagesConfirmedEvent event) {
+		referenceImageQueryService.evict(event.getReferenceId());
+	}
 }
@@ -0,0 +1,54 @@
+package com.teambind.image_server.event.publish;
+
+import com.teambind.image_server.event.EventPublisher;
+import com.teambind.image_server.event.events.ControlMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * 노드 간 제어 메시지 발행
+ * <p>
+ * 프로세스마다 고유한 nodeId를 붙여 발행하며, 리스너는 isOwn()으로 자기 메시지를 걸러냅니다.
+ * images.control.enabled=false이면 발행하지 않습니다. (단일 노드, 테스트)
+ * 캐시 무효화처럼 커밋 이후에 호출되고 유실돼도 TTL로 복구되는 메시지이므로 아웃박스를 거치지 않고 바로 보냅니다.
+ */
+@Component
+@Slf4j
+public class ControlMessagePublisher {
+	
+	private final String nodeId = UUID.randomUUID().toString();
+	
+	private final EventPublisher eventPublisher;
+	private final boolean enabled;
+	private final String topic;
+	
+	public ControlMessagePublisher(
+			EventPublisher eventPublisher,
+			@Value("${images.control.enabled:true}") boolean enabled,
+			@Value("${images.control.topic:image-server-control}") String topic) {
+		this.eventPublisher = eventPublisher;
+		this.enabled = enabled;
+		this.topic = topic;
+	}
+	
+	/**
+	 * 제어 메시지 발행
+	 *
+	 * @param type 제어 종류 (ControlMessage 상수)
+	 * @param key  대상 키 (없으면 null)
+	 */
+	public void publish(String type, String key) {
+		if (!enabled) {
+			return;
+		}
+		eventPublisher.sendAsync(topic, new ControlMessage(type, key, nodeId, Instant.now().toString()));
+	}
+	
+	public boolean isOwn(ControlMessage message) {
+		return nodeId.equals(message.getOriginNodeId());
+	}
+}
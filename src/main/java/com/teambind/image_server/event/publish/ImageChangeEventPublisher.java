@@ -24,14 +24,14 @@ public class ImageChangeEventPublisher {
 		if (image == null) return;
 		String topic = image.getReferenceType().getCode().toLowerCase() + "-image-changed";
 		ImageChangeEvent imageChangeEvent = new ImageChangeEvent(image.getReferenceId(), image.getReferenceId(), image.getImageUrl());
-		eventPublisher.publish(topic, imageChangeEvent);
+		eventPublisher.publish(topic, image.getReferenceId(), imageChangeEvent);
 	}
 	
 	public void imageDeletedEvent(String referenceId) {
 		if (referenceId == null) return;
 		String topic = InitialSetup.ALL_REFERENCE_TYPE_MAP.get(referenceId).getCode().toLowerCase() + "-image-changed";
 		ImageChangeEvent imageChangeEvent = new ImageChangeEvent(referenceId, null, null);
-		eventPublisher.publish(topic, imageChangeEvent);
+		eventPublisher.publish(topic, referenceId, imageChangeEvent);
 	}
 	
 	public void imagesChangeEvent(List<ImageSequence> imageSequences) {
@@ -58,9 +58,9 @@ public class ImageChangeEventPublisher {
 			events.add(event);
 		}
 		
-		// Wrapper로 감싸서 발행
+		// Wrapper로 감싸서 발행 (referenceId 키: 같은 참조 대상의 변경은 같은 파티션에서 순서대로 소비)
 		ImagesChangeEventWrapper wrapper = new ImagesChangeEventWrapper(referenceId, events);
-		eventPublisher.publish(topic, wrapper);
+		eventPublisher.publish(topic, referenceId, wrapper);
 	}
 	
 	/**
@@ -76,6 +76,6 @@ public class ImageChangeEventPublisher {
 		
 		String topic = referenceType.toLowerCase() + "-image-changed";
 		ImagesChangeEventWrapper wrapper = new ImagesChangeEventWrapper(referenceId, List.of());
-		eventPublisher.publish(topic, wrapper);
+		eventPublisher.publish(topic, referenceId, wrapper);
 	}
 }
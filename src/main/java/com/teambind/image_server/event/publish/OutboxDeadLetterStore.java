@@ -0,0 +1,192 @@
+package com.teambind.image_server.event.publish;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teambind.image_server.entity.OutboxEvent;
+import com.teambind.image_server.repository.OutboxEventRepository;
+import com.teambind.image_server.repository.OutboxJdbcRepository;
+import com.teambind.image_server.repository.OutboxJdbcRepository.OutboxRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 아웃박스 dead-letter 파일
+ * <p>
+ * 재시도 기간(dead-letter-after-ms)이 지나도록 발행하지 못한 이벤트를 JSONL 파일에 한 줄씩 추가하고(fsync), 아웃박스에서는 삭제합니다.
+ * 계속 실패하는 이벤트(메시지 크기 초과, 토픽 없음 등)가 재시도를 반복하며 릴레이 주기를 끊지 않게 하기 위함입니다.
+ * <p>
+ * 원인을 해결한 뒤 replay로 파일의 이벤트를 아웃박스에 다시 넣으면 릴레이가 발행합니다.
+ * (파일 기록 후 아웃박스 삭제 전에 실패하면 같은 이벤트가 두 번 발행될 수 있음, at-least-once)
+ * <p>
+ * 키가 있는 이벤트는 referenceId의 전체 상태를 담고 있으므로, 오래된 이벤트를 다시 발행하면 그 사이의 최신 상태를 덮습니다.
+ * 그래서 replay는 같은 키의 이벤트 중 가장 최근 것만 남기고, 원래 저장 시각 이후 같은 키에 더 새로운 상태가 있으면
+ * (아웃박스에 같은 키의 행이 있거나 image_sequence가 바뀐 경우) 다시 넣지 않고 건너뜁니다.
+ * 건너뛴 이벤트도 파일에서는 지워집니다. (최신 상태가 이미 발행되었거나 발행될 예정)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class OutboxDeadLetterStore {
+	
+	private static final String FILE_NAME = "outbox-dead-letter.jsonl";
+	
+	private final OutboxEventRepository outboxEventRepository;
+	private final OutboxJdbcRepository outboxJdbcRepository;
+	private final ObjectMapper objectMapper;
+	private final Path file;
+	
+	public OutboxDeadLetterStore(
+			OutboxEventRepository outboxEventRepository,
+			OutboxJdbcRepository outboxJdbcRepository,
+			ObjectMapper objectMapper,
+			@Value("${images.outbox.dead-letter.dir:./dead-letter}") String dir) {
+		this.outboxEventRepository = outboxEventRepository;
+		this.outboxJdbcRepository = outboxJdbcRepository;
+		this.objectMapper = objectMapper;
+		this.file = Path.of(dir).resolve(FILE_NAME);
+	}
+	
+	/**
+	 * 이벤트를 파일 끝에 추가 (반환 시점에 디스크에 기록됨)
+	 */
+	public synchronized void append(List<OutboxRow> rows, String lastError) {
+		StringBuilder lines = new StringBuilder();
+		LocalDateTime failedAt = LocalDateTime.now();
+		for (OutboxRow row : rows) {
+			lines.append(toJson(new DeadLetter(row.topic(), row.eventKey(), row.payload(),
+					row.attempts() + 1, lastError, failedAt.toString(), row.createdAt().toString()))).append('\n');
+		}
+		try {
+			Files.createDirectories(file.getParent());
+			try (FileChannel channel = FileChannel.open(file,
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				channel.force(true);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to write outbox dead-letter file: " + file, e);
+		}
+		log.error("Moved {} outbox events to dead-letter file {}: error={}", rows.size(), file, lastError);
+	}
+	
+	/**
+	 * 파일에 쌓인 이벤트 수
+	 */
+	public synchronized int count() {
+		return readAll().size();
+	}
+	
+	/**
+	 * 파일의 이벤트를 아웃박스에 다시 넣고 파일을 비움 (저장 순서 유지)
+	 * - 같은 키는 가장 최근 이벤트만, 그 이후 더 새로운 상태가 없는 경우에만 다시 넣음
+	 */
+	@Transactional
+	public synchronized ReplayResult replay() {
+		List<DeadLetter> letters = readAll();
+		if (letters.isEmpty()) {
+			return new ReplayResult(0, 0);
+		}
+		
+		// 같은 (topic, key)는 파일에서 마지막 이벤트만 (키 없는 이벤트는 모두)
+		Map<Object, DeadLetter> latest = new LinkedHashMap<>();
+		for (int i = 0; i < letters.size(); i++) {
+			DeadLetter letter = letters.get(i);
+			Object identity = letter.key() != null ? List.of(letter.topic(), letter.key()) : i;
+			latest.remove(identity);
+			latest.put(identity, letter);
+		}
+		
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxEvent> events = new ArrayList<>(latest.size());
+		for (DeadLetter letter : latest.values()) {
+			if (letter.key() != null
+					&& outboxJdbcRepository.hasNewerState(letter.topic(), letter.key(), letter.storedAt())) {
+				log.info("Skipping stale dead letter, newer state exists: topic={}, key={}, createdAt={}",
+						letter.topic(), letter.key(), letter.storedAt());
+				continue;
+			}
+			events.add(OutboxEvent.builder()
+					.topic(letter.topic())
+					.eventKey(letter.key())
+					.payload(letter.payload())
+					.createdAt(now)
+					.build());
+		}
+		outboxEventRepository.saveAllAndFlush(events);
+		try {
+			Files.delete(file);
+		} catch (IOException e) {
+			// 파일이 남으면 다음 replay에서 중복 저장되므로 트랜잭션을 롤백
+			throw new UncheckedIOException("Failed to clear outbox dead-letter file: " + file, e);
+		}
+		int skipped = letters.size() - events.size();
+		log.info("Replayed {} outbox events from dead-letter file {}, skipped={}", events.size(), file, skipped);
+		return new ReplayResult(events.size(), skipped);
+	}
+	
+	private List<DeadLetter> readAll() {
+		if (!Files.exists(file)) {
+			return List.of();
+		}
+		try {
+			List<DeadLetter> letters = new ArrayList<>();
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				if (!line.isBlank()) {
+					letters.add(objectMapper.readValue(line, DeadLetter.class));
+				}
+			}
+			return letters;
+		} catch (IOException e) {
+			throw new UncheckedIOException("Failed to read outbox dead-letter file: " + file, e);
+		}
+	}
+	
+	private String toJson(DeadLetter letter) {
+		try {
+			return objectMapper.writeValueAsString(letter);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Failed to serialize dead letter", e);
+		}
+	}
+	
+	/**
+	 * dead-letter 파일 한 줄
+	 *
+	 * @param createdAt 아웃박스에 처음 저장된 시각 (이 필드가 없던 이전 파일은 failedAt으로 대신함)
+	 */
+	record DeadLetter(String topic, String key, String payload, int attempts, String lastError, String failedAt,
+	                  String createdAt) {
+		
+		LocalDateTime storedAt() {
+			return LocalDateTime.parse(createdAt != null ? createdAt : failedAt);
+		}
+	}
+	
+	/**
+	 * @param replayed 아웃박스에 다시 넣은 수
+	 * @param skipped  같은 키의 더 최근 이벤트나 더 새로운 상태가 있어 건너뛴 수
+	 */
+	public record ReplayResult(int replayed, int skipped) {
+	}
+}
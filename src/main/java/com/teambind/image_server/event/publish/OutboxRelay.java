@@ -0,0 +1,290 @@
+package com.teambind.image_server.event.publish;
+
+import com.teambind.image_server.metrics.EventPublishMetrics;
+import com.teambind.image_server.repository.OutboxJdbcRepository;
+import com.teambind.image_server.repository.OutboxJdbcRepository.OutboxRow;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 아웃박스 릴레이
+ * <p>
+ * 커밋된 event_outbox 행을 오래된 순으로 batch-size만큼 선점(claimed_by/claimed_at UPDATE 후 바로 커밋)하고,
+ * 트랜잭션 밖에서 한꺼번에 비동기 전송한 뒤 결과를 모아 짧은 트랜잭션에서 성공한 행은 삭제,
+ * 실패한 행은 attempts를 올리고 선점을 풀어 지수 백오프(retry-backoff-ms × 2^실패 횟수, 상한 retry-backoff-max-ms) 뒤에 재시도합니다.
+ * 전송을 기다리는 동안 아웃박스에 잠금을 잡고 있지 않으므로 확정 트랜잭션의 INSERT를 막지 않습니다.
+ * <p>
+ * 키 병합: 배치 안에서 같은 (topic, key)의 이벤트는 최신 상태(가장 큰 id) 하나만 발행하고 나머지는 삭제합니다.
+ * 저장 후 coalesce-window-ms가 지난 이벤트만 가져오므로, 게시글을 연달아 저장해도 그 사이의 확정은 하나로 합쳐집니다.
+ * 최신 행을 발행하면 백오프로 배치에 들어오지 못한 같은 키의 이전 행도 함께 삭제하여, 재시도된 이전 상태가 최신 상태를 덮지 않게 합니다.
+ * (이미지 변경 이벤트는 referenceId의 전체 이미지 목록을 담고 있어 최신 이벤트만으로 충분함, 키가 없는 이벤트는 병합하지 않음)
+ * <p>
+ * 순서 보장: 같은 키는 같은 파티션으로 가고, 배치 안에서는 id 순으로 전송합니다.
+ * id는 AUTO_INCREMENT이고, 같은 키(referenceId)의 이벤트는 도메인 행(image_sequence, images) 잠금을 잡은 뒤에 저장되므로
+ * (EventPublisher가 저장 전에 flush) 같은 키 안에서는 나중에 커밋된 이벤트가 항상 더 큰 id를 가집니다.
+ * (병합 시 "가장 큰 id = 최신 상태"의 근거)
+ * 노드 간에는 ShedLock(outbox-relay)으로 한 번에 하나의 릴레이만 동작하므로 뒤의 이벤트가 앞의 이벤트를 앞지르지 않습니다.
+ * 잠금과 선점은 claim-timeout-ms 뒤에 만료되므로, 릴레이가 도중에 죽어도 다른 노드가 남은 행을 다시 가져갑니다.
+ * <p>
+ * - 전송은 멱등 프로듀서(enable.idempotence, acks=all)로 하므로 프로듀서 재시도로 인한 중복은 생기지 않음
+ * - 전송 후 삭제 전에 프로세스가 죽으면 다시 발행될 수 있음 (at-least-once)
+ * - 가득 찬 배치를 처리했으면 같은 주기 안에서 이어서 처리하고, 실패가 있으면 다음 주기로 미룸
+ * - 저장 후 dead-letter-after-ms가 지나도록 발행하지 못한 이벤트는 dead-letter 파일로 옮기고 아웃박스에서 삭제 (OutboxDeadLetterStore)
+ *   (시도 횟수가 아닌 경과 시간 기준이므로 짧은 Kafka 장애 동안 쌓인 이벤트는 백오프로 재시도되다가 복구 후 발행됨)
+ * - 전송 지연/실패/in-flight 수는 send 완료 콜백에서 기록 (EventPublishMetrics)
+ * - 발행 대기 행 수는 잠금을 잡은 노드가 PENDING_COUNT_INTERVAL마다 한 번 COUNT해 기록 (잠금이 없는 노드는 0)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+	
+	private static final String LOCK_NAME = "outbox-relay";
+	
+	// 발행 대기 행 수(COUNT) 갱신 주기 (릴레이 주기마다 세지 않음)
+	private static final long PENDING_COUNT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(15);
+	
+	private final OutboxJdbcRepository outboxJdbcRepository;
+	private final KafkaTemplate<String, Object> kafkaTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final LockProvider lockProvider;
+	private final OutboxDeadLetterStore deadLetterStore;
+	private final EventPublishMetrics metrics;
+	private final boolean enabled;
+	private final int batchSize;
+	private final long sendTimeoutMillis;
+	private final long coalesceWindowMillis;
+	private final Duration deadLetterAfter;
+	private final Duration retryBackoff;
+	private final Duration retryBackoffMax;
+	private final Duration claimTimeout;
+	
+	// 다음 COUNT 시각 (스케줄러 스레드에서만 접근)
+	private long nextPendingCountNanos = System.nanoTime();
+	
+	public OutboxRelay(
+			OutboxJdbcRepository outboxJdbcRepository,
+			KafkaTemplate<String, Object> kafkaTemplate,
+			TransactionTemplate transactionTemplate,
+			LockProvider lockProvider,
+			OutboxDeadLetterStore deadLetterStore,
+			EventPublishMetrics metrics,
+			@Value("${images.outbox.relay.enabled:true}") boolean enabled,
+			@Value("${images.outbox.relay.batch-size:200}") int batchSize,
+			@Value("${images.outbox.relay.send-timeout-ms:10000}") long sendTimeoutMillis,
+			@Value("${images.outbox.relay.coalesce-window-ms:0}") long coalesceWindowMillis,
+			@Value("${images.outbox.relay.dead-letter-after-ms:86400000}") long deadLetterAfterMillis,
+			@Value("${images.outbox.relay.retry-backoff-ms:1000}") long retryBackoffMillis,
+			@Value("${images.outbox.relay.retry-backoff-max-ms:300000}") long retryBackoffMaxMillis,
+			@Value("${images.outbox.relay.claim-timeout-ms:60000}") long claimTimeoutMillis) {
+		if (claimTimeoutMillis <= sendTimeoutMillis) {
+			throw new IllegalArgumentException("images.outbox.relay.claim-timeout-ms must be longer than send-timeout-ms: "
+					+ claimTimeoutMillis + " <= " + sendTimeoutMillis);
+		}
+		this.outboxJdbcRepository = outboxJdbcRepository;
+		this.kafkaTemplate = kafkaTemplate;
+		this.transactionTemplate = transactionTemplate;
+		this.lockProvider = lockProvider;
+		this.deadLetterStore = deadLetterStore;
+		this.metrics = metrics;
+		this.enabled = enabled;
+		this.batchSize = batchSize;
+		this.sendTimeoutMillis = sendTimeoutMillis;
+		this.coalesceWindowMillis = coalesceWindowMillis;
+		this.deadLetterAfter = Duration.ofMillis(deadLetterAfterMillis);
+		this.retryBackoff = Duration.ofMillis(retryBackoffMillis);
+		this.retryBackoffMax = Duration.ofMillis(retryBackoffMaxMillis);
+		this.claimTimeout = Duration.ofMillis(claimTimeoutMillis);
+	}
+	
+	@Scheduled(fixedDelayString = "${images.outbox.relay.interval-ms:500}")
+	public void relay() {
+		if (!enabled) {
+			return;
+		}
+		Optional<SimpleLock> lock = lockProvider.lock(
+				new LockConfiguration(ClockProvider.now(), LOCK_NAME, claimTimeout, Duration.ZERO));
+		if (lock.isEmpty()) {
+			// 다른 노드가 릴레이 중 (대기 행 수는 그 노드가 기록)
+			log.debug("Outbox relay skipped, another node holds the lock");
+			metrics.recordOutboxPending(0);
+			nextPendingCountNanos = System.nanoTime();
+			return;
+		}
+		try {
+			// 잠금이 만료되기 전에 끝나도록 마지막 배치는 전송 대기 시간만큼 여유를 둠
+			long drainDeadline = System.nanoTime() + claimTimeout.minusMillis(sendTimeoutMillis).toNanos();
+			BatchResult result;
+			do {
+				result = relayBatch();
+			} while (result.failed() + result.deadLettered() == 0 && result.fetched() == batchSize
+					&& System.nanoTime() < drainDeadline);
+			recordPendingCount();
+		} catch (Exception e) {
+			log.error("Outbox relay failed", e);
+		} finally {
+			lock.get().unlock();
+		}
+	}
+	
+	private void recordPendingCount() {
+		long now = System.nanoTime();
+		if (now - nextPendingCountNanos < 0) {
+			return;
+		}
+		nextPendingCountNanos = now + PENDING_COUNT_INTERVAL_NANOS;
+		metrics.recordOutboxPending(outboxJdbcRepository.countPending());
+	}
+	
+	/**
+	 * 한 배치 발행 (선점 → 키 병합 → 비동기 전송 → 결과 대기 → 삭제/실패 기록)
+	 */
+	BatchResult relayBatch() {
+		String claimToken = UUID.randomUUID().toString();
+		LocalDateTime now = LocalDateTime.now();
+		List<OutboxRow> fetched = outboxJdbcRepository.claimBatch(claimToken,
+				now.minus(coalesceWindowMillis, ChronoUnit.MILLIS), now, now.minus(claimTimeout), batchSize);
+		if (fetched.isEmpty()) {
+			return new BatchResult(0, 0, 0, 0, 0);
+		}
+		
+		// 같은 (topic, key)는 마지막 행만 남김 (id 순 조회이고 같은 키의 id는 커밋 순서이므로 뒤의 행이 최신)
+		Map<List<String>, OutboxRow> latest = new LinkedHashMap<>();
+		List<OutboxRow> rows = new ArrayList<>(fetched.size());
+		List<Long> superseded = new ArrayList<>();
+		for (OutboxRow row : fetched) {
+			if (row.eventKey() == null) {
+				rows.add(row);
+				continue;
+			}
+			OutboxRow previous = latest.put(List.of(row.topic(), row.eventKey()), row);
+			if (previous != null) {
+				superseded.add(previous.id());
+			}
+		}
+		rows.addAll(latest.values());
+		rows.sort(Comparator.comparingLong(OutboxRow::id));
+		
+		List<CompletableFuture<SendResult<String, Object>>> futures = new ArrayList<>(rows.size());
+		for (OutboxRow row : rows) {
+			long startNanos = metrics.sendStarted();
+			CompletableFuture<SendResult<String, Object>> future;
+			try {
+				future = kafkaTemplate.send(row.topic(), row.eventKey(), row.payload());
+			} catch (RuntimeException e) {
+				// 메타데이터 조회 실패 등은 future가 아닌 예외로 바로 던져짐
+				future = CompletableFuture.failedFuture(e);
+			}
+			// 대기 시간을 넘긴 전송도 완료되는 시점에 기록됨 (delivery.timeout.ms 상한)
+			future.whenComplete((result, e) -> metrics.sendCompleted(row.topic(), startNanos, e));
+			futures.add(future);
+		}
+		
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+		LocalDateTime expiredBefore = now.minus(deadLetterAfter);
+		List<Long> sent = new ArrayList<>(rows.size());
+		List<OutboxRow> sentKeyed = new ArrayList<>();
+		List<OutboxRow> failed = new ArrayList<>();
+		List<OutboxRow> exhausted = new ArrayList<>();
+		String lastError = null;
+		for (int i = 0; i < rows.size(); i++) {
+			try {
+				futures.get(i).get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+				sent.add(rows.get(i).id());
+				if (rows.get(i).eventKey() != null) {
+					sentKeyed.add(rows.get(i));
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Outbox relay interrupted", e);
+			} catch (ExecutionException | TimeoutException e) {
+				if (rows.get(i).createdAt().isBefore(expiredBefore)) {
+					exhausted.add(rows.get(i));
+				} else {
+					failed.add(rows.get(i));
+				}
+				lastError = e instanceof ExecutionException && e.getCause() != null
+						? e.getCause().toString()
+						: "Send timed out after " + sendTimeoutMillis + "ms";
+			}
+		}
+		
+		// 재시도 기간이 지난 행은 파일에 먼저 기록한 뒤 아웃박스에서 삭제
+		if (!exhausted.isEmpty()) {
+			deadLetterStore.append(exhausted, lastError);
+			metrics.recordDeadLetter(exhausted.size());
+		}
+		
+		// 병합된 행은 최신 행의 전송 결과와 관계없이 삭제 (실패한 최신 행이 남아 재시도됨)
+		List<Long> deletes = new ArrayList<>(sent.size() + superseded.size() + exhausted.size());
+		deletes.addAll(sent);
+		deletes.addAll(superseded);
+		exhausted.forEach(row -> deletes.add(row.id()));
+		List<OutboxJdbcRepository.Retry> retries = failed.stream()
+				.map(row -> new OutboxJdbcRepository.Retry(row.id(), now.plus(backoff(row.attempts()))))
+				.toList();
+		String error = lastError;
+		transactionTemplate.executeWithoutResult(status -> {
+			if (!deletes.isEmpty()) {
+				outboxJdbcRepository.deleteAll(deletes, claimToken);
+			}
+			if (!sentKeyed.isEmpty()) {
+				outboxJdbcRepository.deleteSuperseded(sentKeyed, claimToken);
+			}
+			if (!retries.isEmpty()) {
+				outboxJdbcRepository.markFailed(retries, claimToken, error);
+			}
+		});
+		if (!failed.isEmpty()) {
+			log.warn("Outbox relay: {} of {} events failed, will retry: error={}", failed.size(), rows.size(), lastError);
+		}
+		log.debug("Outbox relay: fetched={}, sent={}, coalesced={}, failed={}, deadLettered={}",
+				fetched.size(), sent.size(), superseded.size(), failed.size(), exhausted.size());
+		return new BatchResult(fetched.size(), sent.size(), superseded.size(), failed.size(), exhausted.size());
+	}
+	
+	/**
+	 * 재시도 대기 시간 (retry-backoff-ms × 2^이전 실패 횟수, 상한 retry-backoff-max-ms)
+	 */
+	Duration backoff(int previousAttempts) {
+		int shift = Math.min(previousAttempts, 30);
+		long millis = retryBackoff.toMillis() << shift;
+		return millis <= 0 || millis > retryBackoffMax.toMillis() ? retryBackoffMax : Duration.ofMillis(millis);
+	}
+	
+	/**
+	 * @param fetched      선점한 행 수
+	 * @param sent         전송 성공 수
+	 * @param coalesced    최신 이벤트로 병합되어 전송 없이 삭제된 수
+	 * @param failed       전송 실패 후 재시도 대기 수
+	 * @param deadLettered 재시도 기간(dead-letter-after-ms)이 지나 dead-letter 파일로 옮긴 수
+	 */
+	record BatchResult(int fetched, int sent, int coalesced, int failed, int deadLettered) {
+	}
+}
@@ -31,10 +31,18 @@ public enum ErrorCode {
 	NOT_ALLOWED_MULTIPLE_IMAGES("NOT_ALLOWED_MULTIPLE_IMAGES", "Not Allowed Multiple Images", HttpStatus.BAD_REQUEST),
 	INVALID_FILE_NAME("INVALID_FILE_NAME", "Invalid File Name", HttpStatus.BAD_REQUEST),
 	INVALID_FILE_EXTENSION("INVALID_FILE_EXTENSION", "Invalid File Extension", HttpStatus.BAD_REQUEST),
+	INVALID_SIMILARITY_PARAMETER("INVALID_SIMILARITY_PARAMETER", "Invalid Similarity Parameter (maxDistance: 0~15, limit: 1 이상)", HttpStatus.BAD_REQUEST),
+	INVALID_EVENT_SUBSCRIPTION("INVALID_EVENT_SUBSCRIPTION", "Invalid Event Subscription (ids: 1 ~ max)", HttpStatus.BAD_REQUEST),
+	INVALID_RESIZE_PARAMETER("INVALID_RESIZE_PARAMETER", "Invalid Resize Parameter (w, h: 1~max, fit: cover|contain|fill, q: 1~100)", HttpStatus.BAD_REQUEST),
 	
 	// 비동기 처리 관련
 	IMAGE_PROCESSING_IN_PROGRESS("IMAGE_PROCESSING_IN_PROGRESS", "Image is still being processed. Please try again later.", HttpStatus.CONFLICT),
-	IMAGE_PROCESSING_FAILED("IMAGE_PROCESSING_FAILED", "Image processing failed. Please upload again.", HttpStatus.INTERNAL_SERVER_ERROR)
+	IMAGE_PROCESSING_FAILED("IMAGE_PROCESSING_FAILED", "Image processing failed. Please upload again.", HttpStatus.INTERNAL_SERVER_ERROR),
+	IMAGE_PROCESSING_QUEUE_FULL("IMAGE_PROCESSING_QUEUE_FULL", "Image processing queue is full. Please retry later.", HttpStatus.TOO_MANY_REQUESTS),
+	IMAGE_RESIZE_BUSY("IMAGE_RESIZE_BUSY", "Too many resize requests in progress. Please retry later.", HttpStatus.TOO_MANY_REQUESTS),
+	
+	// 저장소 관련
+	STORAGE_RECONCILE_NOT_SUPPORTED("STORAGE_RECONCILE_NOT_SUPPORTED", "Storage reconcile is only supported for filesystem storage", HttpStatus.BAD_REQUEST)
 	;
 	
 	
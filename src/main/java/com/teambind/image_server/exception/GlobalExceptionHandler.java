@@ -37,6 +37,28 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 		return ResponseEntity.status(status).body(body);
 	}
 	
+	@ExceptionHandler(RetryableException.class)
+	public ResponseEntity<ErrorResponse> handleRetryableException(
+			RetryableException ex, HttpServletRequest request) {
+		ErrorCode errorCode = ex.getErrorcode();
+		HttpStatus status = errorCode.getStatus();
+
+		log.warn("RetryableException occurred: code={}, retryAfter={}s, path={}",
+				errorCode.getErrCode(),
+				ex.getRetryAfterSeconds(),
+				request.getRequestURI());
+
+		ErrorResponse body =
+				ErrorResponse.of(
+						status.value(),
+						errorCode.getErrCode(),
+						errorCode.getMessage(),
+						request.getRequestURI());
+		return ResponseEntity.status(status)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+				.body(body);
+	}
+	
 	@Override
 	protected ResponseEntity<Object> handleMethodArgumentNotValid(
 			MethodArgumentNotValidException ex,
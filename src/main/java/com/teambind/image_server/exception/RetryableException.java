@@ -0,0 +1,20 @@
+package com.teambind.image_server.exception;
+
+/**
+ * 재시도 가능한 예외
+ * <p>
+ * 일시적인 과부하 등으로 요청을 거절할 때 사용하며,
+ * GlobalExceptionHandler가 Retry-After 헤더를 함께 응답합니다.
+ */
+public class RetryableException extends CustomException {
+	private final long retryAfterSeconds;
+	
+	public RetryableException(ErrorCode errorcode, long retryAfterSeconds) {
+		super(errorcode);
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+	
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
@@ -0,0 +1,49 @@
+package com.teambind.image_server.health;
+
+import com.teambind.image_server.service.ImageProcessingAdmission;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이미지 처리 큐 헬스 체크
+ * <p>
+ * 현재 큐 깊이를 노출합니다:
+ * - 입장 제어 기준 대기/실행 중 작업 수와 바이트
+ * - imageProcessingExecutor의 활성 스레드 수와 큐 크기 (platform 모드)
+ * <p>
+ * 큐가 가득 차도 상태는 UP으로 유지합니다. (429로 부하를 흘려보내는 것이 정상 동작이므로
+ * 로드밸런서에서 인스턴스를 빼지 않도록 함)
+ */
+@Component
+public class ImageProcessingQueueHealthIndicator implements HealthIndicator {
+	
+	private final ImageProcessingAdmission admission;
+	private final AsyncTaskExecutor imageProcessingExecutor;
+	
+	public ImageProcessingQueueHealthIndicator(
+			ImageProcessingAdmission admission,
+			@Qualifier("imageProcessingExecutor") AsyncTaskExecutor imageProcessingExecutor) {
+		this.admission = admission;
+		this.imageProcessingExecutor = imageProcessingExecutor;
+	}
+	
+	@Override
+	public Health health() {
+		Health.Builder builder = Health.up()
+				.withDetail("queuedTasks", admission.getQueuedTasks())
+				.withDetail("maxQueuedTasks", admission.getMaxQueuedTasks())
+				.withDetail("queuedBytes", admission.getQueuedBytes())
+				.withDetail("maxQueuedBytes", admission.getMaxQueuedBytes());
+		
+		// 가상 스레드 모드에서는 풀이 없으므로 스레드 풀 정보는 platform 모드에서만 노출
+		if (imageProcessingExecutor instanceof ThreadPoolTaskExecutor pool) {
+			builder.withDetail("executorActiveThreads", pool.getActiveCount())
+					.withDetail("executorQueueSize", pool.getQueueSize());
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,107 @@
+package com.teambind.image_server.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kafka 이벤트 발행 메트릭
+ * <p>
+ * 아웃박스 릴레이와 즉시 발행(sendAsync)의 전송 결과를 콜백에서 기록합니다.
+ * 발행하지 못한 이벤트는 event_outbox 테이블에 쌓입니다. 이 테이블에는 크기 제한이 없고
+ * (dead-letter-after-ms가 지나 dead-letter로 옮겨질 때까지 계속 쌓임) 적체를 알 수 있도록 대기 행 수를 노출합니다.
+ * <p>
+ * 메트릭 목록:
+ * - event.publish.latency: send 호출부터 브로커 응답까지 시간 (topic, outcome 태그)
+ * - event.publish.failures: 전송 실패 수 (재시도 대상 포함, topic 태그)
+ * - event.publish.in.flight: 응답을 기다리는 전송 수
+ * - event.publish.outbox.pending: 발행 대기 중인 event_outbox 행 수
+ *   (스크레이프마다 조회하지 않고, 릴레이 잠금을 잡은 노드가 주기적으로 COUNT한 값. 잠금이 없는 노드는 0이므로 노드 합계/최댓값으로 집계)
+ * - event.publish.dead.letter: dead-letter-after-ms가 지나도록 발행하지 못해 dead-letter 파일로 옮겨진 이벤트 수
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+public class EventPublishMetrics {
+	
+	public static final String OUTCOME_SENT = "sent";
+	public static final String OUTCOME_FAILED = "failed";
+	
+	private static final String PREFIX = "event.publish.";
+	
+	private final MeterRegistry registry;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong outboxPending = new AtomicLong();
+	private final Counter deadLettered;
+	
+	public EventPublishMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		
+		Gauge.builder(PREFIX + "in.flight", inFlight, AtomicInteger::get)
+				.description("Kafka sends awaiting broker acknowledgement")
+				.register(registry);
+		Gauge.builder(PREFIX + "outbox.pending", outboxPending, AtomicLong::get)
+				.description("Events waiting in event_outbox, counted by the node holding the relay lock")
+				.register(registry);
+		deadLettered = Counter.builder(PREFIX + "dead.letter")
+				.description("Events moved to the dead-letter file after the dead-letter age")
+				.register(registry);
+	}
+	
+	/**
+	 * 전송 시작 (in-flight 증가)
+	 *
+	 * @return 시작 시각 (sendCompleted에 전달)
+	 */
+	public long sendStarted() {
+		inFlight.incrementAndGet();
+		return System.nanoTime();
+	}
+	
+	/**
+	 * 전송 완료 콜백 (in-flight 감소, 지연/실패 기록)
+	 *
+	 * @param error 실패 원인 (성공이면 null)
+	 */
+	public void sendCompleted(String topic, long startNanos, Throwable error) {
+		inFlight.decrementAndGet();
+		Timer.builder(PREFIX + "latency")
+				.description("Kafka send latency until broker acknowledgement")
+				.tags("topic", topic, "outcome", error == null ? OUTCOME_SENT : OUTCOME_FAILED)
+				.register(registry)
+				.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		if (error != null) {
+			recordFailure(topic);
+		}
+	}
+	
+	private void recordFailure(String topic) {
+		Counter.builder(PREFIX + "failures")
+				.description("Failed Kafka sends")
+				.tag("topic", topic)
+				.register(registry)
+				.increment();
+	}
+	
+	public void recordDeadLetter(int count) {
+		deadLettered.increment(count);
+	}
+	
+	/**
+	 * 발행 대기 행 수 갱신 (OutboxRelay가 기록)
+	 */
+	public void recordOutboxPending(long count) {
+		outboxPending.set(count);
+	}
+	
+	public int getInFlight() {
+		return inFlight.get();
+	}
+}
@@ -0,0 +1,132 @@
+package com.teambind.image_server.metrics;
+
+import com.teambind.image_server.service.ImageProcessingAdmission;
+import com.teambind.image_server.task.ImageProcessingTask;
+import io.micrometer.core.instrument.*;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업로드 파이프라인 단계별 메트릭
+ * <p>
+ * 이미지 처리 각 단계를 Timer/DistributionSummary로 기록하여 /actuator/prometheus로 노출합니다.
+ * 지연이 늘었을 때 CPU(디코딩/인코딩), 디스크(저장), MariaDB(상태 갱신) 중 어디가 원인인지 구분하기 위함입니다.
+ * <p>
+ * 공통 태그:
+ * - referenceType: 참조 타입 코드 (PRODUCT, PROFILE 등)
+ * - format: 원본 포맷 (JPG, PNG 등)
+ * <p>
+ * 메트릭 목록:
+ * - image.processing.queue.wait: TEMP 등록 후 워커가 작업을 꺼내기까지 대기 시간
+ * - image.processing.decode / encode: 디코딩, WebP + 변형 인코딩 시간
+ * - image.processing.storage.write: 원본/변형 파일 저장 시간
+ * - image.processing.db.update: TEMP → READY 갱신 트랜잭션 시간
+ * - image.processing.latency: TEMP 등록부터 READY(또는 FAILED)까지 전체 시간 (outcome 태그)
+ * - image.processing.bytes.in / bytes.out: 원본 크기, 저장된 총 바이트(원본 변환본 + 변형)
+ * - image.processing.admission.queued.tasks / queued.bytes: 입장 제어 기준 큐 깊이
+ * <p>
+ * imageProcessingExecutor/imageEncodeExecutor 스레드 풀 지표(executor.active, executor.queued 등)는
+ * Spring Boot가 ThreadPoolTaskExecutor 빈에 대해 자동 등록합니다. 가상 스레드 모드에는 풀이 없으므로
+ * 입장 제어 게이지가 동시 처리량 지표 역할을 합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+public class ImageProcessingMetrics {
+	
+	public static final String OUTCOME_READY = "ready";
+	public static final String OUTCOME_FALLBACK = "fallback";
+	public static final String OUTCOME_FAILED = "failed";
+	
+	private static final String PREFIX = "image.processing.";
+	
+	private final MeterRegistry registry;
+	
+	public ImageProcessingMetrics(MeterRegistry registry, ImageProcessingAdmission admission) {
+		this.registry = registry;
+		
+		Gauge.builder(PREFIX + "admission.queued.tasks", admission, ImageProcessingAdmission::getQueuedTasks)
+				.description("Running + waiting image processing tasks")
+				.register(registry);
+		Gauge.builder(PREFIX + "admission.queued.bytes", admission, ImageProcessingAdmission::getQueuedBytes)
+				.description("Spooled source bytes of running + waiting tasks")
+				.baseUnit("bytes")
+				.register(registry);
+		Gauge.builder(PREFIX + "admission.max.tasks", admission, ImageProcessingAdmission::getMaxQueuedTasks)
+				.register(registry);
+		Gauge.builder(PREFIX + "admission.max.bytes", admission, ImageProcessingAdmission::getMaxQueuedBytes)
+				.baseUnit("bytes")
+				.register(registry);
+	}
+	
+	/**
+	 * 큐 대기 시간 (작업 생성 시각 → 현재)
+	 */
+	public void recordQueueWait(ImageProcessingTask task) {
+		timer("queue.wait", "Time from TEMP registration until a worker picks up the task", task)
+				.record(System.nanoTime() - task.getCreatedAtNanos(), TimeUnit.NANOSECONDS);
+	}
+	
+	public void recordDecode(ImageProcessingTask task, long nanos) {
+		timer("decode", "Source image decode time", task).record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public void recordEncode(ImageProcessingTask task, long nanos) {
+		timer("encode", "WebP and variant encode time", task).record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public void recordStorageWrite(ImageProcessingTask task, long nanos) {
+		timer("storage.write", "Original and variant file write time", task).record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	public void recordDbUpdate(ImageProcessingTask task, long nanos) {
+		timer("db.update", "TEMP to READY update transaction time", task).record(nanos, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * 입력/출력 바이트
+	 *
+	 * @param bytesIn  원본(스풀) 크기
+	 * @param bytesOut 저장된 총 바이트 (변환본 또는 원본 + 변형)
+	 */
+	public void recordBytes(ImageProcessingTask task, long bytesIn, long bytesOut) {
+		summary("bytes.in", "Source upload size", task).record(bytesIn);
+		summary("bytes.out", "Stored bytes including variants", task).record(bytesOut);
+	}
+	
+	/**
+	 * TEMP 등록부터 최종 상태까지 전체 지연
+	 *
+	 * @param outcome ready | fallback | failed
+	 */
+	public void recordCompletion(ImageProcessingTask task, String outcome) {
+		Timer.builder(PREFIX + "latency")
+				.description("End-to-end TEMP to READY/FAILED latency")
+				.tags(tags(task).and("outcome", outcome))
+				.register(registry)
+				.record(System.nanoTime() - task.getCreatedAtNanos(), TimeUnit.NANOSECONDS);
+	}
+	
+	private Timer timer(String name, String description, ImageProcessingTask task) {
+		return Timer.builder(PREFIX + name)
+				.description(description)
+				.tags(tags(task))
+				.register(registry);
+	}
+	
+	private DistributionSummary summary(String name, String description, ImageProcessingTask task) {
+		return DistributionSummary.builder(PREFIX + name)
+				.description(description)
+				.baseUnit("bytes")
+				.tags(tags(task))
+				.register(registry);
+	}
+	
+	private static Tags tags(ImageProcessingTask task) {
+		return Tags.of(
+				"referenceType", String.valueOf(task.getReferenceTypeCode()),
+				"format", String.valueOf(task.getOriginalExtension()));
+	}
+}
@@ -0,0 +1,9 @@
+package com.teambind.image_server.repository;
+
+import com.teambind.image_server.entity.CleanupCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CleanupCheckpointRepository extends JpaRepository<CleanupCheckpoint, String> {
+}
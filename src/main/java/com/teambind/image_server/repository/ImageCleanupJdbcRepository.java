@@ -0,0 +1,133 @@
+package com.teambind.image_server.repository;
+
+import com.teambind.image_server.enums.ImageStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 이미지 정리 작업용 JDBC Repository
+ * <p>
+ * 정리 대상 이미지를 (status, created_at, image_id) 키셋 페이지로 가져오고,
+ * 자식 테이블과 이미지 행을 IN 목록 DELETE 한 번씩으로 지웁니다.
+ * 엔티티를 영속성 컨텍스트에 올리지 않으므로 대상이 수백만 건이어도 메모리는 청크 크기만큼만 씁니다.
+ * <p>
+ * 운영 스키마의 FK는 ON DELETE CASCADE지만, 같은 동작을 스키마에 기대지 않도록 자식 행을 먼저 명시적으로 삭제합니다.
+ * 키셋 조회는 idx_images_status_created (status, created_at, image_id) 인덱스를 탑니다.
+ * 샤드별 실행은 image_id(UUID) 범위 조건을 덧붙여 노드마다 겹치지 않는 행만 가져갑니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImageCleanupJdbcRepository {
+	
+	private static final String CHUNK_SELECT_SQL =
+			"SELECT image_id, created_at FROM images WHERE status = :status AND created_at < :createdBefore";
+	
+	private static final String CHUNK_AFTER_SQL =
+			" AND (created_at > :afterCreatedAt OR (created_at = :afterCreatedAt AND image_id > :afterImageId))";
+	
+	private static final String CHUNK_ORDER_SQL = " ORDER BY created_at, image_id LIMIT :limit FOR UPDATE";
+	
+	private static final String STORAGE_FILES_SQL =
+			"SELECT storage_location, COALESCE(converted_size, origin_size) AS file_size "
+					+ "FROM storage_objects WHERE image_id IN (:imageIds)";
+	
+	private static final String VARIANT_FILES_SQL =
+			"SELECT storage_location, file_size FROM image_variants "
+					+ "WHERE image_id IN (:imageIds) AND storage_location IS NOT NULL";
+	
+	// 자식 테이블 먼저, images 마지막
+	private static final List<String> DELETE_SQLS = List.of(
+			"DELETE FROM status_history WHERE image_id IN (:imageIds)",
+			"DELETE FROM image_variants WHERE image_id IN (:imageIds)",
+			"DELETE FROM image_sequence WHERE image_id IN (:imageIds)",
+			"DELETE FROM storage_objects WHERE image_id IN (:imageIds)",
+			"DELETE FROM images WHERE image_id IN (:imageIds)");
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	
+	/**
+	 * 정리 대상 이미지 한 청크를 잠금 조회
+	 *
+	 * @param after 직전 청크의 마지막 행 (첫 청크면 null)
+	 * @param range 샤드의 image_id 범위
+	 */
+	public List<Cursor> lockChunk(ImageStatus status, LocalDateTime createdBefore, Cursor after, IdRange range, int limit) {
+		MapSqlParameterSource params = new MapSqlParameterSource()
+				.addValue("status", status.name())
+				.addValue("createdBefore", Timestamp.valueOf(createdBefore))
+				.addValue("limit", limit);
+		StringBuilder sql = new StringBuilder(CHUNK_SELECT_SQL);
+		if (after != null) {
+			sql.append(CHUNK_AFTER_SQL);
+			params.addValue("afterCreatedAt", Timestamp.valueOf(after.createdAt()))
+					.addValue("afterImageId", after.imageId());
+		}
+		if (range.from() != null) {
+			sql.append(" AND image_id >= :idFrom");
+			params.addValue("idFrom", range.from());
+		}
+		if (range.to() != null) {
+			sql.append(" AND image_id < :idTo");
+			params.addValue("idTo", range.to());
+		}
+		sql.append(CHUNK_ORDER_SQL);
+		return jdbcTemplate.query(sql.toString(), params,
+				(rs, rowNum) -> new Cursor(rs.getTimestamp("created_at").toLocalDateTime(), rs.getString("image_id")));
+	}
+	
+	/**
+	 * 이미지들이 참조하는 파일 (원본 변환본 + 변형)
+	 */
+	public List<StoredFile> findFiles(List<String> imageIds) {
+		Map<String, List<String>> params = Map.of("imageIds", imageIds);
+		List<StoredFile> files = new ArrayList<>(jdbcTemplate.query(STORAGE_FILES_SQL, params,
+				(rs, rowNum) -> new StoredFile(rs.getString("storage_location"), rs.getLong("file_size"))));
+		files.addAll(jdbcTemplate.query(VARIANT_FILES_SQL, params,
+				(rs, rowNum) -> new StoredFile(rs.getString("storage_location"), rs.getLong("file_size"))));
+		return files;
+	}
+	
+	/**
+	 * 이미지와 자식 행 일괄 삭제
+	 *
+	 * @return 삭제된 이미지 행 수
+	 */
+	public int deleteImages(List<String> imageIds) {
+		Map<String, List<String>> params = Map.of("imageIds", imageIds);
+		int deleted = 0;
+		for (String sql : DELETE_SQLS) {
+			deleted = jdbcTemplate.update(sql, params);
+		}
+		return deleted;
+	}
+	
+	/**
+	 * 키셋 위치 (created_at, image_id)
+	 */
+	public record Cursor(LocalDateTime createdAt, String imageId) {
+	}
+	
+	/**
+	 * image_id 범위 [from, to) (null이면 해당 방향으로 제한 없음)
+	 */
+	public record IdRange(String from, String to) {
+		public static final IdRange ALL = new IdRange(null, null);
+	}
+	
+	/**
+	 * 저장 파일 경로와 크기
+	 */
+	public record StoredFile(String location, long size) {
+	}
+}
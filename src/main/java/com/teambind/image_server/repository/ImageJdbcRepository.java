@@ -0,0 +1,61 @@
+package com.teambind.image_server.repository;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.enums.ImageStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * 이미지 JDBC 배치 Repository
+ * <p>
+ * 다중 업로드 시 TEMP 행을 JPA로 한 건씩 저장하면 파일 수만큼 INSERT 왕복이 발생하므로
+ * JdbcTemplate.batchUpdate로 한 번에 전송합니다. (MariaDB는 useBulkStmts로 bulk 프로토콜 한 번에 전송)
+ * <p>
+ * 영속성 컨텍스트를 거치지 않으므로 같은 트랜잭션에서 이 행들을 JPA로 다시 읽을 때는
+ * 캐시가 아닌 DB 조회가 일어납니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImageJdbcRepository {
+	
+	private static final String INSERT_TEMP_SQL =
+			"INSERT INTO images (image_id, status, reference_type_id, image_url, uploader_id, is_deleted, created_at) "
+					+ "VALUES (?, ?, ?, ?, ?, ?, ?)";
+	
+	private static final String DELETE_TEMP_SQL =
+			"DELETE FROM images WHERE image_id = ? AND status = '" + ImageStatus.TEMP.name() + "'";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * TEMP 상태 이미지 일괄 INSERT (단일 JDBC 배치)
+	 *
+	 * @param images id, referenceType, imageUrl, uploaderId, createdAt이 채워진 이미지 (status는 TEMP로 고정)
+	 */
+	public void insertTempImages(List<Image> images) {
+		jdbcTemplate.batchUpdate(INSERT_TEMP_SQL, images, images.size(), (ps, image) -> {
+			ps.setString(1, image.getId());
+			ps.setString(2, ImageStatus.TEMP.name());
+			ps.setString(3, image.getReferenceType().getCode());
+			ps.setString(4, image.getImageUrl());
+			ps.setString(5, image.getUploaderId());
+			ps.setBoolean(6, false);
+			ps.setTimestamp(7, Timestamp.valueOf(image.getCreatedAt()));
+		});
+	}
+	
+	/**
+	 * 아직 TEMP 상태인 이미지 일괄 삭제 (Task Queue 등록 실패 시 되돌림용)
+	 */
+	public void deleteTempImages(List<String> imageIds) {
+		jdbcTemplate.batchUpdate(DELETE_TEMP_SQL, imageIds, imageIds.size(),
+				(ps, imageId) -> ps.setString(1, imageId));
+	}
+}
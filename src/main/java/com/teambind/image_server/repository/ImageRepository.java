@@ -4,6 +4,7 @@ package com.teambind.image_server.repository;
 import com.teambind.image_server.entity.Image;
 import com.teambind.image_server.entity.ReferenceType;
 import com.teambind.image_server.enums.ImageStatus;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -16,8 +17,11 @@ public interface ImageRepository extends JpaRepository<Image, String> {
 	
 	List<Image> findAllByStatusNot(ImageStatus status);
 	
+	// storageObject는 mappedBy 쪽 1:1이라 지연 로딩되지 않으므로 함께 조회 (이미지 수만큼 추가 SELECT 방지)
+	@EntityGraph(attributePaths = {"storageObject", "referenceType"})
 	List<Image> findAllByReferenceId(String referenceId);
 	
+	@EntityGraph(attributePaths = {"storageObject", "referenceType"})
 	List<Image> findAllByIdIn(List<String> imageIds);
 
 	void deleteAllByReferenceId(String referenceId);
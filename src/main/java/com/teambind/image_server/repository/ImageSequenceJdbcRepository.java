@@ -0,0 +1,76 @@
+package com.teambind.image_server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 이미지 순서 JDBC 배치 Repository
+ * <p>
+ * 시퀀스 변경분 중 삭제/이동을 JdbcTemplate.batchUpdate로 전송합니다.
+ * (추가는 시퀀스 키를 쓰는 JPA 배치 INSERT로 처리)
+ * <p>
+ * 이동은 uk_reference_seq(reference_id, seq_number) 충돌을 피하기 위해 두 단계로 처리합니다.
+ * 1. park: 이동할 행을 음수 자리(-1 - 목표 순서)로 옮김 (음수끼리는 서로 겹치지 않음)
+ * 2. unpark: 음수 자리의 행을 목표 순서로 되돌림 (UPDATE 한 번)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Repository
+@RequiredArgsConstructor
+public class ImageSequenceJdbcRepository {
+	
+	private static final String SELECT_FOR_UPDATE_SQL =
+			"SELECT id, image_id, seq_number FROM image_sequence WHERE reference_id = ? ORDER BY seq_number FOR UPDATE";
+	
+	private static final String DELETE_SQL = "DELETE FROM image_sequence WHERE id = ?";
+	
+	private static final String PARK_SQL = "UPDATE image_sequence SET seq_number = ?, updated_at = ? WHERE id = ?";
+	
+	private static final String UNPARK_SQL =
+			"UPDATE image_sequence SET seq_number = -seq_number - 1 WHERE reference_id = ? AND seq_number < 0";
+	
+	private final JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * referenceId의 현재 시퀀스 조회 (같은 referenceId에 대한 동시 변경을 막기 위해 행 잠금)
+	 */
+	public List<SequenceRow> findForUpdate(String referenceId) {
+		return jdbcTemplate.query(SELECT_FOR_UPDATE_SQL,
+				(rs, rowNum) -> new SequenceRow(rs.getLong("id"), rs.getString("image_id"), rs.getInt("seq_number")),
+				referenceId);
+	}
+	
+	public void deleteAll(List<Long> ids) {
+		jdbcTemplate.batchUpdate(DELETE_SQL, ids, ids.size(), (ps, id) -> ps.setLong(1, id));
+	}
+	
+	/**
+	 * 이동할 행을 음수 자리로 옮김 (unpark 전까지 uk_reference_seq의 0 이상 자리를 비워 둠)
+	 *
+	 * @param moves 이동할 행과 목표 순서
+	 */
+	public void park(List<SequenceRow> moves, LocalDateTime now) {
+		Timestamp updatedAt = Timestamp.valueOf(now);
+		jdbcTemplate.batchUpdate(PARK_SQL, moves, moves.size(), (ps, move) -> {
+			ps.setInt(1, -1 - move.seqNumber());
+			ps.setTimestamp(2, updatedAt);
+			ps.setLong(3, move.id());
+		});
+	}
+	
+	public int unpark(String referenceId) {
+		return jdbcTemplate.update(UNPARK_SQL, referenceId);
+	}
+	
+	/**
+	 * image_sequence 행 (새로 추가할 행은 id가 null)
+	 */
+	public record SequenceRow(Long id, String imageId, int seqNumber) {
+	}
+}
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -33,6 +34,31 @@ public interface ImageSequenceRepository extends JpaRepository<ImageSequence, Lo
 			"ORDER BY s.seqNumber ASC")
 	List<ImageSequence> findByReferenceIdOrderBySeqNumberAsc(@Param("referenceId") String referenceId);
 	
+	/**
+	 * 여러 referenceId의 시퀀스를 한 번에 조회합니다. (목록 화면용 일괄 조회)
+	 * idx_reference_seq(reference_id, seq_number) 인덱스 범위 조회로 처리됩니다.
+	 *
+	 * @param referenceIds 참조 ID 목록
+	 * @return referenceId, 순서대로 정렬된 ImageSequence 리스트
+	 */
+	@Query("SELECT s FROM ImageSequence s " +
+			"JOIN FETCH s.image " +
+			"WHERE s.referenceId IN :referenceIds " +
+			"ORDER BY s.referenceId ASC, s.seqNumber ASC")
+	List<ImageSequence> findByReferenceIdInOrderBySeqNumberAsc(@Param("referenceIds") Collection<String> referenceIds);
+	
+	/**
+	 * 여러 referenceId의 대표 이미지(seq_number = 0)만 조회합니다.
+	 *
+	 * @param referenceIds 참조 ID 목록
+	 * @return referenceId별 첫 번째 ImageSequence (이미지가 없는 referenceId는 포함되지 않음)
+	 */
+	@Query("SELECT s FROM ImageSequence s " +
+			"JOIN FETCH s.image " +
+			"WHERE s.referenceId IN :referenceIds " +
+			"AND s.seqNumber = 0")
+	List<ImageSequence> findFirstByReferenceIdIn(@Param("referenceIds") Collection<String> referenceIds);
+	
 	/**
 	 * referenceId의 모든 시퀀스를 삭제합니다.
 	 *
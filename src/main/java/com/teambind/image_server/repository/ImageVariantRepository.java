@@ -0,0 +1,22 @@
+package com.teambind.image_server.repository;
+
+
+import com.teambind.image_server.entity.ImageVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageVariantRepository extends JpaRepository<ImageVariant, Long> {
+	List<ImageVariant> findAllByImage_IdOrderByWidthAsc(String imageId);
+	
+	long countByStorageLocation(String storageLocation);
+	
+	// 아직 참조가 남은 경로 (삭제 후보를 IN 한 번으로 확인)
+	@Query("SELECT DISTINCT v.storageLocation FROM ImageVariant v WHERE v.storageLocation IN :locations")
+	List<String> findReferencedLocations(@Param("locations") Collection<String> locations);
+}
@@ -0,0 +1,188 @@
+package com.teambind.image_server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 아웃박스 릴레이용 JDBC Repository
+ * <p>
+ * 발행할 행은 잠금 조회 대신 claimed_by/claimed_at을 기록하는 짧은 UPDATE로 선점(claim)합니다.
+ * 1. 대상 id 조회 (잠금 없는 일반 조회)
+ * 2. 선점 UPDATE (PK IN 목록, 자동 커밋) - 다른 릴레이가 유효하게 선점한 행은 조건에서 빠짐
+ * 3. 이번 실행 토큰으로 선점된 행만 다시 조회
+ * <p>
+ * Kafka 전송은 트랜잭션 밖에서 하고, 삭제/실패 기록은 선점 토큰이 일치하는 행만 대상으로 하므로
+ * 선점이 만료되어 다른 릴레이가 가져간 행을 늦게 끝난 릴레이가 지우지 않습니다.
+ * 범위 잠금(FOR UPDATE)을 잡은 채 전송을 기다리지 않으므로 확정 트랜잭션의 아웃박스 INSERT를 막지 않습니다.
+ * <p>
+ * 발행에 실패한 행은 next_attempt_at(백오프)이 지나야 다시 선점 대상이 됩니다. (NULL이면 아직 실패한 적 없음)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Repository
+@RequiredArgsConstructor
+public class OutboxJdbcRepository {
+	
+	private static final String CLAIMABLE_SQL =
+			"SELECT id FROM event_outbox WHERE created_at <= :createdBefore "
+					+ "AND (next_attempt_at IS NULL OR next_attempt_at <= :claimedAt) "
+					+ "AND (claimed_at IS NULL OR claimed_at < :claimExpiredBefore) ORDER BY id LIMIT :limit";
+	
+	private static final String CLAIM_SQL =
+			"UPDATE event_outbox SET claimed_by = :claimToken, claimed_at = :claimedAt "
+					+ "WHERE id IN (:ids) AND (claimed_at IS NULL OR claimed_at < :claimExpiredBefore)";
+	
+	private static final String CLAIMED_SQL =
+			"SELECT id, topic, event_key, payload, attempts, created_at FROM event_outbox "
+					+ "WHERE id IN (:ids) AND claimed_by = :claimToken ORDER BY id";
+	
+	private static final String DELETE_SQL = "DELETE FROM event_outbox WHERE id IN (:ids) AND claimed_by = :claimToken";
+	
+	// 발행한 최신 행보다 오래된 같은 키의 행 (백오프 중이라 배치에 들어오지 못한 행 포함)
+	private static final String DELETE_SUPERSEDED_SQL =
+			"DELETE FROM event_outbox WHERE topic = :topic AND event_key = :eventKey AND id < :id "
+					+ "AND (claimed_by IS NULL OR claimed_by = :claimToken)";
+	
+	private static final String PENDING_KEY_SQL =
+			"SELECT COUNT(*) FROM event_outbox WHERE topic = :topic AND event_key = :eventKey";
+	
+	private static final String SEQUENCE_CHANGED_SQL =
+			"SELECT COUNT(*) FROM image_sequence WHERE reference_id = :referenceId "
+					+ "AND (created_at > :since OR updated_at > :since)";
+	
+	private static final String COUNT_SQL = "SELECT COUNT(*) FROM event_outbox";
+	
+	private static final String MARK_FAILED_SQL =
+			"UPDATE event_outbox SET attempts = attempts + 1, last_error = :lastError, next_attempt_at = :nextAttemptAt, "
+					+ "claimed_by = NULL, claimed_at = NULL WHERE id = :id AND claimed_by = :claimToken";
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	
+	/**
+	 * 발행 대기 이벤트를 오래된 순으로 선점
+	 *
+	 * @param claimToken         이번 릴레이 실행 토큰
+	 * @param createdBefore      이 시각 이전에 저장된 이벤트만 (병합 대기 시간이 지난 이벤트)
+	 * @param claimedAt          선점 시각
+	 * @param claimExpiredBefore 이 시각 이전의 선점은 만료된 것으로 보고 다시 가져감 (릴레이가 도중에 죽은 경우)
+	 * @param limit              최대 건수
+	 * @return 이번 실행이 선점한 행 (id 순)
+	 */
+	public List<OutboxRow> claimBatch(String claimToken, LocalDateTime createdBefore, LocalDateTime claimedAt,
+	                                  LocalDateTime claimExpiredBefore, int limit) {
+		List<Long> ids = jdbcTemplate.queryForList(CLAIMABLE_SQL, new MapSqlParameterSource()
+				.addValue("createdBefore", Timestamp.valueOf(createdBefore))
+				.addValue("claimExpiredBefore", Timestamp.valueOf(claimExpiredBefore))
+				.addValue("claimedAt", Timestamp.valueOf(claimedAt))
+				.addValue("limit", limit), Long.class);
+		if (ids.isEmpty()) {
+			return List.of();
+		}
+		
+		int claimed = jdbcTemplate.update(CLAIM_SQL, new MapSqlParameterSource()
+				.addValue("claimToken", claimToken)
+				.addValue("claimedAt", Timestamp.valueOf(claimedAt))
+				.addValue("ids", ids)
+				.addValue("claimExpiredBefore", Timestamp.valueOf(claimExpiredBefore)));
+		if (claimed == 0) {
+			return List.of();
+		}
+		
+		return jdbcTemplate.query(CLAIMED_SQL, new MapSqlParameterSource()
+						.addValue("ids", ids)
+						.addValue("claimToken", claimToken),
+				(rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getString("topic"),
+						rs.getString("event_key"), rs.getString("payload"), rs.getInt("attempts"),
+						rs.getTimestamp("created_at").toLocalDateTime()));
+	}
+	
+	/**
+	 * 발행 대기 이벤트 수 (메트릭 게이지용, OutboxRelay가 주기적으로 호출)
+	 */
+	public long countPending() {
+		Long count = jdbcTemplate.getJdbcTemplate().queryForObject(COUNT_SQL, Long.class);
+		return count != null ? count : 0;
+	}
+	
+	/**
+	 * 선점한 행 삭제 (발행 완료/병합/dead-letter)
+	 */
+	public void deleteAll(List<Long> ids, String claimToken) {
+		jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource()
+				.addValue("ids", ids)
+				.addValue("claimToken", claimToken));
+	}
+	
+	/**
+	 * 발행한 최신 행보다 오래된 같은 (topic, key)의 행 삭제
+	 * - 백오프 중인 이전 행이 나중에 재시도되어 최신 상태를 덮지 않도록 함
+	 */
+	public void deleteSuperseded(List<OutboxRow> sentRows, String claimToken) {
+		SqlParameterSource[] params = sentRows.stream()
+				.map(row -> new MapSqlParameterSource()
+						.addValue("topic", row.topic())
+						.addValue("eventKey", row.eventKey())
+						.addValue("id", row.id())
+						.addValue("claimToken", claimToken))
+				.toArray(SqlParameterSource[]::new);
+		jdbcTemplate.batchUpdate(DELETE_SUPERSEDED_SQL, params);
+	}
+	
+	/**
+	 * 실패 횟수를 올리고 다음 시도 시각을 기록한 뒤 선점 해제
+	 */
+	public void markFailed(List<Retry> retries, String claimToken, String error) {
+		String lastError = error != null && error.length() > 1000 ? error.substring(0, 1000) : error;
+		SqlParameterSource[] params = retries.stream()
+				.map(retry -> new MapSqlParameterSource()
+						.addValue("lastError", lastError)
+						.addValue("nextAttemptAt", Timestamp.valueOf(retry.nextAttemptAt()))
+						.addValue("id", retry.id())
+						.addValue("claimToken", claimToken))
+				.toArray(SqlParameterSource[]::new);
+		jdbcTemplate.batchUpdate(MARK_FAILED_SQL, params);
+	}
+	
+	/**
+	 * 이벤트 저장 이후 같은 키에 더 새로운 상태가 있는지 (dead-letter replay 판단용)
+	 * - 아웃박스에 같은 (topic, key)의 행이 남아 있음 (dead-letter보다 나중에 저장된 이벤트)
+	 * - 키(referenceId)의 image_sequence가 since 이후 추가/변경됨
+	 */
+	public boolean hasNewerState(String topic, String eventKey, LocalDateTime since) {
+		Long pending = jdbcTemplate.queryForObject(PENDING_KEY_SQL, new MapSqlParameterSource()
+				.addValue("topic", topic)
+				.addValue("eventKey", eventKey), Long.class);
+		if (pending != null && pending > 0) {
+			return true;
+		}
+		Long changed = jdbcTemplate.queryForObject(SEQUENCE_CHANGED_SQL, new MapSqlParameterSource()
+				.addValue("referenceId", eventKey)
+				.addValue("since", Timestamp.valueOf(since)), Long.class);
+		return changed != null && changed > 0;
+	}
+	
+	/**
+	 * event_outbox 행
+	 *
+	 * @param attempts  지금까지의 발행 실패 횟수
+	 * @param createdAt 저장 시각 (dead-letter 판단 기준)
+	 */
+	public record OutboxRow(long id, String topic, String eventKey, String payload, int attempts, LocalDateTime createdAt) {
+	}
+	
+	/**
+	 * 재시도 예약
+	 *
+	 * @param nextAttemptAt 이 시각 이후에 다시 선점 대상이 됨
+	 */
+	public record Retry(long id, LocalDateTime nextAttemptAt) {
+	}
+}
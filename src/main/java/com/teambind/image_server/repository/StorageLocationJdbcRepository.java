@@ -0,0 +1,112 @@
+package com.teambind.image_server.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * 저장 경로(storage_location) 조회용 JDBC Repository
+ * <p>
+ * 디스크와 DB 대조(StorageReconcileService)에 쓰며, storage_objects와 image_variants 두 테이블의 경로를 같은 방식으로 읽습니다.
+ * - 파티션(경로의 부모 디렉토리) 목록은 storage_location 인덱스를 파티션마다 한 번씩 건너뛰며 조회 (행 수가 아니라 파티션 수만큼 조회)
+ *   저장 규칙(CATEGORY/yyyy/MM/dd/)을 벗어난 경로는 하위 파티션을 건너뛰지 않도록 행 단위로 진행
+ * - 파티션 안의 경로는 storage_location 키셋 청크로 조회 (한 번에 chunk-size 행만 가져옴)
+ * <p>
+ * 파티션 범위는 [prefix, prefix의 끝 '/'를 '0'으로 바꾼 값) 으로 잡습니다.
+ * '/' 바로 다음 문자가 '0'이고 대소문자 무시 콜레이션에서도 순서가 같으므로, 범위 조건만으로 인덱스를 탑니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Repository
+@RequiredArgsConstructor
+public class StorageLocationJdbcRepository {
+	
+	private static final List<String> TABLES = List.of("storage_objects", "image_variants");
+	
+	// CATEGORY/yyyy/MM/dd/ 파티션의 '/' 개수
+	private static final int LAYOUT_DEPTH = 4;
+	
+	private final NamedParameterJdbcTemplate jdbcTemplate;
+	
+	/**
+	 * 경로가 있는 모든 파티션 (끝에 '/'가 붙은 부모 디렉토리)
+	 * - 디렉토리 없이 최상위에 놓인 경로는 저장 규칙에 없으므로 파티션으로 만들지 않고 건너뜀
+	 */
+	public SortedSet<String> findPartitions() {
+		SortedSet<String> partitions = new TreeSet<>();
+		for (String table : TABLES) {
+			String location = firstLocation(table, "", true);
+			while (location != null) {
+				String partition = partitionOf(location);
+				if (!partition.isEmpty()) {
+					partitions.add(partition);
+				}
+				// 저장 규칙의 일자 디렉토리 아래에는 하위 디렉토리가 없으므로 파티션 끝으로 바로 건너뜀
+				location = depthOf(partition) == LAYOUT_DEPTH
+						? firstLocation(table, upperBound(partition), true)
+						: firstLocation(table, location, false);
+			}
+		}
+		return partitions;
+	}
+	
+	/**
+	 * 파티션 안의 경로를 키셋 청크로 읽어 전달 (테이블마다 storage_location 순, 하위 디렉토리 경로 포함)
+	 *
+	 * @param partition 끝에 '/'가 붙은 부모 디렉토리
+	 * @param chunkSize 한 번에 조회할 행 수
+	 */
+	public void forEachLocation(String partition, int chunkSize, Consumer<String> consumer) {
+		for (String table : TABLES) {
+			String sql = "SELECT DISTINCT storage_location FROM " + table
+					+ " WHERE storage_location >= :from AND storage_location < :to AND storage_location > :after"
+					+ " ORDER BY storage_location LIMIT :limit";
+			String after = "";
+			while (true) {
+				MapSqlParameterSource params = new MapSqlParameterSource()
+						.addValue("from", partition)
+						.addValue("to", upperBound(partition))
+						.addValue("after", after)
+						.addValue("limit", chunkSize);
+				List<String> locations = jdbcTemplate.queryForList(sql, params, String.class);
+				locations.forEach(consumer);
+				if (locations.size() < chunkSize) {
+					break;
+				}
+				after = locations.get(locations.size() - 1);
+			}
+		}
+	}
+	
+	private String firstLocation(String table, String bound, boolean inclusive) {
+		String sql = "SELECT MIN(storage_location) FROM " + table
+				+ " WHERE storage_location " + (inclusive ? ">=" : ">") + " :bound";
+		return jdbcTemplate.queryForObject(sql, Map.of("bound", bound), String.class);
+	}
+	
+	/**
+	 * 경로의 파티션 (마지막 '/'까지)
+	 */
+	public static String partitionOf(String location) {
+		return location.substring(0, location.lastIndexOf('/') + 1);
+	}
+	
+	private static long depthOf(String partition) {
+		return partition.chars().filter(c -> c == '/').count();
+	}
+	
+	/**
+	 * 파티션 경로 범위의 상한 (끝 '/'를 '0'으로 바꾼 값)
+	 */
+	private static String upperBound(String partition) {
+		return partition.substring(0, partition.length() - 1) + "0";
+	}
+}
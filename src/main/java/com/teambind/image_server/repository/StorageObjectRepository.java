@@ -2,10 +2,61 @@ package com.teambind.image_server.repository;
 
 
 import com.teambind.image_server.entity.StorageObject;
+import com.teambind.image_server.enums.ImageStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 
 public interface StorageObjectRepository extends JpaRepository<StorageObject, String> {
+	// 중복 업로드 재사용 대상 조회 (같은 참조 타입 + 처리 완료된 이미지)
+	Optional<StorageObject> findFirstByContentHashAndImage_ReferenceType_CodeAndImage_StatusIn(
+			String contentHash, String referenceTypeCode, Collection<ImageStatus> statuses);
+	
+	// 배치 업로드용 중복 조회 (파일 수만큼 조회하지 않도록 IN 한 번으로 처리)
+	List<StorageObject> findAllByContentHashInAndImage_ReferenceType_CodeAndImage_StatusIn(
+			Collection<String> contentHashes, String referenceTypeCode, Collection<ImageStatus> statuses);
+	
+	/**
+	 * 중복 재사용 원본 행 공유 잠금 (MariaDB: LOCK IN SHARE MODE)
+	 * - 재사용 트랜잭션이 커밋될 때까지 정리 작업이 원본 행을 지우지 못하므로, 정리 커밋 후 참조 확인에서 새 행이 보여 파일이 남음
+	 * - 그 사이 이미 정리된 원본은 조회되지 않음 (잠금 조회는 최신 커밋을 읽음)
+	 * - images 행은 잠그지 않음 (정리 작업이 images → storage_objects 순으로 잠그므로 반대 순서 잠금으로 인한 교착 방지)
+	 */
+	@Lock(LockModeType.PESSIMISTIC_READ)
+	@Query("SELECT s FROM StorageObject s WHERE s.id IN :ids")
+	List<StorageObject> lockAllForShare(@Param("ids") Collection<String> ids);
+	
+	/**
+	 * 근접 중복 인덱스 적재용 (imageId, dHash, 참조 타입)
+	 * - 수백만 건을 엔티티로 올리지 않도록 스칼라 프로젝션을 스트림으로 조회 (트랜잭션 안에서 사용)
+	 */
+	@Query("SELECT s.id AS imageId, s.perceptualHash AS perceptualHash, i.referenceType.code AS referenceTypeCode " +
+			"FROM StorageObject s JOIN s.image i " +
+			"WHERE s.perceptualHash IS NOT NULL AND i.status IN :statuses")
+	Stream<PerceptualHashView> streamPerceptualHashes(@Param("statuses") Collection<ImageStatus> statuses);
+	
+	interface PerceptualHashView {
+		String getImageId();
+		
+		Long getPerceptualHash();
+		
+		String getReferenceTypeCode();
+	}
+	
+	// 파일 참조 수 (중복 재사용으로 여러 행이 같은 파일을 가리킬 수 있음)
+	long countByStorageLocation(String storageLocation);
+	
+	// 아직 참조가 남은 경로 (삭제 후보를 IN 한 번으로 확인)
+	@Query("SELECT DISTINCT s.storageLocation FROM StorageObject s WHERE s.storageLocation IN :locations")
+	List<String> findReferencedLocations(@Param("locations") Collection<String> locations);
 }
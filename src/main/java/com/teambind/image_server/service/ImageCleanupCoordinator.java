@@ -0,0 +1,127 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.IdRange;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 이미지 정리 작업 조정
+ * <p>
+ * FAILED/TEMP/READY/DELETED 정리를 하나의 작업으로 묶고, image_id(UUID) 범위로 나눈 샤드 단위로 실행합니다.
+ * 모든 노드가 같은 시각에 실행하지만 샤드마다 ShedLock 잠금(cleanUpImages-shard-N)을 잡으므로,
+ * 각 노드는 다른 노드가 잡지 않은 샤드만 처리합니다. 노드들이 무작위 샤드부터 시도하므로 세 노드면 보통 하나씩 나눠 갖고,
+ * 노드가 하나만 살아 있으면 그 노드가 모든 샤드를 차례로 처리합니다.
+ * <p>
+ * 샤드별 진행 위치는 ImageCleanupService가 cleanup_checkpoint에 기록하므로, 실행 중 노드가 죽으면
+ * 잠금이 풀린 뒤(lockAtMostFor) 다음 실행에서 어느 노드든 그 위치부터 이어서 처리합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ImageCleanupCoordinator {
+	
+	private static final String LOCK_PREFIX = "cleanUpImages-shard-";
+	private static final String HEX_DIGITS = "0123456789abcdef";
+	
+	private final ImageCleanupService imageCleanupService;
+	private final LockProvider lockProvider;
+	private final int shards;
+	private final Duration lockAtMostFor;
+	private final Duration lockAtLeastFor;
+	
+	public ImageCleanupCoordinator(
+			ImageCleanupService imageCleanupService,
+			LockProvider lockProvider,
+			@Value("${images.cleanup.shards:3}") int shards,
+			@Value("${images.cleanup.lock-at-most-for-ms:600000}") long lockAtMostForMillis,
+			@Value("${images.cleanup.lock-at-least-for-ms:60000}") long lockAtLeastForMillis) {
+		if (shards < 1 || shards > HEX_DIGITS.length()) {
+			throw new IllegalArgumentException("images.cleanup.shards must be between 1 and 16: " + shards);
+		}
+		this.imageCleanupService = imageCleanupService;
+		this.lockProvider = lockProvider;
+		this.shards = shards;
+		this.lockAtMostFor = Duration.ofMillis(lockAtMostForMillis);
+		this.lockAtLeastFor = Duration.ofMillis(lockAtLeastForMillis);
+	}
+	
+	/**
+	 * 잠금을 잡을 수 있는 샤드를 모두 처리
+	 *
+	 * @return 이 노드가 처리한 샤드 결과 합계
+	 */
+	@Scheduled(cron = "${images.cleanup.cron:0 30 3 * * *}", zone = "Asia/Seoul")
+	public ImageCleanupService.CleanupResult runAll() {
+		List<ImageCleanupService.Target> targets = targets(LocalDateTime.now());
+		int start = ThreadLocalRandom.current().nextInt(shards);
+		List<Integer> processed = new ArrayList<>();
+		long rows = 0;
+		long bytes = 0;
+		int files = 0;
+		boolean budgetExhausted = false;
+		
+		for (int i = 0; i < shards; i++) {
+			int shard = (start + i) % shards;
+			String lockName = LOCK_PREFIX + shard;
+			Optional<SimpleLock> lock = lockProvider.lock(
+					new LockConfiguration(ClockProvider.now(), lockName, lockAtMostFor, lockAtLeastFor));
+			if (lock.isEmpty()) {
+				log.debug("Cleanup shard {} is held by another node", shard);
+				continue;
+			}
+			try {
+				ImageCleanupService.CleanupResult result = imageCleanupService.cleanUp(lockName, rangeOf(shard), targets);
+				processed.add(shard);
+				rows += result.rows();
+				bytes += result.bytes();
+				files += result.files();
+				budgetExhausted |= result.budgetExhausted();
+			} catch (Exception e) {
+				// 체크포인트까지는 반영되어 있으므로 다음 실행에서 이어서 처리
+				log.error("Cleanup shard {} failed", shard, e);
+			} finally {
+				lock.get().unlock();
+			}
+		}
+		
+		log.info("Image cleanup run finished: shards={}, rows={}, files={}, budgetExhausted={}",
+				processed, rows, files, budgetExhausted);
+		return new ImageCleanupService.CleanupResult(rows, files, bytes, budgetExhausted);
+	}
+	
+	/**
+	 * 정리 대상 (FAILED/TEMP는 1일, 그 외 미확정 상태는 2일 경과)
+	 */
+	static List<ImageCleanupService.Target> targets(LocalDateTime now) {
+		return List.of(
+				new ImageCleanupService.Target(ImageStatus.FAILED, now.minusDays(1)),
+				new ImageCleanupService.Target(ImageStatus.TEMP, now.minusDays(1)),
+				new ImageCleanupService.Target(ImageStatus.READY, now.minusDays(2)),
+				new ImageCleanupService.Target(ImageStatus.DELETED, now.minusDays(2)));
+	}
+	
+	/**
+	 * 샤드의 image_id 범위 (UUID 첫 hex 자리를 샤드 수로 나눔, 양 끝 샤드는 열린 범위)
+	 */
+	IdRange rangeOf(int shard) {
+		String from = shard == 0 ? null : String.valueOf(HEX_DIGITS.charAt(HEX_DIGITS.length() * shard / shards));
+		String to = shard == shards - 1 ? null : String.valueOf(HEX_DIGITS.charAt(HEX_DIGITS.length() * (shard + 1) / shards));
+		return new IdRange(from, to);
+	}
+}
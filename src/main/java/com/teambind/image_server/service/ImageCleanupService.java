@@ -0,0 +1,204 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.CleanupCheckpoint;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.CleanupCheckpointRepository;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.Cursor;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.IdRange;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.StoredFile;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.util.store.ResizeDiskCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 미사용 이미지 청크 단위 정리
+ * <p>
+ * 정리 대상을 키셋 페이지(chunk-size)로 잠금 조회하고, 청크마다 짧은 트랜잭션에서 IN 목록 DELETE로 지운 뒤,
+ * 커밋 후 참조가 남지 않은 파일과 지운 이미지의 리사이즈 캐시(cache/&lt;imageId&gt;/)를 삭제합니다. 대상 전체를 메모리에 올리지 않고, 청크 트랜잭션이 짧아
+ * 업로드/확정 요청과의 잠금 경합도 청크 하나 크기로 제한됩니다.
+ * <p>
+ * 샤드(image_id 범위)와 상태별로 진행 위치를 cleanup_checkpoint에 청크 삭제와 같은 트랜잭션으로 기록하므로,
+ * 실행이 예산을 다 쓰거나 노드가 죽어도 다음 실행은 마지막으로 지운 행 다음부터 이어서 처리합니다.
+ * 상태 하나를 끝까지 처리하면 커서를 비워, 이후 상태가 바뀐 오래된 행도 다음 실행에서 처음부터 다시 훑습니다.
+ * <p>
+ * 한 번의 실행은 예산 안에서만 진행하고 남은 대상은 다음 실행에서 이어서 처리합니다.
+ * - max-rows-per-run: 삭제할 최대 이미지 수
+ * - max-bytes-per-run: 삭제할 최대 파일 바이트 (행이 가리키는 파일 크기 합, 청크 단위로 확인하므로 한 청크만큼 넘을 수 있음)
+ * - max-duration-ms: 최대 실행 시간 (ShedLock lockAtMostFor보다 짧아야 다른 노드와 겹치지 않음)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ImageCleanupService {
+	
+	private final ImageCleanupJdbcRepository cleanupJdbcRepository;
+	private final CleanupCheckpointRepository checkpointRepository;
+	private final StoredFileReleaser fileReleaser;
+	private final ImageSimilarityService similarityService;
+	private final ResizeDiskCache resizeCache;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	private final long maxRowsPerRun;
+	private final long maxBytesPerRun;
+	private final long maxDurationMillis;
+	
+	public ImageCleanupService(
+			ImageCleanupJdbcRepository cleanupJdbcRepository,
+			CleanupCheckpointRepository checkpointRepository,
+			StoredFileReleaser fileReleaser,
+			ImageSimilarityService similarityService,
+			ResizeDiskCache resizeCache,
+			TransactionTemplate transactionTemplate,
+			@Value("${images.cleanup.chunk-size:500}") int chunkSize,
+			@Value("${images.cleanup.max-rows-per-run:200000}") long maxRowsPerRun,
+			@Value("${images.cleanup.max-bytes-per-run:53687091200}") long maxBytesPerRun,
+			@Value("${images.cleanup.max-duration-ms:480000}") long maxDurationMillis) {
+		this.cleanupJdbcRepository = cleanupJdbcRepository;
+		this.checkpointRepository = checkpointRepository;
+		this.fileReleaser = fileReleaser;
+		this.similarityService = similarityService;
+		this.resizeCache = resizeCache;
+		this.transactionTemplate = transactionTemplate;
+		this.chunkSize = chunkSize;
+		this.maxRowsPerRun = maxRowsPerRun;
+		this.maxBytesPerRun = maxBytesPerRun;
+		this.maxDurationMillis = maxDurationMillis;
+	}
+	
+	/**
+	 * 샤드 하나의 정리 대상 처리 (예산은 대상 전체가 공유)
+	 *
+	 * @param shard   샤드 이름 (체크포인트 키)
+	 * @param range   샤드가 맡은 image_id 범위
+	 * @param targets 정리할 상태와 기준 시각 (순서대로 처리)
+	 */
+	public CleanupResult cleanUp(String shard, IdRange range, List<Target> targets) {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+		long rows = 0;
+		long bytes = 0;
+		int files = 0;
+		
+		for (Target target : targets) {
+			ImageStatus status = target.status();
+			String checkpointName = shard + ":" + status.name();
+			Cursor cursor = loadCursor(checkpointName);
+			while (true) {
+				if (rows >= maxRowsPerRun || bytes >= maxBytesPerRun || System.nanoTime() >= deadline) {
+					CleanupResult result = new CleanupResult(rows, files, bytes, true);
+					log.info("Image cleanup stopped at budget: shard={}, {}", shard, result);
+					return result;
+				}
+				int limit = (int) Math.min(chunkSize, maxRowsPerRun - rows);
+				Cursor after = cursor;
+				Chunk chunk = transactionTemplate.execute(
+						tx -> deleteChunk(checkpointName, status, target.createdBefore(), after, range, limit));
+				if (chunk == null || chunk.imageIds().isEmpty()) {
+					resetCursor(checkpointName, after);
+					break;
+				}
+				
+				// 커밋 후 파일 삭제 (트랜잭션 밖이라 바로 병렬 삭제)
+				files += fileReleaser.releaseUnreferenced(chunk.locations());
+				chunk.imageIds().forEach(similarityService::unregister);
+				// 정리된 이미지의 리사이즈 결과도 삭제 (남겨 두면 nginx try_files가 계속 서빙)
+				resizeCache.evictImages(chunk.imageIds());
+				
+				rows += chunk.imageIds().size();
+				bytes += chunk.bytes();
+				cursor = chunk.last();
+				log.debug("Image cleanup chunk: shard={}, status={}, rows={}, bytes={}",
+						shard, status, chunk.imageIds().size(), chunk.bytes());
+				if (chunk.imageIds().size() < limit) {
+					resetCursor(checkpointName, cursor);
+					break;
+				}
+			}
+		}
+		
+		CleanupResult result = new CleanupResult(rows, files, bytes, false);
+		log.info("Image cleanup completed: shard={}, {}", shard, result);
+		return result;
+	}
+	
+	private Cursor loadCursor(String checkpointName) {
+		return checkpointRepository.findById(checkpointName)
+				.filter(checkpoint -> checkpoint.getCursorCreatedAt() != null)
+				.map(checkpoint -> {
+					log.info("Resuming image cleanup from checkpoint: {}, createdAt={}, imageId={}",
+							checkpointName, checkpoint.getCursorCreatedAt(), checkpoint.getCursorImageId());
+					return new Cursor(checkpoint.getCursorCreatedAt(), checkpoint.getCursorImageId());
+				})
+				.orElse(null);
+	}
+	
+	/**
+	 * 상태 하나를 끝까지 처리했으면 커서를 비움 (커서가 없던 경우는 기록할 것이 없음)
+	 */
+	private void resetCursor(String checkpointName, Cursor cursor) {
+		if (cursor != null) {
+			transactionTemplate.executeWithoutResult(tx -> saveCheckpoint(checkpointName, null, 0));
+		}
+	}
+	
+	private Chunk deleteChunk(String checkpointName, ImageStatus status, LocalDateTime createdBefore,
+	                          Cursor after, IdRange range, int limit) {
+		List<Cursor> targets = cleanupJdbcRepository.lockChunk(status, createdBefore, after, range, limit);
+		if (targets.isEmpty()) {
+			return new Chunk(List.of(), List.of(), 0, null);
+		}
+		List<String> imageIds = targets.stream().map(Cursor::imageId).toList();
+		List<StoredFile> storedFiles = cleanupJdbcRepository.findFiles(imageIds);
+		cleanupJdbcRepository.deleteImages(imageIds);
+		
+		// 삭제와 같은 트랜잭션에서 진행 위치 기록
+		Cursor last = targets.get(targets.size() - 1);
+		saveCheckpoint(checkpointName, last, imageIds.size());
+		
+		long bytes = storedFiles.stream().mapToLong(StoredFile::size).sum();
+		List<String> locations = storedFiles.stream().map(StoredFile::location).toList();
+		return new Chunk(imageIds, locations, bytes, last);
+	}
+	
+	private void saveCheckpoint(String checkpointName, Cursor cursor, int deletedRows) {
+		CleanupCheckpoint checkpoint = checkpointRepository.findById(checkpointName)
+				.orElseGet(() -> CleanupCheckpoint.builder().name(checkpointName).build());
+		checkpoint.setCursorCreatedAt(cursor != null ? cursor.createdAt() : null);
+		checkpoint.setCursorImageId(cursor != null ? cursor.imageId() : null);
+		checkpoint.setDeletedRows(checkpoint.getDeletedRows() + deletedRows);
+		checkpoint.setUpdatedAt(LocalDateTime.now());
+		checkpointRepository.save(checkpoint);
+	}
+	
+	private record Chunk(List<String> imageIds, List<String> locations, long bytes, Cursor last) {
+	}
+	
+	/**
+	 * 정리 대상
+	 *
+	 * @param status        이미지 상태
+	 * @param createdBefore 이 시각 이전에 생성된 이미지만
+	 */
+	public record Target(ImageStatus status, LocalDateTime createdBefore) {
+	}
+	
+	/**
+	 * 정리 결과
+	 *
+	 * @param rows            삭제한 이미지 수
+	 * @param files           삭제한 파일 수 (다른 이미지가 공유하는 파일 제외)
+	 * @param bytes           삭제한 이미지가 가리키던 파일 바이트
+	 * @param budgetExhausted 예산을 다 써서 남은 대상을 다음 실행으로 미뤘는지
+	 */
+	public record CleanupResult(long rows, int files, long bytes, boolean budgetExhausted) {
+	}
+}
@@ -0,0 +1,106 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.repository.ImageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 처리 중(TEMP) 이미지 확정 대기
+ * <p>
+ * 업로드 직후 확정 요청이 들어오면 IMAGE_PROCESSING_IN_PROGRESS로 바로 실패시키는 대신,
+ * ImageProcessingCompletionBus에서 처리 완료를 기다렸다가 확정을 한 번 더 시도합니다.
+ * - 요청 스레드는 DeferredResult를 반환하고 즉시 반납됨 (서블릿 비동기)
+ * - wait-timeout-ms 안에 처리가 끝나지 않으면 기존과 같은 IMAGE_PROCESSING_IN_PROGRESS 응답
+ * - 처리 실패(FAILED) 시 재시도한 확정이 IMAGE_PROCESSING_FAILED로 응답
+ * <p>
+ * 클라이언트 재시도 루프와 그때마다 발생하던 findById 왕복을 요청 하나로 대체합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class ImageConfirmWaiter {
+	
+	private final ImageConfirmService imageConfirmService;
+	private final ImageProcessingCompletionBus completionBus;
+	private final ImageRepository imageRepository;
+	private final long waitTimeoutMillis;
+	
+	// 완료 후 재확정(DB 트랜잭션)을 워커/공용 풀이 아닌 가상 스레드에서 실행
+	private final ExecutorService retryExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	
+	public ImageConfirmWaiter(
+			ImageConfirmService imageConfirmService,
+			ImageProcessingCompletionBus completionBus,
+			ImageRepository imageRepository,
+			@Value("${images.confirm.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+		this.imageConfirmService = imageConfirmService;
+		this.completionBus = completionBus;
+		this.imageRepository = imageRepository;
+		this.waitTimeoutMillis = waitTimeoutMillis;
+	}
+	
+	/**
+	 * 처리 완료를 기다린 뒤 확정
+	 * <p>
+	 * 호출자가 이미 한 번 확정을 시도해 IMAGE_PROCESSING_IN_PROGRESS를 받은 경우에 사용합니다.
+	 * 대기 시간이 0 이하이면 기다리지 않고 기존 예외를 그대로 전달합니다.
+	 *
+	 * @param imageId     확정할 이미지 ID
+	 * @param referenceId 참조 ID
+	 * @return 확정 결과 (200 OK 또는 CustomException)
+	 */
+	public DeferredResult<ResponseEntity<Void>> confirmWhenProcessed(String imageId, String referenceId) {
+		DeferredResult<ResponseEntity<Void>> result = new DeferredResult<>(Math.max(waitTimeoutMillis, 1));
+		if (waitTimeoutMillis <= 0) {
+			result.setErrorResult(new CustomException(ErrorCode.IMAGE_PROCESSING_IN_PROGRESS));
+			return result;
+		}
+		
+		CompletableFuture<ImageStatus> completion = completionBus.listen(imageId);
+		completion.thenRunAsync(() -> confirm(imageId, referenceId, result), retryExecutor);
+		
+		result.onTimeout(() -> {
+			log.warn("Image still processing after wait: imageId={}, waitedMs={}", imageId, waitTimeoutMillis);
+			result.setErrorResult(new CustomException(ErrorCode.IMAGE_PROCESSING_IN_PROGRESS));
+		});
+		result.onCompletion(() -> completion.cancel(false));
+		
+		// 첫 확정 시도와 구독 사이에 처리가 끝났으면 알림을 놓쳤으므로 바로 재시도
+		imageRepository.findById(imageId)
+				.filter(image -> image.getStatus() != ImageStatus.TEMP)
+				.ifPresent(image -> completion.complete(image.getStatus()));
+		
+		log.info("Waiting for image processing before confirm: imageId={}, referenceId={}", imageId, referenceId);
+		return result;
+	}
+	
+	private void confirm(String imageId, String referenceId, DeferredResult<ResponseEntity<Void>> result) {
+		if (result.isSetOrExpired()) {
+			return;
+		}
+		try {
+			imageConfirmService.confirmImage(imageId, referenceId);
+			result.setResult(ResponseEntity.ok().build());
+		} catch (RuntimeException e) {
+			result.setErrorResult(e);
+		}
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		retryExecutor.shutdown();
+	}
+}
@@ -0,0 +1,87 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.config.AsyncConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * 이미지 디코딩/인코딩(CPU 작업) 디스패처
+ * <p>
+ * 실행 모드(images.processing.execution-mode)에 따라 CPU 작업 실행 위치를 결정합니다.
+ * - platform: 호출한 워커 스레드에서 그대로 실행 (기존 동작)
+ * - virtual: 코어 수 크기의 imageEncodeExecutor로 넘기고, 호출한 가상 스레드는 결과를 기다림
+ * <p>
+ * 가상 스레드 모드에서는 I/O(스풀 읽기, 파일 저장, DB 갱신)만 가상 스레드가 담당하므로
+ * 동시 업로드가 많아도 인코딩이 CPU 코어 수 이상으로 겹치지 않습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class ImageEncodeDispatcher {
+
+	private final AsyncTaskExecutor encodeExecutor;
+	private final boolean dispatch;
+
+	public ImageEncodeDispatcher(
+			@Qualifier("imageEncodeExecutor") AsyncTaskExecutor encodeExecutor,
+			@Value("${images.processing.execution-mode:platform}") String executionMode) {
+		this.encodeExecutor = encodeExecutor;
+		this.dispatch = AsyncConfig.EXECUTION_MODE_VIRTUAL.equalsIgnoreCase(executionMode);
+		log.info("Image encode dispatcher initialized: executionMode={}, dispatchToEncodePool={}", executionMode, dispatch);
+	}
+
+	/**
+	 * CPU 작업 실행
+	 *
+	 * @param work 디코딩/인코딩 작업
+	 * @return 작업 결과
+	 * @throws Exception 작업에서 발생한 예외 (ExecutionException은 원인 예외로 풀어서 전달)
+	 */
+	public <T> T run(Callable<T> work) throws Exception {
+		if (!dispatch) {
+			return work.call();
+		}
+
+		Future<T> future = encodeExecutor.submit(work);
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof Exception exception) {
+				throw exception;
+			}
+			throw e;
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw e;
+		}
+	}
+	
+	/**
+	 * 여러 CPU 작업을 인코딩 풀에 동시에 제출 (배치 업로드 팬아웃)
+	 * <p>
+	 * 실행 모드와 무관하게 항상 imageEncodeExecutor에서 실행합니다.
+	 * 배치 하나를 워커 스레드 하나가 순서대로 인코딩하면 단건 업로드보다 느려지므로,
+	 * 코어 수 크기 풀에서 병렬로 처리하고 호출자는 결과만 모읍니다.
+	 *
+	 * @param works 디코딩/인코딩 작업 목록
+	 * @return 입력 순서와 같은 순서의 결과 Future (실패한 작업은 예외로 완료)
+	 */
+	public <T> List<CompletableFuture<T>> runAll(List<Callable<T>> works) {
+		return works.stream()
+				.map(encodeExecutor::submitCompletable)
+				.toList();
+	}
+}
@@ -0,0 +1,112 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.exception.RetryableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 이미지 처리 큐 입장 제어 (Admission Control)
+ * <p>
+ * ImageProcessingTaskQueue 앞단에서 대기 중인 작업 수와 바이트를 추적하고,
+ * 예산을 초과하면 요청 스레드가 직접 변환하는 대신 429 + Retry-After로 즉시 거절합니다.
+ * - 작업 수 예산: 실행 중 + 대기 중인 작업 수
+ * - 바이트 예산: 스풀된 원본 크기 합계 (디스크/디코딩 메모리 압력의 근사치)
+ * <p>
+ * 예산보다 큰 단일 업로드도 큐가 비어 있으면 허용하여 영구 거절을 방지합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class ImageProcessingAdmission {
+
+	private final int maxQueuedTasks;
+	private final long maxQueuedBytes;
+	private final long retryAfterSeconds;
+
+	private final AtomicInteger queuedTasks = new AtomicInteger();
+	private final AtomicLong queuedBytes = new AtomicLong();
+
+	public ImageProcessingAdmission(
+			@Value("${images.processing.admission.max-queued-tasks:500}") int maxQueuedTasks,
+			@Value("${images.processing.admission.max-queued-bytes:524288000}") long maxQueuedBytes,
+			@Value("${images.processing.admission.retry-after-seconds:5}") long retryAfterSeconds) {
+		this.maxQueuedTasks = maxQueuedTasks;
+		this.maxQueuedBytes = maxQueuedBytes;
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+
+	/**
+	 * 작업 입장 시도
+	 *
+	 * @param tasks 입장할 작업 수
+	 * @param bytes 입장할 작업들의 원본 크기 합계
+	 * @throws RetryableException 예산 초과 시 (IMAGE_PROCESSING_QUEUE_FULL)
+	 */
+	public void acquire(int tasks, long bytes) {
+		// 작업 수를 먼저 CAS로 확보한 뒤 바이트 예산을 확인 (실패 시 되돌림)
+		int currentTasks;
+		do {
+			currentTasks = queuedTasks.get();
+			if (currentTasks + tasks > maxQueuedTasks) {
+				throw reject(currentTasks, queuedBytes.get(), tasks, bytes);
+			}
+		} while (!queuedTasks.compareAndSet(currentTasks, currentTasks + tasks));
+
+		long currentBytes;
+		do {
+			currentBytes = queuedBytes.get();
+			if (currentTasks > 0 && currentBytes + bytes > maxQueuedBytes) {
+				queuedTasks.addAndGet(-tasks);
+				throw reject(currentTasks, currentBytes, tasks, bytes);
+			}
+		} while (!queuedBytes.compareAndSet(currentBytes, currentBytes + bytes));
+	}
+
+	/**
+	 * 작업 완료(성공/실패 무관) 또는 등록 실패 시 예산 반환
+	 */
+	public void release(int tasks, long bytes) {
+		queuedTasks.addAndGet(-tasks);
+		queuedBytes.addAndGet(-bytes);
+	}
+
+	public int getQueuedTasks() {
+		return queuedTasks.get();
+	}
+
+	public long getQueuedBytes() {
+		return queuedBytes.get();
+	}
+
+	public int getMaxQueuedTasks() {
+		return maxQueuedTasks;
+	}
+
+	public long getMaxQueuedBytes() {
+		return maxQueuedBytes;
+	}
+
+	public long getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+
+	/**
+	 * 스레드 풀에서 거절된 경우 등 외부에서 동일한 형태의 예외를 만들 때 사용
+	 */
+	public RetryableException queueFull() {
+		return new RetryableException(ErrorCode.IMAGE_PROCESSING_QUEUE_FULL, retryAfterSeconds);
+	}
+
+	private RetryableException reject(int currentTasks, long currentBytes, int tasks, long bytes) {
+		log.warn("Image processing queue full: queuedTasks={}/{}, queuedBytes={}/{}, requestedTasks={}, requestedBytes={}",
+				currentTasks, maxQueuedTasks, currentBytes, maxQueuedBytes, tasks, bytes);
+		return queueFull();
+	}
+}
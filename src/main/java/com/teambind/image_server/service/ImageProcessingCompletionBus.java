@@ -0,0 +1,85 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.enums.ImageStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이미지 처리 완료 버스 (프로세스 내)
+ * <p>
+ * TEMP 상태 이미지의 처리 결과(READY/FAILED)를 기다리는 쪽과 ImageProcessingTaskQueue를 연결합니다.
+ * - 구독자는 listen(imageId)로 Future를 받고, 처리가 끝나면 최종 상태로 완료됨
+ * - 워커는 커밋 후 publish(imageId, status)로 알림 (대기자가 없으면 아무 일도 하지 않음)
+ * <p>
+ * 다른 노드에서 처리된 이미지는 이 버스로 알림이 오지 않으므로, 구독 측(ImageStatusStreamService)이
+ * 대기 중인 ID를 주기적으로 한 번에 조회해 publish합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class ImageProcessingCompletionBus {
+	
+	private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+	
+	/**
+	 * 처리 완료 대기
+	 * <p>
+	 * 구독자별 사본 Future를 반환하므로 호출자가 orTimeout/cancel을 걸어도 다른 구독자에게 영향이 없습니다.
+	 *
+	 * @param imageId 이미지 ID
+	 * @return 최종 상태(READY/FAILED)로 완료되는 Future
+	 */
+	public CompletableFuture<ImageStatus> listen(String imageId) {
+		return pending.computeIfAbsent(imageId, id -> new Pending(new CompletableFuture<>(), System.currentTimeMillis()))
+				.future()
+				.copy();
+	}
+	
+	/**
+	 * 처리 완료 알림 (DB 커밋 이후 호출)
+	 */
+	public void publish(String imageId, ImageStatus status) {
+		Pending removed = pending.remove(imageId);
+		if (removed != null) {
+			removed.future().complete(status);
+			log.debug("Image processing completion published: imageId={}, status={}", imageId, status);
+		}
+	}
+	
+	/**
+	 * 대기자가 있는 이미지 ID (교차 노드 재확인 대상)
+	 */
+	public Set<String> pendingIds() {
+		return Set.copyOf(pending.keySet());
+	}
+	
+	/**
+	 * 오래된 대기 항목 제거 (처리가 유실된 이미지에 대한 메모리 누수 방지)
+	 *
+	 * @param maxAgeMillis 이보다 오래 기다린 항목 제거
+	 * @return 제거된 항목 수
+	 */
+	public int expire(long maxAgeMillis) {
+		long threshold = System.currentTimeMillis() - maxAgeMillis;
+		int[] expired = {0};
+		pending.entrySet().removeIf(entry -> {
+			if (entry.getValue().createdAtMillis() < threshold) {
+				entry.getValue().future().cancel(false);
+				expired[0]++;
+				return true;
+			}
+			return false;
+		});
+		return expired[0];
+	}
+	
+	private record Pending(CompletableFuture<ImageStatus> future, long createdAtMillis) {
+	}
+}
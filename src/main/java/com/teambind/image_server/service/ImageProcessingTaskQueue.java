@@ -1,25 +1,44 @@
 package com.teambind.image_server.service;
 
+import com.sksamuel.scrimage.ImmutableImage;
+import com.teambind.image_server.config.ImageVariantProperties;
 import com.teambind.image_server.config.InitialSetup;
 import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
 import com.teambind.image_server.entity.StorageObject;
 import com.teambind.image_server.enums.ImageStatus;
 import com.teambind.image_server.exception.CustomException;
 import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.metrics.ImageProcessingMetrics;
 import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.ImageVariantRepository;
 import com.teambind.image_server.task.ImageProcessingTask;
+import com.teambind.image_server.util.convertor.EncodedImageSet;
+import com.teambind.image_server.util.convertor.EncodedVariant;
 import com.teambind.image_server.util.convertor.ImageUtil;
-import com.teambind.image_server.util.store.LocalImageStorage;
+import com.teambind.image_server.util.convertor.PerceptualHash;
+import com.teambind.image_server.util.helper.UrlHelper;
+import com.teambind.image_server.util.store.ImageStorage;
+import com.teambind.image_server.util.store.SpooledUpload;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * 이미지 처리 Task Queue 서비스
  * <p>
  * 백그라운드에서 이미지 변환 및 저장을 비동기로 처리합니다.
+ * 입장 제어는 {@link ImageProcessingAdmission}이 담당하며, 작업이 끝나면 예산을 반환합니다.
  *
  * @author Image Server Team
  * @since 3.0
@@ -30,84 +49,349 @@ import org.springframework.transaction.annotation.Transactional;
 public class ImageProcessingTaskQueue {
 	
 	private final ImageRepository imageRepository;
-	private final LocalImageStorage imageStorage;
+	private final ImageStorage imageStorage;
+	private final ImageProcessingAdmission admission;
+	private final ImageEncodeDispatcher encodeDispatcher;
+	private final TransactionTemplate transactionTemplate;
+	private final ImageVariantProperties variantProperties;
+	private final UrlHelper urlHelper;
+	private final ImageSimilarityService similarityService;
+	private final ImageVariantRepository imageVariantRepository;
+	private final ImageProcessingMetrics metrics;
+	private final ImageProcessingCompletionBus completionBus;
 	
 	/**
 	 * 이미지 처리 작업을 비동기로 실행
 	 * <p>
 	 * 처리 흐름:
-	 * 1. WebP 변환 시도
-	 * 2. 파일 저장
-	 * 3. DB 상태 업데이트 (TEMP → READY)
-	 * 4. 실패 시 원본 저장 또는 FAILED 상태로 변경
+	 * 1. 스풀 파일 디코딩 (원본을 byte 배열로 읽지 않고 파일에서 바로 디코딩)
+	 * 2. WebP 변환 + dHash + 참조 타입별 변형 생성 (CPU, 한 번만 디코딩, ImageEncodeDispatcher 경유)
+	 *    근접 중복 변형 재사용이 켜져 있고 가까운 이미지가 있으면 변형 인코딩을 생략하고 그 변형을 공유
+	 * 3. 원본/변형 파일 저장 (I/O)
+	 * 4. DB 상태 업데이트 (TEMP → READY, 짧은 트랜잭션)
+	 * 5. 실패 시 원본 저장 또는 FAILED 상태로 변경
+	 * 6. 스풀 파일 정리
+	 * 7. READY/FAILED 확정 후 ImageProcessingCompletionBus로 대기자(SSE 구독 등)에게 알림
+	 * <p>
+	 * 메서드 전체를 트랜잭션으로 묶지 않습니다. 인코딩하는 동안 DB 커넥션을 점유하지 않도록
+	 * DB 갱신 구간만 TransactionTemplate으로 감쌉니다. (가상 스레드 모드에서 커넥션 풀 고갈 방지)
+	 * <p>
+	 * 단계별 소요 시간과 입출력 바이트는 {@link ImageProcessingMetrics}로 기록합니다.
 	 *
 	 * @param task 이미지 처리 작업
 	 */
 	@Async("imageProcessingExecutor")
-	@Transactional
 	public void submit(ImageProcessingTask task) {
 		String imageId = task.getImageId();
+		String outcome = ImageProcessingMetrics.OUTCOME_FAILED;
 		
 		try {
 			log.info("Starting image processing: imageId={}", imageId);
+			metrics.recordQueueWait(task);
 			
-			byte[] convertedBytes;
-			String finalStoredPath;
-			String convertedFormatCode;
-			
+			// 1~2. 스풀 파일 디코딩 + WebP 변환/변형 생성 (CPU 작업은 디스패처가 실행 위치 결정)
+			EncodeResult result;
 			try {
-				// 1. WebP 변환 시도
-				convertedBytes = ImageUtil.toWebp(task.getFile(), 0.8f);
-				finalStoredPath = task.getStoredPath(); // .webp 경로
-				convertedFormatCode = "WEBP";
-				
-				log.debug("Image converted to WebP: imageId={}, size={}bytes", imageId, convertedBytes.length);
-				
+				result = encodeDispatcher.run(() -> encode(task));
 			} catch (Exception e) {
-				// 2. 변환 실패 시 원본 저장 (폴백)
-				log.warn("WebP conversion failed, saving as original: imageId={}, error={}", imageId, e.getMessage());
-				
-				convertedBytes = task.getFile().getBytes();
-				String ext = task.getOriginalExtension().toLowerCase();
-				finalStoredPath = task.getStoredPath().replace(".webp", "." + ext);
-				convertedFormatCode = task.getOriginalExtension();
-				
-				log.debug("Image saved as original: imageId={}, format={}", imageId, convertedFormatCode);
+				// 변환 실패 시 원본 저장 (폴백)
+				logFallback(task, e);
+				result = null;
 			}
 			
 			// 3. 파일 저장
-			imageStorage.store(convertedBytes, finalStoredPath);
+			StoredImage stored = store(task, result);
 			
 			// 4. DB 상태 업데이트 (TEMP → READY)
-			Image image = imageRepository.findById(imageId)
-					.orElseThrow(() -> new CustomException(ErrorCode.IMAGE_NOT_FOUND));
+			long dbStart = System.nanoTime();
+			transactionTemplate.executeWithoutResult(status -> {
+				Image image = imageRepository.findById(imageId)
+						.orElseThrow(() -> new CustomException(ErrorCode.IMAGE_NOT_FOUND));
+				markReady(image, task, stored);
+				imageRepository.save(image);
+			});
+			metrics.recordDbUpdate(task, System.nanoTime() - dbStart);
+			outcome = stored.outcome();
 			
-			// StorageObject 생성
-			StorageObject storageObject = StorageObject.builder()
-					.image(image)
-					.convertedFormat(InitialSetup.EXTENSION_MAP.get(convertedFormatCode))
-					.originFormat(InitialSetup.EXTENSION_MAP.get(task.getOriginalExtension()))
-					.originSize(task.getFile().getSize())
-					.convertedSize((long) convertedBytes.length)
-					.storageLocation(finalStoredPath)
-					.build();
-			
-			image.setStatus(ImageStatus.READY);
-			image.setStorageObject(storageObject);
-			
-			imageRepository.save(image);
+			// 근접 중복 인덱스 등록 및 대기자 알림 (커밋 후)
+			similarityService.register(imageId, stored.perceptualHash(), task.getReferenceTypeCode());
+			completionBus.publish(imageId, ImageStatus.READY);
 			
 			log.info("Image processing completed successfully: imageId={}, format={}, size={}bytes",
-					imageId, convertedFormatCode, convertedBytes.length);
+					imageId, stored.formatCode(), stored.convertedSize());
 			
 		} catch (Exception e) {
 			log.error("Image processing failed: imageId={}", imageId, e);
 			
 			// 5. 완전 실패 시 FAILED 상태로 변경
 			handleProcessingFailure(imageId, e);
+		} finally {
+			// 6. 스풀 파일 정리 및 입장 예산 반환
+			complete(task, outcome);
+		}
+	}
+	
+	/**
+	 * 배치 업로드 처리 (한 요청의 여러 이미지를 하나의 작업으로)
+	 * <p>
+	 * 처리 흐름:
+	 * 1. 모든 이미지의 디코딩/인코딩을 인코딩 풀에 동시에 제출 (팬아웃)
+	 * 2. 결과가 나오는 대로 원본/변형 파일 저장 (입력 순서)
+	 * 3. 저장에 성공한 이미지의 TEMP → READY 갱신과 StorageObject/변형 INSERT를 한 트랜잭션으로 처리
+	 *    (findAllById 1회 + JDBC 배치 flush)
+	 * 4. 개별 이미지 실패는 해당 이미지만 FAILED로 변경하고 나머지는 계속 처리
+	 *
+	 * @param tasks 같은 요청에서 등록된 이미지 처리 작업 목록
+	 */
+	@Async("imageProcessingExecutor")
+	public void submitBatch(List<ImageProcessingTask> tasks) {
+		log.info("Starting batch image processing: size={}", tasks.size());
+		Map<String, String> outcomes = new HashMap<>();
+		Map<String, StoredImage> storedImages = new LinkedHashMap<>();
+		
+		try {
+			// 1. 인코딩 팬아웃 (스풀 파일 디코딩도 인코딩 작업 안에서 수행하여 동시에 메모리에 올라가는 이미지 수를 코어 수로 제한)
+			List<Callable<EncodeResult>> works = new ArrayList<>(tasks.size());
+			for (ImageProcessingTask task : tasks) {
+				metrics.recordQueueWait(task);
+				works.add(() -> encode(task));
+			}
+			List<CompletableFuture<EncodeResult>> futures = encodeDispatcher.runAll(works);
+			
+			// 2. 파일 저장 (개별 실패는 해당 이미지만 FAILED 처리)
+			for (int i = 0; i < tasks.size(); i++) {
+				ImageProcessingTask task = tasks.get(i);
+				try {
+					EncodeResult result;
+					try {
+						result = futures.get(i).join();
+					} catch (CompletionException e) {
+						logFallback(task, e.getCause() instanceof Exception cause ? cause : e);
+						result = null;
+					}
+					storedImages.put(task.getImageId(), store(task, result));
+				} catch (Exception e) {
+					log.error("Image processing failed in batch: imageId={}", task.getImageId(), e);
+					handleProcessingFailure(task.getImageId(), e);
+				}
+			}
+			
+			// 3. READY 갱신 일괄 처리 (단일 트랜잭션)
+			if (!storedImages.isEmpty()) {
+				long dbStart = System.nanoTime();
+				transactionTemplate.executeWithoutResult(status -> {
+					Map<String, Image> images = new HashMap<>();
+					imageRepository.findAllById(storedImages.keySet()).forEach(image -> images.put(image.getId(), image));
+					for (ImageProcessingTask task : tasks) {
+						StoredImage stored = storedImages.get(task.getImageId());
+						Image image = images.get(task.getImageId());
+						if (stored == null) {
+							continue;
+						}
+						if (image == null) {
+							throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+						}
+						markReady(image, task, stored);
+					}
+					imageRepository.saveAll(images.values());
+				});
+				long dbNanos = System.nanoTime() - dbStart;
+				
+				for (ImageProcessingTask task : tasks) {
+					StoredImage stored = storedImages.get(task.getImageId());
+					if (stored != null) {
+						metrics.recordDbUpdate(task, dbNanos);
+						outcomes.put(task.getImageId(), stored.outcome());
+						similarityService.register(task.getImageId(), stored.perceptualHash(), task.getReferenceTypeCode());
+						completionBus.publish(task.getImageId(), ImageStatus.READY);
+					}
+				}
+			}
+			
+			log.info("Batch image processing completed: size={}, ready={}", tasks.size(), outcomes.size());
+			
+		} catch (Exception e) {
+			// READY 일괄 갱신 실패: 아직 결과가 없는 이미지를 모두 FAILED로 변경
+			log.error("Batch image processing failed: size={}", tasks.size(), e);
+			for (String imageId : storedImages.keySet()) {
+				if (!outcomes.containsKey(imageId)) {
+					handleProcessingFailure(imageId, e);
+				}
+			}
+		} finally {
+			for (ImageProcessingTask task : tasks) {
+				complete(task, outcomes.getOrDefault(task.getImageId(), ImageProcessingMetrics.OUTCOME_FAILED));
+			}
+		}
+	}
+	
+	private void logFallback(ImageProcessingTask task, Exception e) {
+		log.warn("WebP conversion failed, saving as original: imageId={}, error={}", task.getImageId(), e.getMessage());
+	}
+	
+	/**
+	 * 변환본(또는 폴백 시 스풀 원본)과 변형 파일 저장
+	 *
+	 * @param result 인코딩 결과 (null이면 원본 포맷으로 저장)
+	 */
+	private StoredImage store(ImageProcessingTask task, EncodeResult result) {
+		SpooledUpload upload = task.getUpload();
+		long storageStart = System.nanoTime();
+		
+		String storedPath;
+		String formatCode;
+		long convertedSize;
+		List<EncodedVariant> variants;
+		if (result != null) {
+			EncodedImageSet encoded = result.encoded();
+			storedPath = task.getStoredPath(); // .webp 경로
+			formatCode = "WEBP";
+			imageStorage.store(encoded.getOriginal(), storedPath);
+			convertedSize = encoded.getOriginal().length;
+			variants = encoded.getVariants();
+			
+			log.debug("Image converted to WebP: imageId={}, size={}bytes, variants={}",
+					task.getImageId(), convertedSize, variants.size());
+		} else {
+			// 폴백: 스풀 파일을 원본 확장자로 그대로 이동
+			storedPath = task.getStoredPath().replace(".webp", "." + task.getOriginalExtension().toLowerCase());
+			formatCode = task.getOriginalExtension();
+			imageStorage.store(upload.getPath(), storedPath);
+			convertedSize = upload.getSize();
+			variants = List.of();
+			
+			log.debug("Image saved as original: imageId={}, format={}", task.getImageId(), formatCode);
+		}
+		
+		// 변형 파일 저장 (예: abc-123_w320.webp)
+		List<String> variantPaths = new ArrayList<>(variants.size());
+		long variantBytes = 0;
+		for (EncodedVariant variant : variants) {
+			String path = variantPath(storedPath, variant.getWidth());
+			imageStorage.store(variant.getBytes(), path);
+			variantPaths.add(path);
+			variantBytes += variant.getBytes().length;
+		}
+		metrics.recordStorageWrite(task, System.nanoTime() - storageStart);
+		metrics.recordBytes(task, upload.getSize(), convertedSize + variantBytes);
+		
+		return new StoredImage(storedPath, formatCode, convertedSize, variants, variantPaths,
+				result != null ? result.encoded().getPerceptualHash() : null,
+				result != null ? result.variantSourceId() : null,
+				result != null);
+	}
+	
+	/**
+	 * 스풀 파일 정리 (폴백으로 이동된 경우는 이미 없음), 입장 예산 반환, 전체 지연 기록
+	 */
+	private void complete(ImageProcessingTask task, String outcome) {
+		task.getUpload().delete();
+		admission.release(1, task.getUpload().getSize());
+		metrics.recordCompletion(task, outcome);
+	}
+	
+	private void markReady(Image image, ImageProcessingTask task, StoredImage stored) {
+		// StorageObject 생성
+		StorageObject storageObject = StorageObject.builder()
+				.image(image)
+				.convertedFormat(InitialSetup.EXTENSION_MAP.get(stored.formatCode()))
+				.originFormat(InitialSetup.EXTENSION_MAP.get(task.getOriginalExtension()))
+				.originSize(task.getUpload().getSize())
+				.convertedSize(stored.convertedSize())
+				.storageLocation(stored.storedPath())
+				.contentHash(task.getUpload().getContentHash())
+				.perceptualHash(stored.perceptualHash())
+				.build();
+		
+		image.setStatus(ImageStatus.READY);
+		image.setStorageObject(storageObject);
+		
+		// 변형 메타데이터 (가장 작은 폭이 썸네일)
+		LocalDateTime now = LocalDateTime.now();
+		List<EncodedVariant> variants = stored.variants();
+		for (int i = 0; i < variants.size(); i++) {
+			EncodedVariant variant = variants.get(i);
+			image.getVariants().add(ImageVariant.builder()
+					.image(image)
+					.variantCode(ImageVariant.codeOf(variant.getWidth()))
+					.isThumbnail(i == 0)
+					.uploaderId(task.getUploaderId())
+					.uploadedAt(now)
+					.width(variant.getWidth())
+					.height(variant.getHeight())
+					.url(urlHelper.getUrl(stored.variantPaths().get(i)))
+					.storageLocation(stored.variantPaths().get(i))
+					.fileSize((long) variant.getBytes().length)
+					.build());
+		}
+		
+		// 근접 중복 이미지의 변형 재사용 (파일 공유, 삭제는 참조 카운트로 처리)
+		String variantSourceId = stored.variantSourceId();
+		if (variantSourceId != null) {
+			for (ImageVariant source : imageVariantRepository.findAllByImage_IdOrderByWidthAsc(variantSourceId)) {
+				image.getVariants().add(ImageVariant.builder()
+						.image(image)
+						.variantCode(source.getVariantCode())
+						.isThumbnail(source.isThumbnail())
+						.uploaderId(task.getUploaderId())
+						.uploadedAt(now)
+						.width(source.getWidth())
+						.height(source.getHeight())
+						.url(source.getUrl())
+						.storageLocation(source.getStorageLocation())
+						.fileSize(source.getFileSize())
+						.build());
+			}
+			log.info("Reused variants of near-duplicate image: imageId={}, sourceImageId={}", task.getImageId(), variantSourceId);
 		}
 	}
 	
+	/**
+	 * 디코딩 → dHash → (근접 중복이면 변형 생략) → 인코딩
+	 * - 인코딩 스레드에서 실행되므로 DB 접근 없이 메모리 인덱스만 조회
+	 */
+	private EncodeResult encode(ImageProcessingTask task) throws IOException {
+		String referenceTypeCode = task.getReferenceTypeCode();
+		long decodeStart = System.nanoTime();
+		ImmutableImage decoded = ImageUtil.decodeFile(task.getUpload().getPath());
+		metrics.recordDecode(task, System.nanoTime() - decodeStart);
+		
+		long encodeStart = System.nanoTime();
+		long perceptualHash = PerceptualHash.dHash(decoded);
+		
+		String variantSourceId = similarityService.findVariantSource(perceptualHash, referenceTypeCode);
+		List<Integer> widths = variantSourceId != null ? List.of() : variantProperties.widthsFor(referenceTypeCode);
+		
+		EncodedImageSet encoded = ImageUtil.encodeWithVariants(decoded, perceptualHash, variantProperties.getQuality(), widths);
+		metrics.recordEncode(task, System.nanoTime() - encodeStart);
+		return new EncodeResult(encoded, variantSourceId);
+	}
+	
+	private record EncodeResult(EncodedImageSet encoded, String variantSourceId) {
+	}
+	
+	/**
+	 * 파일 저장까지 끝난 이미지 (DB 갱신 입력)
+	 *
+	 * @param converted WebP 변환 성공 여부 (false면 원본 폴백)
+	 */
+	private record StoredImage(String storedPath, String formatCode, long convertedSize,
+	                           List<EncodedVariant> variants, List<String> variantPaths,
+	                           Long perceptualHash, String variantSourceId, boolean converted) {
+		
+		String outcome() {
+			return converted ? ImageProcessingMetrics.OUTCOME_READY : ImageProcessingMetrics.OUTCOME_FALLBACK;
+		}
+	}
+	
+	/**
+	 * 변형 저장 경로 (원본 경로의 확장자 앞에 _w{폭} 추가)
+	 */
+	static String variantPath(String storedPath, int width) {
+		int dot = storedPath.lastIndexOf('.');
+		return storedPath.substring(0, dot) + "_w" + width + storedPath.substring(dot);
+	}
+	
 	/**
 	 * 이미지 처리 완전 실패 시 처리
 	 * <p>
@@ -126,6 +410,7 @@ public class ImageProcessingTaskQueue {
 			image.setStatus(ImageStatus.FAILED);
 			imageRepository.save(image);
 			
+			completionBus.publish(imageId, ImageStatus.FAILED);
 			log.error("Image status changed to FAILED: imageId={}, reason={}", imageId, e.getMessage());
 			
 		} catch (Exception dbException) {
@@ -0,0 +1,162 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.exception.RetryableException;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.util.convertor.ImageUtil;
+import com.teambind.image_server.util.convertor.ResizeSpec;
+import com.teambind.image_server.util.store.ImageStorage;
+import com.teambind.image_server.util.store.ResizeDiskCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 온디맨드 리사이즈 서비스
+ * <p>
+ * 처리 흐름:
+ * 1. 이미지 상태 확인 (삭제/정리된 이미지는 캐시가 남아 있어도 서빙하지 않음)
+ * 2. 디스크 캐시 조회 (nginx try_files가 놓친 경우 또는 다른 노드가 만든 파일)
+ * 3. 저장된 원본(변환된 WebP 또는 폴백 원본)을 읽어 리사이즈 (CPU, ImageEncodeDispatcher 경유)
+ * 4. 디스크 캐시에 저장 → 이후 동일 요청은 nginx가 직접 서빙
+ * <p>
+ * 이미지가 정리되면 ImageCleanupService가 cache/&lt;imageId&gt;/ 디렉토리를 지워 nginx도 더 이상 서빙하지 않습니다.
+ * <p>
+ * 같은 키에 대한 동시 요청은 하나의 리사이즈 작업을 공유합니다.
+ * <p>
+ * 파라미터를 바꿔 가며 캐시를 우회하는 요청이 요청 스레드와 힙을 모두 쓰지 못하도록,
+ * 동시에 진행하는 리사이즈는 images.resize.max-concurrent개로 제한하고 넘치면 기다리지 않고 429 + Retry-After로 거절합니다.
+ * (원본보다 크게 만들지 않고 품질 단계를 제한하는 것은 ResizeSpec/ImageUtil 참고)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ImageResizeService {
+	
+	private final ImageRepository imageRepository;
+	private final ImageStorage imageStorage;
+	private final ResizeDiskCache resizeCache;
+	private final ImageEncodeDispatcher encodeDispatcher;
+	private final Semaphore renderPermits;
+	private final long retryAfterSeconds;
+	
+	private final ConcurrentHashMap<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+	
+	public ImageResizeService(
+			ImageRepository imageRepository,
+			ImageStorage imageStorage,
+			ResizeDiskCache resizeCache,
+			ImageEncodeDispatcher encodeDispatcher,
+			@Value("${images.resize.max-concurrent:0}") int maxConcurrent,
+			@Value("${images.resize.retry-after-seconds:1}") long retryAfterSeconds) {
+		this.imageRepository = imageRepository;
+		this.imageStorage = imageStorage;
+		this.resizeCache = resizeCache;
+		this.encodeDispatcher = encodeDispatcher;
+		// 0 이하이면 가용 코어 수
+		this.renderPermits = new Semaphore(maxConcurrent > 0 ? maxConcurrent : Runtime.getRuntime().availableProcessors());
+		this.retryAfterSeconds = retryAfterSeconds;
+	}
+	
+	/**
+	 * 리사이즈 결과 파일 조회 (없으면 생성)
+	 *
+	 * @param imageId 이미지 ID
+	 * @param spec    리사이즈 규격
+	 * @return 캐시 파일 경로
+	 * @throws RetryableException 동시 리사이즈 수를 넘은 경우 (IMAGE_RESIZE_BUSY)
+	 */
+	public Path resize(String imageId, ResizeSpec spec) {
+		String location = findOriginalLocation(imageId);
+		String key = spec.cacheKey(imageId);
+		
+		Path cached = resizeCache.lookup(key);
+		if (cached != null) {
+			return cached;
+		}
+		
+		CompletableFuture<Path> mine = new CompletableFuture<>();
+		CompletableFuture<Path> existing = inFlight.putIfAbsent(key, mine);
+		if (existing != null) {
+			return await(existing);
+		}
+		
+		try {
+			Path path = resizeCache.put(key, render(imageId, location, spec));
+			mine.complete(path);
+			return path;
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+	
+	/**
+	 * 리사이즈 가능한 이미지의 원본 위치 조회
+	 */
+	private String findOriginalLocation(String imageId) {
+		Image image = imageRepository.findById(imageId)
+				.orElseThrow(() -> new CustomException(ErrorCode.IMAGE_NOT_FOUND));
+		
+		if (image.getStatus() == ImageStatus.TEMP) {
+			throw new CustomException(ErrorCode.IMAGE_PROCESSING_IN_PROGRESS);
+		}
+		if (image.getStatus() != ImageStatus.READY && image.getStatus() != ImageStatus.CONFIRMED
+				|| image.getStorageObject() == null) {
+			throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+		}
+		
+		return image.getStorageObject().getStorageLocation();
+	}
+	
+	private byte[] render(String imageId, String location, ResizeSpec spec) {
+		if (!imageStorage.exists(location)) {
+			log.warn("Original file missing for resize: imageId={}, location={}", imageId, location);
+			throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+		}
+		
+		if (!renderPermits.tryAcquire()) {
+			log.warn("Resize rejected: too many renders in progress, imageId={}", imageId);
+			throw new RetryableException(ErrorCode.IMAGE_RESIZE_BUSY, retryAfterSeconds);
+		}
+		try {
+			return encodeDispatcher.run(() -> {
+				try (InputStream source = imageStorage.get(location)) {
+					return ImageUtil.resize(source, spec);
+				}
+			});
+		} catch (CustomException e) {
+			throw e;
+		} catch (Exception e) {
+			log.error("Image resize failed: imageId={}, spec={}x{} {}", imageId, spec.getWidth(), spec.getHeight(), spec.getFit(), e);
+			throw new CustomException(ErrorCode.IMAGE_SAVE_FAILED);
+		} finally {
+			renderPermits.release();
+		}
+	}
+	
+	private Path await(CompletableFuture<Path> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
+}
@@ -2,24 +2,40 @@ package com.teambind.image_server.service;
 
 import com.teambind.image_server.config.InitialSetup;
 import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
 import com.teambind.image_server.entity.StorageObject;
 import com.teambind.image_server.enums.ImageStatus;
 import com.teambind.image_server.exception.CustomException;
 import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.repository.ImageJdbcRepository;
 import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
 import com.teambind.image_server.task.ImageProcessingTask;
 import com.teambind.image_server.util.convertor.ImageUtil;
 import com.teambind.image_server.util.helper.ExtensionParser;
 import com.teambind.image_server.util.helper.UrlHelper;
-import com.teambind.image_server.util.store.LocalImageStorage;
+import com.teambind.image_server.util.store.ImageStorage;
+import com.teambind.image_server.util.store.SpooledUpload;
+import com.teambind.image_server.util.store.UploadSpooler;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * 이미지 저장 서비스
@@ -30,13 +46,31 @@ import java.util.*;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 @Transactional
 public class ImageSaveService {
 	private final UrlHelper urlHelper;
 	private final ImageRepository imageRepository;
-	private final LocalImageStorage imageStorage;
+	private final ImageStorage imageStorage;
 	private final ExtensionParser extensionParser;
 	private final ImageProcessingTaskQueue taskQueue;
+	private final UploadSpooler uploadSpooler;
+	private final ImageProcessingAdmission admission;
+	private final StorageObjectRepository storageObjectRepository;
+	private final ImageSimilarityService similarityService;
+	private final ImageJdbcRepository imageJdbcRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final StoredFileReleaser fileReleaser;
+	
+	// 중복 재사용 대상: 처리가 끝나 파일이 확정된 이미지
+	private static final Set<ImageStatus> REUSABLE_STATUSES = EnumSet.of(ImageStatus.READY, ImageStatus.CONFIRMED);
+	
+	@Value("${images.dedup.enabled:true}")
+	private boolean dedupEnabled;
+	
+	// 다중 업로드를 배치 작업 하나로 처리 (false면 파일별 단건 경로)
+	@Value("${images.processing.batch.enabled:true}")
+	private boolean batchEnabled;
 	
 	/**
 	 * 단일 이미지 저장
@@ -60,7 +94,7 @@ public class ImageSaveService {
 		
 		String uuid = UUID.randomUUID().toString();
 		String datePath = LocalDateTime.now().toLocalDate().toString().replace("-", "/");
-
+		
 		String originExtUpper = extensionParser.extensionParse(fileName).toUpperCase();
 		String originExtLower = originExtUpper.toLowerCase();
 		
@@ -147,9 +181,15 @@ public class ImageSaveService {
 	 * 단일 이미지 저장 (비동기)
 	 * <p>
 	 * 처리 흐름:
-	 * 1. DB에 메타데이터 먼저 저장 (status: TEMP)
-	 * 2. imageId와 예상 URL 즉시 반환
-	 * 3. 백그라운드에서 변환/저장 처리 (Task Queue)
+	 * 0. 처리 큐 입장 제어 (예산 초과 시 429 + Retry-After)
+	 * 1. 업로드 파일을 스풀 디렉토리로 복사하며 SHA-256 계산 (힙에 전체 바이트를 올리지 않음)
+	 * 2. 같은 콘텐츠가 이미 처리되어 있으면 기존 파일을 재사용하고 READY로 즉시 반환
+	 * 3. DB에 메타데이터 먼저 저장 (status: TEMP)
+	 * 4. imageId와 예상 URL 즉시 반환
+	 * 5. 트랜잭션 커밋 후 백그라운드에서 변환/저장 처리 (Task Queue)
+	 * <p>
+	 * Task Queue 등록은 커밋 후(afterCommit)에 하므로 워커가 커밋 전의 TEMP 행을 찾지 못하는 일이 없습니다.
+	 * 커밋 후 등록이 거절되면 TEMP 행을 지우고 429로 응답합니다.
 	 *
 	 * @param file       업로드된 파일
 	 * @param uploaderId 업로더 ID
@@ -157,11 +197,26 @@ public class ImageSaveService {
 	 * @return imageId, imageUrl, status
 	 */
 	public Map<String, String> saveImageAsync(MultipartFile file, String uploaderId, String category) {
+		// 0. 처리 큐 입장 (예산 초과 시 429 + Retry-After)
+		admission.acquire(1, file.getSize());
+		return enqueueImage(file, uploaderId, category);
+	}
+	
+	/**
+	 * 메타데이터 저장 + 스풀 + 커밋 후 Task Queue 등록 예약
+	 * - 트랜잭션 안에서 호출해야 하며, 입장(admission)은 호출자가 미리 확보해야 함
+	 * - 호출한 뒤의 예산 반환과 스풀 파일 정리는 UploadSubmission이 트랜잭션 결과에 따라 처리
+	 *   (등록에 성공하면 워커가 담당)
+	 */
+	private Map<String, String> enqueueImage(MultipartFile file, String uploaderId, String category) {
+		UploadSubmission submission = new UploadSubmission(file.getSize());
+		TransactionSynchronizationManager.registerSynchronization(submission);
+		
 		String fileName = file.getOriginalFilename();
 		if (fileName == null || fileName.isBlank()) {
 			throw new CustomException(ErrorCode.INVALID_FILE_NAME);
 		}
-
+		
 		// 1. 메타데이터 미리 생성
 		String uuid = UUID.randomUUID().toString();
 		String datePath = LocalDateTime.now().toLocalDate().toString().replace("-", "/");
@@ -171,19 +226,37 @@ public class ImageSaveService {
 		String storedPath = categoryUpper + "/" + datePath + "/" + webpFileName;
 		String imageUrl = urlHelper.getUrl(storedPath);
 		
-		// 2. DB에 먼저 저장하고 즉시 커밋 (별도 트랜잭션)
+		// 2. 요청 본문을 스풀 디렉토리로 복사 (요청 종료 후에도 워커가 읽을 수 있도록)
+		SpooledUpload upload = uploadSpooler.spool(file, uuid);
+		submission.upload = upload;
+		
+		// 3. 같은 콘텐츠가 이미 처리되어 있으면 인코딩 없이 기존 파일 재사용
+		//    (원본 행을 공유 잠금해 커밋 전에 정리 작업이 원본 파일을 지우지 못하도록 함)
+		if (dedupEnabled) {
+			Optional<StorageObject> duplicate = storageObjectRepository
+					.findFirstByContentHashAndImage_ReferenceType_CodeAndImage_StatusIn(
+							upload.getContentHash(), categoryUpper, REUSABLE_STATUSES)
+					.flatMap(found -> storageObjectRepository.lockAllForShare(List.of(found.getId())).stream().findFirst());
+			if (duplicate.isPresent()) {
+				// Task Queue를 거치지 않으므로 스풀 파일과 입장 예산은 트랜잭션이 끝나면 바로 정리됨
+				return saveDuplicate(uuid, uploaderId, categoryUpper, originExtUpper, upload, duplicate.get());
+			}
+		}
+		
+		// 4. DB에 TEMP 행 저장 (호출자 트랜잭션)
 		saveImageMetadata(uuid, uploaderId, categoryUpper, imageUrl);
 		
-		// 3. 백그라운드 Task Queue에 등록 (DB 커밋 후!)
-		ImageProcessingTask task = new ImageProcessingTask(
+		// 5. 백그라운드 Task Queue 등록은 커밋 후에 (UploadSubmission.afterCommit)
+		submission.task = new ImageProcessingTask(
 				uuid,
-				file,
+				upload,
 				storedPath,
-				originExtUpper
+				originExtUpper,
+				categoryUpper,
+				uploaderId
 		);
-		taskQueue.submit(task);
-
-		// 4. 즉시 응답 (클라이언트는 폼 작성 계속)
+		
+		// 6. 즉시 응답 (클라이언트는 폼 작성 계속)
 		return Map.of(
 				"id", uuid,
 				"imageUrl", imageUrl,
@@ -192,11 +265,69 @@ public class ImageSaveService {
 	}
 	
 	/**
-	 * 이미지 메타데이터 저장 (별도 트랜잭션)
-	 * - 비동기 작업 전에 커밋되어야 함
+	 * 중복 업로드 재사용
+	 * - 기존 이미지의 변환 파일과 변형 파일을 그대로 가리키는 READY 이미지를 생성
+	 * - 파일은 공유되며, 삭제 시 StoredFileReleaser가 남은 참조를 확인
+	 */
+	private Map<String, String> saveDuplicate(String uuid, String uploaderId, String categoryUpper,
+	                                          String originExtUpper, SpooledUpload upload, StorageObject duplicate) {
+		Image source = duplicate.getImage();
+		LocalDateTime now = LocalDateTime.now();
+		
+		Image image = Image.builder()
+				.id(uuid)
+				.uploaderId(uploaderId)
+				.referenceType(InitialSetup.ALL_REFERENCE_TYPE_MAP.get(categoryUpper))
+				.status(ImageStatus.READY)
+				.imageUrl(source.getImageUrl())
+				.isDeleted(false)
+				.createdAt(now)
+				.build();
+		
+		StorageObject storageObject = StorageObject.builder()
+				.image(image)
+				.convertedFormat(duplicate.getConvertedFormat())
+				.originFormat(InitialSetup.EXTENSION_MAP.get(originExtUpper))
+				.originSize(upload.getSize())
+				.convertedSize(duplicate.getConvertedSize())
+				.storageLocation(duplicate.getStorageLocation())
+				.contentHash(upload.getContentHash())
+				.perceptualHash(duplicate.getPerceptualHash())
+				.build();
+		image.setStorageObject(storageObject);
+		
+		for (ImageVariant variant : source.getVariants()) {
+			image.getVariants().add(ImageVariant.builder()
+					.image(image)
+					.variantCode(variant.getVariantCode())
+					.isThumbnail(variant.isThumbnail())
+					.uploaderId(uploaderId)
+					.uploadedAt(now)
+					.width(variant.getWidth())
+					.height(variant.getHeight())
+					.url(variant.getUrl())
+					.storageLocation(variant.getStorageLocation())
+					.fileSize(variant.getFileSize())
+					.build());
+		}
+		
+		imageRepository.save(image);
+		similarityService.register(uuid, duplicate.getPerceptualHash(), categoryUpper);
+		log.info("Duplicate upload reused existing file: imageId={}, sourceImageId={}, location={}",
+				uuid, source.getId(), duplicate.getStorageLocation());
+		
+		return Map.of(
+				"id", uuid,
+				"imageUrl", source.getImageUrl(),
+				"status", ImageStatus.READY.name()
+		);
+	}
+	
+	/**
+	 * 이미지 메타데이터(TEMP) 저장
+	 * - 호출자 트랜잭션에 참여하며, 워커 등록은 이 트랜잭션이 커밋된 뒤에 함
 	 */
-	@Transactional
-	protected void saveImageMetadata(String uuid, String uploaderId, String categoryUpper, String imageUrl) {
+	private void saveImageMetadata(String uuid, String uploaderId, String categoryUpper, String imageUrl) {
 		Image image = Image.builder()
 				.id(uuid)
 				.uploaderId(uploaderId)
@@ -210,20 +341,241 @@ public class ImageSaveService {
 	
 	/**
 	 * 다중 이미지 저장 (비동기)
+	 * <p>
+	 * 배치 경로 처리 흐름 (images.processing.batch.enabled=true):
+	 * 1. 배치 전체 입장 (일부만 처리되고 나머지가 거절되는 상황 방지)
+	 * 2. 모든 파일 스풀 + SHA-256 (DB 접근 없음)
+	 * 3. 한 트랜잭션에서 중복 조회 1회(IN) + TEMP 행 JDBC 배치 INSERT 1회 후 커밋
+	 * 4. 커밋 후 배치 작업 하나를 Task Queue에 등록 (인코딩은 워커가 병렬로 팬아웃)
+	 *    거절되면 커밋한 TEMP 행과 중복 재사용 READY 행을 모두 지우고 429로 응답
+	 * <p>
+	 * 파일마다 save + submit 하던 방식(파일 20개 기준 DB 왕복 약 60회)을
+	 * 요청당 약 3회(중복 조회, TEMP INSERT, READY 일괄 갱신)로 줄입니다.
+	 * 클래스 트랜잭션을 쓰지 않는 이유는 Task Queue 등록 전에 TEMP 행이 커밋되어 있어야 하기 때문입니다.
 	 *
 	 * @param files      업로드된 파일 리스트
 	 * @param uploaderId 업로더 ID
 	 * @param category   카테고리
 	 * @return 각 이미지의 상세 정보가 담긴 리스트 (id, imageUrl, status)
 	 */
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<Map<String, String>> saveImagesAsync(List<MultipartFile> files, String uploaderId, String category) {
+		// 배치 전체를 한 번에 입장시켜 일부만 처리되고 나머지가 거절되는 상황을 방지
+		long totalBytes = files.stream().mapToLong(MultipartFile::getSize).sum();
+		admission.acquire(files.size(), totalBytes);
+		
+		if (!batchEnabled) {
+			return enqueueEach(files, uploaderId, category, totalBytes);
+		}
+		
+		String categoryUpper = category.toUpperCase();
+		String datePath = LocalDateTime.now().toLocalDate().toString().replace("-", "/");
+		List<ImageProcessingTask> pending = new ArrayList<>(files.size());
+		List<ImageProcessingTask> tasks = List.of();
+		boolean submitted = false;
+		try {
+			// 1. 메타데이터 생성 + 스풀
+			for (MultipartFile file : files) {
+				String fileName = file.getOriginalFilename();
+				if (fileName == null || fileName.isBlank()) {
+					throw new CustomException(ErrorCode.INVALID_FILE_NAME);
+				}
+				String uuid = UUID.randomUUID().toString();
+				String originExtUpper = extensionParser.extensionParse(fileName).toUpperCase();
+				String storedPath = categoryUpper + "/" + datePath + "/" + uuid + ".webp";
+				SpooledUpload upload = uploadSpooler.spool(file, uuid);
+				pending.add(new ImageProcessingTask(uuid, upload, storedPath, originExtUpper, categoryUpper, uploaderId));
+			}
+			
+			// 2. 중복 재사용 + TEMP 일괄 INSERT 후 커밋
+			List<Map<String, String>> responses = new ArrayList<>(files.size());
+			tasks = transactionTemplate.execute(status -> persistBatch(pending, uploaderId, categoryUpper, responses));
+			
+			// 3. 커밋 후 배치 작업 등록
+			if (!tasks.isEmpty()) {
+				try {
+					taskQueue.submitBatch(tasks);
+				} catch (TaskRejectedException e) {
+					discardBatch(pending, tasks);
+					throw admission.queueFull();
+				}
+			}
+			submitted = true;
+			return responses;
+		} finally {
+			// 워커에게 넘기지 않은 이미지(중복 재사용, 실패)의 스풀 파일과 입장 예산 정리
+			List<ImageProcessingTask> handedOff = submitted ? tasks : List.of();
+			long handedOffBytes = 0;
+			for (ImageProcessingTask task : pending) {
+				if (handedOff.contains(task)) {
+					handedOffBytes += task.getUpload().getSize();
+				} else {
+					task.getUpload().delete();
+				}
+			}
+			admission.release(files.size() - handedOff.size(), totalBytes - handedOffBytes);
+		}
+	}
+	
+	/**
+	 * 배치 등록이 거절되었을 때 이번 요청이 커밋한 행을 되돌림 (클라이언트는 429를 받고 배치 전체를 재시도)
+	 * - TEMP 행 삭제
+	 * - 중복 재사용으로 만든 READY 행 삭제 + 근접 중복 인덱스에서 제거
+	 *   (공유 파일은 StoredFileReleaser가 남은 참조가 없을 때만 삭제)
+	 */
+	private void discardBatch(List<ImageProcessingTask> pending, List<ImageProcessingTask> tasks) {
+		List<String> tempIds = tasks.stream().map(ImageProcessingTask::getImageId).toList();
+		Set<String> tempIdSet = new HashSet<>(tempIds);
+		List<String> duplicateIds = pending.stream()
+				.map(ImageProcessingTask::getImageId)
+				.filter(imageId -> !tempIdSet.contains(imageId))
+				.toList();
+		
+		imageJdbcRepository.deleteTempImages(tempIds);
+		if (duplicateIds.isEmpty()) {
+			return;
+		}
+		transactionTemplate.executeWithoutResult(status -> {
+			List<Image> duplicates = imageRepository.findAllById(duplicateIds);
+			Set<String> locations = new HashSet<>();
+			duplicates.forEach(image -> locations.addAll(fileReleaser.locationsOf(image)));
+			imageRepository.deleteAll(duplicates);
+			imageRepository.flush();
+			fileReleaser.releaseUnreferenced(locations);
+		});
+		duplicateIds.forEach(similarityService::unregister);
+		log.warn("Batch rejected, discarded committed rows: temp={}, duplicates={}", tempIds.size(), duplicateIds.size());
+	}
+	
+	/**
+	 * 배치 메타데이터 저장 (트랜잭션 안에서 호출)
+	 * - 같은 콘텐츠가 이미 처리된 파일은 기존 파일을 재사용하여 READY로 저장
+	 * - 나머지는 TEMP 행을 JDBC 배치로 INSERT
+	 *
+	 * @param responses 파일 순서대로 응답을 채움
+	 * @return Task Queue에 넘길 작업 (중복 재사용 제외)
+	 */
+	private List<ImageProcessingTask> persistBatch(List<ImageProcessingTask> pending, String uploaderId,
+	                                               String categoryUpper, List<Map<String, String>> responses) {
+		Map<String, StorageObject> duplicates = Map.of();
+		if (dedupEnabled) {
+			Set<String> hashes = pending.stream().map(task -> task.getUpload().getContentHash()).collect(Collectors.toSet());
+			duplicates = storageObjectRepository
+					.findAllByContentHashInAndImage_ReferenceType_CodeAndImage_StatusIn(hashes, categoryUpper, REUSABLE_STATUSES)
+					.stream()
+					.collect(Collectors.toMap(StorageObject::getContentHash, Function.identity(), (first, second) -> first));
+			if (!duplicates.isEmpty()) {
+				// 원본 행을 커밋까지 공유 잠금 (그 사이 정리된 원본은 빠짐)
+				Set<String> lockedIds = storageObjectRepository
+						.lockAllForShare(duplicates.values().stream().map(StorageObject::getId).toList())
+						.stream()
+						.map(StorageObject::getId)
+						.collect(Collectors.toSet());
+				duplicates = duplicates.values().stream()
+						.filter(duplicate -> lockedIds.contains(duplicate.getId()))
+						.collect(Collectors.toMap(StorageObject::getContentHash, Function.identity()));
+			}
+		}
+		
+		LocalDateTime now = LocalDateTime.now();
+		List<Image> tempImages = new ArrayList<>(pending.size());
+		List<ImageProcessingTask> tasks = new ArrayList<>(pending.size());
+		for (ImageProcessingTask task : pending) {
+			StorageObject duplicate = duplicates.get(task.getUpload().getContentHash());
+			if (duplicate != null) {
+				responses.add(saveDuplicate(task.getImageId(), uploaderId, categoryUpper,
+						task.getOriginalExtension(), task.getUpload(), duplicate));
+				continue;
+			}
+			
+			String imageUrl = urlHelper.getUrl(task.getStoredPath());
+			tempImages.add(Image.builder()
+					.id(task.getImageId())
+					.uploaderId(uploaderId)
+					.referenceType(InitialSetup.ALL_REFERENCE_TYPE_MAP.get(categoryUpper))
+					.status(ImageStatus.TEMP)
+					.imageUrl(imageUrl)
+					.isDeleted(false)
+					.createdAt(now)
+					.build());
+			tasks.add(task);
+			responses.add(Map.of(
+					"id", task.getImageId(),
+					"imageUrl", imageUrl,
+					"status", "PROCESSING"
+			));
+		}
+		
+		if (!tempImages.isEmpty()) {
+			imageJdbcRepository.insertTempImages(tempImages);
+		}
+		return tasks;
+	}
+	
+	/**
+	 * 파일별 단건 경로 (images.processing.batch.enabled=false)
+	 * - 파일마다 따로 커밋하고 커밋 후 등록하므로, 뒤 파일이 실패해도 이미 등록된 작업의 TEMP 행이 롤백되지 않음
+	 */
+	private List<Map<String, String>> enqueueEach(List<MultipartFile> files, String uploaderId, String category, long totalBytes) {
 		List<Map<String, String>> responses = new ArrayList<>();
-		for (MultipartFile file : files) {
-			Map<String, String> result = saveImageAsync(file, uploaderId, category);
-			responses.add(result);  // 전체 결과를 그대로 추가
+		int started = 0;
+		long startedBytes = 0;
+		try {
+			for (MultipartFile file : files) {
+				// enqueueImage를 시작한 파일의 예산은 UploadSubmission이 반환
+				started++;
+				startedBytes += file.getSize();
+				Map<String, String> result = transactionTemplate.execute(status -> enqueueImage(file, uploaderId, category));
+				responses.add(result);  // 전체 결과를 그대로 추가
+			}
+		} catch (RuntimeException e) {
+			admission.release(files.size() - started, totalBytes - startedBytes);
+			throw e;
 		}
 		return responses;
 	}
-
-
+	
+	/**
+	 * 단건 업로드의 커밋 후 처리
+	 * - 커밋 후: Task Queue 등록 (거절되면 커밋된 TEMP 행을 지우고 429)
+	 * - 워커에게 넘기지 못한 경우(롤백, 중복 재사용, 등록 거절): 스풀 파일 삭제 + 입장 예산 반환
+	 */
+	private final class UploadSubmission implements TransactionSynchronization {
+		private final long size;
+		private SpooledUpload upload;
+		private ImageProcessingTask task;
+		private boolean handedOff;
+		
+		private UploadSubmission(long size) {
+			this.size = size;
+		}
+		
+		@Override
+		public void afterCommit() {
+			if (task == null) {
+				return;
+			}
+			try {
+				taskQueue.submit(task);
+				handedOff = true;
+			} catch (TaskRejectedException e) {
+				// 스레드 풀 거절 (입장 예산보다 풀 큐가 작게 설정된 경우): 이미 커밋된 TEMP 행을 새 트랜잭션으로 삭제
+				TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+				requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+				requiresNew.executeWithoutResult(status -> imageJdbcRepository.deleteTempImages(List.of(task.getImageId())));
+				throw admission.queueFull();
+			}
+		}
+		
+		@Override
+		public void afterCompletion(int status) {
+			if (handedOff) {
+				return;
+			}
+			if (upload != null) {
+				upload.delete();
+			}
+			admission.release(1, size);
+		}
+	}
 }
@@ -3,15 +3,20 @@ package com.teambind.image_server.service;
 
 import com.teambind.image_server.entity.Image;
 import com.teambind.image_server.entity.ImageSequence;
+import com.teambind.image_server.repository.ImageSequenceJdbcRepository;
+import com.teambind.image_server.repository.ImageSequenceJdbcRepository.SequenceRow;
 import com.teambind.image_server.repository.ImageSequenceRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 이미지 시퀀스 관리 서비스
@@ -27,52 +32,75 @@ import java.util.List;
 public class ImageSequenceService {
 	
 	private final ImageSequenceRepository imageSequenceRepository;
+	private final ImageSequenceJdbcRepository imageSequenceJdbcRepository;
 	
 	/**
-	 * 기존 시퀀스를 삭제하고 새로운 시퀀스를 생성합니다.
+	 * 기존 시퀀스와 비교하여 바뀐 부분만 반영합니다.
 	 * <p>
-	 * REQUIRES_NEW로 새로운 트랜잭션을 시작하여 실행됩니다.
-	 * 이는 TransactionalEventListener의 AFTER_COMMIT 단계에서도 정상 동작하도록 합니다.
+	 * 확정 트랜잭션(BEFORE_COMMIT 이벤트 핸들러)에 참여하여 이미지 상태 변경과 함께 커밋됩니다.
 	 * <p>
 	 * 트랜잭션 내에서 실행되며, 다음 단계로 진행됩니다:
-	 * 1. 기존 referenceId의 모든 시퀀스 삭제
-	 * 2. 새로운 이미지 리스트로 시퀀스 생성 (순서는 리스트 순서 그대로)
-	 * 3. 데이터베이스에 저장
+	 * 1. 기존 referenceId의 시퀀스를 행 잠금으로 조회
+	 * 2. 새 리스트에 없는 이미지 삭제
+	 * 3. 순서가 바뀐 이미지를 음수 자리로 이동 (uk_reference_seq 충돌 방지)
+	 * 4. 새로 추가된 이미지 INSERT
+	 * 5. 음수 자리의 이미지를 목표 순서로 이동
+	 * <p>
+	 * 각 단계는 JDBC 배치 한 번(또는 UPDATE 한 번)이며 변경이 없는 단계는 생략됩니다.
+	 * (INSERT는 시퀀스 키를 사용하는 JPA 배치, 나머지는 JdbcTemplate 배치)
+	 * 예: 20장 중 2장의 순서만 바꾸면 UPDATE 2건 + UPDATE 1건 (기존 방식은 DELETE 20건 + INSERT 20건)
 	 *
 	 * @param referenceId 참조 ID (상품 ID, 게시글 ID 등)
 	 * @param images      확정된 이미지 리스트 (순서대로)
-	 * @return 생성된 ImageSequence 리스트
+	 * @return 반영 후 전체 ImageSequence 리스트 (순서대로, 이벤트 발행용)
 	 */
-	@Transactional(propagation = Propagation.REQUIRES_NEW)
-	public List<ImageSequence> recreateSequences(String referenceId, List<Image> images) {
-		log.info("Recreating image sequences for referenceId: {}, imageCount: {}", referenceId, images.size());
-		
-		// 1. 기존 시퀀스 삭제
-		imageSequenceRepository.deleteByReferenceId(referenceId);
-		log.debug("Deleted existing sequences for referenceId: {}", referenceId);
+	@Transactional
+	public List<ImageSequence> syncSequences(String referenceId, List<Image> images) {
+		List<Image> targets = images == null ? List.of() : images;
+		log.info("Syncing image sequences for referenceId: {}, imageCount: {}", referenceId, targets.size());
 		
-		// 2. 이미지가 없으면 빈 리스트 반환
-		if (images == null || images.isEmpty()) {
-			log.info("No images to create sequences for referenceId: {}", referenceId);
-			return new ArrayList<>();
+		// 1. 기존 시퀀스 조회
+		Map<String, SequenceRow> existing = new HashMap<>();
+		for (SequenceRow row : imageSequenceJdbcRepository.findForUpdate(referenceId)) {
+			existing.put(row.imageId(), row);
 		}
 		
-		// 3. 새로운 시퀀스 생성
-		List<ImageSequence> sequences = new ArrayList<>();
-		for (int i = 0; i < images.size(); i++) {
-			Image image = images.get(i);
+		List<SequenceRow> moves = new ArrayList<>();
+		List<ImageSequence> inserts = new ArrayList<>();
+		List<ImageSequence> sequences = new ArrayList<>(targets.size());
+		for (int i = 0; i < targets.size(); i++) {
+			Image image = targets.get(i);
 			ImageSequence sequence = ImageSequence.of(referenceId, image, i);
+			SequenceRow current = existing.remove(image.getId());
+			if (current == null) {
+				inserts.add(sequence);
+			} else if (current.seqNumber() != i) {
+				moves.add(new SequenceRow(current.id(), image.getId(), i));
+			}
 			sequences.add(sequence);
-			log.debug("Created sequence: referenceId={}, imageId={}, seqNumber={}",
-					referenceId, image.getId(), i);
 		}
+		List<Long> removals = existing.values().stream().map(SequenceRow::id).toList();
 		
-		// 4. 일괄 저장
-		List<ImageSequence> savedSequences = imageSequenceRepository.saveAll(sequences);
-		log.info("Successfully saved {} image sequences for referenceId: {}",
-				savedSequences.size(), referenceId);
+		// 2 ~ 5. 변경분만 반영
+		LocalDateTime now = LocalDateTime.now();
+		if (!removals.isEmpty()) {
+			imageSequenceJdbcRepository.deleteAll(removals);
+		}
+		if (!moves.isEmpty()) {
+			imageSequenceJdbcRepository.park(moves, now);
+		}
+		if (!inserts.isEmpty()) {
+			// unpark 전에 INSERT가 DB에 반영되어야 하므로 즉시 flush
+			imageSequenceRepository.saveAllAndFlush(inserts);
+		}
+		if (!moves.isEmpty()) {
+			imageSequenceJdbcRepository.unpark(referenceId);
+		}
 		
-		return savedSequences;
+		log.info("Synced image sequences for referenceId: {} (removed={}, moved={}, inserted={}, unchanged={})",
+				referenceId, removals.size(), moves.size(), inserts.size(),
+				targets.size() - moves.size() - inserts.size());
+		return sequences;
 	}
 	
 	/**
@@ -87,15 +115,32 @@ public class ImageSequenceService {
 		return imageSequenceRepository.findByReferenceIdOrderBySeqNumberAsc(referenceId);
 	}
 	
+	/**
+	 * 여러 referenceId의 시퀀스를 IN 쿼리 한 번으로 조회합니다.
+	 *
+	 * @param referenceIds 참조 ID 목록
+	 * @param firstOnly    true이면 대표 이미지(seq_number = 0)만 조회
+	 * @return referenceId, 순서대로 정렬된 ImageSequence 리스트
+	 */
+	@Transactional(readOnly = true)
+	public List<ImageSequence> getSequences(Collection<String> referenceIds, boolean firstOnly) {
+		if (referenceIds.isEmpty()) {
+			return List.of();
+		}
+		log.debug("Getting sequences for {} referenceIds, firstOnly={}", referenceIds.size(), firstOnly);
+		return firstOnly
+				? imageSequenceRepository.findFirstByReferenceIdIn(referenceIds)
+				: imageSequenceRepository.findByReferenceIdInOrderBySeqNumberAsc(referenceIds);
+	}
+	
 	/**
 	 * 특정 referenceId의 모든 시퀀스를 삭제합니다.
 	 * <p>
-	 * REQUIRES_NEW로 새로운 트랜잭션을 시작하여 실행됩니다.
-	 * 이는 TransactionalEventListener의 AFTER_COMMIT 단계에서도 정상 동작하도록 합니다.
+	 * 확정 트랜잭션(BEFORE_COMMIT 이벤트 핸들러)에 참여하여 이미지 상태 변경과 함께 커밋됩니다.
 	 *
 	 * @param referenceId 참조 ID
 	 */
-	@Transactional(propagation = Propagation.REQUIRES_NEW)
+	@Transactional
 	public void deleteSequences(String referenceId) {
 		log.info("Deleting all sequences for referenceId: {}", referenceId);
 		imageSequenceRepository.deleteByReferenceId(referenceId);
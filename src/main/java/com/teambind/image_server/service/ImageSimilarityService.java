@@ -0,0 +1,169 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.util.index.PerceptualHashIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 근접 중복(지각 해시) 검색 서비스
+ * <p>
+ * 처리 완료(READY/CONFIRMED)된 이미지의 dHash를 메모리 인덱스에 보관하고 해밍 거리로 검색합니다.
+ * - 기동 시 DB에서 전체 적재, 이후 주기적으로 재적재하여 다른 노드가 처리한 이미지를 반영
+ * - 이 노드가 처리한 이미지는 즉시 추가
+ * - 검색 결과는 DB에서 상태를 다시 확인한 뒤 반환 (인덱스는 후보 선별용)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ImageSimilarityService {
+	
+	private static final Set<ImageStatus> INDEXED_STATUSES = EnumSet.of(ImageStatus.READY, ImageStatus.CONFIRMED);
+	
+	private final StorageObjectRepository storageObjectRepository;
+	private final ImageRepository imageRepository;
+	private final TransactionTemplate transactionTemplate;
+	private final boolean reuseVariants;
+	private final int reuseMaxDistance;
+	
+	private volatile PerceptualHashIndex index = new PerceptualHashIndex();
+	// 재적재 중에 들어온 추가/삭제를 새 인덱스에도 반영하기 위한 참조
+	private volatile PerceptualHashIndex building;
+	
+	public ImageSimilarityService(
+			StorageObjectRepository storageObjectRepository,
+			ImageRepository imageRepository,
+			TransactionTemplate transactionTemplate,
+			@Value("${images.similarity.reuse-variants:false}") boolean reuseVariants,
+			@Value("${images.similarity.reuse-max-distance:4}") int reuseMaxDistance) {
+		this.storageObjectRepository = storageObjectRepository;
+		this.imageRepository = imageRepository;
+		this.transactionTemplate = transactionTemplate;
+		this.reuseVariants = reuseVariants;
+		this.reuseMaxDistance = reuseMaxDistance;
+	}
+	
+	/**
+	 * 인덱스 전체 재적재 (기동 시 + 주기적)
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(initialDelayString = "${images.similarity.refresh-interval-ms:600000}",
+			fixedDelayString = "${images.similarity.refresh-interval-ms:600000}")
+	public void rebuild() {
+		PerceptualHashIndex next = new PerceptualHashIndex();
+		building = next;
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<StorageObjectRepository.PerceptualHashView> rows =
+						     storageObjectRepository.streamPerceptualHashes(INDEXED_STATUSES)) {
+					rows.forEach(row -> next.add(row.getImageId(), row.getPerceptualHash(), row.getReferenceTypeCode()));
+				}
+			});
+			index = next;
+			log.info("Perceptual hash index rebuilt: size={}", next.size());
+		} catch (Exception e) {
+			log.error("Failed to rebuild perceptual hash index", e);
+		} finally {
+			building = null;
+		}
+	}
+	
+	/**
+	 * 처리 완료된 이미지 등록
+	 */
+	public void register(String imageId, Long perceptualHash, String referenceTypeCode) {
+		if (perceptualHash == null) {
+			return;
+		}
+		index.add(imageId, perceptualHash, referenceTypeCode);
+		PerceptualHashIndex next = building;
+		if (next != null) {
+			next.add(imageId, perceptualHash, referenceTypeCode);
+		}
+	}
+	
+	/**
+	 * 삭제된 이미지 제거
+	 */
+	public void unregister(String imageId) {
+		index.remove(imageId);
+		PerceptualHashIndex next = building;
+		if (next != null) {
+			next.remove(imageId);
+		}
+	}
+	
+	/**
+	 * 변형 재사용 대상 검색 (설정으로 활성화된 경우만)
+	 * - 같은 참조 타입에서 reuse-max-distance 이하로 가장 가까운 이미지
+	 *
+	 * @return 재사용할 이미지 ID (없으면 null)
+	 */
+	public String findVariantSource(long perceptualHash, String referenceTypeCode) {
+		if (!reuseVariants) {
+			return null;
+		}
+		List<PerceptualHashIndex.Match> matches = index.search(perceptualHash, reuseMaxDistance, 1, null, referenceTypeCode);
+		return matches.isEmpty() ? null : matches.get(0).imageId();
+	}
+	
+	/**
+	 * 유사 이미지 검색
+	 *
+	 * @param imageId     기준 이미지 ID
+	 * @param maxDistance 최대 해밍 거리 (0 ~ 15)
+	 * @param limit       최대 결과 수
+	 * @return imageId, imageUrl, distance 목록 (거리 오름차순)
+	 */
+	public List<Map<String, Object>> findSimilar(String imageId, int maxDistance, int limit) {
+		if (maxDistance < 0 || maxDistance > PerceptualHashIndex.MAX_SEARCH_DISTANCE || limit < 1) {
+			throw new CustomException(ErrorCode.INVALID_SIMILARITY_PARAMETER);
+		}
+		
+		Long hash = storageObjectRepository.findById(imageId)
+				.map(storageObject -> storageObject.getPerceptualHash())
+				.orElseThrow(() -> new CustomException(ErrorCode.IMAGE_NOT_FOUND));
+		if (hash == null) {
+			// 변환 실패로 원본 폴백 저장된 이미지는 해시가 없음
+			return List.of();
+		}
+		
+		List<PerceptualHashIndex.Match> matches = index.search(hash, maxDistance, limit, imageId, null);
+		if (matches.isEmpty()) {
+			return List.of();
+		}
+		
+		Map<String, Image> images = imageRepository.findAllByIdIn(matches.stream().map(PerceptualHashIndex.Match::imageId).toList())
+				.stream()
+				.filter(image -> INDEXED_STATUSES.contains(image.getStatus()))
+				.collect(Collectors.toMap(Image::getId, Function.identity()));
+		
+		return matches.stream()
+				.filter(match -> images.containsKey(match.imageId()))
+				.map(match -> Map.<String, Object>of(
+						"id", match.imageId(),
+						"imageUrl", images.get(match.imageId()).getImageUrl(),
+						"distance", match.distance()))
+				.toList();
+	}
+}
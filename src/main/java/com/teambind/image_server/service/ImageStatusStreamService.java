@@ -0,0 +1,153 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.repository.ImageRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이미지 처리 상태 SSE 스트림 서비스
+ * <p>
+ * 클라이언트가 확정(confirm)을 반복 호출하며 TEMP 여부를 폴링하는 대신,
+ * 한 번 연결해 두고 READY/FAILED 이벤트를 받을 수 있도록 합니다.
+ * <p>
+ * 이벤트 형식:
+ * - event: status, data: {"id": "...", "status": "READY|FAILED|CONFIRMED|..."} (이미지별 1회)
+ * - event: not-found, data: {"id": "..."}
+ * - 모든 이미지의 최종 상태를 보내면 스트림 종료, 타임아웃 시 그대로 종료 (클라이언트 재연결)
+ * <p>
+ * 다른 노드에서 처리된 이미지는 recheck-interval-ms마다 대기 중인 ID 전체를 한 번의 쿼리로 확인합니다.
+ * (구독자 수와 무관하게 노드당 주기적 쿼리 1회)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ImageStatusStreamService {
+	
+	public static final String EVENT_STATUS = "status";
+	public static final String EVENT_NOT_FOUND = "not-found";
+	
+	private static final int RECHECK_CHUNK_SIZE = 500;
+	
+	private final ImageRepository imageRepository;
+	private final ImageProcessingCompletionBus completionBus;
+	private final long timeoutMillis;
+	private final int maxIds;
+	
+	// 이벤트 전송(느린 클라이언트에 막힐 수 있는 블로킹 쓰기)을 워커/공용 풀이 아닌 가상 스레드에서 실행
+	private final ExecutorService sendExecutor = Executors.newVirtualThreadPerTaskExecutor();
+	
+	public ImageStatusStreamService(
+			ImageRepository imageRepository,
+			ImageProcessingCompletionBus completionBus,
+			@Value("${images.events.timeout-ms:60000}") long timeoutMillis,
+			@Value("${images.events.max-ids:50}") int maxIds) {
+		this.imageRepository = imageRepository;
+		this.completionBus = completionBus;
+		this.timeoutMillis = timeoutMillis;
+		this.maxIds = maxIds;
+	}
+	
+	/**
+	 * 처리 상태 구독
+	 *
+	 * @param imageIds 구독할 이미지 ID (1 ~ max-ids개, 중복 제거)
+	 * @return 상태 이벤트를 보내는 SseEmitter
+	 */
+	public SseEmitter subscribe(List<String> imageIds) {
+		Set<String> ids = new LinkedHashSet<>(imageIds);
+		ids.removeIf(id -> id == null || id.isBlank());
+		if (ids.isEmpty() || ids.size() > maxIds) {
+			throw new CustomException(ErrorCode.INVALID_EVENT_SUBSCRIPTION);
+		}
+		
+		SseEmitter emitter = new SseEmitter(timeoutMillis);
+		AtomicInteger remaining = new AtomicInteger(ids.size());
+		List<CompletableFuture<ImageStatus>> listeners = new ArrayList<>();
+		
+		// 구독을 먼저 걸고 DB를 조회해야 조회 직후 완료된 알림을 놓치지 않음
+		Map<String, CompletableFuture<ImageStatus>> futures = new HashMap<>();
+		for (String id : ids) {
+			futures.put(id, completionBus.listen(id));
+		}
+		Map<String, Image> images = new HashMap<>();
+		imageRepository.findAllById(ids).forEach(image -> images.put(image.getId(), image));
+		
+		for (String id : ids) {
+			Image image = images.get(id);
+			CompletableFuture<ImageStatus> future = futures.get(id);
+			if (image == null) {
+				future.cancel(false);
+				send(emitter, EVENT_NOT_FOUND, Map.of("id", id), remaining);
+			} else if (image.getStatus() != ImageStatus.TEMP) {
+				future.cancel(false);
+				send(emitter, EVENT_STATUS, Map.of("id", id, "status", image.getStatus().name()), remaining);
+			} else {
+				listeners.add(future);
+				future.thenAcceptAsync(status ->
+						send(emitter, EVENT_STATUS, Map.of("id", id, "status", status.name()), remaining), sendExecutor);
+			}
+		}
+		
+		// 연결 종료 시 남은 대기 해제 (버스의 공유 Future에는 영향 없음)
+		Runnable release = () -> listeners.forEach(future -> future.cancel(false));
+		emitter.onTimeout(release);
+		emitter.onCompletion(release);
+		emitter.onError(error -> release.run());
+		return emitter;
+	}
+	
+	/**
+	 * 다른 노드에서 처리된 이미지 재확인 및 오래된 대기 정리
+	 */
+	@Scheduled(fixedDelayString = "${images.events.recheck-interval-ms:5000}")
+	public void recheckPending() {
+		completionBus.expire(timeoutMillis * 2);
+		
+		List<String> pendingIds = new ArrayList<>(completionBus.pendingIds());
+		for (int from = 0; from < pendingIds.size(); from += RECHECK_CHUNK_SIZE) {
+			List<String> chunk = pendingIds.subList(from, Math.min(from + RECHECK_CHUNK_SIZE, pendingIds.size()));
+			for (Image image : imageRepository.findAllById(chunk)) {
+				if (image.getStatus() != ImageStatus.TEMP) {
+					completionBus.publish(image.getId(), image.getStatus());
+				}
+			}
+		}
+	}
+	
+	@PreDestroy
+	void shutdown() {
+		sendExecutor.shutdown();
+	}
+	
+	private void send(SseEmitter emitter, String eventName, Map<String, String> data, AtomicInteger remaining) {
+		try {
+			// SseEmitter.send는 스레드 안전하지 않으므로 이미터 단위로 직렬화
+			synchronized (emitter) {
+				emitter.send(SseEmitter.event().name(eventName).data(data));
+				if (remaining.decrementAndGet() == 0) {
+					emitter.complete();
+				}
+			}
+		} catch (IOException | IllegalStateException e) {
+			// 클라이언트가 먼저 연결을 끊은 경우
+			log.debug("Image status event not delivered: event={}, data={}, error={}", eventName, data, e.getMessage());
+		}
+	}
+}
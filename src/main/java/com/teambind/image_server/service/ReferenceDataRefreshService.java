@@ -0,0 +1,51 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.config.InitialSetup;
+import com.teambind.image_server.config.ReferenceDataRegistry;
+import com.teambind.image_server.event.events.ControlMessage;
+import com.teambind.image_server.event.publish.ControlMessagePublisher;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 참조 타입/확장자 기준 데이터 재적재 서비스
+ * <p>
+ * - 로컬: InitialSetup.reload()로 스냅샷을 원자적으로 교체
+ * - 클러스터: 로컬 재적재 후 컨트롤 토픽에 REFERENCE_DATA_REFRESH를 발행하여 다른 노드도 재적재
+ * <p>
+ * 각 노드는 노드별 컨슈머 그룹으로 컨트롤 토픽을 구독하므로 모든 노드가 메시지를 받습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReferenceDataRefreshService {
+	
+	private final InitialSetup initialSetup;
+	private final ControlMessagePublisher controlMessagePublisher;
+	
+	public ReferenceDataRegistry.Snapshot refreshLocal() {
+		return initialSetup.reload();
+	}
+	
+	/**
+	 * 로컬 재적재 후 다른 노드에 재적재 요청
+	 */
+	public ReferenceDataRegistry.Snapshot refreshCluster() {
+		ReferenceDataRegistry.Snapshot snapshot = refreshLocal();
+		controlMessagePublisher.publish(ControlMessage.REFERENCE_DATA_REFRESH, null);
+		return snapshot;
+	}
+	
+	/**
+	 * 다른 노드의 재적재 요청 처리
+	 */
+	public void handle(ControlMessage message) {
+		log.info("Reference data refresh requested by node: originNodeId={}, issuedAt={}",
+				message.getOriginNodeId(), message.getIssuedAt());
+		refreshLocal();
+	}
+}
@@ -0,0 +1,338 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.dto.response.ReferenceImageResponse;
+import com.teambind.image_server.dto.response.ReferenceImagesResponse;
+import com.teambind.image_server.entity.ImageSequence;
+import com.teambind.image_server.event.events.ControlMessage;
+import com.teambind.image_server.event.publish.ControlMessagePublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 참조 대상별 이미지 목록 조회 서비스 (노드별 인메모리 캐시)
+ * <p>
+ * 상품 상세 등에서 초당 수백 번 호출되므로 캐시 적중 시 DB를 조회하지 않습니다.
+ * - 미스: 같은 referenceId에 대한 동시 조회는 한 번만 DB를 조회 (single-flight)
+ * - 무효화: ImageSequenceEventHandler가 시퀀스 재생성/삭제 커밋 후 evict() 호출,
+ * 컨트롤 토픽으로 다른 노드에도 전파
+ * - 상한: max-entries 초과 시 가장 오래 조회되지 않은 항목부터 축출
+ * - TTL: 무효화 메시지를 놓친 노드를 위한 안전장치
+ * <p>
+ * 목록 화면용 일괄 조회는 캐시에 없는 referenceId만 IN 쿼리 한 번으로 조회합니다.
+ * <p>
+ * 조회 도중 무효화되면 해당 슬롯이 제거되므로 오래된 결과가 캐시에 남지 않습니다.
+ * ETag는 목록 내용(imageId, imageUrl, sequence)의 SHA-256으로 만든 강한 ETag입니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class ReferenceImageQueryService {
+	
+	private final ImageSequenceService imageSequenceService;
+	private final ControlMessagePublisher controlMessagePublisher;
+	private final int maxEntries;
+	private final long ttlMillis;
+	
+	private final ConcurrentHashMap<String, Slot> cache = new ConcurrentHashMap<>();
+	private final AtomicBoolean trimming = new AtomicBoolean();
+	
+	public ReferenceImageQueryService(
+			ImageSequenceService imageSequenceService,
+			ControlMessagePublisher controlMessagePublisher,
+			@Value("${images.reference-cache.max-entries:10000}") int maxEntries,
+			@Value("${images.reference-cache.ttl-ms:300000}") long ttlMillis) {
+		this.imageSequenceService = imageSequenceService;
+		this.controlMessagePublisher = controlMessagePublisher;
+		this.maxEntries = maxEntries;
+		this.ttlMillis = ttlMillis;
+	}
+	
+	/**
+	 * 참조 대상의 이미지 목록 조회 (없으면 빈 목록)
+	 *
+	 * @param referenceId 참조 ID
+	 * @return 이미지 목록과 ETag
+	 */
+	public CachedImages getImages(String referenceId) {
+		long now = System.currentTimeMillis();
+		
+		Slot slot = cache.get(referenceId);
+		if (slot != null && slot.isUsable(now, ttlMillis)) {
+			slot.lastAccess = now;
+			return await(slot.future);
+		}
+		
+		Slot mine = new Slot(now);
+		Slot current = cache.compute(referenceId, (key, existing) ->
+				existing != null && existing.isUsable(now, ttlMillis) ? existing : mine);
+		if (current != mine) {
+			current.lastAccess = now;
+			return await(current.future);
+		}
+		
+		trimIfNeeded();
+		try {
+			CachedImages loaded = load(referenceId);
+			mine.loadedAt = System.currentTimeMillis();
+			mine.future.complete(loaded);
+			return loaded;
+		} catch (RuntimeException e) {
+			mine.future.completeExceptionally(e);
+			cache.remove(referenceId, mine);
+			throw e;
+		}
+	}
+	
+	/**
+	 * 로컬 캐시 무효화 후 다른 노드에 전파
+	 * - 시퀀스 변경이 커밋된 뒤에 호출해야 함
+	 */
+	public void evict(String referenceId) {
+		evictLocal(referenceId);
+		controlMessagePublisher.publish(ControlMessage.REFERENCE_IMAGES_INVALIDATE, referenceId);
+	}
+	
+	/**
+	 * 로컬 캐시 무효화 (다른 노드의 무효화 메시지 처리)
+	 */
+	public void evictLocal(String referenceId) {
+		if (referenceId != null) {
+			cache.remove(referenceId);
+		}
+	}
+	
+	public int size() {
+		return cache.size();
+	}
+	
+	/**
+	 * 여러 참조 대상의 이미지 목록 일괄 조회 (요청 순서 유지, 중복 ID는 한 번만 응답)
+	 * <p>
+	 * - 캐시에 있는 referenceId는 DB를 조회하지 않음
+	 * - 전체 조회: 나머지를 IN 쿼리 한 번으로 조회하여 캐시에 적재
+	 * - firstOnly: 나머지의 대표 이미지(seq_number = 0)만 조회 (일부만 읽으므로 캐시에 적재하지 않음)
+	 *
+	 * @param referenceIds 참조 ID 목록
+	 * @param firstOnly    true이면 대표 이미지만 응답
+	 * @return 참조 대상별 이미지 목록 (이미지가 없으면 빈 목록)
+	 */
+	public List<ReferenceImagesResponse> getImages(Collection<String> referenceIds, boolean firstOnly) {
+		long now = System.currentTimeMillis();
+		
+		Map<String, ReferenceImagesResponse> responses = new LinkedHashMap<>();
+		List<String> misses = new ArrayList<>();
+		for (String referenceId : new LinkedHashSet<>(referenceIds)) {
+			Slot slot = cache.get(referenceId);
+			if (slot != null && slot.isLoaded(now, ttlMillis)) {
+				slot.lastAccess = now;
+				responses.put(referenceId, slot.future.join().response());
+			} else {
+				responses.put(referenceId, null);
+				misses.add(referenceId);
+			}
+		}
+		
+		if (!misses.isEmpty()) {
+			if (firstOnly) {
+				Map<String, List<ImageSequence>> grouped = group(imageSequenceService.getSequences(misses, true));
+				for (String referenceId : misses) {
+					responses.put(referenceId, toResponse(referenceId, grouped.getOrDefault(referenceId, List.of())));
+				}
+			} else {
+				responses.putAll(loadAll(misses, now));
+			}
+		}
+		
+		List<ReferenceImagesResponse> result = new ArrayList<>(responses.size());
+		for (ReferenceImagesResponse response : responses.values()) {
+			result.add(firstOnly ? firstOf(response) : response);
+		}
+		return result;
+	}
+	
+	/**
+	 * 캐시 미스 일괄 적재
+	 * - 단건 조회와 같은 슬롯을 선점하므로 조회 중 무효화되면 결과가 캐시에 남지 않음
+	 * - 다른 요청이 이미 조회 중인 referenceId는 그 결과를 기다림
+	 */
+	private Map<String, ReferenceImagesResponse> loadAll(List<String> referenceIds, long now) {
+		Map<String, Slot> mine = new LinkedHashMap<>();
+		Map<String, Slot> others = new LinkedHashMap<>();
+		for (String referenceId : referenceIds) {
+			Slot claim = new Slot(now);
+			Slot current = cache.compute(referenceId, (key, existing) ->
+					existing != null && existing.isUsable(now, ttlMillis) ? existing : claim);
+			(current == claim ? mine : others).put(referenceId, current);
+		}
+		
+		Map<String, ReferenceImagesResponse> loaded = new HashMap<>();
+		if (!mine.isEmpty()) {
+			trimIfNeeded();
+			try {
+				Map<String, List<ImageSequence>> grouped = group(imageSequenceService.getSequences(mine.keySet(), false));
+				long loadedAt = System.currentTimeMillis();
+				mine.forEach((referenceId, slot) -> {
+					CachedImages images = toCachedImages(referenceId, grouped.getOrDefault(referenceId, List.of()));
+					slot.loadedAt = loadedAt;
+					slot.future.complete(images);
+					loaded.put(referenceId, images.response());
+				});
+			} catch (RuntimeException e) {
+				mine.forEach((referenceId, slot) -> {
+					slot.future.completeExceptionally(e);
+					cache.remove(referenceId, slot);
+				});
+				throw e;
+			}
+		}
+		others.forEach((referenceId, slot) -> loaded.put(referenceId, await(slot.future).response()));
+		return loaded;
+	}
+	
+	private CachedImages load(String referenceId) {
+		return toCachedImages(referenceId, imageSequenceService.getSequences(referenceId));
+	}
+	
+	private static CachedImages toCachedImages(String referenceId, List<ImageSequence> sequences) {
+		ReferenceImagesResponse response = toResponse(referenceId, sequences);
+		return new CachedImages(response, etagOf(response.getImages()));
+	}
+	
+	private static ReferenceImagesResponse toResponse(String referenceId, List<ImageSequence> sequences) {
+		List<ReferenceImageResponse> images = new ArrayList<>(sequences.size());
+		for (ImageSequence sequence : sequences) {
+			images.add(ReferenceImageResponse.builder()
+					.imageId(sequence.getImageId())
+					.imageUrl(sequence.getImage().getImageUrl())
+					.sequence(sequence.getSeqNumber())
+					.build());
+		}
+		
+		return ReferenceImagesResponse.builder()
+				.referenceId(referenceId)
+				.images(List.copyOf(images))
+				.build();
+	}
+	
+	private static ReferenceImagesResponse firstOf(ReferenceImagesResponse response) {
+		if (response.getImages().size() <= 1) {
+			return response;
+		}
+		return ReferenceImagesResponse.builder()
+				.referenceId(response.getReferenceId())
+				.images(response.getImages().subList(0, 1))
+				.build();
+	}
+	
+	private static Map<String, List<ImageSequence>> group(List<ImageSequence> sequences) {
+		Map<String, List<ImageSequence>> grouped = new HashMap<>();
+		for (ImageSequence sequence : sequences) {
+			grouped.computeIfAbsent(sequence.getReferenceId(), key -> new ArrayList<>()).add(sequence);
+		}
+		return grouped;
+	}
+	
+	/**
+	 * 상한 초과 시 가장 오래 조회되지 않은 항목부터 10% 축출
+	 * - 정렬 비용을 매 미스마다 치르지 않도록 한 번에 여유분을 확보
+	 */
+	private void trimIfNeeded() {
+		if (cache.size() <= maxEntries || !trimming.compareAndSet(false, true)) {
+			return;
+		}
+		try {
+			int target = Math.max(maxEntries - maxEntries / 10, 0);
+			int excess = cache.size() - target;
+			if (excess <= 0) {
+				return;
+			}
+			
+			List<Map.Entry<String, Slot>> entries = new ArrayList<>(cache.entrySet());
+			entries.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess));
+			for (int i = 0; i < excess && i < entries.size(); i++) {
+				Map.Entry<String, Slot> entry = entries.get(i);
+				cache.remove(entry.getKey(), entry.getValue());
+			}
+			log.debug("Reference image cache trimmed: removed={}, size={}", excess, cache.size());
+		} finally {
+			trimming.set(false);
+		}
+	}
+	
+	private static String etagOf(List<ReferenceImageResponse> images) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			for (ReferenceImageResponse image : images) {
+				digest.update((image.getImageId() + '\n' + image.getImageUrl() + '\n' + image.getSequence() + '\n')
+						.getBytes(StandardCharsets.UTF_8));
+			}
+			return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	}
+	
+	private static CachedImages await(CompletableFuture<CachedImages> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
+	
+	/**
+	 * 캐시된 이미지 목록과 ETag (따옴표 포함)
+	 */
+	public record CachedImages(ReferenceImagesResponse response, String etag) {
+	}
+	
+	private static final class Slot {
+		private final CompletableFuture<CachedImages> future = new CompletableFuture<>();
+		private volatile long loadedAt;
+		private volatile long lastAccess;
+		
+		private Slot(long now) {
+			this.lastAccess = now;
+		}
+		
+		/**
+		 * 조회 중이거나 TTL 이내의 정상 결과면 사용 가능
+		 */
+		private boolean isUsable(long now, long ttlMillis) {
+			if (!future.isDone()) {
+				return true;
+			}
+			return isLoaded(now, ttlMillis);
+		}
+		
+		/**
+		 * 조회가 끝난 TTL 이내의 정상 결과
+		 */
+		private boolean isLoaded(long now, long ttlMillis) {
+			return future.isDone() && !future.isCompletedExceptionally() && now - loadedAt < ttlMillis;
+		}
+	}
+}
@@ -0,0 +1,551 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.repository.StorageLocationJdbcRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.util.store.ImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.ClockProvider;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 디스크 파일과 저장 경로(storage_objects / image_variants) 대조
+ * <p>
+ * 행 삭제와 파일 삭제 사이에 노드가 죽거나 파일 삭제가 실패하면 어떤 행도 가리키지 않는 파일(고아 파일)이 남고,
+ * 처리 실패나 수동 삭제로 파일이 없는 경로를 가리키는 행(끊어진 행)이 남을 수 있습니다. 이 작업은 둘을 찾아 보고하고,
+ * DELETE 모드에서는 고아 파일을 속도 제한을 두고 지웁니다. 끊어진 행은 보고만 합니다 (행 정리는 ImageCleanupService 담당).
+ * <p>
+ * 저장 규칙(CATEGORY/yyyy/MM/dd/)의 일자 디렉토리를 파티션으로 삼아 파티션마다 따로 대조합니다.
+ * - 파티션 목록: 디스크는 Files.walkFileTree로 일자 디렉토리 깊이까지만 훑고, DB는 storage_location 인덱스를 건너뛰며 조회해 합침
+ * - 파티션 대조: DB 경로를 키셋 청크로 읽고 디렉토리 파일을 나열한 뒤, 둘을 이름순으로 정렬해 한 번에 병합 비교
+ * 메모리는 전체 파일/행 수가 아니라 동시에 처리 중인 일자 디렉토리 크기만큼만 쓰며, 파티션은 storageReconcileExecutor에서 병렬로 처리합니다.
+ * 정렬은 DB 콜레이션이 아니라 Java 문자열 순서로 하므로 MariaDB 콜레이션 설정과 무관하게 병합 결과가 같습니다.
+ * <p>
+ * 진행 중인 업로드를 고아로 오인하지 않도록 다음을 지킵니다.
+ * - 파티션마다 DB 경로를 먼저 읽고 파일을 나중에 나열 (그 사이 저장된 파일은 수정 시각이 최근이라 유예 기간에 걸림)
+ * - 수정 시각이 grace-period-ms 이내인 파일은 고아로 세지 않음
+ * - 삭제 직전 StoredFileReleaser가 참조를 다시 확인
+ * <p>
+ * 숨김 디렉토리(.spool, .dead-letter)와 리사이즈 캐시(cache)는 저장 규칙에 맞지 않으므로 훑지 않습니다.
+ * 저장소의 루트 디렉토리(ImageStorage.localRoots)를 모두 훑으므로 sharded 저장소도 대조하며, 객체 저장소(s3)는 지원하지 않습니다.
+ * 여러 노드가 공유 볼륨을 함께 쓰므로 ShedLock 잠금(reconcileStorage)을 잡은 노드 하나만 실행합니다.
+ * <p>
+ * 관리 API 요청은 요청 스레드에서 잠금만 잡고 대조는 storageReconcileJobExecutor에서 실행합니다 (start → 작업 id 반환).
+ * 작업 상태와 결과는 실행한 노드의 메모리에 최근 MAX_JOBS개까지만 보관하므로, 같은 노드에 조회해야 합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Service
+@Slf4j
+public class StorageReconcileService {
+	
+	private static final String LOCK_NAME = "reconcileStorage";
+	
+	// 노드별로 보관하는 최근 작업 수
+	private static final int MAX_JOBS = 20;
+	
+	// 저장 규칙 CATEGORY/yyyy/MM/dd
+	private static final List<Pattern> LAYOUT = List.of(
+			Pattern.compile("[A-Z0-9_]+"),
+			Pattern.compile("\\d{4}"),
+			Pattern.compile("\\d{2}"),
+			Pattern.compile("\\d{2}"));
+	
+	private final StorageLocationJdbcRepository locationRepository;
+	private final StoredFileReleaser fileReleaser;
+	private final LockProvider lockProvider;
+	private final Executor reconcileExecutor;
+	private final Executor jobExecutor;
+	private final List<Path> roots;
+	private final int chunkSize;
+	private final Duration gracePeriod;
+	private final int maxDeletesPerRun;
+	private final int maxDeletesPerSecond;
+	private final int sampleSize;
+	private final Duration lockAtMostFor;
+	private final Mode scheduledMode;
+	
+	// 최근 작업 (오래된 것부터 제거)
+	private final Map<String, ReconcileJob> jobs = new LinkedHashMap<>() {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, ReconcileJob> eldest) {
+			return size() > MAX_JOBS;
+		}
+	};
+	
+	public StorageReconcileService(
+			StorageLocationJdbcRepository locationRepository,
+			StoredFileReleaser fileReleaser,
+			LockProvider lockProvider,
+			@Qualifier("storageReconcileExecutor") Executor reconcileExecutor,
+			@Qualifier("storageReconcileJobExecutor") Executor jobExecutor,
+			ImageStorage imageStorage,
+			@Value("${images.reconcile.chunk-size:1000}") int chunkSize,
+			@Value("${images.reconcile.grace-period-ms:86400000}") long gracePeriodMillis,
+			@Value("${images.reconcile.max-deletes-per-run:10000}") int maxDeletesPerRun,
+			@Value("${images.reconcile.max-deletes-per-second:50}") int maxDeletesPerSecond,
+			@Value("${images.reconcile.sample-size:20}") int sampleSize,
+			@Value("${images.reconcile.lock-at-most-for-ms:3600000}") long lockAtMostForMillis,
+			@Value("${images.reconcile.mode:REPORT}") Mode scheduledMode) {
+		this.locationRepository = locationRepository;
+		this.fileReleaser = fileReleaser;
+		this.lockProvider = lockProvider;
+		this.reconcileExecutor = reconcileExecutor;
+		this.jobExecutor = jobExecutor;
+		this.roots = imageStorage.localRoots();
+		this.chunkSize = chunkSize;
+		this.gracePeriod = Duration.ofMillis(gracePeriodMillis);
+		this.maxDeletesPerRun = maxDeletesPerRun;
+		this.maxDeletesPerSecond = maxDeletesPerSecond;
+		this.sampleSize = sampleSize;
+		this.lockAtMostFor = Duration.ofMillis(lockAtMostForMillis);
+		this.scheduledMode = scheduledMode;
+	}
+	
+	/**
+	 * 정기 대조 (images.reconcile.cron 미설정 시 실행하지 않음)
+	 */
+	@Scheduled(cron = "${images.reconcile.cron:-}", zone = "Asia/Seoul")
+	public void scheduledReconcile() {
+		if (roots.isEmpty()) {
+			log.warn("Storage reconcile skipped: storage has no local directories");
+			return;
+		}
+		reconcile(scheduledMode);
+	}
+	
+	/**
+	 * 디스크와 DB 대조 (호출 스레드에서 끝까지 실행, 정기 대조용)
+	 *
+	 * @param mode REPORT면 보고만, DELETE면 유예 기간이 지난 고아 파일까지 삭제
+	 * @return 대조 결과 (다른 노드가 실행 중이면 empty)
+	 * @throws CustomException 파일시스템 저장소가 아니면 STORAGE_RECONCILE_NOT_SUPPORTED
+	 */
+	public Optional<ReconcileReport> reconcile(Mode mode) {
+		Optional<SimpleLock> lock = acquire();
+		if (lock.isEmpty()) {
+			return Optional.empty();
+		}
+		try {
+			return Optional.of(run(mode));
+		} finally {
+			lock.get().unlock();
+		}
+	}
+	
+	/**
+	 * 디스크와 DB 대조를 백그라운드 작업으로 시작 (관리 API용)
+	 * - 잠금은 요청 스레드에서 잡고, 작업이 끝나면 작업 스레드에서 해제
+	 *
+	 * @param mode REPORT면 보고만, DELETE면 유예 기간이 지난 고아 파일까지 삭제
+	 * @return 시작한 작업 (다른 노드가 실행 중이면 empty)
+	 * @throws CustomException 파일시스템 저장소가 아니면 STORAGE_RECONCILE_NOT_SUPPORTED
+	 */
+	public Optional<ReconcileJob> start(Mode mode) {
+		Optional<SimpleLock> lock = acquire();
+		if (lock.isEmpty()) {
+			return Optional.empty();
+		}
+		ReconcileJob job = ReconcileJob.running(UUID.randomUUID().toString(), mode);
+		saveJob(job);
+		try {
+			jobExecutor.execute(() -> {
+				try {
+					saveJob(job.completed(run(mode)));
+				} catch (RuntimeException e) {
+					log.error("Storage reconcile job {} failed", job.jobId(), e);
+					saveJob(job.failed(e.toString()));
+				} finally {
+					lock.get().unlock();
+				}
+			});
+		} catch (RuntimeException e) {
+			lock.get().unlock();
+			saveJob(job.failed(e.toString()));
+			throw e;
+		}
+		log.info("Storage reconcile job {} started: mode={}", job.jobId(), mode);
+		return Optional.of(job);
+	}
+	
+	/**
+	 * 이 노드에서 시작한 작업 조회
+	 *
+	 * @return 작업 (다른 노드의 작업이거나 보관 개수를 넘어 제거되었으면 empty)
+	 */
+	public Optional<ReconcileJob> findJob(String jobId) {
+		synchronized (jobs) {
+			return Optional.ofNullable(jobs.get(jobId));
+		}
+	}
+	
+	private Optional<SimpleLock> acquire() {
+		if (roots.isEmpty()) {
+			throw new CustomException(ErrorCode.STORAGE_RECONCILE_NOT_SUPPORTED);
+		}
+		Optional<SimpleLock> lock = lockProvider.lock(
+				new LockConfiguration(ClockProvider.now(), LOCK_NAME, lockAtMostFor, Duration.ZERO));
+		if (lock.isEmpty()) {
+			log.info("Storage reconcile is running on another node");
+		}
+		return lock;
+	}
+	
+	private void saveJob(ReconcileJob job) {
+		synchronized (jobs) {
+			jobs.put(job.jobId(), job);
+		}
+	}
+	
+	private ReconcileReport run(Mode mode) {
+		long startNanos = System.nanoTime();
+		SortedSet<String> partitions = new TreeSet<>();
+		roots.forEach(root -> partitions.addAll(walkPartitions(root)));
+		partitions.addAll(locationRepository.findPartitions());
+		
+		Run run = new Run(mode, Instant.now().minus(gracePeriod));
+		CompletableFuture<?>[] tasks = partitions.stream()
+				.map(partition -> CompletableFuture.runAsync(() -> reconcilePartition(partition, run), reconcileExecutor))
+				.toArray(CompletableFuture[]::new);
+		CompletableFuture.allOf(tasks).join();
+		
+		ReconcileReport report = run.report(partitions.size());
+		log.info("Storage reconcile finished in {}ms: {}",
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), report);
+		return report;
+	}
+	
+	/**
+	 * 저장 규칙에 맞는 일자 디렉토리 (루트 기준 상대 경로, 끝에 '/')
+	 */
+	private List<String> walkPartitions(Path root) {
+		List<String> partitions = new ArrayList<>();
+		if (!Files.isDirectory(root)) {
+			return partitions;
+		}
+		try {
+			Files.walkFileTree(root, EnumSet.noneOf(FileVisitOption.class), LAYOUT.size(), new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+					return dir.equals(root) || matchesLayout(root.relativize(dir)) ? FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+				}
+				
+				// 최대 깊이의 디렉토리는 visitFile로 전달됨
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					Path relative = root.relativize(file);
+					if (attrs.isDirectory() && relative.getNameCount() == LAYOUT.size() && matchesLayout(relative)) {
+						partitions.add(toLocation(relative) + "/");
+					}
+					return FileVisitResult.CONTINUE;
+				}
+				
+				@Override
+				public FileVisitResult visitFileFailed(Path file, IOException e) {
+					log.warn("Failed to visit {} during storage reconcile: {}", file, e.getMessage());
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to walk storage directory: " + root, e);
+		}
+		return partitions;
+	}
+	
+	private static boolean matchesLayout(Path relative) {
+		if (relative.getNameCount() > LAYOUT.size()) {
+			return false;
+		}
+		for (int i = 0; i < relative.getNameCount(); i++) {
+			if (!LAYOUT.get(i).matcher(relative.getName(i).toString()).matches()) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private void reconcilePartition(String partition, Run run) {
+		try {
+			// DB를 먼저 읽어야 그 사이 저장된 파일이 끊어진 행이 아니라 최근 파일로 잡힘
+			List<String> known = knownNames(partition);
+			List<DiskFile> files = listFiles(partition);
+			
+			List<String> deletable = new ArrayList<>();
+			int i = 0;
+			int j = 0;
+			while (i < files.size() || j < known.size()) {
+				int cmp = i == files.size() ? 1
+						: j == known.size() ? -1
+						: files.get(i).name().compareTo(known.get(j));
+				if (cmp == 0) {
+					i++;
+					j++;
+				} else if (cmp < 0) {
+					DiskFile file = files.get(i++);
+					if (file.lastModified().isAfter(run.graceCutoff)) {
+						run.recentFiles.incrementAndGet();
+						continue;
+					}
+					String location = partition + file.name();
+					run.orphan(location, file.size());
+					deletable.add(location);
+				} else {
+					run.dangling(partition + known.get(j++));
+				}
+			}
+			run.files.addAndGet(files.size());
+			run.knownLocations.addAndGet(known.size());
+			
+			if (run.mode == Mode.DELETE && !deletable.isEmpty()) {
+				deleteOrphans(deletable, run);
+			}
+		} catch (Exception e) {
+			run.failedPartitions.incrementAndGet();
+			log.error("Storage reconcile failed for partition {}", partition, e);
+		}
+	}
+	
+	/**
+	 * 파티션 바로 아래 경로의 파일 이름 (이름순, 중복 제거)
+	 */
+	private List<String> knownNames(String partition) {
+		SortedSet<String> names = new TreeSet<>();
+		locationRepository.forEachLocation(partition, chunkSize, location -> {
+			String name = location.substring(partition.length());
+			if (!name.isEmpty() && name.indexOf('/') < 0) {
+				names.add(name);
+			}
+		});
+		return new ArrayList<>(names);
+	}
+	
+	/**
+	 * 모든 루트에서 파티션 디렉토리의 일반 파일 (숨김 파일 제외, 이름순)
+	 */
+	private List<DiskFile> listFiles(String partition) throws IOException {
+		List<DiskFile> files = new ArrayList<>();
+		for (Path root : roots) {
+			Path dir = root.resolve(partition).normalize();
+			if (!dir.startsWith(root) || !Files.isDirectory(dir)) {
+				continue;
+			}
+			Files.walkFileTree(dir, EnumSet.noneOf(FileVisitOption.class), 1, new SimpleFileVisitor<>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+					String name = file.getFileName().toString();
+					if (attrs.isRegularFile() && !name.startsWith(".")) {
+						files.add(new DiskFile(name, attrs.size(), attrs.lastModifiedTime().toInstant()));
+					}
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		files.sort(Comparator.comparing(DiskFile::name));
+		return files;
+	}
+	
+	/**
+	 * 초당 max-deletes-per-second 묶음으로 나눠 삭제 (실행당 max-deletes-per-run까지)
+	 */
+	private void deleteOrphans(List<String> locations, Run run) throws InterruptedException {
+		int batchSize = maxDeletesPerSecond > 0 ? maxDeletesPerSecond : locations.size();
+		for (int from = 0; from < locations.size(); from += batchSize) {
+			int wanted = Math.min(batchSize, locations.size() - from);
+			int granted = run.reserveDeletes(wanted, maxDeletesPerRun);
+			if (granted == 0) {
+				return;
+			}
+			run.pace(granted, maxDeletesPerSecond);
+			run.deletedFiles.addAndGet(fileReleaser.releaseUnreferenced(locations.subList(from, from + granted)));
+			if (granted < wanted) {
+				return;
+			}
+		}
+	}
+	
+	private static String toLocation(Path relative) {
+		List<String> names = new ArrayList<>(relative.getNameCount());
+		relative.forEach(name -> names.add(name.toString()));
+		return String.join("/", names);
+	}
+	
+	private record DiskFile(String name, long size, Instant lastModified) {
+	}
+	
+	/**
+	 * 한 번의 대조 실행 상태 (파티션 작업들이 함께 갱신)
+	 */
+	private final class Run {
+		private final Mode mode;
+		private final Instant graceCutoff;
+		private final AtomicLong files = new AtomicLong();
+		private final AtomicLong knownLocations = new AtomicLong();
+		private final AtomicLong orphanFiles = new AtomicLong();
+		private final AtomicLong orphanBytes = new AtomicLong();
+		private final AtomicLong recentFiles = new AtomicLong();
+		private final AtomicLong danglingRows = new AtomicLong();
+		private final AtomicLong deletedFiles = new AtomicLong();
+		private final AtomicInteger deleteReserved = new AtomicInteger();
+		private final AtomicBoolean deleteBudgetExhausted = new AtomicBoolean();
+		private final AtomicInteger failedPartitions = new AtomicInteger();
+		private final List<String> orphanSamples = Collections.synchronizedList(new ArrayList<>());
+		private final List<String> danglingSamples = Collections.synchronizedList(new ArrayList<>());
+		private long nextDeleteNanos = System.nanoTime();
+		
+		private Run(Mode mode, Instant graceCutoff) {
+			this.mode = mode;
+			this.graceCutoff = graceCutoff;
+		}
+		
+		private void orphan(String location, long size) {
+			orphanBytes.addAndGet(size);
+			if (orphanFiles.incrementAndGet() <= sampleSize) {
+				orphanSamples.add(location);
+			}
+		}
+		
+		private void dangling(String location) {
+			log.debug("Dangling storage location: {}", location);
+			if (danglingRows.incrementAndGet() <= sampleSize) {
+				danglingSamples.add(location);
+			}
+		}
+		
+		/**
+		 * 실행당 삭제 예산에서 최대 wanted개 확보
+		 */
+		private int reserveDeletes(int wanted, int budget) {
+			int before = deleteReserved.getAndUpdate(reserved -> Math.min(budget, reserved + wanted));
+			int granted = Math.min(wanted, Math.max(0, budget - before));
+			if (granted < wanted) {
+				deleteBudgetExhausted.set(true);
+			}
+			return granted;
+		}
+		
+		/**
+		 * 모든 파티션 작업을 합쳐 초당 perSecond개를 넘지 않도록 대기
+		 */
+		private void pace(int permits, int perSecond) throws InterruptedException {
+			if (perSecond <= 0) {
+				return;
+			}
+			long now = System.nanoTime();
+			long slot;
+			synchronized (this) {
+				slot = Math.max(nextDeleteNanos, now);
+				nextDeleteNanos = slot + permits * TimeUnit.SECONDS.toNanos(1) / perSecond;
+			}
+			TimeUnit.NANOSECONDS.sleep(slot - now);
+		}
+		
+		private ReconcileReport report(int partitions) {
+			return new ReconcileReport(mode, partitions, files.get(), knownLocations.get(),
+					orphanFiles.get(), orphanBytes.get(), recentFiles.get(), danglingRows.get(),
+					deletedFiles.get(), deleteBudgetExhausted.get(), failedPartitions.get(),
+					List.copyOf(orphanSamples), List.copyOf(danglingSamples));
+		}
+	}
+	
+	/**
+	 * 대조 작업 상태
+	 */
+	public enum JobStatus {
+		RUNNING,
+		COMPLETED,
+		FAILED
+	}
+	
+	/**
+	 * 대조 작업
+	 *
+	 * @param jobId      작업 id
+	 * @param status     작업 상태
+	 * @param startedAt  시작 시각
+	 * @param finishedAt 종료 시각 (실행 중이면 null)
+	 * @param report     대조 결과 (COMPLETED일 때만)
+	 * @param error      실패 사유 (FAILED일 때만)
+	 */
+	public record ReconcileJob(String jobId, Mode mode, JobStatus status, Instant startedAt, Instant finishedAt,
+	                           ReconcileReport report, String error) {
+		
+		static ReconcileJob running(String jobId, Mode mode) {
+			return new ReconcileJob(jobId, mode, JobStatus.RUNNING, Instant.now(), null, null, null);
+		}
+		
+		ReconcileJob completed(ReconcileReport report) {
+			return new ReconcileJob(jobId, mode, JobStatus.COMPLETED, startedAt, Instant.now(), report, null);
+		}
+		
+		ReconcileJob failed(String error) {
+			return new ReconcileJob(jobId, mode, JobStatus.FAILED, startedAt, Instant.now(), null, error);
+		}
+	}
+	
+	/**
+	 * 대조 모드
+	 */
+	public enum Mode {
+		REPORT,
+		DELETE
+	}
+	
+	/**
+	 * 대조 결과
+	 *
+	 * @param mode                  실행 모드
+	 * @param partitions            대조한 일자 디렉토리 수
+	 * @param files                 디스크 파일 수
+	 * @param knownLocations        DB 경로 수 (중복 제거)
+	 * @param orphanFiles           어떤 행도 가리키지 않는 파일 수 (유예 기간 이내 파일 제외)
+	 * @param orphanBytes           고아 파일 바이트
+	 * @param recentFiles           유예 기간 이내라 판단을 미룬 미참조 파일 수
+	 * @param danglingRows          파일이 없는 경로 수
+	 * @param deletedFiles          삭제한 고아 파일 수 (삭제 직전 참조가 생긴 파일 제외)
+	 * @param deleteBudgetExhausted 삭제 예산을 다 써서 남은 고아 파일을 다음 실행으로 미뤘는지
+	 * @param failedPartitions      오류로 대조하지 못한 파티션 수
+	 * @param orphanSamples         고아 파일 경로 일부 (sample-size개까지)
+	 * @param danglingSamples       끊어진 경로 일부 (sample-size개까지)
+	 */
+	public record ReconcileReport(Mode mode, int partitions, long files, long knownLocations,
+	                              long orphanFiles, long orphanBytes, long recentFiles, long danglingRows,
+	                              long deletedFiles, boolean deleteBudgetExhausted, int failedPartitions,
+	                              List<String> orphanSamples, List<String> danglingSamples) {
+	}
+}
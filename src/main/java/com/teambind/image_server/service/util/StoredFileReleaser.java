@@ -0,0 +1,135 @@
+package com.teambind.image_server.service.util;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
+import com.teambind.image_server.repository.ImageVariantRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.util.store.ImageStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * 저장 파일 참조 카운트 기반 삭제
+ * <p>
+ * 중복 업로드 재사용으로 여러 이미지 행이 같은 파일(원본/변형)을 가리킬 수 있으므로,
+ * 이미지 행을 삭제한 뒤 남은 참조가 없는 파일만 삭제합니다.
+ * 참조 수는 storage_objects / image_variants 행을 직접 세므로 별도 카운터가 어긋날 일이 없습니다.
+ * <p>
+ * 사용 순서: {@link #locationsOf(Image)}로 경로 수집 → 이미지 행 삭제 → {@link #releaseUnreferenced(Collection)}
+ * <p>
+ * 참조 확인은 IN 조회로 묶어서 하고, 파일 삭제는 묶음 단위로 fileDeleteExecutor에서 병렬로 처리합니다.
+ */
+@Slf4j
+@Component
+public class StoredFileReleaser {
+	
+	// IN 목록 크기 상한
+	private static final int LOOKUP_BATCH_SIZE = 500;
+	
+	// 삭제 작업 하나가 맡는 파일 수 (로컬은 작업 안에서 순차 삭제, S3는 DeleteObjects 요청 하나)
+	private static final int DELETE_BATCH_SIZE = 50;
+	
+	private final StorageObjectRepository storageObjectRepository;
+	private final ImageVariantRepository imageVariantRepository;
+	private final ImageStorage imageStorage;
+	private final Executor deleteExecutor;
+	
+	public StoredFileReleaser(
+			StorageObjectRepository storageObjectRepository,
+			ImageVariantRepository imageVariantRepository,
+			ImageStorage imageStorage,
+			@Qualifier("fileDeleteExecutor") Executor deleteExecutor) {
+		this.storageObjectRepository = storageObjectRepository;
+		this.imageVariantRepository = imageVariantRepository;
+		this.imageStorage = imageStorage;
+		this.deleteExecutor = deleteExecutor;
+	}
+	
+	/**
+	 * 이미지가 참조하는 파일 경로 (원본 + 변형)
+	 */
+	public Set<String> locationsOf(Image image) {
+		Set<String> locations = new LinkedHashSet<>();
+		if (image.getStorageObject() != null && image.getStorageObject().getStorageLocation() != null) {
+			locations.add(image.getStorageObject().getStorageLocation());
+		}
+		if (image.getVariants() != null) {
+			for (ImageVariant variant : image.getVariants()) {
+				if (variant.getStorageLocation() != null) {
+					locations.add(variant.getStorageLocation());
+				}
+			}
+		}
+		return locations;
+	}
+	
+	/**
+	 * 더 이상 참조되지 않는 파일 삭제
+	 * - 호출 전에 이미지 행 삭제가 flush되어 있어야 함
+	 * - 트랜잭션 안이면 커밋 후에 삭제 (롤백 시 파일 보존)
+	 *
+	 * @param locations 삭제 후보 경로
+	 * @return 삭제 대상 파일 수 (참조가 남지 않은 경로)
+	 */
+	public int releaseUnreferenced(Collection<String> locations) {
+		List<String> candidates = locations.stream().distinct().toList();
+		Set<String> referenced = new HashSet<>();
+		for (int from = 0; from < candidates.size(); from += LOOKUP_BATCH_SIZE) {
+			List<String> batch = candidates.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, candidates.size()));
+			referenced.addAll(storageObjectRepository.findReferencedLocations(batch));
+			referenced.addAll(imageVariantRepository.findReferencedLocations(batch));
+		}
+		List<String> unreferenced = candidates.stream()
+				.filter(location -> !referenced.contains(location))
+				.toList();
+		
+		if (unreferenced.isEmpty()) {
+			return 0;
+		}
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					deleteFiles(unreferenced);
+				}
+			});
+		} else {
+			deleteFiles(unreferenced);
+		}
+		return unreferenced.size();
+	}
+	
+	/**
+	 * DELETE_BATCH_SIZE개씩 묶어 병렬 삭제 후 모두 끝날 때까지 대기
+	 */
+	private void deleteFiles(List<String> locations) {
+		List<CompletableFuture<?>> deletes = new ArrayList<>();
+		for (int from = 0; from < locations.size(); from += DELETE_BATCH_SIZE) {
+			List<String> batch = locations.subList(from, Math.min(from + DELETE_BATCH_SIZE, locations.size()));
+			deletes.add(CompletableFuture.runAsync(() -> deleteBatch(batch), deleteExecutor));
+		}
+		CompletableFuture.allOf(deletes.toArray(CompletableFuture[]::new)).join();
+	}
+	
+	private void deleteBatch(List<String> locations) {
+		try {
+			int deleted = imageStorage.deleteAll(locations);
+			log.debug("Deleted unreferenced files: {}/{}", deleted, locations.size());
+		} catch (Exception e) {
+			log.warn("Failed to delete files: {}, error: {}", locations, e.getMessage());
+		}
+	}
+}
@@ -1,8 +1,8 @@
 package com.teambind.image_server.task;
 
+import com.teambind.image_server.util.store.SpooledUpload;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import org.springframework.web.multipart.MultipartFile;
 
 /**
  * 이미지 처리 작업 DTO
@@ -22,9 +22,10 @@ public class ImageProcessingTask {
 	private String imageId;
 	
 	/**
-	 * 업로드된 파일 (MultipartFile)
+	 * 스풀 디렉토리에 복사된 업로드 파일
+	 * (요청 종료 후 삭제되는 MultipartFile 대신 사용)
 	 */
-	private MultipartFile file;
+	private SpooledUpload upload;
 	
 	/**
 	 * 저장 경로 (category/date/filename)
@@ -36,4 +37,20 @@ public class ImageProcessingTask {
 	 * 원본 확장자 (대문자)
 	 */
 	private String originalExtension;
+	
+	/**
+	 * 참조 타입 코드 (대문자, 변형 프로파일 선택 기준)
+	 */
+	private String referenceTypeCode;
+	
+	/**
+	 * 업로더 ID
+	 */
+	private String uploaderId;
+	
+	/**
+	 * 작업 생성 시각 (System.nanoTime, TEMP 등록 직후)
+	 * 큐 대기 시간과 TEMP → READY 전체 지연 측정 기준 (생성자 인자에 포함되지 않음)
+	 */
+	private final long createdAtNanos = System.nanoTime();
 }
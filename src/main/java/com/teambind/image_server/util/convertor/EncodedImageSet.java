@@ -0,0 +1,38 @@
+package com.teambind.image_server.util.convertor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 한 번의 디코딩으로 만든 원본 WebP와 변형 이미지 묶음
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Getter
+@AllArgsConstructor
+public class EncodedImageSet {
+	
+	/**
+	 * 원본 크기 WebP 바이트
+	 */
+	private final byte[] original;
+	
+	/**
+	 * 원본 너비 / 높이
+	 */
+	private final int width;
+	private final int height;
+	
+	/**
+	 * 원본의 64비트 dHash (근접 중복 검색용)
+	 */
+	private final long perceptualHash;
+	
+	/**
+	 * 폭 오름차순 변형 목록 (원본보다 작은 폭만 포함)
+	 */
+	private final List<EncodedVariant> variants;
+}
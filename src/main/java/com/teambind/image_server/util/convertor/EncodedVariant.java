@@ -0,0 +1,30 @@
+package com.teambind.image_server.util.convertor;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 리사이즈 후 인코딩된 변형 이미지
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Getter
+@AllArgsConstructor
+public class EncodedVariant {
+	
+	/**
+	 * 요청한 변형 폭 (variant_code 생성 기준)
+	 */
+	private final int width;
+	
+	/**
+	 * 실제 높이 (원본 비율 유지)
+	 */
+	private final int height;
+	
+	/**
+	 * WebP 바이트
+	 */
+	private final byte[] bytes;
+}
@@ -1,11 +1,19 @@
 package com.teambind.image_server.util.convertor;
 
 import com.sksamuel.scrimage.ImmutableImage;
+import com.sksamuel.scrimage.metadata.ImageMetadata;
+import com.sksamuel.scrimage.metadata.OrientationTools;
 import com.sksamuel.scrimage.webp.WebpWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.web.multipart.MultipartFile;
 
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 @Slf4j
 public class ImageUtil {
@@ -34,6 +42,151 @@ public class ImageUtil {
 		return webpBytes;
 	}
 	
+	/**
+	 * 이미 읽어 둔 원본 바이트를 WebP 형식의 byte 배열로 변환합니다.
+	 * 파일 읽기(I/O)와 디코딩/인코딩(CPU)을 서로 다른 스레드에서 수행할 때 사용합니다.
+	 *
+	 * @param source  원본 이미지 바이트
+	 * @param quality 변환 품질 (0.0f ~ 1.0f)
+	 * @return WebP로 변환된 이미지의 byte 배열
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static byte[] toWebpFromBytes(byte[] source, float quality) throws IOException {
+		int webpQuality = (int) (quality * 100);
+		
+		byte[] webpBytes = ImmutableImage.loader()
+				.fromBytes(source)
+				.bytes(new WebpWriter().withQ(webpQuality));
+		
+		log.info("Scrimage를 사용하여 WebP 변환 완료: inputSize={}, outputSize={}",
+				source.length, webpBytes.length);
+		
+		return webpBytes;
+	}
+	
+	/**
+	 * 원본을 한 번만 디코딩하여 원본 크기 WebP와 폭별 변형 WebP를 함께 생성합니다.
+	 * 원본보다 넓거나 같은 폭은 업스케일하지 않고 건너뜁니다.
+	 *
+	 * @param source  원본 이미지 바이트
+	 * @param quality 변환 품질 (0.0f ~ 1.0f)
+	 * @param widths  변형 폭 목록 (오름차순)
+	 * @return 원본 WebP와 변형 목록
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static EncodedImageSet toWebpWithVariants(byte[] source, float quality, List<Integer> widths) throws IOException {
+		ImmutableImage decoded = decode(source);
+		return encodeWithVariants(decoded, PerceptualHash.dHash(decoded), quality, widths);
+	}
+	
+	/**
+	 * 원본 바이트 디코딩 (디코딩 결과로 해시 계산과 인코딩을 이어서 수행할 때 사용)
+	 *
+	 * @param source 원본 이미지 바이트
+	 * @return 디코딩된 이미지
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static ImmutableImage decode(byte[] source) throws IOException {
+		return ImmutableImage.loader().fromBytes(source);
+	}
+	
+	/**
+	 * 디스크에 있는 원본 파일(스풀 파일) 디코딩
+	 * <p>
+	 * Scrimage 로더는 fromPath/fromStream도 원본 전체를 byte 배열로 읽은 뒤 디코딩하므로,
+	 * ImageIO가 읽을 수 있는 포맷(JPEG/PNG/GIF 등)은 파일 기반 ImageInputStream에서 바로 디코딩합니다.
+	 * EXIF 방향 보정은 Scrimage 로더와 동일하게 적용합니다.
+	 * ImageIO 리더가 없는 포맷(WebP 등)만 Scrimage 로더로 읽습니다.
+	 *
+	 * @param source 원본 이미지 파일 경로
+	 * @return 디코딩된 이미지
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static ImmutableImage decodeFile(Path source) throws IOException {
+		BufferedImage awt = ImageIO.read(source.toFile());
+		if (awt == null) {
+			return ImmutableImage.loader().fromPath(source);
+		}
+		ImageMetadata metadata = ImageMetadata.fromPath(source);
+		return OrientationTools.reorient(ImmutableImage.fromAwt(awt).associateMetadata(metadata), metadata);
+	}
+	
+	/**
+	 * 디코딩된 이미지로 원본 크기 WebP와 폭별 변형 WebP를 생성합니다.
+	 *
+	 * @param decoded        디코딩된 이미지
+	 * @param perceptualHash 디코딩된 이미지의 dHash (결과에 그대로 담김)
+	 * @param quality        변환 품질 (0.0f ~ 1.0f)
+	 * @param widths         변형 폭 목록 (오름차순, 빈 목록이면 원본만 생성)
+	 * @return 원본 WebP와 변형 목록
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static EncodedImageSet encodeWithVariants(ImmutableImage decoded, long perceptualHash,
+	                                                 float quality, List<Integer> widths) throws IOException {
+		WebpWriter writer = new WebpWriter().withQ((int) (quality * 100));
+		byte[] original = decoded.bytes(writer);
+		
+		List<EncodedVariant> variants = new ArrayList<>(widths.size());
+		for (int width : widths) {
+			if (width >= decoded.width) {
+				continue;
+			}
+			ImmutableImage scaled = decoded.scaleToWidth(width);
+			variants.add(new EncodedVariant(width, scaled.height, scaled.bytes(writer)));
+		}
+		
+		log.info("Scrimage를 사용하여 WebP 변형 생성 완료: outputSize={}, variants={}", original.length, variants.size());
+		
+		return new EncodedImageSet(original, decoded.width, decoded.height, perceptualHash, variants);
+	}
+	
+	/**
+	 * 저장소에서 읽은 원본 스트림을 리사이즈한 WebP 바이트로 변환합니다.
+	 *
+	 * @param source 원본 이미지 스트림 (호출자가 닫음)
+	 * @param spec   리사이즈 규격
+	 * @return WebP로 변환된 이미지의 byte 배열
+	 * @throws IOException 이미지 처리 중 오류 발생 시
+	 */
+	public static byte[] resize(InputStream source, ResizeSpec spec) throws IOException {
+		return resize(ImmutableImage.loader().fromStream(source), spec);
+	}
+	
+	/**
+	 * 원본 크기를 넘지 않도록 리사이즈 (어떤 fit 모드도 업스케일하지 않음)
+	 * - cover: 요청 비율은 유지하되 상자를 원본 안에 들어가는 크기로 줄여 크롭
+	 * - contain: 원본이 이미 상자 안에 들어가면 그대로
+	 * - fill: 축마다 원본 크기를 넘지 않도록 제한
+	 */
+	private static byte[] resize(ImmutableImage decoded, ResizeSpec spec) throws IOException {
+		ImmutableImage resized;
+		if (spec.isBoxed()) {
+			int width = spec.getWidth();
+			int height = spec.getHeight();
+			resized = switch (spec.getFit()) {
+				case ResizeSpec.FIT_CONTAIN -> width >= decoded.width && height >= decoded.height
+						? decoded
+						: decoded.bound(width, height);
+				case ResizeSpec.FIT_FILL -> decoded.scaleTo(Math.min(width, decoded.width), Math.min(height, decoded.height));
+				default -> {
+					double scale = Math.min(1.0, Math.min((double) decoded.width / width, (double) decoded.height / height));
+					yield decoded.cover(Math.max(1, (int) (width * scale)), Math.max(1, (int) (height * scale)));
+				}
+			};
+		} else if (spec.getWidth() != null) {
+			resized = spec.getWidth() < decoded.width ? decoded.scaleToWidth(spec.getWidth()) : decoded;
+		} else {
+			resized = spec.getHeight() < decoded.height ? decoded.scaleToHeight(spec.getHeight()) : decoded;
+		}
+		
+		byte[] webpBytes = resized.bytes(new WebpWriter().withQ(spec.getQuality()));
+		
+		log.info("Scrimage를 사용하여 리사이즈 완료: source={}x{}, target={}x{}, fit={}, outputSize={}",
+				decoded.width, decoded.height, resized.width, resized.height, spec.getFit(), webpBytes.length);
+		
+		return webpBytes;
+	}
+	
 	/**
 	 * MultipartFile을 지정된 사이즈의 WebP 썸네일로 변환합니다.
 	 *
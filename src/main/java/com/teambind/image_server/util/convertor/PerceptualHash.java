@@ -0,0 +1,59 @@
+package com.teambind.image_server.util.convertor;
+
+import com.sksamuel.scrimage.ImmutableImage;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * 지각 해시(dHash) 계산
+ * <p>
+ * 이미지를 9x8 회색조로 축소한 뒤 가로로 인접한 픽셀의 밝기를 비교하여 64비트를 만듭니다.
+ * 재압축, 리사이즈, 약간의 색 보정에는 해시가 거의 변하지 않으므로
+ * 해밍 거리로 "거의 같은 이미지"를 찾을 수 있습니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public final class PerceptualHash {
+	
+	private static final int WIDTH = 9;
+	private static final int HEIGHT = 8;
+	
+	private PerceptualHash() {
+	}
+	
+	/**
+	 * 이미 디코딩된 이미지에서 dHash 계산 (추가 디코딩 없음)
+	 *
+	 * @param image 디코딩된 이미지
+	 * @return 64비트 dHash
+	 */
+	public static long dHash(ImmutableImage image) {
+		BufferedImage small = image.scaleTo(WIDTH, HEIGHT).awt();
+		
+		long hash = 0;
+		for (int y = 0; y < HEIGHT; y++) {
+			int left = luminance(small.getRGB(0, y));
+			for (int x = 1; x < WIDTH; x++) {
+				int right = luminance(small.getRGB(x, y));
+				hash = (hash << 1) | (left > right ? 1 : 0);
+				left = right;
+			}
+		}
+		return hash;
+	}
+	
+	/**
+	 * 두 해시의 해밍 거리 (다른 비트 수)
+	 */
+	public static int distance(long a, long b) {
+		return Long.bitCount(a ^ b);
+	}
+	
+	private static int luminance(int rgb) {
+		int r = (rgb >> 16) & 0xFF;
+		int g = (rgb >> 8) & 0xFF;
+		int b = rgb & 0xFF;
+		return (r * 299 + g * 587 + b * 114) / 1000;
+	}
+}
@@ -0,0 +1,158 @@
+package com.teambind.image_server.util.convertor;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import lombok.Getter;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 온디맨드 리사이즈 요청 파라미터 (w, h, fit, q)
+ * <p>
+ * 캐시 키는 요청에 들어온 원본 문자열 그대로 만듭니다. (누락된 파라미터는 빈 문자열)
+ * nginx가 동일한 규칙으로 try_files 경로를 조립하므로, 앱이 한 번 생성한 결과는
+ * 이후 nginx가 앱을 거치지 않고 바로 서빙합니다.
+ * 단, q는 QUALITIES 중 가장 가까운 값으로 맞춘 뒤 키에 넣어 품질별 캐시 파일 수를 제한합니다.
+ * (nginx도 QUALITIES 값만 그대로 찾고, 나머지 값은 앱으로 넘김)
+ * <p>
+ * fit 모드:
+ * - cover: w×h를 채우도록 비율 유지 확대/축소 후 중앙 크롭 (w, h 모두 지정 시 기본값)
+ * - contain: w×h 안에 들어가도록 비율 유지 축소 (크롭 없음)
+ * - fill: 비율을 무시하고 정확히 w×h로 변환
+ * w 또는 h 하나만 지정하면 fit과 무관하게 비율을 유지합니다.
+ * 어떤 모드도 원본보다 크게 만들지 않습니다. (요청 크기가 원본보다 크면 원본 크기 안에서 처리)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Getter
+public class ResizeSpec {
+	
+	public static final String FIT_COVER = "cover";
+	public static final String FIT_CONTAIN = "contain";
+	public static final String FIT_FILL = "fill";
+	
+	// 허용 품질 단계 (nginx default.conf의 $resize_q map과 일치해야 함)
+	private static final int[] QUALITIES = {50, 60, 70, 80, 90};
+	
+	private static final Set<String> FITS = Set.of(FIT_COVER, FIT_CONTAIN, FIT_FILL);
+	private static final Pattern DIGITS = Pattern.compile("\\d{1,4}");
+	private static final Pattern QUALITY = Pattern.compile("\\d{1,3}");
+	private static final Pattern IMAGE_ID = Pattern.compile("[0-9a-fA-F-]{36}");
+	
+	private final String rawWidth;
+	private final String rawHeight;
+	private final String rawFit;
+	private final String rawQuality;
+	
+	private final Integer width;
+	private final Integer height;
+	private final String fit;
+	private final int quality;
+	
+	private ResizeSpec(String rawWidth, String rawHeight, String rawFit, String rawQuality,
+	                   Integer width, Integer height, String fit, int quality) {
+		this.rawWidth = rawWidth;
+		this.rawHeight = rawHeight;
+		this.rawFit = rawFit;
+		this.rawQuality = rawQuality;
+		this.width = width;
+		this.height = height;
+		this.fit = fit;
+		this.quality = quality;
+	}
+	
+	/**
+	 * 요청 파라미터 파싱 및 검증
+	 *
+	 * @param w              가로 폭 (선택)
+	 * @param h              세로 높이 (선택)
+	 * @param fit            cover | contain | fill (선택)
+	 * @param q              품질 1~100 (선택, QUALITIES 중 가장 가까운 값으로 맞춤)
+	 * @param maxDimension   허용 최대 폭/높이
+	 * @param defaultQuality q 누락 시 품질
+	 * @return 검증된 ResizeSpec
+	 * @throws CustomException 파라미터가 잘못된 경우 (INVALID_RESIZE_PARAMETER)
+	 */
+	public static ResizeSpec parse(String w, String h, String fit, String q, int maxDimension, int defaultQuality) {
+		String rawWidth = w == null ? "" : w;
+		String rawHeight = h == null ? "" : h;
+		String rawFit = fit == null ? "" : fit;
+		String rawQuality = q == null ? "" : q;
+		
+		Integer width = parseDimension(rawWidth, maxDimension);
+		Integer height = parseDimension(rawHeight, maxDimension);
+		if (width == null && height == null) {
+			throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+		}
+		
+		if (!rawFit.isEmpty() && !FITS.contains(rawFit)) {
+			throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+		}
+		String effectiveFit = rawFit.isEmpty() ? FIT_COVER : rawFit;
+		
+		int quality = defaultQuality;
+		if (!rawQuality.isEmpty()) {
+			if (!QUALITY.matcher(rawQuality).matches()) {
+				throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+			}
+			quality = Integer.parseInt(rawQuality);
+			if (quality < 1 || quality > 100) {
+				throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+			}
+			quality = snapQuality(quality);
+			rawQuality = String.valueOf(quality);
+		}
+		
+		return new ResizeSpec(rawWidth, rawHeight, rawFit, rawQuality, width, height, effectiveFit, quality);
+	}
+	
+	/**
+	 * 가장 가까운 허용 품질 (같은 거리면 높은 쪽)
+	 */
+	private static int snapQuality(int quality) {
+		int snapped = QUALITIES[0];
+		for (int candidate : QUALITIES) {
+			if (Math.abs(candidate - quality) <= Math.abs(snapped - quality)) {
+				snapped = candidate;
+			}
+		}
+		return snapped;
+	}
+	
+	private static Integer parseDimension(String raw, int maxDimension) {
+		if (raw.isEmpty()) {
+			return null;
+		}
+		if (!DIGITS.matcher(raw).matches()) {
+			throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+		}
+		int value = Integer.parseInt(raw);
+		if (value < 1 || value > maxDimension) {
+			throw new CustomException(ErrorCode.INVALID_RESIZE_PARAMETER);
+		}
+		return value;
+	}
+	
+	/**
+	 * 캐시 상대 경로 (nginx try_files 규칙과 동일해야 함)
+	 * 예: 0b9c...e1/w320_h_cover_q.webp
+	 *
+	 * @param imageId 이미지 ID (UUID)
+	 * @return 캐시 디렉토리 기준 상대 경로
+	 */
+	public String cacheKey(String imageId) {
+		if (imageId == null || !IMAGE_ID.matcher(imageId).matches()) {
+			throw new CustomException(ErrorCode.INVALID_IMAGE_ID);
+		}
+		return imageId + "/w" + rawWidth + "_h" + rawHeight + "_" + rawFit + "_q" + rawQuality + ".webp";
+	}
+	
+	/**
+	 * w, h가 모두 지정되어 fit 모드가 적용되는지 여부
+	 */
+	public boolean isBoxed() {
+		return width != null && height != null;
+	}
+}
@@ -0,0 +1,238 @@
+package com.teambind.image_server.util.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntConsumer;
+
+/**
+ * 64비트 지각 해시용 해밍 거리 검색 인덱스 (Multi-Index Hashing)
+ * <p>
+ * 해시를 16비트 청크 4개로 나누고, 청크마다 65,536개 버킷에 슬롯 번호(int)를 보관합니다.
+ * 두 해시의 거리가 r 이하이면 적어도 한 청크의 거리는 r/4 이하라는 비둘기집 원리에 따라,
+ * 각 청크 값에서 r/4 비트 이내로 바꾼 버킷만 조회한 뒤 전체 64비트 거리로 검증합니다.
+ * <p>
+ * 해시는 long[], 버킷은 int[]로만 보관하여 수백만 건에서도 박싱 없이 밀리초 미만으로 조회합니다.
+ * 삭제는 툼스톤으로 처리하고, 툼스톤이 절반을 넘으면 압축합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public class PerceptualHashIndex {
+	
+	/**
+	 * 지원하는 최대 검색 거리 (청크당 3비트, 청크당 최대 697개 버킷 조회)
+	 */
+	public static final int MAX_SEARCH_DISTANCE = 15;
+	
+	private static final int CHUNKS = 4;
+	private static final int CHUNK_BITS = 16;
+	private static final int CHUNK_MASK = 0xFFFF;
+	private static final int BUCKETS = 1 << CHUNK_BITS;
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	
+	private long[] hashes = new long[1024];
+	private String[] imageIds = new String[1024];
+	private String[] referenceTypes = new String[1024];
+	private final BitSet removed = new BitSet();
+	private int slots;
+	private int removedCount;
+	
+	private final int[][][] postings = new int[CHUNKS][BUCKETS][];
+	private final int[][] postingSizes = new int[CHUNKS][BUCKETS];
+	
+	// 삭제/갱신 시 슬롯 찾기용 (조회 경로에서는 사용하지 않음)
+	private final Map<String, Integer> slotById = new HashMap<>();
+	
+	/**
+	 * 검색 결과
+	 */
+	public record Match(String imageId, String referenceType, int distance) {
+	}
+	
+	/**
+	 * 해시 추가 (같은 imageId가 있으면 교체)
+	 */
+	public void add(String imageId, long hash, String referenceType) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(imageId);
+			ensureCapacity(slots + 1);
+			int slot = slots++;
+			hashes[slot] = hash;
+			imageIds[slot] = imageId;
+			referenceTypes[slot] = referenceType == null ? null : referenceType.intern();
+			for (int chunk = 0; chunk < CHUNKS; chunk++) {
+				appendPosting(chunk, chunkValue(hash, chunk), slot);
+			}
+			slotById.put(imageId, slot);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * 해시 삭제
+	 */
+	public void remove(String imageId) {
+		lock.writeLock().lock();
+		try {
+			removeInternal(imageId);
+			if (removedCount > 1024 && removedCount > slots / 2) {
+				compact();
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	/**
+	 * 해밍 거리 검색
+	 *
+	 * @param hash          기준 해시
+	 * @param maxDistance   최대 거리 (0 ~ {@link #MAX_SEARCH_DISTANCE})
+	 * @param limit         최대 결과 수
+	 * @param excludeId     결과에서 제외할 imageId (자기 자신, null 허용)
+	 * @param referenceType 참조 타입 필터 (null이면 전체)
+	 * @return 거리 오름차순 결과
+	 */
+	public List<Match> search(long hash, int maxDistance, int limit, String excludeId, String referenceType) {
+		if (maxDistance < 0 || maxDistance > MAX_SEARCH_DISTANCE) {
+			throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_SEARCH_DISTANCE);
+		}
+		int radius = maxDistance / CHUNKS;
+		List<Match> matches = new ArrayList<>();
+		
+		lock.readLock().lock();
+		try {
+			for (int chunk = 0; chunk < CHUNKS; chunk++) {
+				int base = chunkValue(hash, chunk);
+				int currentChunk = chunk;
+				forEachWithin(base, radius, 0, probe -> {
+					int[] bucket = postings[currentChunk][probe];
+					int size = postingSizes[currentChunk][probe];
+					for (int i = 0; i < size; i++) {
+						int slot = bucket[i];
+						long candidate = hashes[slot];
+						// 앞 청크에서 이미 방문한 후보는 건너뜀 (중복 제거를 할당 없이 처리)
+						if (visitedInEarlierChunk(hash, candidate, currentChunk, radius) || removed.get(slot)) {
+							continue;
+						}
+						int distance = Long.bitCount(hash ^ candidate);
+						if (distance > maxDistance || imageIds[slot].equals(excludeId)) {
+							continue;
+						}
+						if (referenceType != null && !referenceType.equals(referenceTypes[slot])) {
+							continue;
+						}
+						matches.add(new Match(imageIds[slot], referenceTypes[slot], distance));
+					}
+				});
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+		
+		matches.sort(Comparator.comparingInt(Match::distance));
+		return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+	}
+	
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return slots - removedCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	private static int chunkValue(long hash, int chunk) {
+		return (int) (hash >>> (chunk * CHUNK_BITS)) & CHUNK_MASK;
+	}
+	
+	private static boolean visitedInEarlierChunk(long hash, long candidate, int chunk, int radius) {
+		for (int earlier = 0; earlier < chunk; earlier++) {
+			if (Integer.bitCount(chunkValue(hash ^ candidate, earlier)) <= radius) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	// value에서 radius 비트 이내로 바꾼 모든 16비트 값 순회 (from 이상의 비트만 뒤집어 중복 없이 생성)
+	private static void forEachWithin(int value, int radius, int from, IntConsumer consumer) {
+		consumer.accept(value);
+		if (radius == 0) {
+			return;
+		}
+		for (int bit = from; bit < CHUNK_BITS; bit++) {
+			forEachWithin(value ^ (1 << bit), radius - 1, bit + 1, consumer);
+		}
+	}
+	
+	private void removeInternal(String imageId) {
+		Integer slot = slotById.remove(imageId);
+		if (slot != null) {
+			removed.set(slot);
+			removedCount++;
+		}
+	}
+	
+	private void appendPosting(int chunk, int value, int slot) {
+		int[] bucket = postings[chunk][value];
+		int size = postingSizes[chunk][value];
+		if (bucket == null) {
+			bucket = new int[4];
+		} else if (size == bucket.length) {
+			bucket = Arrays.copyOf(bucket, size + (size >> 1) + 1);
+		}
+		bucket[size] = slot;
+		postings[chunk][value] = bucket;
+		postingSizes[chunk][value] = size + 1;
+	}
+	
+	private void ensureCapacity(int required) {
+		if (required <= hashes.length) {
+			return;
+		}
+		int capacity = Math.max(required, hashes.length + (hashes.length >> 1));
+		hashes = Arrays.copyOf(hashes, capacity);
+		imageIds = Arrays.copyOf(imageIds, capacity);
+		referenceTypes = Arrays.copyOf(referenceTypes, capacity);
+	}
+	
+	// 툼스톤 제거: 살아 있는 슬롯만 앞으로 모으고 버킷을 다시 구성
+	private void compact() {
+		int live = 0;
+		for (int slot = 0; slot < slots; slot++) {
+			if (removed.get(slot)) {
+				continue;
+			}
+			hashes[live] = hashes[slot];
+			imageIds[live] = imageIds[slot];
+			referenceTypes[live] = referenceTypes[slot];
+			slotById.put(imageIds[live], live);
+			live++;
+		}
+		Arrays.fill(imageIds, live, slots, null);
+		Arrays.fill(referenceTypes, live, slots, null);
+		slots = live;
+		removed.clear();
+		removedCount = 0;
+		
+		for (int chunk = 0; chunk < CHUNKS; chunk++) {
+			Arrays.fill(postingSizes[chunk], 0);
+		}
+		for (int slot = 0; slot < slots; slot++) {
+			for (int chunk = 0; chunk < CHUNKS; chunk++) {
+				appendPosting(chunk, chunkValue(hashes[slot], chunk), slot);
+			}
+		}
+	}
+}
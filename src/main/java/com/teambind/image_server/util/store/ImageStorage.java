@@ -0,0 +1,86 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 이미지 파일 저장소
+ * <p>
+ * 저장 경로는 어느 구현이든 같은 상대 경로(CATEGORY/yyyy/MM/dd/파일명)이며, storage_objects / image_variants의
+ * storage_location에 그대로 기록됩니다. 구현은 images.storage.type으로 고릅니다 (ImageStorageConfig).
+ * - local: images.upload.dir 한 디렉토리 ({@link LocalImageStorage})
+ * - sharded: 여러 볼륨 디렉토리에 경로 해시로 분산 ({@link ShardedLocalImageStorage})
+ * - s3: S3 호환 객체 저장소 ({@link S3ImageStorage})
+ * <p>
+ * 오류는 CustomException으로 던집니다 (경로 조작: INVALID_REFERENCE, 파일 없음: IMAGE_NOT_FOUND, 그 외 I/O: IOException).
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public interface ImageStorage {
+	
+	/**
+	 * 스트림 내용을 저장 (같은 경로가 있으면 덮어씀)
+	 *
+	 * @param relativePath 저장 경로
+	 * @param content      저장할 내용 (호출자가 닫음)
+	 * @param length       내용 바이트 수
+	 * @return 저장 경로
+	 */
+	String put(String relativePath, InputStream content, long length) throws CustomException;
+	
+	/**
+	 * 바이트 배열 저장
+	 */
+	default String store(byte[] bytes, String relativePath) throws CustomException {
+		return put(relativePath, new ByteArrayInputStream(bytes), bytes.length);
+	}
+	
+	/**
+	 * 스풀 파일을 저장소로 옮겨 저장 (원본 폴백 저장용, 성공하면 source는 남지 않음)
+	 */
+	String store(Path source, String relativePath) throws CustomException;
+	
+	/**
+	 * 저장된 파일 읽기 (호출자가 닫음)
+	 *
+	 * @throws CustomException 파일이 없으면 IMAGE_NOT_FOUND
+	 */
+	InputStream get(String relativePath) throws CustomException;
+	
+	boolean exists(String relativePath) throws CustomException;
+	
+	/**
+	 * 파일 삭제 (실패는 로그만 남기고 false)
+	 *
+	 * @return 삭제했으면 true (없던 파일은 구현에 따라 false)
+	 */
+	boolean delete(String relativePath);
+	
+	/**
+	 * 여러 파일 삭제 (객체 저장소는 요청 하나로 묶어 처리)
+	 *
+	 * @return 삭제한 파일 수
+	 */
+	default int deleteAll(Collection<String> relativePaths) {
+		int deleted = 0;
+		for (String relativePath : relativePaths) {
+			if (delete(relativePath)) {
+				deleted++;
+			}
+		}
+		return deleted;
+	}
+	
+	/**
+	 * 파일시스템 저장소의 루트 디렉토리 (디스크/DB 대조용, 객체 저장소는 빈 목록)
+	 */
+	default List<Path> localRoots() {
+		return List.of();
+	}
+}
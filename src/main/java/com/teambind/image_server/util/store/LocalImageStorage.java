@@ -4,27 +4,57 @@ package com.teambind.image_server.util.store;
 import com.teambind.image_server.exception.CustomException;
 import com.teambind.image_server.exception.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * 로컬 디렉토리 저장소 (images.storage.type=local, 기본값)
+ * - 저장 경로는 baseDir(images.upload.dir) 기준 상대 경로이며, nginx가 같은 디렉토리를 직접 서빙
+ * - 여러 볼륨으로 나눌 때는 ShardedLocalImageStorage가 볼륨마다 하나씩 사용
+ * - 쓰기는 임시 파일 + rename으로 원자적으로 처리하고, 내구성은 fsync 모드(images.storage.fsync)로 조절
+ */
 @Slf4j
-@Service
-public class LocalImageStorage {
+public class LocalImageStorage implements ImageStorage {
+	
+	private static final String TEMP_SUFFIX = ".tmp";
+	
+	// 디렉토리 캐시 상한 (카테고리 수 x 보관 일수보다 넉넉하게)
+	private static final int MAX_KNOWN_DIRECTORIES = 4096;
 	
 	private final Path baseDir;
 	
+	private final FsyncMode fsyncMode;
+	
+	// 이미 생성을 확인한 디렉토리
+	private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+	
+	public LocalImageStorage(String baseDirPath) {
+		this(baseDirPath, FsyncMode.DATA);
+	}
+	
 	// 생성자를 통해 baseDir를 Path 객체로 초기화합니다.
-	public LocalImageStorage(@Value("${images.upload.dir}") String baseDirPath) {
+	public LocalImageStorage(String baseDirPath, FsyncMode fsyncMode) {
 		log.info("===== LocalImageStorage 생성자 호출됨 =====");
+		this.fsyncMode = fsyncMode;
 		log.info("application.yaml에서 전달된 image.upload.dir: {}", baseDirPath);
 		this.baseDir = Paths.get(baseDirPath).toAbsolutePath().normalize();
-		log.info("초기화된 최종 baseDir 절대 경로: {}", this.baseDir);
+		log.info("초기화된 최종 baseDir 절대 경로: {}, fsync={}", this.baseDir, fsyncMode);
 		
 		// 기본 디렉토리 존재 확인 및 생성, 권한 체크
 		try {
@@ -54,48 +84,123 @@ public class LocalImageStorage {
 	}
 	
 	
+	@Override
 	public String store(byte[] imageBytes, String relativePath) throws CustomException {
 		return storeBytes(imageBytes, relativePath);
 	}
 	
 	// 바이트 배열을 저장하는 공통 로직
 	private String storeBytes(byte[] imageBytes, String relativePath) throws CustomException {
-		// 1. 파일 이름에 경로 조작 문자가 있는지 확인합니다.
-		if (relativePath.contains("..")) {
-			throw new CustomException(ErrorCode.INVALID_REFERENCE);
+		// 경로 조작 문자 / baseDir 밖 경로는 resolve에서 거부
+		Path targetPath = resolve(relativePath);
+		try {
+			writeAtomically(targetPath, imageBytes.length, channel -> {
+				ByteBuffer buffer = ByteBuffer.wrap(imageBytes);
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				return imageBytes.length;
+			});
+		} catch (IOException e) {
+			log.error("[이미지 저장 실패] targetPath={}, baseDir={}, message={}",
+					targetPath, this.baseDir, e.getMessage(), e);
+			throw new CustomException(ErrorCode.IOException);
 		}
-		
+		return relativePath;
+	}
+	
+	/**
+	 * 스풀 파일을 최종 경로로 이동하여 저장 (원본 폴백 저장용)
+	 * - 스풀 디렉토리가 같은 볼륨이면 rename으로 처리되어 바이트 복사가 없음 (fsync 모드에 따라 rename 전에 스풀 파일을 동기화)
+	 * - 다른 볼륨이면 최종 디렉토리의 임시 파일로 복사한 뒤 rename하고 원본 삭제
+	 */
+	@Override
+	public String store(Path source, String relativePath) throws CustomException {
+		Path targetPath = resolve(relativePath);
+		Path directory = targetPath.getParent();
 		try {
-			// 2. 최종 저장 경로를 계산하고 정규화합니다.
-			Path targetPath = this.baseDir.resolve(relativePath).normalize();
-			// --- ▼▼▼▼▼ 디버깅을 위한 핵심 로그 추가 ▼▼▼▼▼ ---
-			log.info("---------- [경로 검증 디버그] ----------");
-			log.info("baseDir        (기본 경로): {}", this.baseDir);
-			log.info("relativePath   (상대 경로): {}", relativePath);
-			log.info("targetPath     (최종 경로): {}", targetPath);
-			log.info("검증 조건 (targetPath.startsWith(baseDir)): {}", targetPath.startsWith(this.baseDir));
-			log.info("------------------------------------");
-			// --- ▲▲▲▲▲ 로그 추가 끝 ▲▲▲▲▲ ---
-			
-			// 3. 최종 경로가 기본 디렉토리 내에 있는지 확인하여 경로 조작 공격을 방어합니다.
-			if (!targetPath.startsWith(this.baseDir)) {
-				log.error("경로 검증 실패! targetPath가 baseDir의 하위 경로가 아닙니다.");
-				throw new CustomException(ErrorCode.INVALID_REFERENCE);
+			ensureDirectory(directory);
+			if (fsyncMode != FsyncMode.NONE) {
+				try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+					force(channel);
+				}
+			}
+			try {
+				Files.move(source, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				try (InputStream in = Files.newInputStream(source)) {
+					writeAtomically(targetPath, Files.size(source), channel -> in.transferTo(Channels.newOutputStream(channel)));
+				}
+				Files.deleteIfExists(source);
+				return relativePath;
+			}
+			if (fsyncMode == FsyncMode.FULL) {
+				forceDirectory(directory);
 			}
-			
-			// 4. 디렉토리를 생성하고 파일을 저장합니다.
-			Files.createDirectories(targetPath.getParent());
-			Files.write(targetPath, imageBytes);
-			
 		} catch (IOException e) {
-			log.error("[이미지 저장 실패] targetPath={}, baseDir={}, message={}",
-					this.baseDir.resolve(relativePath).normalize(), this.baseDir, e.getMessage(), e);
+			knownDirectories.remove(directory);
+			log.error("[이미지 이동 저장 실패] source={}, targetPath={}, message={}", source, targetPath, e.getMessage(), e);
 			throw new CustomException(ErrorCode.IOException);
 		}
 		return relativePath;
 	}
 	
 	
+	/**
+	 * 스트림 내용을 저장 (바이트 배열로 모으지 않고 임시 파일로 바로 복사한 뒤 rename)
+	 */
+	@Override
+	public String put(String relativePath, InputStream content, long length) throws CustomException {
+		Path targetPath = resolve(relativePath);
+		try {
+			writeAtomically(targetPath, length, channel -> content.transferTo(Channels.newOutputStream(channel)));
+		} catch (IOException e) {
+			log.error("[이미지 저장 실패] targetPath={}, message={}", targetPath, e.getMessage(), e);
+			throw new CustomException(ErrorCode.IOException);
+		}
+		return relativePath;
+	}
+	
+	@Override
+	public InputStream get(String relativePath) throws CustomException {
+		Path targetPath = resolve(relativePath);
+		try {
+			return Files.newInputStream(targetPath);
+		} catch (NoSuchFileException e) {
+			throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+		} catch (IOException e) {
+			log.error("[이미지 읽기 실패] targetPath={}, message={}", targetPath, e.getMessage(), e);
+			throw new CustomException(ErrorCode.IOException);
+		}
+	}
+	
+	@Override
+	public boolean exists(String relativePath) throws CustomException {
+		return Files.isRegularFile(resolve(relativePath));
+	}
+	
+	@Override
+	public List<Path> localRoots() {
+		return List.of(baseDir);
+	}
+	
+	/**
+	 * 저장된 파일의 절대 경로 (읽기용)
+	 * - 경로 조작 검증은 저장과 동일
+	 */
+	public Path resolve(String relativePath) throws CustomException {
+		if (relativePath == null || relativePath.contains("..")) {
+			throw new CustomException(ErrorCode.INVALID_REFERENCE);
+		}
+		Path targetPath = this.baseDir.resolve(relativePath).normalize();
+		if (!targetPath.startsWith(this.baseDir)) {
+			throw new CustomException(ErrorCode.INVALID_REFERENCE);
+		}
+		return targetPath;
+	}
+	
+	
+	@Override
 	public boolean delete(String relativePath) {
 		if (relativePath == null || relativePath.isBlank() || relativePath.contains("..")) {
 			return false;
@@ -114,6 +219,94 @@ public class LocalImageStorage {
 	}
 	
 	
+	/**
+	 * 같은 디렉토리의 숨김 임시 파일에 쓰고 fsync 모드만큼 동기화한 뒤 최종 경로로 rename
+	 * - nginx는 rename이 끝난 완전한 파일만 보고, 중간에 프로세스가 죽어도 최종 경로에 잘린 파일이 남지 않음
+	 * - 임시 파일은 '.'으로 시작하므로 디스크/DB 대조(StorageReconcileService)와 nginx 목록에서 제외됨
+	 * - 쓴 바이트 수가 expectedLength와 다르면(스트림이 중간에 끊긴 경우 등) rename하지 않고 임시 파일을 지움
+	 *
+	 * @param expectedLength 저장할 내용의 바이트 수
+	 * @return 쓴 바이트 수
+	 */
+	private long writeAtomically(Path targetPath, long expectedLength, ContentWriter writer) throws IOException {
+		Path directory = targetPath.getParent();
+		ensureDirectory(directory);
+		Path temp = directory.resolve("." + targetPath.getFileName() + "."
+				+ Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+		boolean moved = false;
+		try {
+			long written;
+			// createTempFile은 0600 권한으로 만들어 nginx가 읽지 못할 수 있으므로 umask 기본 권한으로 직접 생성
+			try (FileChannel channel = openTemp(temp)) {
+				written = writer.write(channel);
+				if (written != expectedLength) {
+					throw new IOException("Content length mismatch: expected=" + expectedLength + ", actual=" + written);
+				}
+				force(channel);
+			}
+			try {
+				Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(temp, targetPath, StandardCopyOption.REPLACE_EXISTING);
+			}
+			moved = true;
+			if (fsyncMode == FsyncMode.FULL) {
+				forceDirectory(directory);
+			}
+			return written;
+		} finally {
+			if (!moved) {
+				Files.deleteIfExists(temp);
+			}
+		}
+	}
+	
+	private FileChannel openTemp(Path temp) throws IOException {
+		try {
+			return FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		} catch (NoSuchFileException e) {
+			// 캐시에 있던 디렉토리가 외부에서 지워진 경우 한 번 다시 생성
+			Path directory = temp.getParent();
+			knownDirectories.remove(directory);
+			ensureDirectory(directory);
+			return FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+		}
+	}
+	
+	/**
+	 * 디렉토리 생성 (이미 만든 디렉토리는 createDirectories의 stat/mkdir 호출을 건너뜀)
+	 */
+	private void ensureDirectory(Path directory) throws IOException {
+		if (knownDirectories.contains(directory)) {
+			return;
+		}
+		Files.createDirectories(directory);
+		// 일자 디렉토리는 계속 늘어나므로 상한을 넘으면 비우고 다시 채움
+		if (knownDirectories.size() >= MAX_KNOWN_DIRECTORIES) {
+			knownDirectories.clear();
+		}
+		knownDirectories.add(directory);
+	}
+	
+	private void force(FileChannel channel) throws IOException {
+		switch (fsyncMode) {
+			case DATA -> channel.force(false);
+			case FULL -> channel.force(true);
+			case NONE -> {
+			}
+		}
+	}
+	
+	// rename 결과(디렉토리 엔트리)까지 디스크에 반영, 디렉토리를 열 수 없는 플랫폼에서는 건너뜀
+	private void forceDirectory(Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			log.debug("Directory fsync skipped: path={}, error={}", directory, e.getMessage());
+		}
+	}
+	
+	
 	private byte[] getBytes(MultipartFile file) throws CustomException {
 		try {
 			return file.getBytes();
@@ -122,4 +315,28 @@ public class LocalImageStorage {
 			throw new CustomException(ErrorCode.IOException);
 		}
 	}
+	
+	/**
+	 * 저장 시 디스크 동기화 수준
+	 */
+	public enum FsyncMode {
+		/**
+		 * 동기화하지 않음 (OS 페이지 캐시에 맡김, 장애 시 최근 파일이 비어 있을 수 있음)
+		 */
+		NONE,
+		/**
+		 * 파일 내용만 동기화한 뒤 rename (fdatasync)
+		 */
+		DATA,
+		/**
+		 * 파일 내용과 메타데이터, rename한 디렉토리까지 동기화
+		 */
+		FULL
+	}
+	
+	@FunctionalInterface
+	private interface ContentWriter {
+		
+		long write(FileChannel channel) throws IOException;
+	}
 }
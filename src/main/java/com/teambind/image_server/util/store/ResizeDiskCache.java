@@ -0,0 +1,351 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 온디맨드 리사이즈 결과 디스크 캐시 (바이트 기준 LRU)
+ * <p>
+ * images.upload.dir 아래 cache 디렉토리에 리사이즈 결과를 저장하고, 총 크기가 상한을 넘으면
+ * 가장 오래 사용되지 않은 파일부터 삭제합니다.
+ * <p>
+ * 캐시 적중의 대부분은 nginx가 앱을 거치지 않고 처리하므로 앱은 접근을 직접 볼 수 없습니다.
+ * 그래서 축출 후보를 지우기 전에 파일의 접근 시각(atime)을 확인하고, 마지막 확인 이후
+ * 읽힌 흔적이 있으면 최근 사용으로 옮겨 한 번 더 기회를 줍니다. (second chance)
+ * atime을 갱신하지 않는 파일시스템(noatime)에서는 생성/앱 접근 순서 기준으로 동작합니다.
+ * <p>
+ * 여러 노드가 같은 볼륨을 공유하면 각 노드는 기동 시 스캔한 파일과 자신이 만든 파일만 추적하므로
+ * max-bytes는 노드별 예산으로 보고 설정합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Component
+@Slf4j
+public class ResizeDiskCache {
+	
+	private final Path cacheDir;
+	private final long maxBytes;
+	
+	// 접근 순서 LinkedHashMap: 첫 항목이 가장 오래 사용되지 않은 항목
+	private final LinkedHashMap<String, CachedFile> entries = new LinkedHashMap<>(256, 0.75f, true);
+	private long totalBytes;
+	
+	public ResizeDiskCache(
+			@Value("${images.resize.cache.dir:${images.upload.dir}/cache}") String cacheDirPath,
+			@Value("${images.resize.cache.max-bytes:1073741824}") long maxBytes) {
+		this.cacheDir = Paths.get(cacheDirPath).toAbsolutePath().normalize();
+		this.maxBytes = maxBytes;
+		try {
+			Files.createDirectories(this.cacheDir);
+		} catch (IOException e) {
+			log.error("[리사이즈 캐시 초기화 실패] 디렉토리 생성 중 오류: path={}, message={}", this.cacheDir, e.getMessage(), e);
+		}
+		loadIndex();
+	}
+	
+	/**
+	 * 캐시 조회
+	 * - 다른 노드가 만든 파일도 디스크에 있으면 인덱스에 등록 후 반환
+	 *
+	 * @param key 캐시 상대 경로 (ResizeSpec.cacheKey)
+	 * @return 캐시 파일 경로 (없으면 null)
+	 */
+	public Path lookup(String key) {
+		Path path = resolve(key);
+		synchronized (this) {
+			CachedFile cached = entries.get(key);
+			if (cached != null) {
+				if (Files.exists(path)) {
+					// 새 항목으로 교체해 락 밖에서 확인 중인 축출 후보에서 빠지도록 함
+					entries.put(key, new CachedFile(cached.size, cached.accessTime));
+					return path;
+				}
+				// 다른 노드가 축출한 파일
+				entries.remove(key);
+				totalBytes -= cached.size;
+				return null;
+			}
+		}
+		
+		try {
+			BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+			synchronized (this) {
+				register(key, attributes.size(), attributes.lastAccessTime());
+			}
+			deleteAll(evictOverflow(key));
+			return path;
+		} catch (NoSuchFileException e) {
+			return null;
+		} catch (IOException e) {
+			log.warn("Failed to read resize cache entry: key={}, error={}", key, e.getMessage());
+			return null;
+		}
+	}
+	
+	/**
+	 * 캐시 저장
+	 * - 같은 디렉토리의 임시 파일에 쓴 뒤 rename하므로 nginx가 쓰는 중인 파일을 서빙하지 않음
+	 *
+	 * @param key   캐시 상대 경로
+	 * @param bytes 리사이즈 결과
+	 * @return 캐시 파일 경로
+	 */
+	public Path put(String key, byte[] bytes) {
+		Path path = resolve(key);
+		try {
+			Files.createDirectories(path.getParent());
+			Path temp = Files.createTempFile(path.getParent(), ".resize-", ".tmp");
+			try {
+				Files.write(temp, bytes);
+				try {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+				}
+			} finally {
+				Files.deleteIfExists(temp);
+			}
+			
+			FileTime accessTime = Files.readAttributes(path, BasicFileAttributes.class).lastAccessTime();
+			synchronized (this) {
+				register(key, bytes.length, accessTime);
+			}
+			deleteAll(evictOverflow(key));
+			return path;
+		} catch (IOException e) {
+			log.error("[리사이즈 캐시 저장 실패] key={}, message={}", key, e.getMessage(), e);
+			throw new CustomException(ErrorCode.IOException);
+		}
+	}
+	
+	/**
+	 * 이미지들의 리사이즈 결과 전체 삭제 (cache/<imageId>/)
+	 * - 이미지 파일이 정리될 때 호출해 nginx가 정리된 이미지의 리사이즈 결과를 계속 서빙하지 않도록 함
+	 * - 디렉토리째 지우므로 다른 노드가 만든 파일도 함께 삭제 (다른 노드 인덱스의 항목은 조회/축출 시 정리됨)
+	 *
+	 * @param imageIds 이미지 ID 목록
+	 * @return 삭제한 파일 수
+	 */
+	public int evictImages(Collection<String> imageIds) {
+		List<Path> directories = new ArrayList<>();
+		Set<String> targets = new HashSet<>();
+		for (String imageId : imageIds) {
+			if (imageId == null || imageId.isBlank() || imageId.contains("/")) {
+				continue;
+			}
+			directories.add(resolve(imageId));
+			targets.add(imageId);
+		}
+		if (targets.isEmpty()) {
+			return 0;
+		}
+		
+		// 인덱스는 한 번만 훑어 제거 (파일 삭제는 락 밖에서)
+		synchronized (this) {
+			Iterator<Map.Entry<String, CachedFile>> iterator = entries.entrySet().iterator();
+			while (iterator.hasNext()) {
+				Map.Entry<String, CachedFile> entry = iterator.next();
+				int slash = entry.getKey().indexOf('/');
+				if (slash > 0 && targets.contains(entry.getKey().substring(0, slash))) {
+					iterator.remove();
+					totalBytes -= entry.getValue().size;
+				}
+			}
+		}
+		
+		int deleted = 0;
+		for (Path directory : directories) {
+			deleted += deleteDirectory(directory);
+		}
+		return deleted;
+	}
+	
+	public synchronized long getTotalBytes() {
+		return totalBytes;
+	}
+	
+	public synchronized int size() {
+		return entries.size();
+	}
+	
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+	
+	public Path getCacheDir() {
+		return cacheDir;
+	}
+	
+	private Path resolve(String key) {
+		Path path = cacheDir.resolve(key).normalize();
+		if (key.contains("..") || !path.startsWith(cacheDir)) {
+			throw new CustomException(ErrorCode.INVALID_REFERENCE);
+		}
+		return path;
+	}
+	
+	private void register(String key, long size, FileTime accessTime) {
+		CachedFile previous = entries.put(key, new CachedFile(size, accessTime));
+		if (previous != null) {
+			totalBytes -= previous.size;
+		}
+		totalBytes += size;
+	}
+	
+	/**
+	 * 상한 초과분 축출
+	 * - 락 안에서는 가장 오래 사용되지 않은 쪽부터 초과분만큼 후보를 고르고, 접근 시각 확인은 락 밖에서 수행
+	 * - 확인하는 동안 사용/재등록/축출된 후보는 건너뜀 (항목 객체가 바뀌었는지로 판단)
+	 * - 기회를 받은 항목은 최근 사용으로 옮겨지므로 다음 후보는 이어지는 항목에서 고름
+	 * - 이번 호출에서 이미 기회를 받은 항목은 다시 확인하지 않고 축출
+	 * - 방금 등록한 항목(protectedKey)은 축출하지 않음
+	 *
+	 * @return 삭제할 파일 목록 (락 밖에서 삭제)
+	 */
+	private List<Path> evictOverflow(String protectedKey) {
+		List<Path> victims = new ArrayList<>();
+		Set<String> secondChanced = new HashSet<>();
+		while (true) {
+			List<Candidate> candidates = overflowCandidates(protectedKey);
+			if (candidates.isEmpty()) {
+				return victims;
+			}
+			
+			List<FileTime> accessTimes = new ArrayList<>(candidates.size());
+			for (Candidate candidate : candidates) {
+				accessTimes.add(secondChanced.contains(candidate.key()) ? null : lastAccessTime(candidate.path()));
+			}
+			
+			synchronized (this) {
+				for (int i = 0; i < candidates.size(); i++) {
+					Candidate candidate = candidates.get(i);
+					if (entries.get(candidate.key()) != candidate.cached()) {
+						continue;
+					}
+					FileTime current = accessTimes.get(i);
+					FileTime recorded = candidate.cached().accessTime;
+					if (current != null && recorded != null && current.compareTo(recorded) > 0) {
+						// nginx가 서빙한 흔적: 최근 사용으로 이동 (get으로 이미 끝으로 옮겨짐)
+						entries.put(candidate.key(), new CachedFile(candidate.cached().size, current));
+						secondChanced.add(candidate.key());
+						continue;
+					}
+					entries.remove(candidate.key());
+					totalBytes -= candidate.cached().size;
+					victims.add(candidate.path());
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 초과분을 덮을 만큼의 축출 후보 (가장 오래 사용되지 않은 순)
+	 */
+	private synchronized List<Candidate> overflowCandidates(String protectedKey) {
+		List<Candidate> candidates = new ArrayList<>();
+		long overflow = totalBytes - maxBytes;
+		for (Map.Entry<String, CachedFile> entry : entries.entrySet()) {
+			if (overflow <= 0) {
+				break;
+			}
+			if (entry.getKey().equals(protectedKey)) {
+				continue;
+			}
+			candidates.add(new Candidate(entry.getKey(), cacheDir.resolve(entry.getKey()), entry.getValue()));
+			overflow -= entry.getValue().size;
+		}
+		return candidates;
+	}
+	
+	private FileTime lastAccessTime(Path path) {
+		try {
+			return Files.readAttributes(path, BasicFileAttributes.class).lastAccessTime();
+		} catch (IOException e) {
+			return null;
+		}
+	}
+	
+	private void deleteAll(List<Path> victims) {
+		for (Path victim : victims) {
+			try {
+				Files.deleteIfExists(victim);
+				log.debug("Evicted resize cache entry: {}", victim);
+			} catch (IOException e) {
+				log.warn("Failed to evict resize cache entry: {}, error={}", victim, e.getMessage());
+			}
+		}
+	}
+	
+	private int deleteDirectory(Path directory) {
+		if (!Files.isDirectory(directory)) {
+			return 0;
+		}
+		int deleted = 0;
+		try (Stream<Path> paths = Files.walk(directory)) {
+			for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+				try {
+					if (Files.deleteIfExists(path) && !path.equals(directory)) {
+						deleted++;
+					}
+				} catch (IOException e) {
+					log.warn("Failed to evict resize cache entry: {}, error={}", path, e.getMessage());
+				}
+			}
+		} catch (IOException e) {
+			log.warn("Failed to scan resize cache directory: {}, error={}", directory, e.getMessage());
+		}
+		log.debug("Evicted resize cache directory: {}, files={}", directory, deleted);
+		return deleted;
+	}
+	
+	/**
+	 * 기동 시 기존 캐시 파일을 접근 시각 오름차순으로 인덱스에 등록
+	 */
+	private void loadIndex() {
+		if (!Files.isDirectory(cacheDir)) {
+			return;
+		}
+		record Found(String key, long size, FileTime accessTime) {
+		}
+		List<Found> found = new ArrayList<>();
+		try (Stream<Path> files = Files.walk(cacheDir)) {
+			files.filter(path -> path.getFileName().toString().endsWith(".webp")).forEach(path -> {
+				try {
+					BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+					String key = cacheDir.relativize(path).toString().replace('\\', '/');
+					found.add(new Found(key, attributes.size(), attributes.lastAccessTime()));
+				} catch (IOException e) {
+					log.warn("Failed to index resize cache entry: {}, error={}", path, e.getMessage());
+				}
+			});
+		} catch (IOException e) {
+			log.warn("Failed to scan resize cache directory: {}, error={}", cacheDir, e.getMessage());
+			return;
+		}
+		
+		found.sort(Comparator.comparing(Found::accessTime));
+		synchronized (this) {
+			found.forEach(entry -> register(entry.key(), entry.size(), entry.accessTime()));
+		}
+		deleteAll(evictOverflow(null));
+		log.info("Resize cache initialized: dir={}, entries={}, totalBytes={}, maxBytes={}",
+				cacheDir, size(), getTotalBytes(), maxBytes);
+	}
+	
+	private record CachedFile(long size, FileTime accessTime) {
+	}
+	
+	private record Candidate(String key, Path path, CachedFile cached) {
+	}
+}
@@ -0,0 +1,278 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * S3 호환 객체 저장소 (images.storage.type=s3)
+ * <p>
+ * JDK HttpClient와 SigV4 서명({@link S3RequestSigner})만으로 PutObject / GetObject / HeadObject / DeleteObject /
+ * DeleteObjects를 호출합니다. 본문은 서명하지 않으므로(UNSIGNED-PAYLOAD) 업로드 스트림을 메모리에 모으지 않고 그대로 보냅니다.
+ * <p>
+ * 객체 키는 key-prefix + 저장 경로이며, path-style(endpoint/bucket/key)이 기본입니다 (MinIO 등 자체 호스팅 저장소 호환).
+ * 이미지 URL(images.base-url)은 버킷 앞단의 CDN/게이트웨이 주소로 바꿔야 합니다 (nginx 로컬 서빙 대상이 아님).
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Slf4j
+public class S3ImageStorage implements ImageStorage {
+	
+	// DeleteObjects 요청당 최대 키 수 (S3 제한)
+	private static final int DELETE_BATCH_SIZE = 1000;
+	
+	private static final Pattern ERROR_KEY = Pattern.compile("<Error>\\s*<Key>([^<]*)</Key>");
+	
+	private final HttpClient httpClient;
+	private final S3RequestSigner signer;
+	private final String endpoint;
+	private final String bucket;
+	private final String keyPrefix;
+	private final boolean pathStyle;
+	private final Duration requestTimeout;
+	
+	public S3ImageStorage(String endpoint, String region, String bucket, String accessKey, String secretKey,
+	                      String keyPrefix, boolean pathStyle, Duration requestTimeout) {
+		this.endpoint = endpoint.endsWith("/") ? endpoint.substring(0, endpoint.length() - 1) : endpoint;
+		this.bucket = bucket;
+		this.keyPrefix = keyPrefix == null ? "" : keyPrefix;
+		this.pathStyle = pathStyle;
+		this.requestTimeout = requestTimeout;
+		this.signer = new S3RequestSigner(accessKey, secretKey, region);
+		this.httpClient = HttpClient.newBuilder()
+				.connectTimeout(requestTimeout)
+				.build();
+		log.info("S3 image storage initialized: endpoint={}, bucket={}, prefix={}, pathStyle={}",
+				this.endpoint, bucket, this.keyPrefix, pathStyle);
+	}
+	
+	@Override
+	public String put(String relativePath, InputStream content, long length) throws CustomException {
+		HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.fromPublisher(
+				HttpRequest.BodyPublishers.ofInputStream(() -> content), length);
+		send("PUT", objectUri(relativePath), body, contentType(relativePath), HttpResponse.BodyHandlers.discarding(), 200);
+		return relativePath;
+	}
+	
+	@Override
+	public String store(Path source, String relativePath) throws CustomException {
+		try {
+			HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofFile(source);
+			send("PUT", objectUri(relativePath), body, contentType(relativePath), HttpResponse.BodyHandlers.discarding(), 200);
+			Files.deleteIfExists(source);
+		} catch (FileNotFoundException e) {
+			log.error("[이미지 업로드 실패] 스풀 파일 없음: source={}", source);
+			throw new CustomException(ErrorCode.IOException);
+		} catch (IOException e) {
+			log.warn("Failed to delete uploaded spool file: source={}, error={}", source, e.getMessage());
+		}
+		return relativePath;
+	}
+	
+	@Override
+	public InputStream get(String relativePath) throws CustomException {
+		HttpResponse<InputStream> response = send("GET", objectUri(relativePath), HttpRequest.BodyPublishers.noBody(),
+				null, HttpResponse.BodyHandlers.ofInputStream(), 200, 404);
+		if (response.statusCode() == 404) {
+			closeQuietly(response.body());
+			throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+		}
+		return response.body();
+	}
+	
+	@Override
+	public boolean exists(String relativePath) throws CustomException {
+		HttpResponse<Void> response = send("HEAD", objectUri(relativePath), HttpRequest.BodyPublishers.noBody(),
+				null, HttpResponse.BodyHandlers.discarding(), 200, 404);
+		return response.statusCode() == 200;
+	}
+	
+	/**
+	 * 객체 삭제 (S3는 없는 키도 성공으로 응답하므로 요청이 성공하면 true)
+	 */
+	@Override
+	public boolean delete(String relativePath) {
+		try {
+			send("DELETE", objectUri(relativePath), HttpRequest.BodyPublishers.noBody(),
+					null, HttpResponse.BodyHandlers.discarding(), 204, 200);
+			return true;
+		} catch (CustomException e) {
+			log.warn("Failed to delete object: {}", relativePath);
+			return false;
+		}
+	}
+	
+	/**
+	 * DeleteObjects(Quiet)로 1000개씩 묶어 삭제
+	 */
+	@Override
+	public int deleteAll(Collection<String> relativePaths) {
+		List<String> paths = List.copyOf(relativePaths);
+		int deleted = 0;
+		for (int from = 0; from < paths.size(); from += DELETE_BATCH_SIZE) {
+			List<String> batch = paths.subList(from, Math.min(from + DELETE_BATCH_SIZE, paths.size()));
+			try {
+				deleted += batch.size() - deleteBatch(batch);
+			} catch (CustomException e) {
+				log.warn("Failed to delete {} objects in batch", batch.size());
+			}
+		}
+		return deleted;
+	}
+	
+	/**
+	 * @return 삭제하지 못한 키 수
+	 */
+	private int deleteBatch(List<String> batch) {
+		StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Delete><Quiet>true</Quiet>");
+		for (String path : batch) {
+			xml.append("<Object><Key>").append(escapeXml(keyOf(path))).append("</Key></Object>");
+		}
+		xml.append("</Delete>");
+		byte[] body = xml.toString().getBytes(StandardCharsets.UTF_8);
+		
+		HttpRequest.Builder request = signedRequest("POST", bucketUri("delete"), S3RequestSigner.sha256Hex(body))
+				.header("Content-Type", "application/xml")
+				.header("Content-MD5", md5Base64(body))
+				.POST(HttpRequest.BodyPublishers.ofByteArray(body));
+		HttpResponse<String> response = execute(request.build(), HttpResponse.BodyHandlers.ofString(), 200);
+		
+		int failed = 0;
+		Matcher matcher = ERROR_KEY.matcher(response.body());
+		while (matcher.find()) {
+			failed++;
+			log.warn("Failed to delete object in batch: {}", matcher.group(1));
+		}
+		return failed;
+	}
+	
+	private <T> HttpResponse<T> send(String method, URI uri, HttpRequest.BodyPublisher body, String contentType,
+	                                 HttpResponse.BodyHandler<T> handler, int... expectedStatus) {
+		HttpRequest.Builder request = signedRequest(method, uri, S3RequestSigner.UNSIGNED_PAYLOAD)
+				.method(method, body);
+		if (contentType != null) {
+			request.header("Content-Type", contentType);
+		}
+		return execute(request.build(), handler, expectedStatus);
+	}
+	
+	private HttpRequest.Builder signedRequest(String method, URI uri, String payloadHash) {
+		SortedMap<String, String> signedHeaders = new TreeMap<>();
+		signedHeaders.put("host", uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ":" + uri.getPort());
+		signedHeaders.put("x-amz-content-sha256", payloadHash);
+		signedHeaders.put("x-amz-date", S3RequestSigner.amzDate());
+		
+		return HttpRequest.newBuilder(uri)
+				.timeout(requestTimeout)
+				.header("x-amz-content-sha256", payloadHash)
+				.header("x-amz-date", signedHeaders.get("x-amz-date"))
+				.header("Authorization", signer.authorization(method, uri, signedHeaders, payloadHash));
+	}
+	
+	private <T> HttpResponse<T> execute(HttpRequest request, HttpResponse.BodyHandler<T> handler, int... expectedStatus) {
+		HttpResponse<T> response;
+		try {
+			response = httpClient.send(request, handler);
+		} catch (IOException e) {
+			log.error("[S3 요청 실패] {} {}, message={}", request.method(), request.uri(), e.getMessage(), e);
+			throw new CustomException(ErrorCode.IOException);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new CustomException(ErrorCode.IOException);
+		}
+		for (int status : expectedStatus) {
+			if (response.statusCode() == status) {
+				return response;
+			}
+		}
+		if (response.body() instanceof InputStream stream) {
+			closeQuietly(stream);
+		}
+		log.error("[S3 요청 실패] {} {}, status={}", request.method(), request.uri(), response.statusCode());
+		throw new CustomException(ErrorCode.IOException);
+	}
+	
+	private URI objectUri(String relativePath) {
+		if (relativePath == null || relativePath.isBlank() || relativePath.contains("..")) {
+			throw new CustomException(ErrorCode.INVALID_REFERENCE);
+		}
+		return URI.create(baseUri() + "/" + S3RequestSigner.encodePath(keyOf(relativePath)));
+	}
+	
+	private URI bucketUri(String query) {
+		return URI.create(baseUri() + "/?" + query);
+	}
+	
+	// path-style: endpoint/bucket, virtual-hosted: bucket.endpoint
+	private String baseUri() {
+		if (pathStyle) {
+			return endpoint + "/" + bucket;
+		}
+		int schemeEnd = endpoint.indexOf("://") + 3;
+		return endpoint.substring(0, schemeEnd) + bucket + "." + endpoint.substring(schemeEnd);
+	}
+	
+	private String keyOf(String relativePath) {
+		return keyPrefix + relativePath;
+	}
+	
+	private static String contentType(String relativePath) {
+		String lower = relativePath.toLowerCase();
+		if (lower.endsWith(".webp")) {
+			return "image/webp";
+		}
+		if (lower.endsWith(".png")) {
+			return "image/png";
+		}
+		if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+			return "image/jpeg";
+		}
+		if (lower.endsWith(".gif")) {
+			return "image/gif";
+		}
+		return "application/octet-stream";
+	}
+	
+	private static String md5Base64(byte[] body) {
+		try {
+			return Base64.getEncoder().encodeToString(MessageDigest.getInstance("MD5").digest(body));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private static String escapeXml(String value) {
+		return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+				.replace("\"", "&quot;").replace("'", "&apos;");
+	}
+	
+	private static void closeQuietly(InputStream stream) {
+		try {
+			stream.close();
+		} catch (IOException ignored) {
+			// 응답 본문 정리 실패는 무시
+		}
+	}
+}
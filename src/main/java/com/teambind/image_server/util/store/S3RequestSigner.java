@@ -0,0 +1,143 @@
+package com.teambind.image_server.util.store;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.stream.Collectors;
+
+/**
+ * S3 요청 서명 (AWS Signature Version 4, Authorization 헤더 방식)
+ * <p>
+ * S3 호환 저장소(AWS S3, MinIO, Ceph RGW 등)가 공통으로 지원하는 헤더 서명만 구현합니다.
+ * 본문은 서명하지 않고 x-amz-content-sha256: UNSIGNED-PAYLOAD를 보내므로, 스트림을 두 번 읽지 않고 바로 업로드할 수 있습니다.
+ * <p>
+ * 요청 URI는 호출자가 이미 인코딩한 경로({@link #encodePath(String)})를 그대로 써야 서명과 실제 요청 경로가 일치합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+public class S3RequestSigner {
+	
+	public static final String UNSIGNED_PAYLOAD = "UNSIGNED-PAYLOAD";
+	
+	public static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+	
+	private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+	private static final String SERVICE = "s3";
+	
+	private final String accessKey;
+	private final String secretKey;
+	private final String region;
+	
+	public S3RequestSigner(String accessKey, String secretKey, String region) {
+		this.accessKey = accessKey;
+		this.secretKey = secretKey;
+		this.region = region;
+	}
+	
+	/**
+	 * 현재 시각의 x-amz-date 값
+	 */
+	public static String amzDate() {
+		return ZonedDateTime.now(ZoneOffset.UTC).format(AMZ_DATE);
+	}
+	
+	/**
+	 * Authorization 헤더 값
+	 *
+	 * @param method      HTTP 메서드
+	 * @param uri         요청 URI (경로/쿼리는 인코딩된 상태)
+	 * @param headers     서명할 헤더 (소문자 이름, host / x-amz-date / x-amz-content-sha256 포함)
+	 * @param payloadHash 본문 SHA-256 hex 또는 UNSIGNED-PAYLOAD
+	 */
+	public String authorization(String method, URI uri, SortedMap<String, String> headers, String payloadHash) {
+		String amzDate = headers.get("x-amz-date");
+		String date = amzDate.substring(0, 8);
+		String scope = date + "/" + region + "/" + SERVICE + "/aws4_request";
+		String signedHeaders = String.join(";", headers.keySet());
+		
+		String canonicalRequest = method + "\n"
+				+ (uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath()) + "\n"
+				+ canonicalQuery(uri.getRawQuery()) + "\n"
+				+ headers.entrySet().stream()
+				.map(header -> header.getKey() + ":" + header.getValue().trim() + "\n")
+				.collect(Collectors.joining()) + "\n"
+				+ signedHeaders + "\n"
+				+ payloadHash;
+		
+		String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n"
+				+ sha256Hex(canonicalRequest.getBytes(StandardCharsets.UTF_8));
+		
+		byte[] signingKey = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), date);
+		signingKey = hmac(signingKey, region);
+		signingKey = hmac(signingKey, SERVICE);
+		signingKey = hmac(signingKey, "aws4_request");
+		String signature = HexFormat.of().formatHex(hmac(signingKey, stringToSign));
+		
+		return ALGORITHM + " Credential=" + accessKey + "/" + scope
+				+ ",SignedHeaders=" + signedHeaders
+				+ ",Signature=" + signature;
+	}
+	
+	/**
+	 * 객체 키를 URI 경로로 인코딩 ('/'는 유지, 나머지는 RFC 3986 비예약 문자 외 모두 %XX)
+	 */
+	public static String encodePath(String path) {
+		StringBuilder encoded = new StringBuilder(path.length());
+		for (byte b : path.getBytes(StandardCharsets.UTF_8)) {
+			char c = (char) (b & 0xFF);
+			if (c == '/' || isUnreserved(c)) {
+				encoded.append(c);
+			} else {
+				encoded.append('%').append(HexFormat.of().withUpperCase().toHexDigits(b));
+			}
+		}
+		return encoded.toString();
+	}
+	
+	public static String sha256Hex(byte[] data) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	// 쿼리는 키 순으로 정렬, 값이 없는 키는 "key="
+	private static String canonicalQuery(String rawQuery) {
+		if (rawQuery == null || rawQuery.isEmpty()) {
+			return "";
+		}
+		List<String> params = new ArrayList<>();
+		for (String param : rawQuery.split("&")) {
+			params.add(param.contains("=") ? param : param + "=");
+		}
+		params.sort(null);
+		return String.join("&", params);
+	}
+	
+	private static boolean isUnreserved(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+				|| c == '-' || c == '_' || c == '.' || c == '~';
+	}
+	
+	private static byte[] hmac(byte[] key, String data) {
+		try {
+			Mac mac = Mac.getInstance("HmacSHA256");
+			mac.init(new SecretKeySpec(key, "HmacSHA256"));
+			return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,147 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * 여러 볼륨 디렉토리에 나눠 저장하는 로컬 저장소 (images.storage.type=sharded)
+ * <p>
+ * 경로마다 렌데부 해시(경로와 볼륨 이름의 해시가 가장 큰 볼륨)로 볼륨을 고릅니다.
+ * 노드와 무관하게 같은 경로는 항상 같은 볼륨에 저장되고, 볼륨을 하나 추가하면 약 1/N 경로만 새 볼륨으로 배정이 바뀝니다.
+ * <p>
+ * 볼륨을 추가한 뒤에도 기존 파일은 옮기지 않으므로, 배정된 볼륨에 파일이 없으면 나머지 볼륨을 차례로 확인해 읽습니다.
+ * 삭제는 모든 볼륨에서 시도해 배정이 바뀐 경로도 남기지 않습니다.
+ * <p>
+ * 볼륨 이름은 디렉토리 경로의 마지막 이름이므로, 마운트 위치를 옮겨도 이름만 같으면 배정이 유지됩니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Slf4j
+public class ShardedLocalImageStorage implements ImageStorage {
+	
+	private final List<Volume> volumes;
+	
+	public ShardedLocalImageStorage(List<String> volumeDirs) {
+		this(volumeDirs, LocalImageStorage.FsyncMode.DATA);
+	}
+	
+	public ShardedLocalImageStorage(List<String> volumeDirs, LocalImageStorage.FsyncMode fsyncMode) {
+		if (volumeDirs == null || volumeDirs.isEmpty()) {
+			throw new IllegalArgumentException("images.storage.sharded.dirs must not be empty");
+		}
+		List<Volume> created = new ArrayList<>(volumeDirs.size());
+		for (String dir : volumeDirs) {
+			LocalImageStorage storage = new LocalImageStorage(dir, fsyncMode);
+			String name = storage.localRoots().get(0).getFileName().toString();
+			if (created.stream().anyMatch(volume -> volume.name().equals(name))) {
+				throw new IllegalArgumentException("Duplicate storage volume name: " + name);
+			}
+			created.add(new Volume(name, storage));
+		}
+		this.volumes = List.copyOf(created);
+		log.info("Sharded image storage initialized: volumes={}", volumes.stream().map(Volume::name).toList());
+	}
+	
+	@Override
+	public String put(String relativePath, InputStream content, long length) throws CustomException {
+		return volumeFor(relativePath).storage().put(relativePath, content, length);
+	}
+	
+	@Override
+	public String store(byte[] bytes, String relativePath) throws CustomException {
+		return volumeFor(relativePath).storage().store(bytes, relativePath);
+	}
+	
+	@Override
+	public String store(Path source, String relativePath) throws CustomException {
+		return volumeFor(relativePath).storage().store(source, relativePath);
+	}
+	
+	@Override
+	public InputStream get(String relativePath) throws CustomException {
+		return locate(relativePath).storage().get(relativePath);
+	}
+	
+	@Override
+	public boolean exists(String relativePath) throws CustomException {
+		for (Volume volume : probeOrder(relativePath)) {
+			if (volume.storage().exists(relativePath)) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	@Override
+	public boolean delete(String relativePath) {
+		boolean deleted = false;
+		for (Volume volume : volumes) {
+			deleted |= volume.storage().delete(relativePath);
+		}
+		return deleted;
+	}
+	
+	@Override
+	public List<Path> localRoots() {
+		return volumes.stream().map(volume -> volume.storage().localRoots().get(0)).toList();
+	}
+	
+	/**
+	 * 경로가 배정된 볼륨
+	 */
+	Volume volumeFor(String relativePath) {
+		Volume selected = null;
+		long best = -1;
+		for (Volume volume : volumes) {
+			long score = score(volume.name(), relativePath);
+			if (score > best) {
+				best = score;
+				selected = volume;
+			}
+		}
+		return selected;
+	}
+	
+	/**
+	 * 파일이 있는 볼륨 (배정된 볼륨 먼저 확인)
+	 */
+	private Volume locate(String relativePath) {
+		for (Volume volume : probeOrder(relativePath)) {
+			if (volume.storage().exists(relativePath)) {
+				return volume;
+			}
+		}
+		throw new CustomException(ErrorCode.IMAGE_NOT_FOUND);
+	}
+	
+	private List<Volume> probeOrder(String relativePath) {
+		Volume primary = volumeFor(relativePath);
+		List<Volume> order = new ArrayList<>(volumes.size());
+		order.add(primary);
+		volumes.stream().filter(volume -> volume != primary).forEach(order::add);
+		return order;
+	}
+	
+	private static long score(String volumeName, String relativePath) {
+		CRC32C crc = new CRC32C();
+		crc.update(volumeName.getBytes(StandardCharsets.UTF_8));
+		crc.update(0);
+		crc.update(relativePath.getBytes(StandardCharsets.UTF_8));
+		// CRC 값을 그대로 비교하면 이름이 비슷한 볼륨끼리 편향되므로 한 번 섞음
+		long h = crc.getValue() * 0x9E3779B97F4A7C15L;
+		h ^= h >>> 32;
+		return h & Long.MAX_VALUE;
+	}
+	
+	record Volume(String name, LocalImageStorage storage) {
+	}
+}
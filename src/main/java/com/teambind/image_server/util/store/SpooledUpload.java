@@ -0,0 +1,60 @@
+package com.teambind.image_server.util.store;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 스풀 디렉토리에 복사된 업로드 파일 핸들
+ * <p>
+ * 요청 스레드가 끝난 뒤에도 워커 스레드가 안전하게 원본을 읽을 수 있도록
+ * MultipartFile 대신 Task Queue에 전달됩니다. 처리 완료 후 반드시 {@link #delete()}를 호출해야 합니다.
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Slf4j
+@Getter
+public class SpooledUpload {
+	
+	/**
+	 * 스풀 파일 경로 (images.upload.dir과 같은 볼륨)
+	 */
+	private final Path path;
+	
+	/**
+	 * 원본 파일 크기 (bytes)
+	 */
+	private final long size;
+	
+	/**
+	 * 클라이언트가 보낸 원본 파일명
+	 */
+	private final String originalFilename;
+	
+	/**
+	 * 원본 바이트의 SHA-256 (소문자 hex 64자)
+	 */
+	private final String contentHash;
+	
+	public SpooledUpload(Path path, long size, String originalFilename, String contentHash) {
+		this.path = path;
+		this.size = size;
+		this.originalFilename = originalFilename;
+		this.contentHash = contentHash;
+	}
+	
+	/**
+	 * 스풀 파일 삭제 (이미 이동/삭제된 경우 무시)
+	 */
+	public void delete() {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("Failed to delete spool file: path={}, error={}", path, e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 스풀러
+ * <p>
+ * 요청 본문을 NIO 채널로 스풀 디렉토리에 한 번만 복사하면서 SHA-256을 함께 계산합니다.
+ * - 힙에 파일 전체를 올리지 않음 (MultipartFile.getBytes() 제거)
+ * - 콘텐츠 해시는 중복 업로드 재사용(content-addressed dedup)에 사용
+ * - 서블릿 요청 종료 후 multipart 임시 파일이 삭제되어도 워커가 원본을 읽을 수 있음
+ * - 스풀 디렉토리는 images.upload.dir과 같은 볼륨에 두어 폴백 저장 시 rename으로 이동 가능
+ * - 작업이 끝나면 스풀 파일을 지우고, 비정상 종료로 남은 파일은 시작 시와 주기적으로 정리
+ *   (스풀 디렉토리를 노드들이 공유하므로 기준 시간은 다른 노드의 처리 중인 작업보다 충분히 길어야 함)
+ *
+ * @author Image Server Team
+ * @since 3.1
+ */
+@Slf4j
+@Component
+public class UploadSpooler {
+	
+	private static final String SPOOL_SUFFIX = ".upload";
+	private static final int TRANSFER_BUFFER = 64 * 1024;
+	private static final HexFormat HEX = HexFormat.of();
+	
+	private final Path spoolDir;
+	
+	private final Duration staleThreshold;
+	
+	public UploadSpooler(@Value("${images.upload.spool-dir:${images.upload.dir}/.spool}") String spoolDirPath,
+	                     @Value("${images.upload.spool-stale-after-ms:3600000}") long staleAfterMillis) {
+		this.spoolDir = Paths.get(spoolDirPath).toAbsolutePath().normalize();
+		this.staleThreshold = Duration.ofMillis(staleAfterMillis);
+		try {
+			Files.createDirectories(this.spoolDir);
+		} catch (IOException e) {
+			log.error("[스풀 디렉토리 초기화 실패] path={}, message={}", this.spoolDir, e.getMessage(), e);
+		}
+		purgeStaleFiles();
+		log.info("Upload spooler initialized: spoolDir={}, staleAfter={}", this.spoolDir, this.staleThreshold);
+	}
+	
+	/**
+	 * 업로드 파일을 스풀 디렉토리로 복사
+	 *
+	 * @param file    업로드된 파일
+	 * @param imageId 이미지 ID (스풀 파일명으로 사용)
+	 * @return 스풀 핸들
+	 */
+	public SpooledUpload spool(MultipartFile file, String imageId) {
+		Path target = spoolDir.resolve(imageId + SPOOL_SUFFIX);
+		
+		try (InputStream in = file.getInputStream();
+		     FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			long written = transfer(in, out, digest);
+			return new SpooledUpload(target, written, file.getOriginalFilename(), HEX.formatHex(digest.digest()));
+		} catch (NoSuchAlgorithmException e) {
+			deleteQuietly(target);
+			throw new IllegalStateException("SHA-256 is not available", e);
+		} catch (IOException e) {
+			log.error("[업로드 스풀 실패] imageId={}, target={}, message={}", imageId, target, e.getMessage(), e);
+			deleteQuietly(target);
+			throw new CustomException(ErrorCode.IOException);
+		}
+	}
+	
+	public Path getSpoolDir() {
+		return spoolDir;
+	}
+	
+	// 다이렉트 버퍼 하나로 읽기 → 해시 갱신 → 쓰기를 반복 (한 번의 패스로 복사와 해시 계산)
+	// transferTo(커널 복사)는 바이트를 유저 공간에서 볼 수 없어 해시 계산과 함께 쓸 수 없음
+	private long transfer(InputStream in, FileChannel out, MessageDigest digest) throws IOException {
+		ReadableByteChannel source = in instanceof FileInputStream fileIn ? fileIn.getChannel() : Channels.newChannel(in);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER);
+		long position = 0;
+		while (source.read(buffer) != -1) {
+			buffer.flip();
+			digest.update(buffer.duplicate());
+			while (buffer.hasRemaining()) {
+				position += out.write(buffer);
+			}
+			buffer.clear();
+		}
+		return position;
+	}
+	
+	/**
+	 * 비정상 종료로 남은 스풀 파일 정리 (시작 시 + images.upload.spool-sweep-interval-ms 주기)
+	 *
+	 * @return 삭제한 파일 수
+	 */
+	@Scheduled(initialDelayString = "${images.upload.spool-sweep-interval-ms:600000}",
+			fixedDelayString = "${images.upload.spool-sweep-interval-ms:600000}")
+	public int purgeStaleFiles() {
+		Instant threshold = Instant.now().minus(staleThreshold);
+		try (Stream<Path> files = Files.list(spoolDir)) {
+			int purged = (int) files.filter(p -> p.getFileName().toString().endsWith(SPOOL_SUFFIX))
+					.filter(p -> isOlderThan(p, threshold))
+					.filter(this::deleteQuietly)
+					.count();
+			if (purged > 0) {
+				log.info("Purged stale spool files: count={}, olderThan={}", purged, threshold);
+			}
+			return purged;
+		} catch (IOException e) {
+			log.warn("Failed to purge stale spool files: path={}, error={}", spoolDir, e.getMessage());
+			return 0;
+		}
+	}
+	
+	private boolean isOlderThan(Path path, Instant threshold) {
+		try {
+			return Files.getLastModifiedTime(path).toInstant().isBefore(threshold);
+		} catch (IOException e) {
+			return false;
+		}
+	}
+	
+	private boolean deleteQuietly(Path path) {
+		try {
+			return Files.deleteIfExists(path);
+		} catch (IOException e) {
+			log.warn("Failed to delete spool file: path={}, error={}", path, e.getMessage());
+			return false;
+		}
+	}
+}
@@ -0,0 +1,15 @@
+-- 기존 DB 전환: 샤드 단위 정리 작업 체크포인트 테이블 추가
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+
+CREATE TABLE IF NOT EXISTS cleanup_checkpoint
+(
+    name              VARCHAR(64)  NOT NULL COMMENT '{샤드}:{상태}',
+    cursor_created_at DATETIME     NULL COMMENT '마지막으로 지운 행의 created_at (NULL이면 처음부터)',
+    cursor_image_id   VARCHAR(255) NULL COMMENT '마지막으로 지운 행의 image_id',
+    deleted_rows      BIGINT       NOT NULL DEFAULT 0 COMMENT '누적 삭제 행 수',
+    updated_at        DATETIME     NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+    COMMENT = '이미지 정리 작업 체크포인트';
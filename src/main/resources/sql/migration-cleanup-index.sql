@@ -0,0 +1,7 @@
+-- 기존 DB 전환: 정리 작업 키셋 페이지용 인덱스
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+-- 새 인덱스의 앞 컬럼이 status라 기존 idx_images_status를 대신함
+
+CREATE INDEX IF NOT EXISTS idx_images_status_created ON images (status, created_at, image_id);
+
+DROP INDEX IF EXISTS idx_images_status ON images;
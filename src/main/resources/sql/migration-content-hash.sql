@@ -0,0 +1,13 @@
+-- 기존 DB 전환: 중복 업로드 재사용용 원본 해시 컬럼과 경로 참조 인덱스 추가
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+-- 배포 전에 한 번 실행
+-- migration-variant-location.sql(image_variants.storage_location)을 먼저 실행해야 함
+-- 기존 행은 content_hash가 NULL이라 재사용 대상이 아니며, 이후 업로드부터 채워짐
+
+ALTER TABLE storage_objects
+    ADD COLUMN IF NOT EXISTS content_hash CHAR(64) NULL COMMENT '원본 SHA-256 (중복 업로드 재사용 키)' AFTER converted_format_id;
+
+CREATE INDEX IF NOT EXISTS idx_storage_objects_content_hash ON storage_objects (content_hash);
+-- 파일 참조 수 확인(StoredFileReleaser)용
+CREATE INDEX IF NOT EXISTS idx_storage_objects_location ON storage_objects (storage_location(255));
+CREATE INDEX IF NOT EXISTS idx_image_variants_location ON image_variants (storage_location(255));
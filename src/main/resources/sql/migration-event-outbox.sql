@@ -0,0 +1,22 @@
+-- 기존 DB 전환: Kafka 이벤트 아웃박스 테이블 추가
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+
+CREATE TABLE IF NOT EXISTS event_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '기본키 (발행/병합 순서 기준)',
+    topic           VARCHAR(255)  NOT NULL COMMENT 'Kafka 토픽',
+    event_key       VARCHAR(255)  NULL COMMENT 'Kafka 메시지 키',
+    payload         LONGTEXT      NOT NULL COMMENT 'JSON 메시지',
+    created_at      DATETIME      NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0 COMMENT '발행 실패 횟수',
+    last_error      VARCHAR(1000) NULL COMMENT '마지막 발행 실패 사유',
+    next_attempt_at DATETIME      NULL COMMENT '다음 발행 시도 시각 (실패 후 지수 백오프)',
+    claimed_by      VARCHAR(36)   NULL COMMENT '발행 중인 릴레이 실행 토큰',
+    claimed_at      DATETIME      NULL COMMENT '선점 시각 (claim-timeout-ms가 지나면 다른 릴레이가 다시 가져감)'
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+    COMMENT = 'Kafka 발행 대기 이벤트';
+
+-- 같은 키의 이전 행 삭제 (OutboxRelay 병합)
+CREATE INDEX IF NOT EXISTS idx_event_outbox_key ON event_outbox (topic, event_key);
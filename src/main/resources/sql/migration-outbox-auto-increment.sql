@@ -0,0 +1,9 @@
+-- 기존 DB 전환: event_outbox 키를 시퀀스에서 AUTO_INCREMENT로 변경
+-- (신규 설치와 이 변경 이후 migration-event-outbox.sql을 실행한 DB는 이미 반영되어 있으므로 실행하지 않음)
+--
+-- 시퀀스는 노드마다 50개 단위로 할당되어 id 순서가 커밋 순서와 달랐음
+-- AUTO_INCREMENT 시작값은 InnoDB가 현재 최대 id + 1로 맞추므로 남아 있는 행은 그대로 둠
+
+ALTER TABLE event_outbox MODIFY id BIGINT NOT NULL AUTO_INCREMENT COMMENT '기본키 (발행/병합 순서 기준)';
+
+DROP SEQUENCE IF EXISTS event_outbox_seq;
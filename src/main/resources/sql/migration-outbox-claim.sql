@@ -0,0 +1,6 @@
+-- 기존 DB 전환: 아웃박스 릴레이를 잠금 조회(FOR UPDATE NOWAIT)에서 행 선점 방식으로 변경
+-- (신규 설치와 이 변경 이후 migration-event-outbox.sql을 실행한 DB는 이미 반영되어 있으므로 실행하지 않음)
+
+ALTER TABLE event_outbox
+    ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(36) NULL COMMENT '발행 중인 릴레이 실행 토큰',
+    ADD COLUMN IF NOT EXISTS claimed_at DATETIME    NULL COMMENT '선점 시각 (claim-timeout-ms가 지나면 다른 릴레이가 다시 가져감)';
@@ -0,0 +1,7 @@
+-- 기존 DB 전환: 아웃박스 재시도 지수 백오프 컬럼과 같은 키 조회 인덱스 추가
+-- (신규 설치와 이 변경 이후 migration-event-outbox.sql을 실행한 DB는 이미 반영되어 있으므로 실행하지 않음)
+
+ALTER TABLE event_outbox
+    ADD COLUMN IF NOT EXISTS next_attempt_at DATETIME NULL COMMENT '다음 발행 시도 시각 (실패 후 지수 백오프)' AFTER last_error;
+
+CREATE INDEX IF NOT EXISTS idx_event_outbox_key ON event_outbox (topic, event_key);
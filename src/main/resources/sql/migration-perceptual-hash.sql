@@ -0,0 +1,7 @@
+-- 기존 DB 전환: 근접 중복 검색용 dHash 컬럼 추가
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+-- 배포 전에 한 번 실행 (migration-content-hash.sql 이후)
+-- 기존 이미지는 perceptual_hash가 NULL이라 근접 중복 인덱스에 올라가지 않음
+
+ALTER TABLE storage_objects
+    ADD COLUMN IF NOT EXISTS perceptual_hash BIGINT NULL COMMENT '64비트 dHash (근접 중복 검색)' AFTER content_hash;
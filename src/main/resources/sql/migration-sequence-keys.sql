@@ -0,0 +1,29 @@
+-- 기존 DB 전환: status_history, image_variants, image_sequence 키를 AUTO_INCREMENT에서 시퀀스로 변경
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+-- 배포 전에 한 번 실행
+--
+-- Hibernate pooled 할당은 시퀀스 값 v를 받으면 (v - 49) ~ v 범위를 사용하므로
+-- 시작값은 현재 최대 id + 50으로 맞춤 (SETVAL은 리터럴만 받으므로 동적 SQL 사용)
+
+CREATE SEQUENCE IF NOT EXISTS status_history_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS image_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS image_sequence_seq START WITH 1 INCREMENT BY 50;
+
+SET @sql = CONCAT('SELECT SETVAL(status_history_seq, ', (SELECT COALESCE(MAX(id), 0) + 50 FROM status_history), ')');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = CONCAT('SELECT SETVAL(image_variants_seq, ', (SELECT COALESCE(MAX(id), 0) + 50 FROM image_variants), ')');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @sql = CONCAT('SELECT SETVAL(image_sequence_seq, ', (SELECT COALESCE(MAX(id), 0) + 50 FROM image_sequence), ')');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+ALTER TABLE status_history MODIFY id BIGINT NOT NULL;
+ALTER TABLE image_variants MODIFY id BIGINT NOT NULL;
+ALTER TABLE image_sequence MODIFY id BIGINT NOT NULL COMMENT '기본키 (image_sequence_seq)';
@@ -0,0 +1,7 @@
+-- 기존 DB 전환: 변형 파일 저장 경로/크기 컬럼 추가
+-- (신규 설치는 schema-mariadb.sql에 포함되어 있으므로 실행하지 않음)
+-- 배포 전에 한 번 실행 (기존 변형 행은 NULL로 남음)
+
+ALTER TABLE image_variants
+    ADD COLUMN IF NOT EXISTS storage_location VARCHAR(1000) NULL COMMENT '스토리지 경로' AFTER url,
+    ADD COLUMN IF NOT EXISTS file_size        BIGINT        NULL COMMENT '변형 파일 크기' AFTER storage_location;
@@ -9,6 +9,12 @@ DROP TABLE IF EXISTS storage_objects;
 DROP TABLE IF EXISTS images;
 DROP TABLE IF EXISTS reference_types;
 DROP TABLE IF EXISTS extensions;
+DROP TABLE IF EXISTS event_outbox;
+DROP TABLE IF EXISTS cleanup_checkpoint;
+DROP SEQUENCE IF EXISTS event_outbox_seq;
+DROP SEQUENCE IF EXISTS image_sequence_seq;
+DROP SEQUENCE IF EXISTS image_variants_seq;
+DROP SEQUENCE IF EXISTS status_history_seq;
 
 SET FOREIGN_KEY_CHECKS = 1;
 
@@ -57,7 +63,8 @@ CREATE TABLE images
 
 CREATE INDEX idx_images_reference_type ON images (reference_type_id);
 CREATE INDEX idx_images_reference_id ON images (reference_id);
-CREATE INDEX idx_images_status ON images (status);
+-- 정리 작업 키셋 페이지 (status, created_at, image_id)
+CREATE INDEX idx_images_status_created ON images (status, created_at, image_id);
 
 -- 1:1 with shared PK: storage_objects
 CREATE TABLE storage_objects
@@ -68,6 +75,8 @@ CREATE TABLE storage_objects
     converted_size      BIGINT        NULL COMMENT '변환 후 파일 크기',
     origin_format_id    VARCHAR(16)   NOT NULL COMMENT '원본 확장자 코드',
     converted_format_id VARCHAR(16)   NULL COMMENT '변환 후 확장자 코드',
+    content_hash        CHAR(64)      NULL COMMENT '원본 SHA-256 (중복 업로드 재사용 키)',
+    perceptual_hash     BIGINT        NULL COMMENT '64비트 dHash (근접 중복 검색)',
     CONSTRAINT fk_storage_objects_image
         FOREIGN KEY (image_id) REFERENCES images (image_id)
             ON UPDATE CASCADE ON DELETE CASCADE,
@@ -84,11 +93,19 @@ CREATE TABLE storage_objects
 
 CREATE INDEX idx_storage_objects_origin_format ON storage_objects (origin_format_id);
 CREATE INDEX idx_storage_objects_converted_format ON storage_objects (converted_format_id);
+CREATE INDEX idx_storage_objects_content_hash ON storage_objects (content_hash);
+CREATE INDEX idx_storage_objects_location ON storage_objects (storage_location(255));
+
+-- 시퀀스 키 (Hibernate pooled 할당: INCREMENT BY는 엔티티의 allocationSize와 같아야 함)
+-- IDENTITY는 INSERT마다 키를 받아와야 해서 JDBC 배치가 꺼지므로 시퀀스를 사용
+CREATE SEQUENCE status_history_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE image_variants_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE image_sequence_seq START WITH 1 INCREMENT BY 50;
 
 -- N:1 history
 CREATE TABLE status_history
 (
-    id         BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id         BIGINT PRIMARY KEY,
     image_id   VARCHAR(255)  NOT NULL,
     old_status VARCHAR(32)   NOT NULL COMMENT '이전 상태',
     new_status VARCHAR(32)   NOT NULL COMMENT '변경된 상태',
@@ -109,7 +126,7 @@ CREATE INDEX idx_status_history_updated_at ON status_history (updated_at);
 -- N:1 variants
 CREATE TABLE image_variants
 (
-    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    id           BIGINT PRIMARY KEY,
     image_id     VARCHAR(255)  NOT NULL,
     variant_code VARCHAR(32)   NOT NULL COMMENT '변형 코드 (THUMBNAIL, SMALL, MEDIUM 등)',
     is_thumbnail TINYINT(1)    NOT NULL DEFAULT 0 COMMENT '썸네일 여부',
@@ -118,6 +135,8 @@ CREATE TABLE image_variants
     width        INT           NULL COMMENT '이미지 너비',
     height       INT           NULL COMMENT '이미지 높이',
     url          VARCHAR(1000) NULL COMMENT '변형 이미지 URL',
+    storage_location VARCHAR(1000) NULL COMMENT '스토리지 경로',
+    file_size    BIGINT        NULL COMMENT '변형 파일 크기',
     CONSTRAINT fk_image_variants_image
         FOREIGN KEY (image_id) REFERENCES images (image_id)
             ON UPDATE CASCADE ON DELETE CASCADE
@@ -128,11 +147,12 @@ CREATE TABLE image_variants
 
 CREATE INDEX idx_image_variants_image ON image_variants (image_id);
 CREATE INDEX idx_image_variants_code ON image_variants (variant_code);
+CREATE INDEX idx_image_variants_location ON image_variants (storage_location(255));
 
 -- Image sequence: 이미지 순서 관리
 CREATE TABLE image_sequence
 (
-    id           BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '기본키 (Auto Increment)',
+    id           BIGINT PRIMARY KEY COMMENT '기본키 (image_sequence_seq)',
     reference_id VARCHAR(255) NOT NULL COMMENT '참조 ID (상품 ID, 게시글 ID 등)',
     image_id     VARCHAR(255) NOT NULL COMMENT '이미지 ID',
     seq_number   INT          NOT NULL COMMENT '순서 번호 (0부터 시작)',
@@ -154,6 +174,41 @@ CREATE INDEX idx_image_id ON image_sequence (image_id);
 CREATE UNIQUE INDEX uk_reference_image ON image_sequence (reference_id, image_id);
 CREATE UNIQUE INDEX uk_reference_seq ON image_sequence (reference_id, seq_number);
 
+-- 트랜잭셔널 아웃박스: 도메인 변경과 같은 트랜잭션에서 저장, OutboxRelay가 발행 후 삭제
+CREATE TABLE event_outbox
+(
+    id              BIGINT AUTO_INCREMENT PRIMARY KEY COMMENT '기본키 (발행/병합 순서 기준)',
+    topic           VARCHAR(255)  NOT NULL COMMENT 'Kafka 토픽',
+    event_key       VARCHAR(255)  NULL COMMENT 'Kafka 메시지 키',
+    payload         LONGTEXT      NOT NULL COMMENT 'JSON 메시지',
+    created_at      DATETIME      NOT NULL,
+    attempts        INT           NOT NULL DEFAULT 0 COMMENT '발행 실패 횟수',
+    last_error      VARCHAR(1000) NULL COMMENT '마지막 발행 실패 사유',
+    next_attempt_at DATETIME      NULL COMMENT '다음 발행 시도 시각 (실패 후 지수 백오프)',
+    claimed_by      VARCHAR(36)   NULL COMMENT '발행 중인 릴레이 실행 토큰',
+    claimed_at      DATETIME      NULL COMMENT '선점 시각 (claim-timeout-ms가 지나면 다른 릴레이가 다시 가져감)'
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+    COMMENT = 'Kafka 발행 대기 이벤트';
+
+-- 같은 키의 이전 행 삭제 (OutboxRelay 병합)
+CREATE INDEX idx_event_outbox_key ON event_outbox (topic, event_key);
+
+
+-- 정리 작업 진행 위치: 샤드 + 상태별 키셋 커서 (ImageCleanupService가 청크 삭제와 같은 트랜잭션에서 갱신)
+CREATE TABLE cleanup_checkpoint
+(
+    name              VARCHAR(64)  NOT NULL COMMENT '{샤드}:{상태}',
+    cursor_created_at DATETIME     NULL COMMENT '마지막으로 지운 행의 created_at (NULL이면 처음부터)',
+    cursor_image_id   VARCHAR(255) NULL COMMENT '마지막으로 지운 행의 image_id',
+    deleted_rows      BIGINT       NOT NULL DEFAULT 0 COMMENT '누적 삭제 행 수',
+    updated_at        DATETIME     NOT NULL,
+    PRIMARY KEY (name)
+) ENGINE = InnoDB
+  DEFAULT CHARSET = utf8mb4
+  COLLATE = utf8mb4_unicode_ci
+    COMMENT = '이미지 정리 작업 체크포인트';
 
 CREATE TABLE shedlock
 (
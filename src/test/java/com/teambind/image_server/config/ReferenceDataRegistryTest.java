@@ -0,0 +1,78 @@
+package com.teambind.image_server.config;
+
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.ReferenceType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenceDataRegistryTest {
+	
+	private static final ReferenceType PRODUCT = ReferenceType.builder()
+			.code("PRODUCT").name("Product").allowsMultiple(true).maxImages(10).build();
+	private static final ReferenceType PROFILE = ReferenceType.builder()
+			.code("PROFILE").name("Profile").allowsMultiple(false).maxImages(1).build();
+	private static final Extension JPG = Extension.builder().code("JPG").name("JPG").build();
+	
+	@Test
+	@DisplayName("publish하면 네 개의 맵 뷰가 같은 스냅샷으로 한 번에 바뀐다")
+	void publish_swapsAllViews() {
+		// when
+		ReferenceDataRegistry.Snapshot snapshot = ReferenceDataRegistry.publish(List.of(PRODUCT, PROFILE), List.of(JPG));
+		
+		// then
+		assertThat(InitialSetup.ALL_REFERENCE_TYPE_MAP).containsOnlyKeys("PRODUCT", "PROFILE");
+		assertThat(InitialSetup.MULTI_IMAGE_REFERENCE_TYPE_MAP).containsOnlyKeys("PRODUCT");
+		assertThat(InitialSetup.MONO_IMAGE_REFERENCE_TYPE_MAP).containsOnlyKeys("PROFILE");
+		assertThat(InitialSetup.EXTENSION_MAP).containsOnlyKeys("JPG");
+		assertThat(ReferenceDataRegistry.current().version()).isEqualTo(snapshot.version());
+	}
+	
+	@Test
+	@DisplayName("뷰에 대한 put/clear는 해당 맵만 바꾼다")
+	void viewWrite_changesOnlyThatMap() {
+		// given
+		ReferenceDataRegistry.publish(List.of(PRODUCT, PROFILE), List.of(JPG));
+		
+		// when
+		InitialSetup.EXTENSION_MAP.clear();
+		InitialSetup.EXTENSION_MAP.put("PNG", Extension.builder().code("PNG").name("PNG").build());
+		
+		// then
+		assertThat(InitialSetup.EXTENSION_MAP).containsOnlyKeys("PNG");
+		assertThat(InitialSetup.ALL_REFERENCE_TYPE_MAP).containsOnlyKeys("PRODUCT", "PROFILE");
+	}
+	
+	@Test
+	@DisplayName("재적재 중에도 조회 결과가 비거나 일부만 보이지 않는다")
+	void reload_neverExposesPartialView() throws InterruptedException {
+		// given
+		ReferenceDataRegistry.publish(List.of(PRODUCT, PROFILE), List.of(JPG));
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger misses = new AtomicInteger();
+		Thread reader = new Thread(() -> {
+			while (running.get()) {
+				if (InitialSetup.ALL_REFERENCE_TYPE_MAP.get("PRODUCT") == null
+						|| InitialSetup.EXTENSION_MAP.get("JPG") == null) {
+					misses.incrementAndGet();
+				}
+			}
+		});
+		reader.start();
+		
+		// when
+		for (int i = 0; i < 10_000; i++) {
+			ReferenceDataRegistry.publish(List.of(PRODUCT, PROFILE), List.of(JPG));
+		}
+		running.set(false);
+		reader.join();
+		
+		// then
+		assertThat(misses.get()).isZero();
+	}
+}
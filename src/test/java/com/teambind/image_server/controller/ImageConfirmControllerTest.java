@@ -3,8 +3,11 @@ package com.teambind.image_server.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.teambind.image_server.config.InitialSetup;
 import com.teambind.image_server.dto.request.ImageBatchConfirmRequest;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
 import com.teambind.image_server.fixture.TestFixtureFactory;
 import com.teambind.image_server.service.ImageConfirmService;
+import com.teambind.image_server.service.ImageConfirmWaiter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,14 +15,21 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ImageConfirmController.class)
@@ -34,6 +44,9 @@ class ImageConfirmControllerTest {
 	@MockBean
 	private ImageConfirmService imageConfirmService;
 
+	@MockBean
+	private ImageConfirmWaiter imageConfirmWaiter;
+
 	@BeforeEach
 	void setUp() {
 		// InitialSetup 초기화
@@ -55,6 +68,28 @@ class ImageConfirmControllerTest {
 		verify(imageConfirmService).confirmImage("image-123", "ref-456");
 	}
 
+	@Test
+	@DisplayName("처리 중인 이미지는 완료를 기다린 뒤 확정 결과를 비동기로 응답")
+	void confirmImage_processing_waitsForCompletion() throws Exception {
+		// given
+		willThrow(new CustomException(ErrorCode.IMAGE_PROCESSING_IN_PROGRESS))
+				.given(imageConfirmService).confirmImage("image-123", "ref-456");
+		DeferredResult<ResponseEntity<Void>> deferred = new DeferredResult<>();
+		deferred.setResult(ResponseEntity.ok().build());
+		given(imageConfirmWaiter.confirmWhenProcessed("image-123", "ref-456")).willReturn(deferred);
+
+		// when
+		MvcResult result = mockMvc.perform(post("/api/v1/images/confirm/ref-456")
+						.param("imageId", "image-123"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+
+		// then
+		mockMvc.perform(asyncDispatch(result))
+				.andExpect(status().isOk());
+		verify(imageConfirmWaiter).confirmWhenProcessed("image-123", "ref-456");
+	}
+
 	@Test
 	@DisplayName("imageId가 없으면 400 에러")
 	void confirmImage_missingImageId_badRequest() throws Exception {
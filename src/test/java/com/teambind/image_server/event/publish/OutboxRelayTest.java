@@ -0,0 +1,310 @@
+package com.teambind.image_server.event.publish;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.teambind.image_server.entity.OutboxEvent;
+import com.teambind.image_server.metrics.EventPublishMetrics;
+import com.teambind.image_server.repository.OutboxEventRepository;
+import com.teambind.image_server.repository.OutboxJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(OutboxJdbcRepository.class)
+class OutboxRelayTest {
+	
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+	
+	@Autowired
+	private OutboxJdbcRepository outboxJdbcRepository;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	private TestEntityManager em;
+	
+	@SuppressWarnings("unchecked")
+	private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+	
+	private final LockProvider lockProvider = mock(LockProvider.class);
+	
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	
+	@TempDir
+	private Path deadLetterDir;
+	
+	private EventPublishMetrics metrics;
+	
+	private OutboxDeadLetterStore deadLetterStore;
+	
+	private OutboxRelay relay;
+	
+	@BeforeEach
+	void setUp() {
+		metrics = new EventPublishMetrics(meterRegistry);
+		deadLetterStore = new OutboxDeadLetterStore(outboxEventRepository, outboxJdbcRepository, new ObjectMapper(),
+				deadLetterDir.toString());
+		relay = new OutboxRelay(outboxJdbcRepository, kafkaTemplate, new TransactionTemplate(transactionManager),
+				lockProvider, deadLetterStore, metrics, true, 2, 1000, 0, 3600000, 1000, 300000, 60000);
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.of(mock(SimpleLock.class)));
+	}
+	
+	@Test
+	@DisplayName("전송에 성공한 이벤트는 삭제하고 실패한 이벤트는 attempts를 올려 남긴다")
+	void relayBatch_deletesSentAndKeepsFailed() {
+		// given
+		OutboxEvent ok = store("post-image-changed", "{\"referenceId\":\"post-1\"}");
+		OutboxEvent broken = store("post-image-changed", "{\"referenceId\":\"post-2\"}");
+		when(kafkaTemplate.send(anyString(), any(), eq(ok.getPayload())))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+		when(kafkaTemplate.send(anyString(), any(), eq(broken.getPayload())))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+		
+		// when
+		OutboxRelay.BatchResult result = relay.relayBatch();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxRelay.BatchResult(2, 1, 0, 1, 0));
+		em.clear();
+		assertThat(outboxEventRepository.findAll()).singleElement()
+				.satisfies(event -> {
+					assertThat(event.getId()).isEqualTo(broken.getId());
+					assertThat(event.getAttempts()).isEqualTo(1);
+					assertThat(event.getClaimedBy()).isNull();
+					assertThat(event.getNextAttemptAt()).isAfter(LocalDateTime.now());
+				});
+		// 백오프 시각 전에는 다시 가져가지 않음
+		assertThat(relay.relayBatch().fetched()).isZero();
+	}
+	
+	@Test
+	@DisplayName("재시도 대기 시간은 실패할 때마다 두 배로 늘고 상한을 넘지 않는다")
+	void backoff_doublesUpToMax() {
+		// when & then
+		assertThat(relay.backoff(0)).isEqualTo(Duration.ofSeconds(1));
+		assertThat(relay.backoff(3)).isEqualTo(Duration.ofSeconds(8));
+		assertThat(relay.backoff(20)).isEqualTo(Duration.ofMinutes(5));
+		assertThat(relay.backoff(100)).isEqualTo(Duration.ofMinutes(5));
+	}
+	
+	@Test
+	@DisplayName("최신 이벤트를 발행하면 백오프 중인 같은 키의 이전 이벤트도 지운다")
+	void relayBatch_deletesBackedOffOlderEventOfSameKey() {
+		// given
+		OutboxEvent older = store("post-image-changed", "post-1", "{\"images\":[\"a\"]}");
+		older.setAttempts(1);
+		older.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+		outboxEventRepository.saveAndFlush(older);
+		OutboxEvent newer = store("post-image-changed", "post-1", "{\"images\":[\"a\",\"b\"]}");
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+		
+		// when
+		OutboxRelay.BatchResult result = relay.relayBatch();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxRelay.BatchResult(1, 1, 0, 0, 0));
+		verify(kafkaTemplate).send("post-image-changed", "post-1", newer.getPayload());
+		verifyNoMoreInteractions(kafkaTemplate);
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+	
+	@Test
+	@DisplayName("다른 릴레이가 선점 중인 행은 건너뛰고, 선점이 만료된 행은 다시 가져가 발행한다")
+	void relayBatch_skipsLiveClaimsAndReclaimsExpired() {
+		// given
+		OutboxEvent live = store("post-image-changed", "{\"referenceId\":\"post-1\"}");
+		live.setClaimedBy("other-relay");
+		live.setClaimedAt(LocalDateTime.now());
+		outboxEventRepository.saveAndFlush(live);
+		OutboxEvent expired = store("post-image-changed", "{\"referenceId\":\"post-2\"}");
+		expired.setClaimedBy("dead-relay");
+		expired.setClaimedAt(LocalDateTime.now().minusMinutes(5));
+		outboxEventRepository.saveAndFlush(expired);
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+		
+		// when
+		OutboxRelay.BatchResult result = relay.relayBatch();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxRelay.BatchResult(1, 1, 0, 0, 0));
+		verify(kafkaTemplate).send("post-image-changed", null, expired.getPayload());
+		verifyNoMoreInteractions(kafkaTemplate);
+		assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getId).containsExactly(live.getId());
+	}
+	
+	@Test
+	@DisplayName("다른 노드가 릴레이 잠금을 잡고 있으면 아무것도 발행하지 않는다")
+	void relay_skipsWhenAnotherNodeHoldsLock() {
+		// given
+		store("post-image-changed", "{\"seq\":0}");
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.empty());
+		
+		// when
+		relay.relay();
+		
+		// then
+		verifyNoInteractions(kafkaTemplate);
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("한 주기에 가득 찬 배치가 이어지면 아웃박스가 빌 때까지 발행한다")
+	void relay_drainsFullBatches() {
+		// given
+		for (int i = 0; i < 5; i++) {
+			store("post-image-changed", "{\"seq\":" + i + "}");
+		}
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+		
+		// when
+		relay.relay();
+		
+		// then
+		verify(kafkaTemplate, times(5)).send(anyString(), any(), anyString());
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+	
+	@Test
+	@DisplayName("발행 대기 행 수는 잠금을 잡은 릴레이가 기록하고, 잠금이 없는 노드는 0으로 둔다")
+	void relay_recordsPendingCountOnlyWhileHoldingLock() {
+		// given
+		store("post-image-changed", "{\"seq\":0}");
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+		
+		// when
+		relay.relay();
+		double whileHolding = meterRegistry.get("event.publish.outbox.pending").gauge().value();
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.empty());
+		relay.relay();
+		
+		// then
+		assertThat(whileHolding).isEqualTo(1);
+		assertThat(meterRegistry.get("event.publish.outbox.pending").gauge().value()).isZero();
+	}
+	
+	@Test
+	@DisplayName("같은 키의 연속 이벤트는 최신 이벤트 하나로 병합해 키를 붙여 발행한다")
+	void relayBatch_coalescesSameKey() {
+		// given
+		store("post-image-changed", "post-1", "{\"images\":[\"a\"]}");
+		store("post-image-changed", "post-1", "{\"images\":[\"a\",\"b\"]}");
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+		
+		// when
+		OutboxRelay.BatchResult result = relay.relayBatch();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxRelay.BatchResult(2, 1, 1, 0, 0));
+		verify(kafkaTemplate).send("post-image-changed", "post-1", "{\"images\":[\"a\",\"b\"]}");
+		verifyNoMoreInteractions(kafkaTemplate);
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+	
+	@Test
+	@DisplayName("재시도 기간이 지난 이벤트는 dead-letter 파일로 옮기고 replay로 아웃박스에 되돌린다")
+	void relayBatch_movesExhaustedToDeadLetter() {
+		// given
+		OutboxEvent poison = store("post-image-changed", "post-1", "{\"images\":[]}");
+		poison.setAttempts(2);
+		poison.setCreatedAt(LocalDateTime.now().minusHours(2));
+		outboxEventRepository.saveAndFlush(poison);
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+		
+		// when
+		OutboxRelay.BatchResult result = relay.relayBatch();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxRelay.BatchResult(1, 0, 0, 0, 1));
+		assertThat(outboxEventRepository.count()).isZero();
+		assertThat(deadLetterStore.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("event.publish.failures").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("event.publish.dead.letter").counter().count()).isEqualTo(1);
+		assertThat(metrics.getInFlight()).isZero();
+		
+		// replay
+		assertThat(deadLetterStore.replay()).isEqualTo(new OutboxDeadLetterStore.ReplayResult(1, 0));
+		assertThat(deadLetterStore.count()).isZero();
+		assertThat(outboxEventRepository.findAll()).singleElement()
+				.satisfies(event -> {
+					assertThat(event.getEventKey()).isEqualTo("post-1");
+					assertThat(event.getPayload()).isEqualTo("{\"images\":[]}");
+					assertThat(event.getAttempts()).isZero();
+				});
+	}
+	
+	@Test
+	@DisplayName("같은 키에 더 새로운 이벤트가 있으면 dead-letter를 다시 넣지 않고 건너뛴다")
+	void replay_skipsStaleLetters() {
+		// given
+		OutboxEvent stale = store("post-image-changed", "post-1", "{\"images\":[\"a\"]}");
+		stale.setCreatedAt(LocalDateTime.now().minusHours(2));
+		outboxEventRepository.saveAndFlush(stale);
+		OutboxEvent other = store("post-image-changed", "post-2", "{\"images\":[\"x\"]}");
+		other.setCreatedAt(LocalDateTime.now().minusHours(2));
+		outboxEventRepository.saveAndFlush(other);
+		when(kafkaTemplate.send(anyString(), any(), anyString()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+		relay.relayBatch();
+		OutboxEvent newer = store("post-image-changed", "post-1", "{\"images\":[\"a\",\"b\"]}");
+		
+		// when
+		OutboxDeadLetterStore.ReplayResult result = deadLetterStore.replay();
+		
+		// then
+		assertThat(result).isEqualTo(new OutboxDeadLetterStore.ReplayResult(1, 1));
+		assertThat(deadLetterStore.count()).isZero();
+		assertThat(outboxEventRepository.findAll())
+				.extracting(OutboxEvent::getEventKey, OutboxEvent::getPayload)
+				.containsExactlyInAnyOrder(
+						tuple("post-1", newer.getPayload()),
+						tuple("post-2", other.getPayload()));
+	}
+	
+	private OutboxEvent store(String topic, String payload) {
+		return store(topic, null, payload);
+	}
+	
+	private OutboxEvent store(String topic, String key, String payload) {
+		return outboxEventRepository.saveAndFlush(OutboxEvent.builder()
+				.topic(topic)
+				.eventKey(key)
+				.payload(payload)
+				.createdAt(LocalDateTime.now())
+				.build());
+	}
+}
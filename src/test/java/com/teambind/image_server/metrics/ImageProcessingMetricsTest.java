@@ -0,0 +1,55 @@
+package com.teambind.image_server.metrics;
+
+import com.teambind.image_server.service.ImageProcessingAdmission;
+import com.teambind.image_server.task.ImageProcessingTask;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageProcessingMetricsTest {
+	
+	private SimpleMeterRegistry registry;
+	private ImageProcessingAdmission admission;
+	private ImageProcessingMetrics metrics;
+	
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		admission = new ImageProcessingAdmission(10, 1_000, 5);
+		metrics = new ImageProcessingMetrics(registry, admission);
+	}
+	
+	@Test
+	@DisplayName("단계별 타이머는 참조 타입과 원본 포맷으로 태깅된다")
+	void stageTimers_taggedByReferenceTypeAndFormat() {
+		// given
+		ImageProcessingTask task = new ImageProcessingTask("id-1", null, "PRODUCT/a.webp", "PNG", "PRODUCT", "user-1");
+		
+		// when
+		metrics.recordEncode(task, TimeUnit.MILLISECONDS.toNanos(30));
+		metrics.recordBytes(task, 2_000, 500);
+		metrics.recordCompletion(task, ImageProcessingMetrics.OUTCOME_READY);
+		
+		// then
+		assertThat(registry.get("image.processing.encode").tag("referenceType", "PRODUCT").tag("format", "PNG")
+				.timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(30.0);
+		assertThat(registry.get("image.processing.bytes.out").tag("format", "PNG").summary().totalAmount()).isEqualTo(500.0);
+		assertThat(registry.get("image.processing.latency").tag("outcome", "ready").timer().count()).isEqualTo(1);
+	}
+	
+	@Test
+	@DisplayName("입장 제어 게이지는 현재 큐 깊이를 반영한다")
+	void admissionGauges_reflectQueueDepth() {
+		// given
+		admission.acquire(2, 300);
+		
+		// when & then
+		assertThat(registry.get("image.processing.admission.queued.tasks").gauge().value()).isEqualTo(2.0);
+		assertThat(registry.get("image.processing.admission.queued.bytes").gauge().value()).isEqualTo(300.0);
+	}
+}
@@ -0,0 +1,180 @@
+package com.teambind.image_server.repository;
+
+import com.teambind.image_server.entity.*;
+import com.teambind.image_server.enums.ImageStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 20장 다중 이미지 확정 시 DB 왕복(구문 실행) 수 검증
+ * - status_history, storage_objects, image_sequence INSERT와 images UPDATE가 각각 JDBC 배치 한 번으로 전송되어야 함
+ * - 이미지 조회 시 storageObject를 이미지마다 따로 조회하지 않아야 함
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class BatchInsertStatementCountTest {
+	
+	private static final int IMAGE_COUNT = 20;
+	private static final AtomicInteger EXECUTIONS = new AtomicInteger();
+	
+	@Autowired
+	private TestEntityManager entityManager;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private StatusHistoryRepository statusHistoryRepository;
+	
+	@Autowired
+	private StorageObjectRepository storageObjectRepository;
+	
+	@Autowired
+	private ImageSequenceRepository imageSequenceRepository;
+	
+	private final List<String> imageIds = new ArrayList<>();
+	private Extension webp;
+	
+	@BeforeEach
+	void setUp() {
+		ReferenceType postType = entityManager.persist(ReferenceType.builder()
+				.code("POST")
+				.name("Post")
+				.allowsMultiple(true)
+				.maxImages(20)
+				.build());
+		webp = entityManager.persist(Extension.builder().code("WEBP").name("webp").build());
+		for (int i = 0; i < IMAGE_COUNT; i++) {
+			Image image = entityManager.persist(Image.builder()
+					.id("image-" + i)
+					.uploaderId("user-1")
+					.referenceType(postType)
+					.status(ImageStatus.TEMP)
+					.imageUrl("http://localhost/images/POST/image-" + i + ".webp")
+					.createdAt(LocalDateTime.now())
+					.build());
+			imageIds.add(image.getId());
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+	
+	@Test
+	@DisplayName("20장 확정에 필요한 INSERT/UPDATE가 엔티티별 JDBC 배치 한 번으로 전송된다")
+	void confirmTwentyImages_isBatched() {
+		// given
+		EXECUTIONS.set(0);
+		
+		// when
+		List<Image> images = imageRepository.findAllByIdIn(imageIds);
+		List<StatusHistory> histories = new ArrayList<>();
+		List<StorageObject> storageObjects = new ArrayList<>();
+		List<ImageSequence> sequences = new ArrayList<>();
+		for (int i = 0; i < images.size(); i++) {
+			Image image = images.get(i);
+			histories.add(StatusHistory.builder()
+					.image(image)
+					.oldStatus(image.getStatus())
+					.newStatus(ImageStatus.CONFIRMED)
+					.updatedAt(LocalDateTime.now())
+					.updatedBy("SYSTEM")
+					.build());
+			storageObjects.add(StorageObject.builder()
+					.image(image)
+					.storageLocation("POST/" + image.getId() + ".webp")
+					.originSize(1024)
+					.originFormat(webp)
+					.build());
+			sequences.add(ImageSequence.of("post-1", image, i));
+			image.setReferenceId("post-1");
+			image.setStatus(ImageStatus.CONFIRMED);
+		}
+		statusHistoryRepository.saveAll(histories);
+		storageObjectRepository.saveAll(storageObjects);
+		imageSequenceRepository.saveAll(sequences);
+		entityManager.flush();
+		
+		// then
+		// 이미지 SELECT 1 (storageObject 포함) + 확장자 SELECT 1
+		// + 시퀀스 조회 4 (첫 할당은 pooled 초기화로 생성기마다 2번) + INSERT 배치 3 + UPDATE 배치 1
+		assertThat(EXECUTIONS.get()).isLessThanOrEqualTo(10);
+		assertThat(imageSequenceRepository.countByReferenceId("post-1")).isEqualTo(IMAGE_COUNT);
+	}
+	
+	/**
+	 * DataSource를 감싸 Statement 실행 횟수를 센다 (배치는 executeBatch 한 번으로 집계)
+	 */
+	@TestConfiguration
+	static class StatementCountingConfig {
+		
+		private static final Set<String> EXECUTE_METHODS = Set.of(
+				"execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+		
+		@Bean
+		static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource
+							? proxy(DataSource.class, dataSource)
+							: bean;
+				}
+			};
+		}
+		
+		@SuppressWarnings("unchecked")
+		private static <T> T proxy(Class<T> type, T target) {
+			return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+				if (EXECUTE_METHODS.contains(method.getName()) && target instanceof Statement) {
+					EXECUTIONS.incrementAndGet();
+				}
+				Object result = invoke(method, target, args);
+				if (result instanceof Connection connection && method.getReturnType() == Connection.class) {
+					return proxy(Connection.class, connection);
+				}
+				if (result instanceof CallableStatement statement && method.getReturnType() == CallableStatement.class) {
+					return proxy(CallableStatement.class, statement);
+				}
+				if (result instanceof PreparedStatement statement && method.getReturnType() == PreparedStatement.class) {
+					return proxy(PreparedStatement.class, statement);
+				}
+				if (result instanceof Statement statement && method.getReturnType() == Statement.class) {
+					return proxy(Statement.class, statement);
+				}
+				return result;
+			});
+		}
+		
+		private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.teambind.image_server.repository;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.enums.ImageStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ImageJdbcRepository.class)
+class ImageJdbcRepositoryTest {
+	
+	@Autowired
+	private ImageJdbcRepository imageJdbcRepository;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private TestEntityManager entityManager;
+	
+	private ReferenceType postType;
+	
+	@BeforeEach
+	void setUp() {
+		postType = ReferenceType.builder()
+				.code("POST")
+				.name("Post")
+				.allowsMultiple(true)
+				.maxImages(20)
+				.build();
+		entityManager.persist(postType);
+		entityManager.flush();
+	}
+	
+	@Test
+	@DisplayName("TEMP 이미지를 한 번의 배치로 저장하고 JPA로 조회할 수 있다")
+	void insertTempImages_visibleToJpa() {
+		// given
+		LocalDateTime now = LocalDateTime.now();
+		List<Image> images = List.of(tempImage("batch-1", now), tempImage("batch-2", now), tempImage("batch-3", now));
+		
+		// when
+		imageJdbcRepository.insertTempImages(images);
+		entityManager.clear();
+		
+		// then
+		List<Image> found = imageRepository.findAllById(List.of("batch-1", "batch-2", "batch-3"));
+		assertThat(found).hasSize(3)
+				.allSatisfy(image -> {
+					assertThat(image.getStatus()).isEqualTo(ImageStatus.TEMP);
+					assertThat(image.getReferenceType().getCode()).isEqualTo("POST");
+					assertThat(image.getCreatedAt()).isNotNull();
+				});
+	}
+	
+	@Test
+	@DisplayName("TEMP 상태인 이미지만 삭제한다")
+	void deleteTempImages_onlyTemp() {
+		// given
+		LocalDateTime now = LocalDateTime.now();
+		imageJdbcRepository.insertTempImages(List.of(tempImage("temp-1", now), tempImage("ready-1", now)));
+		entityManager.clear();
+		Image ready = imageRepository.findById("ready-1").orElseThrow();
+		ready.setStatus(ImageStatus.READY);
+		entityManager.flush();
+		
+		// when
+		imageJdbcRepository.deleteTempImages(List.of("temp-1", "ready-1"));
+		entityManager.clear();
+		
+		// then
+		assertThat(imageRepository.findById("temp-1")).isEmpty();
+		assertThat(imageRepository.findById("ready-1")).isPresent();
+	}
+	
+	private Image tempImage(String id, LocalDateTime createdAt) {
+		return Image.builder()
+				.id(id)
+				.uploaderId("user-1")
+				.referenceType(postType)
+				.status(ImageStatus.TEMP)
+				.imageUrl("http://localhost/images/POST/" + id + ".webp")
+				.createdAt(createdAt)
+				.build();
+	}
+}
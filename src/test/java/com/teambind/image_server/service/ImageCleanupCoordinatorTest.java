@@ -0,0 +1,55 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.IdRange;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ImageCleanupCoordinatorTest {
+	
+	private final ImageCleanupService cleanupService = mock(ImageCleanupService.class);
+	
+	private final LockProvider lockProvider = mock(LockProvider.class);
+	
+	private final ImageCleanupCoordinator coordinator =
+			new ImageCleanupCoordinator(cleanupService, lockProvider, 3, 600000, 60000);
+	
+	@Test
+	@DisplayName("샤드 범위는 UUID hex 공간을 빈틈없이 나눈다")
+	void rangeOf_coversHexSpace() {
+		assertThat(coordinator.rangeOf(0)).isEqualTo(new IdRange(null, "5"));
+		assertThat(coordinator.rangeOf(1)).isEqualTo(new IdRange("5", "a"));
+		assertThat(coordinator.rangeOf(2)).isEqualTo(new IdRange("a", null));
+	}
+	
+	@Test
+	@DisplayName("다른 노드가 잡은 샤드는 건너뛰고 잠금을 얻은 샤드만 처리한 뒤 잠금을 푼다")
+	void runAll_skipsLockedShards() {
+		// given
+		SimpleLock lock = mock(SimpleLock.class);
+		when(lockProvider.lock(any(LockConfiguration.class))).thenAnswer(invocation -> {
+			LockConfiguration config = invocation.getArgument(0);
+			return config.getName().equals("cleanUpImages-shard-1") ? Optional.of(lock) : Optional.empty();
+		});
+		when(cleanupService.cleanUp(anyString(), any(), anyList()))
+				.thenReturn(new ImageCleanupService.CleanupResult(4, 4, 2048, false));
+		
+		// when
+		ImageCleanupService.CleanupResult result = coordinator.runAll();
+		
+		// then
+		verify(lockProvider, times(3)).lock(any(LockConfiguration.class));
+		verify(cleanupService).cleanUp(eq("cleanUpImages-shard-1"), eq(new IdRange("5", "a")), anyList());
+		verifyNoMoreInteractions(cleanupService);
+		verify(lock).unlock();
+		assertThat(result.rows()).isEqualTo(4);
+	}
+}
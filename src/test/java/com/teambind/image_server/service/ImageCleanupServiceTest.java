@@ -0,0 +1,181 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.CleanupCheckpoint;
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.entity.StorageObject;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.CleanupCheckpointRepository;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository;
+import com.teambind.image_server.repository.ImageCleanupJdbcRepository.IdRange;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.util.store.ResizeDiskCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ImageCleanupJdbcRepository.class)
+class ImageCleanupServiceTest {
+	
+	private static final LocalDateTime THRESHOLD = LocalDateTime.now().minusDays(2);
+	
+	@Autowired
+	private ImageCleanupJdbcRepository cleanupJdbcRepository;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private CleanupCheckpointRepository checkpointRepository;
+	
+	@Autowired
+	private TestEntityManager em;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private final StoredFileReleaser fileReleaser = mock(StoredFileReleaser.class);
+	
+	private final ImageSimilarityService similarityService = mock(ImageSimilarityService.class);
+	
+	private final ResizeDiskCache resizeCache = mock(ResizeDiskCache.class);
+	
+	private ReferenceType postType;
+	
+	private Extension webp;
+	
+	@BeforeEach
+	void setUp() {
+		postType = em.persist(ReferenceType.builder().code("POST").name("Post").allowsMultiple(true).maxImages(20).build());
+		webp = em.persist(Extension.builder().code("WEBP").name("WEBP").build());
+		when(fileReleaser.releaseUnreferenced(anyCollection()))
+				.thenAnswer(invocation -> ((Collection<?>) invocation.getArgument(0)).size());
+	}
+	
+	@Test
+	@DisplayName("기준 시각 이전의 대상 상태 이미지만 청크 단위로 지우고 파일 삭제를 요청한다")
+	void cleanUp_deletesInChunks() {
+		// given
+		for (int i = 0; i < 5; i++) {
+			image("old-temp-" + i, ImageStatus.TEMP, THRESHOLD.minusHours(i + 1));
+		}
+		image("old-failed", ImageStatus.FAILED, THRESHOLD.minusDays(1));
+		image("recent-temp", ImageStatus.TEMP, THRESHOLD.plusHours(1));
+		image("old-confirmed", ImageStatus.CONFIRMED, THRESHOLD.minusDays(1));
+		em.flush();
+		em.clear();
+		
+		// when
+		ImageCleanupService.CleanupResult result = service(2, 100, Long.MAX_VALUE)
+				.cleanUp("shard-0", IdRange.ALL, targets(ImageStatus.TEMP, ImageStatus.FAILED));
+		
+		// then
+		assertThat(result).isEqualTo(new ImageCleanupService.CleanupResult(6, 6, 6 * 512L, false));
+		assertThat(imageRepository.findAll()).extracting(Image::getId)
+				.containsExactlyInAnyOrder("recent-temp", "old-confirmed");
+		verify(fileReleaser, times(4)).releaseUnreferenced(anyCollection());
+		verify(fileReleaser).releaseUnreferenced(argThat(locations -> locations.contains("POST/old-failed.webp")));
+		verify(similarityService).unregister("old-temp-0");
+		verify(resizeCache).evictImages(argThat(imageIds -> imageIds.contains("old-failed")));
+	}
+	
+	@Test
+	@DisplayName("행 예산을 다 쓰면 체크포인트를 남기고 멈추며, 다음 실행은 그 위치부터 이어서 지운다")
+	void cleanUp_stopsAtRowBudget() {
+		// given
+		for (int i = 0; i < 5; i++) {
+			image("old-temp-" + i, ImageStatus.TEMP, THRESHOLD.minusHours(i + 1));
+		}
+		em.flush();
+		em.clear();
+		ImageCleanupService service = service(2, 3, Long.MAX_VALUE);
+		
+		// when
+		ImageCleanupService.CleanupResult first = service.cleanUp("shard-0", IdRange.ALL, targets(ImageStatus.TEMP));
+		CleanupCheckpoint checkpoint = checkpointRepository.findById("shard-0:TEMP").orElseThrow();
+		String cursorImageId = checkpoint.getCursorImageId();
+		ImageCleanupService.CleanupResult second = service.cleanUp("shard-0", IdRange.ALL, targets(ImageStatus.TEMP));
+		
+		// then
+		assertThat(first.rows()).isEqualTo(3);
+		assertThat(first.budgetExhausted()).isTrue();
+		// 가장 오래된 행부터 지우므로 세 번째로 오래된 행에서 멈춤
+		assertThat(cursorImageId).isEqualTo("old-temp-2");
+		assertThat(second.rows()).isEqualTo(2);
+		assertThat(second.budgetExhausted()).isFalse();
+		assertThat(imageRepository.count()).isZero();
+		assertThat(checkpointRepository.findById("shard-0:TEMP").orElseThrow())
+				.satisfies(done -> {
+					assertThat(done.getCursorCreatedAt()).isNull();
+					assertThat(done.getDeletedRows()).isEqualTo(5);
+				});
+	}
+	
+	@Test
+	@DisplayName("샤드는 자기 image_id 범위의 이미지만 지운다")
+	void cleanUp_onlyShardRange() {
+		// given
+		image("1a", ImageStatus.TEMP, THRESHOLD.minusHours(1));
+		image("7b", ImageStatus.TEMP, THRESHOLD.minusHours(1));
+		image("c3", ImageStatus.TEMP, THRESHOLD.minusHours(1));
+		em.flush();
+		em.clear();
+		
+		// when
+		ImageCleanupService.CleanupResult result = service(10, 100, Long.MAX_VALUE)
+				.cleanUp("shard-1", new IdRange("5", "a"), targets(ImageStatus.TEMP));
+		
+		// then
+		assertThat(result.rows()).isEqualTo(1);
+		assertThat(imageRepository.findAll()).extracting(Image::getId).containsExactlyInAnyOrder("1a", "c3");
+	}
+	
+	private ImageCleanupService service(int chunkSize, long maxRows, long maxBytes) {
+		return new ImageCleanupService(cleanupJdbcRepository, checkpointRepository, fileReleaser, similarityService,
+				resizeCache, new TransactionTemplate(transactionManager), chunkSize, maxRows, maxBytes, 60000);
+	}
+	
+	private List<ImageCleanupService.Target> targets(ImageStatus... statuses) {
+		return Arrays.stream(statuses).map(status -> new ImageCleanupService.Target(status, THRESHOLD)).toList();
+	}
+	
+	private void image(String id, ImageStatus status, LocalDateTime createdAt) {
+		Image image = em.persist(Image.builder()
+				.id(id)
+				.uploaderId("user-1")
+				.referenceType(postType)
+				.status(status)
+				.imageUrl("http://localhost/images/POST/" + id + ".webp")
+				.createdAt(createdAt)
+				.build());
+		em.persist(StorageObject.builder()
+				.image(image)
+				.originFormat(webp)
+				.convertedFormat(webp)
+				.originSize(1024L)
+				.convertedSize(512L)
+				.storageLocation("POST/" + id + ".webp")
+				.build());
+	}
+}
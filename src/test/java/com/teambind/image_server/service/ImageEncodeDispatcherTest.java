@@ -0,0 +1,71 @@
+package com.teambind.image_server.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageEncodeDispatcherTest {
+
+	private ThreadPoolTaskExecutor encodeExecutor;
+
+	@BeforeEach
+	void setUp() {
+		encodeExecutor = new ThreadPoolTaskExecutor();
+		encodeExecutor.setCorePoolSize(1);
+		encodeExecutor.setThreadNamePrefix("test-encode-");
+		encodeExecutor.initialize();
+	}
+
+	@AfterEach
+	void tearDown() {
+		encodeExecutor.shutdown();
+	}
+
+	@Test
+	@DisplayName("platform 모드는 호출한 스레드에서 작업을 실행한다")
+	void platformMode_runsInline() throws Exception {
+		// given
+		ImageEncodeDispatcher dispatcher = new ImageEncodeDispatcher(encodeExecutor, "platform");
+		String caller = Thread.currentThread().getName();
+
+		// when
+		String worker = dispatcher.run(() -> Thread.currentThread().getName());
+
+		// then
+		assertThat(worker).isEqualTo(caller);
+	}
+
+	@Test
+	@DisplayName("virtual 모드는 인코딩 풀에서 작업을 실행한다")
+	void virtualMode_dispatchesToEncodePool() throws Exception {
+		// given
+		ImageEncodeDispatcher dispatcher = new ImageEncodeDispatcher(encodeExecutor, "virtual");
+
+		// when
+		String worker = dispatcher.run(() -> Thread.currentThread().getName());
+
+		// then
+		assertThat(worker).startsWith("test-encode-");
+	}
+
+	@Test
+	@DisplayName("virtual 모드는 작업에서 발생한 원래 예외를 그대로 던진다")
+	void virtualMode_unwrapsException() {
+		// given
+		ImageEncodeDispatcher dispatcher = new ImageEncodeDispatcher(encodeExecutor, "virtual");
+
+		// when & then
+		assertThatThrownBy(() -> dispatcher.run(() -> {
+			throw new IOException("decode failed");
+		}))
+				.isInstanceOf(IOException.class)
+				.hasMessage("decode failed");
+	}
+}
@@ -0,0 +1,84 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.exception.RetryableException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageProcessingAdmissionTest {
+
+	@Test
+	@DisplayName("예산 안의 작업은 입장시키고 사용량을 기록한다")
+	void acquire_withinBudget_tracksDepth() {
+		// given
+		ImageProcessingAdmission admission = new ImageProcessingAdmission(3, 1000, 5);
+
+		// when
+		admission.acquire(2, 600);
+
+		// then
+		assertThat(admission.getQueuedTasks()).isEqualTo(2);
+		assertThat(admission.getQueuedBytes()).isEqualTo(600);
+	}
+
+	@Test
+	@DisplayName("작업 수 예산을 넘으면 재시도 가능한 오류로 거절한다")
+	void acquire_taskBudgetExceeded_rejected() {
+		// given
+		ImageProcessingAdmission admission = new ImageProcessingAdmission(2, 1000, 7);
+		admission.acquire(2, 10);
+
+		// when & then
+		assertThatThrownBy(() -> admission.acquire(1, 10))
+				.isInstanceOf(RetryableException.class)
+				.hasFieldOrPropertyWithValue("errorcode", ErrorCode.IMAGE_PROCESSING_QUEUE_FULL)
+				.hasFieldOrPropertyWithValue("retryAfterSeconds", 7L);
+		assertThat(admission.getQueuedTasks()).isEqualTo(2);
+	}
+
+	@Test
+	@DisplayName("바이트 예산을 넘으면 거절하고 작업 수도 되돌린다")
+	void acquire_byteBudgetExceeded_rejected() {
+		// given
+		ImageProcessingAdmission admission = new ImageProcessingAdmission(10, 1000, 5);
+		admission.acquire(1, 900);
+
+		// when & then
+		assertThatThrownBy(() -> admission.acquire(1, 200))
+				.isInstanceOf(RetryableException.class);
+		assertThat(admission.getQueuedTasks()).isEqualTo(1);
+		assertThat(admission.getQueuedBytes()).isEqualTo(900);
+	}
+
+	@Test
+	@DisplayName("큐가 비어 있으면 바이트 예산보다 큰 업로드도 입장시킨다")
+	void acquire_oversizedOnEmptyQueue_admitted() {
+		// given
+		ImageProcessingAdmission admission = new ImageProcessingAdmission(10, 1000, 5);
+
+		// when
+		admission.acquire(1, 5000);
+
+		// then
+		assertThat(admission.getQueuedBytes()).isEqualTo(5000);
+	}
+
+	@Test
+	@DisplayName("release로 예산을 반환하면 새 작업을 다시 입장시킨다")
+	void release_returnsBudget() {
+		// given
+		ImageProcessingAdmission admission = new ImageProcessingAdmission(1, 1000, 5);
+		admission.acquire(1, 100);
+
+		// when
+		admission.release(1, 100);
+		admission.acquire(1, 100);
+
+		// then
+		assertThat(admission.getQueuedTasks()).isEqualTo(1);
+		assertThat(admission.getQueuedBytes()).isEqualTo(100);
+	}
+}
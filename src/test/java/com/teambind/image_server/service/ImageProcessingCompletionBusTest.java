@@ -0,0 +1,61 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.enums.ImageStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageProcessingCompletionBusTest {
+	
+	private final ImageProcessingCompletionBus bus = new ImageProcessingCompletionBus();
+	
+	@Test
+	@DisplayName("publish 시 같은 이미지를 기다리는 모든 구독자가 최종 상태를 받는다")
+	void publish_completesAllListeners() {
+		// given
+		CompletableFuture<ImageStatus> first = bus.listen("img-1");
+		CompletableFuture<ImageStatus> second = bus.listen("img-1");
+		
+		// when
+		bus.publish("img-1", ImageStatus.READY);
+		
+		// then
+		assertThat(first).isCompletedWithValue(ImageStatus.READY);
+		assertThat(second).isCompletedWithValue(ImageStatus.READY);
+		assertThat(bus.pendingIds()).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("한 구독자의 취소는 다른 구독자에게 영향을 주지 않는다")
+	void cancel_isolatedPerListener() {
+		// given
+		CompletableFuture<ImageStatus> cancelled = bus.listen("img-1");
+		CompletableFuture<ImageStatus> waiting = bus.listen("img-1");
+		
+		// when
+		cancelled.cancel(false);
+		bus.publish("img-1", ImageStatus.FAILED);
+		
+		// then
+		assertThat(waiting).isCompletedWithValue(ImageStatus.FAILED);
+	}
+	
+	@Test
+	@DisplayName("오래 기다린 항목은 expire로 제거된다")
+	void expire_removesStaleEntries() throws InterruptedException {
+		// given
+		CompletableFuture<ImageStatus> stale = bus.listen("img-1");
+		Thread.sleep(5);
+		
+		// when
+		int expired = bus.expire(1);
+		
+		// then
+		assertThat(expired).isEqualTo(1);
+		assertThat(stale).isCompletedExceptionally();
+		assertThat(bus.pendingIds()).isEmpty();
+	}
+}
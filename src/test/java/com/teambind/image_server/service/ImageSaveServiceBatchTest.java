@@ -0,0 +1,306 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.config.ImageVariantProperties;
+import com.teambind.image_server.config.ReferenceDataRegistry;
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.entity.StorageObject;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import com.teambind.image_server.exception.RetryableException;
+import com.teambind.image_server.metrics.ImageProcessingMetrics;
+import com.teambind.image_server.repository.ImageJdbcRepository;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.ImageVariantRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.task.ImageProcessingTask;
+import com.teambind.image_server.util.helper.ExtensionParser;
+import com.teambind.image_server.util.helper.UrlHelper;
+import com.teambind.image_server.util.store.ImageStorage;
+import com.teambind.image_server.util.store.LocalImageStorage;
+import com.teambind.image_server.util.store.UploadSpooler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// 배치 경로는 TEMP 행을 커밋한 뒤 작업을 등록하므로 테스트 데이터를 커밋해 둠
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ImageJdbcRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageSaveServiceBatchTest {
+	
+	private static final String ORIGINAL = "POST/2025/01/02/source.webp";
+	
+	private static final String VARIANT = "POST/2025/01/02/source_w320.webp";
+	
+	private static final byte[] DUPLICATE_CONTENT = "same-image-content".getBytes();
+	
+	@TempDir
+	Path baseDir;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private StorageObjectRepository storageObjectRepository;
+	
+	@Autowired
+	private ImageVariantRepository imageVariantRepository;
+	
+	@Autowired
+	private ImageJdbcRepository imageJdbcRepository;
+	
+	@Autowired
+	private TestEntityManager em;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private final UrlHelper urlHelper = mock(UrlHelper.class);
+	
+	private final ImageSimilarityService similarityService = mock(ImageSimilarityService.class);
+	
+	private final ImageProcessingAdmission admission = new ImageProcessingAdmission(10, 10_000_000, 5);
+	
+	private ThreadPoolTaskExecutor encodeExecutor;
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private ImageStorage imageStorage;
+	
+	private Path spoolDir;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		when(urlHelper.getUrl(anyString())).thenAnswer(invocation -> "http://localhost/images/" + invocation.getArgument(0));
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		encodeExecutor = new ThreadPoolTaskExecutor();
+		encodeExecutor.setCorePoolSize(2);
+		encodeExecutor.setThreadNamePrefix("test-encode-");
+		encodeExecutor.initialize();
+		
+		ReferenceType postType = ReferenceType.builder().code("POST").name("Post").allowsMultiple(true).maxImages(20).build();
+		Extension webp = Extension.builder().code("WEBP").name("WEBP").build();
+		Extension png = Extension.builder().code("PNG").name("PNG").build();
+		String contentHash = sha256(DUPLICATE_CONTENT);
+		transactionTemplate.executeWithoutResult(tx -> {
+			em.persist(postType);
+			em.persist(webp);
+			em.persist(png);
+			Image source = em.persist(Image.builder()
+					.id("source")
+					.uploaderId("user-1")
+					.referenceType(postType)
+					.status(ImageStatus.READY)
+					.imageUrl("http://localhost/images/" + ORIGINAL)
+					.createdAt(LocalDateTime.now())
+					.build());
+			em.persist(StorageObject.builder()
+					.image(source)
+					.originFormat(png)
+					.convertedFormat(webp)
+					.originSize(DUPLICATE_CONTENT.length)
+					.convertedSize(512L)
+					.storageLocation(ORIGINAL)
+					.contentHash(contentHash)
+					.build());
+			em.persist(ImageVariant.builder()
+					.image(source)
+					.variantCode("W320")
+					.isThumbnail(true)
+					.url("http://localhost/images/" + VARIANT)
+					.storageLocation(VARIANT)
+					.fileSize(128L)
+					.build());
+		});
+		ReferenceDataRegistry.publish(List.of(postType), List.of(webp, png));
+		
+		file(ORIGINAL);
+		file(VARIANT);
+		
+		// 원본 폴백 저장이 실패하도록 해 인코딩에 실패한 이미지가 FAILED로 끝나게 함
+		imageStorage = spy(new LocalImageStorage(baseDir.toString()));
+		doThrow(new CustomException(ErrorCode.IOException)).when(imageStorage).store(any(Path.class), anyString());
+		spoolDir = baseDir.resolve(".spool");
+	}
+	
+	@AfterEach
+	void tearDown() {
+		encodeExecutor.shutdown();
+		jdbcTemplate.update("DELETE FROM image_variants");
+		jdbcTemplate.update("DELETE FROM storage_objects");
+		jdbcTemplate.update("DELETE FROM images");
+		jdbcTemplate.update("DELETE FROM extensions");
+		jdbcTemplate.update("DELETE FROM reference_types");
+	}
+	
+	@Test
+	@DisplayName("배치에서 한 이미지의 처리가 실패하면 그 이미지만 FAILED가 되고 나머지는 READY가 되며, 스풀 파일과 입장 예산이 모두 정리된다")
+	void submitBatch_failsOnlyBrokenImage() throws Exception {
+		// given
+		ImageSaveService service = service(taskQueue());
+		List<MultipartFile> files = List.of(
+				new MockMultipartFile("files", "first.png", "image/png", png(120, 80)),
+				new MockMultipartFile("files", "broken.png", "image/png", "not-an-image".getBytes()),
+				new MockMultipartFile("files", "second.png", "image/png", png(80, 120)));
+		
+		// when (프록시 없이 호출하므로 @Async 작업이 같은 스레드에서 끝까지 실행됨)
+		List<Map<String, String>> responses = service.saveImagesAsync(files, "user-2", "post");
+		
+		// then
+		assertThat(responses).extracting(response -> response.get("status")).containsOnly("PROCESSING");
+		assertThat(statusOf(responses.get(0).get("id"))).isEqualTo(ImageStatus.READY);
+		assertThat(statusOf(responses.get(1).get("id"))).isEqualTo(ImageStatus.FAILED);
+		assertThat(statusOf(responses.get(2).get("id"))).isEqualTo(ImageStatus.READY);
+		assertThat(admission.getQueuedTasks()).isZero();
+		assertThat(admission.getQueuedBytes()).isZero();
+		assertThat(spooledFiles()).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("배치 안의 중복 업로드는 작업 큐로 넘기지 않고, 스풀 파일과 입장 예산을 바로 반환한다")
+	void saveImagesAsync_releasesDuplicatesImmediately() throws Exception {
+		// given
+		ImageProcessingTaskQueue taskQueue = mock(ImageProcessingTaskQueue.class);
+		ImageSaveService service = service(taskQueue);
+		byte[] fresh = png(120, 80);
+		List<MultipartFile> files = List.of(
+				new MockMultipartFile("files", "again.png", "image/png", DUPLICATE_CONTENT),
+				new MockMultipartFile("files", "fresh.png", "image/png", fresh));
+		
+		// when
+		List<Map<String, String>> responses = service.saveImagesAsync(files, "user-2", "post");
+		
+		// then
+		String duplicateId = responses.get(0).get("id");
+		String freshId = responses.get(1).get("id");
+		assertThat(responses.get(0)).containsEntry("status", ImageStatus.READY.name());
+		assertThat(responses.get(1)).containsEntry("status", "PROCESSING");
+		assertThat(statusOf(duplicateId)).isEqualTo(ImageStatus.READY);
+		assertThat(statusOf(freshId)).isEqualTo(ImageStatus.TEMP);
+		verify(taskQueue).submitBatch(argThat(tasks -> tasks.stream().map(ImageProcessingTask::getImageId).toList().equals(List.of(freshId))));
+		// 워커에게 넘긴 이미지의 예산과 스풀 파일만 남음
+		assertThat(admission.getQueuedTasks()).isEqualTo(1);
+		assertThat(admission.getQueuedBytes()).isEqualTo(fresh.length);
+		assertThat(spooledFiles()).containsExactly(spoolDir.resolve(freshId + ".upload"));
+	}
+	
+	@Test
+	@DisplayName("배치 등록이 거절되면 커밋한 TEMP 행과 중복 재사용 행을 지우고, 공유 파일은 남기며, 스풀 파일과 입장 예산을 모두 반환한다")
+	void saveImagesAsync_discardsRejectedBatch() throws Exception {
+		// given
+		ImageProcessingTaskQueue taskQueue = mock(ImageProcessingTaskQueue.class);
+		doThrow(new TaskRejectedException("queue full")).when(taskQueue).submitBatch(anyList());
+		ImageSaveService service = service(taskQueue);
+		List<MultipartFile> files = List.of(
+				new MockMultipartFile("files", "again.png", "image/png", DUPLICATE_CONTENT),
+				new MockMultipartFile("files", "fresh.png", "image/png", png(120, 80)));
+		
+		// when & then
+		assertThatThrownBy(() -> service.saveImagesAsync(files, "user-2", "post"))
+				.isInstanceOf(RetryableException.class);
+		assertThat(imageRepository.findAll()).extracting(Image::getId).containsExactly("source");
+		assertThat(Files.exists(baseDir.resolve(ORIGINAL))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(VARIANT))).isTrue();
+		verify(similarityService).unregister(anyString());
+		assertThat(admission.getQueuedTasks()).isZero();
+		assertThat(admission.getQueuedBytes()).isZero();
+		assertThat(spooledFiles()).isEmpty();
+	}
+	
+	private ImageSaveService service(ImageProcessingTaskQueue taskQueue) {
+		StoredFileReleaser fileReleaser = new StoredFileReleaser(storageObjectRepository, imageVariantRepository,
+				imageStorage, Runnable::run);
+		ImageSaveService service = new ImageSaveService(urlHelper, imageRepository, imageStorage, new ExtensionParser(),
+				taskQueue, new UploadSpooler(spoolDir.toString(), 3600000), admission, storageObjectRepository,
+				similarityService, imageJdbcRepository, transactionTemplate, fileReleaser);
+		ReflectionTestUtils.setField(service, "dedupEnabled", true);
+		ReflectionTestUtils.setField(service, "batchEnabled", true);
+		return service;
+	}
+	
+	private ImageProcessingTaskQueue taskQueue() {
+		return new ImageProcessingTaskQueue(imageRepository, imageStorage, admission,
+				new ImageEncodeDispatcher(encodeExecutor, "platform"), transactionTemplate, new ImageVariantProperties(),
+				urlHelper, similarityService, imageVariantRepository,
+				new ImageProcessingMetrics(new SimpleMeterRegistry(), admission), new ImageProcessingCompletionBus());
+	}
+	
+	private ImageStatus statusOf(String imageId) {
+		return imageRepository.findById(imageId).orElseThrow().getStatus();
+	}
+	
+	private List<Path> spooledFiles() throws IOException {
+		try (Stream<Path> spooled = Files.list(spoolDir)) {
+			return spooled.toList();
+		}
+	}
+	
+	private void file(String location) throws IOException {
+		Path path = baseDir.resolve(location);
+		Files.createDirectories(path.getParent());
+		Files.write(path, new byte[64]);
+	}
+	
+	private static byte[] png(int width, int height) throws IOException {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				image.setRGB(x, y, ((x * 2) << 16) | ((y * 2) << 8) | 128);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+	
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
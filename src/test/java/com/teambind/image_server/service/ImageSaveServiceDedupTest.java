@@ -0,0 +1,271 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.config.ReferenceDataRegistry;
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.entity.StorageObject;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.ImageJdbcRepository;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.ImageVariantRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.util.helper.ExtensionParser;
+import com.teambind.image_server.util.helper.UrlHelper;
+import com.teambind.image_server.util.store.LocalImageStorage;
+import com.teambind.image_server.util.store.UploadSpooler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// 중복 재사용 행이 커밋된 뒤의 참조 카운트 삭제를 확인하므로 테스트 데이터를 커밋해 둠
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(ImageJdbcRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageSaveServiceDedupTest {
+	
+	private static final String ORIGINAL = "POST/2025/01/02/source.webp";
+	
+	private static final String VARIANT = "POST/2025/01/02/source_w320.webp";
+	
+	private static final byte[] CONTENT = "same-image-content".getBytes();
+	
+	@TempDir
+	Path baseDir;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private StorageObjectRepository storageObjectRepository;
+	
+	@Autowired
+	private ImageVariantRepository imageVariantRepository;
+	
+	@Autowired
+	private ImageJdbcRepository imageJdbcRepository;
+	
+	@Autowired
+	private TestEntityManager em;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private final UrlHelper urlHelper = mock(UrlHelper.class);
+	
+	private final ImageProcessingTaskQueue taskQueue = mock(ImageProcessingTaskQueue.class);
+	
+	private final ImageSimilarityService similarityService = mock(ImageSimilarityService.class);
+	
+	private final ImageProcessingAdmission admission = new ImageProcessingAdmission(10, 1_000_000, 5);
+	
+	private TransactionTemplate transactionTemplate;
+	
+	private StoredFileReleaser fileReleaser;
+	
+	private ImageSaveService service;
+	
+	private Path spoolDir;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		when(urlHelper.getUrl(anyString())).thenAnswer(invocation -> "http://localhost/images/" + invocation.getArgument(0));
+		transactionTemplate = new TransactionTemplate(transactionManager);
+		
+		ReferenceType postType = ReferenceType.builder().code("POST").name("Post").allowsMultiple(true).maxImages(20).build();
+		Extension webp = Extension.builder().code("WEBP").name("WEBP").build();
+		Extension png = Extension.builder().code("PNG").name("PNG").build();
+		String contentHash = sha256(CONTENT);
+		transactionTemplate.executeWithoutResult(tx -> {
+			em.persist(postType);
+			em.persist(webp);
+			em.persist(png);
+			Image source = em.persist(Image.builder()
+					.id("source")
+					.uploaderId("user-1")
+					.referenceType(postType)
+					.status(ImageStatus.READY)
+					.imageUrl("http://localhost/images/" + ORIGINAL)
+					.createdAt(LocalDateTime.now())
+					.build());
+			em.persist(StorageObject.builder()
+					.image(source)
+					.originFormat(png)
+					.convertedFormat(webp)
+					.originSize(CONTENT.length)
+					.convertedSize(512L)
+					.storageLocation(ORIGINAL)
+					.contentHash(contentHash)
+					.build());
+			em.persist(ImageVariant.builder()
+					.image(source)
+					.variantCode("W320")
+					.isThumbnail(true)
+					.url("http://localhost/images/" + VARIANT)
+					.storageLocation(VARIANT)
+					.fileSize(128L)
+					.build());
+		});
+		ReferenceDataRegistry.publish(List.of(postType), List.of(webp, png));
+		
+		file(ORIGINAL);
+		file(VARIANT);
+		
+		LocalImageStorage imageStorage = new LocalImageStorage(baseDir.toString());
+		spoolDir = baseDir.resolve(".spool");
+		fileReleaser = new StoredFileReleaser(storageObjectRepository, imageVariantRepository, imageStorage, Runnable::run);
+		service = new ImageSaveService(urlHelper, imageRepository, imageStorage, new ExtensionParser(), taskQueue,
+				new UploadSpooler(spoolDir.toString(), 3600000), admission, storageObjectRepository, similarityService,
+				imageJdbcRepository, transactionTemplate, fileReleaser);
+		ReflectionTestUtils.setField(service, "dedupEnabled", true);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM image_variants");
+		jdbcTemplate.update("DELETE FROM storage_objects");
+		jdbcTemplate.update("DELETE FROM images");
+		jdbcTemplate.update("DELETE FROM extensions");
+		jdbcTemplate.update("DELETE FROM reference_types");
+	}
+	
+	@Test
+	@DisplayName("같은 콘텐츠를 다시 올리면 기존 원본과 변형 경로를 가리키는 READY 이미지를 만들고 작업 큐를 거치지 않는다")
+	void saveImageAsync_reusesExistingFiles() throws IOException {
+		// when
+		Map<String, String> response = uploadDuplicate();
+		
+		// then
+		String imageId = response.get("id");
+		assertThat(response).containsEntry("status", ImageStatus.READY.name())
+				.containsEntry("imageUrl", "http://localhost/images/" + ORIGINAL);
+		assertThat(imageRepository.findById(imageId).orElseThrow().getStatus()).isEqualTo(ImageStatus.READY);
+		assertThat(locationsOf(imageId)).containsExactly(ORIGINAL, VARIANT);
+		verify(taskQueue, never()).submit(any());
+		verify(similarityService).register(eq(imageId), any(), eq("POST"));
+		assertThat(admission.getQueuedTasks()).isZero();
+		assertThat(admission.getQueuedBytes()).isZero();
+		try (Stream<Path> spooled = Files.list(spoolDir)) {
+			assertThat(spooled).isEmpty();
+		}
+	}
+	
+	@Test
+	@DisplayName("두 이미지가 공유하는 파일은 한쪽 이미지를 지워도 남는다")
+	void delete_keepsFileWhileStillReferenced() {
+		// given
+		uploadDuplicate();
+		
+		// when
+		int released = transactionTemplate.execute(tx -> deleteImage("source"));
+		
+		// then
+		assertThat(released).isZero();
+		assertThat(Files.exists(baseDir.resolve(ORIGINAL))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(VARIANT))).isTrue();
+	}
+	
+	@Test
+	@DisplayName("마지막 참조를 지우면 커밋된 뒤에야 파일을 삭제한다")
+	void delete_removesFileAfterCommitOfLastReference() {
+		// given
+		String duplicateId = uploadDuplicate().get("id");
+		transactionTemplate.execute(tx -> deleteImage("source"));
+		
+		// when
+		int released = transactionTemplate.execute(tx -> {
+			int count = deleteImage(duplicateId);
+			assertThat(Files.exists(baseDir.resolve(ORIGINAL))).isTrue();
+			assertThat(Files.exists(baseDir.resolve(VARIANT))).isTrue();
+			return count;
+		});
+		
+		// then
+		assertThat(released).isEqualTo(2);
+		assertThat(Files.exists(baseDir.resolve(ORIGINAL))).isFalse();
+		assertThat(Files.exists(baseDir.resolve(VARIANT))).isFalse();
+	}
+	
+	@Test
+	@DisplayName("마지막 참조 삭제가 롤백되면 행과 파일이 모두 남는다")
+	void delete_keepsFileOnRollback() {
+		// given
+		String duplicateId = uploadDuplicate().get("id");
+		transactionTemplate.execute(tx -> deleteImage("source"));
+		
+		// when
+		transactionTemplate.executeWithoutResult(tx -> {
+			deleteImage(duplicateId);
+			tx.setRollbackOnly();
+		});
+		
+		// then
+		assertThat(imageRepository.existsById(duplicateId)).isTrue();
+		assertThat(Files.exists(baseDir.resolve(ORIGINAL))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(VARIANT))).isTrue();
+	}
+	
+	// 프록시 없이 호출하므로 클래스 트랜잭션 대신 TransactionTemplate으로 감쌈
+	private Map<String, String> uploadDuplicate() {
+		MockMultipartFile file = new MockMultipartFile("file", "again.png", "image/png", CONTENT);
+		return transactionTemplate.execute(tx -> service.saveImageAsync(file, "user-2", "post"));
+	}
+	
+	private int deleteImage(String imageId) {
+		Image image = imageRepository.findById(imageId).orElseThrow();
+		Set<String> locations = fileReleaser.locationsOf(image);
+		imageRepository.delete(image);
+		imageRepository.flush();
+		return fileReleaser.releaseUnreferenced(locations);
+	}
+	
+	private Set<String> locationsOf(String imageId) {
+		return transactionTemplate.execute(tx -> fileReleaser.locationsOf(imageRepository.findById(imageId).orElseThrow()));
+	}
+	
+	private void file(String location) throws IOException {
+		Path path = baseDir.resolve(location);
+		Files.createDirectories(path.getParent());
+		Files.write(path, new byte[64]);
+	}
+	
+	private static String sha256(byte[] content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+	}
+}
@@ -0,0 +1,140 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageSequence;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.ImageRepository;
+import com.teambind.image_server.repository.ImageSequenceJdbcRepository;
+import com.teambind.image_server.repository.ImageSequenceRepository;
+import com.teambind.image_server.repository.ReferenceTypeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// 행 잠금과 JDBC 배치를 실제 커밋 단위로 검증하기 위해 테스트 트랜잭션 없이 실행
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({ImageSequenceService.class, ImageSequenceJdbcRepository.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImageSequenceServiceTest {
+	
+	private static final String REFERENCE_ID = "post-1";
+	
+	@Autowired
+	private ImageSequenceService imageSequenceService;
+	
+	@Autowired
+	private ImageSequenceRepository imageSequenceRepository;
+	
+	@Autowired
+	private ImageRepository imageRepository;
+	
+	@Autowired
+	private ReferenceTypeRepository referenceTypeRepository;
+	
+	private final Map<String, Image> images = new HashMap<>();
+	
+	@BeforeEach
+	void setUp() {
+		ReferenceType postType = referenceTypeRepository.save(ReferenceType.builder()
+				.code("POST")
+				.name("Post")
+				.allowsMultiple(true)
+				.maxImages(20)
+				.build());
+		for (String id : List.of("a", "b", "c", "d", "e")) {
+			images.put(id, imageRepository.save(Image.builder()
+					.id(id)
+					.uploaderId("user-1")
+					.referenceType(postType)
+					.referenceId(REFERENCE_ID)
+					.status(ImageStatus.CONFIRMED)
+					.imageUrl("http://localhost/images/POST/" + id + ".webp")
+					.createdAt(LocalDateTime.now())
+					.build()));
+		}
+	}
+	
+	@AfterEach
+	void tearDown() {
+		imageSequenceRepository.deleteAllInBatch();
+		imageRepository.deleteAllInBatch();
+		referenceTypeRepository.deleteAllInBatch();
+	}
+	
+	@Test
+	@DisplayName("삭제/이동/추가가 섞인 변경도 uk_reference_seq 충돌 없이 반영한다")
+	void syncSequences_appliesDiff() {
+		// given
+		imageSequenceService.syncSequences(REFERENCE_ID, imagesOf("a", "b", "c", "d"));
+		Long unchangedId = idOf("b");
+		
+		// when
+		List<ImageSequence> result = imageSequenceService.syncSequences(REFERENCE_ID, imagesOf("d", "b", "e", "a"));
+		
+		// then
+		assertThat(result).extracting(ImageSequence::getImageId).containsExactly("d", "b", "e", "a");
+		assertThat(stored()).containsExactly("d", "b", "e", "a");
+		assertThat(idOf("b")).isEqualTo(unchangedId);
+	}
+	
+	@Test
+	@DisplayName("두 이미지의 순서를 맞바꿔도 다른 행은 그대로 유지된다")
+	void syncSequences_swap() {
+		// given
+		imageSequenceService.syncSequences(REFERENCE_ID, imagesOf("a", "b", "c"));
+		Long aId = idOf("a");
+		Long cId = idOf("c");
+		
+		// when
+		imageSequenceService.syncSequences(REFERENCE_ID, imagesOf("c", "b", "a"));
+		
+		// then
+		assertThat(stored()).containsExactly("c", "b", "a");
+		assertThat(idOf("a")).isEqualTo(aId);
+		assertThat(idOf("c")).isEqualTo(cId);
+	}
+	
+	@Test
+	@DisplayName("빈 리스트로 갱신하면 모든 시퀀스가 삭제된다")
+	void syncSequences_empty() {
+		// given
+		imageSequenceService.syncSequences(REFERENCE_ID, imagesOf("a", "b"));
+		
+		// when
+		imageSequenceService.syncSequences(REFERENCE_ID, List.of());
+		
+		// then
+		assertThat(stored()).isEmpty();
+	}
+	
+	private List<Image> imagesOf(String... ids) {
+		return Arrays.stream(ids).map(images::get).toList();
+	}
+	
+	private List<String> stored() {
+		return imageSequenceRepository.findByReferenceIdOrderBySeqNumberAsc(REFERENCE_ID).stream()
+				.map(ImageSequence::getImageId)
+				.toList();
+	}
+	
+	private Long idOf(String imageId) {
+		return imageSequenceRepository.findByImageId(imageId).get(0).getId();
+	}
+}
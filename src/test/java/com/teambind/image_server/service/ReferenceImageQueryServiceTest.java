@@ -0,0 +1,148 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.dto.response.ReferenceImagesResponse;
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageSequence;
+import com.teambind.image_server.event.events.ControlMessage;
+import com.teambind.image_server.event.publish.ControlMessagePublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReferenceImageQueryServiceTest {
+	
+	private ImageSequenceService imageSequenceService;
+	private ControlMessagePublisher controlMessagePublisher;
+	private ReferenceImageQueryService service;
+	
+	@BeforeEach
+	void setUp() {
+		imageSequenceService = mock(ImageSequenceService.class);
+		controlMessagePublisher = mock(ControlMessagePublisher.class);
+		service = new ReferenceImageQueryService(imageSequenceService, controlMessagePublisher, 3, 60_000);
+	}
+	
+	@Test
+	@DisplayName("두 번째 조회부터는 DB를 조회하지 않고 같은 ETag를 응답한다")
+	void getImages_cachedAfterFirstLoad() {
+		// given
+		when(imageSequenceService.getSequences("product-1")).thenReturn(sequences("product-1", "img-1", "img-2"));
+		
+		// when
+		ReferenceImageQueryService.CachedImages first = service.getImages("product-1");
+		ReferenceImageQueryService.CachedImages second = service.getImages("product-1");
+		
+		// then
+		verify(imageSequenceService, times(1)).getSequences("product-1");
+		assertThat(second.etag()).isEqualTo(first.etag()).startsWith("\"").endsWith("\"");
+		assertThat(second.response().getImages())
+				.extracting("imageId")
+				.containsExactly("img-1", "img-2");
+	}
+	
+	@Test
+	@DisplayName("무효화 후에는 다시 조회하며, 순서가 바뀌면 ETag도 바뀐다")
+	void evict_reloadsWithNewEtag() {
+		// given
+		when(imageSequenceService.getSequences("product-1"))
+				.thenReturn(sequences("product-1", "img-1", "img-2"))
+				.thenReturn(sequences("product-1", "img-2", "img-1"));
+		String before = service.getImages("product-1").etag();
+		
+		// when
+		service.evict("product-1");
+		String after = service.getImages("product-1").etag();
+		
+		// then
+		verify(imageSequenceService, times(2)).getSequences("product-1");
+		verify(controlMessagePublisher).publish(ControlMessage.REFERENCE_IMAGES_INVALIDATE, "product-1");
+		assertThat(after).isNotEqualTo(before);
+	}
+	
+	@Test
+	@DisplayName("이미지가 없는 참조 대상도 빈 목록으로 캐시한다")
+	void getImages_cachesEmptyResult() {
+		// given
+		when(imageSequenceService.getSequences("product-1")).thenReturn(List.of());
+		
+		// when
+		service.getImages("product-1");
+		ReferenceImageQueryService.CachedImages cached = service.getImages("product-1");
+		
+		// then
+		verify(imageSequenceService, times(1)).getSequences("product-1");
+		assertThat(cached.response().getImages()).isEmpty();
+	}
+	
+	@Test
+	@DisplayName("상한을 넘으면 오래 조회되지 않은 항목부터 축출한다")
+	void getImages_boundedBySize() {
+		// given
+		when(imageSequenceService.getSequences(anyString())).thenReturn(List.of());
+		
+		// when
+		for (int i = 0; i < 10; i++) {
+			service.getImages("product-" + i);
+		}
+		
+		// then
+		assertThat(service.size()).isLessThanOrEqualTo(4);
+	}
+	
+	@Test
+	@DisplayName("일괄 조회는 캐시에 없는 참조 대상만 한 번에 조회하고 요청 순서대로 응답한다")
+	void batchGet_loadsOnlyMissesInOneQuery() {
+		// given
+		when(imageSequenceService.getSequences("product-1")).thenReturn(sequences("product-1", "img-1"));
+		service.getImages("product-1");
+		when(imageSequenceService.getSequences(anyCollection(), eq(false)))
+				.thenReturn(sequences("product-3", "img-3", "img-4"));
+		
+		// when
+		List<ReferenceImagesResponse> responses = service.getImages(List.of("product-3", "product-1", "product-2"), false);
+		
+		// then
+		verify(imageSequenceService).getSequences(argThat(ids -> ids.size() == 2 && ids.containsAll(List.of("product-2", "product-3"))), eq(false));
+		assertThat(responses).extracting("referenceId").containsExactly("product-3", "product-1", "product-2");
+		assertThat(responses.get(0).getImages()).hasSize(2);
+		assertThat(responses.get(2).getImages()).isEmpty();
+		
+		// 일괄 조회 결과도 캐시에 적재됨
+		service.getImages("product-3");
+		verify(imageSequenceService, never()).getSequences("product-3");
+	}
+	
+	@Test
+	@DisplayName("firstOnly 일괄 조회는 대표 이미지만 응답하고 캐시에 적재하지 않는다")
+	void batchGet_firstOnly() {
+		// given
+		when(imageSequenceService.getSequences("product-1")).thenReturn(sequences("product-1", "img-1", "img-2"));
+		service.getImages("product-1");
+		when(imageSequenceService.getSequences(anyCollection(), eq(true)))
+				.thenReturn(sequences("product-2", "img-3"));
+		
+		// when
+		List<ReferenceImagesResponse> responses = service.getImages(List.of("product-1", "product-2"), true);
+		
+		// then
+		assertThat(responses.get(0).getImages()).extracting("imageId").containsExactly("img-1");
+		assertThat(responses.get(1).getImages()).extracting("imageId").containsExactly("img-3");
+		assertThat(service.size()).isEqualTo(1);
+	}
+	
+	private static List<ImageSequence> sequences(String referenceId, String... imageIds) {
+		return IntStream.range(0, imageIds.length)
+				.mapToObj(i -> ImageSequence.of(referenceId, Image.builder()
+						.id(imageIds[i])
+						.imageUrl("http://localhost/images/" + imageIds[i] + ".webp")
+						.build(), i))
+				.toList();
+	}
+}
@@ -0,0 +1,220 @@
+package com.teambind.image_server.service;
+
+import com.teambind.image_server.entity.Extension;
+import com.teambind.image_server.entity.Image;
+import com.teambind.image_server.entity.ImageVariant;
+import com.teambind.image_server.entity.ReferenceType;
+import com.teambind.image_server.entity.StorageObject;
+import com.teambind.image_server.enums.ImageStatus;
+import com.teambind.image_server.repository.ImageVariantRepository;
+import com.teambind.image_server.repository.StorageLocationJdbcRepository;
+import com.teambind.image_server.repository.StorageObjectRepository;
+import com.teambind.image_server.service.util.StoredFileReleaser;
+import com.teambind.image_server.util.store.LocalImageStorage;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+// 파티션 작업이 별도 커넥션으로 조회하므로 테스트 데이터를 커밋해 둠
+@DataJpaTest
+@ActiveProfiles("test")
+@Import(StorageLocationJdbcRepository.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StorageReconcileServiceTest {
+	
+	private static final String DAY = "POST/2025/01/02/";
+	
+	private static final FileTime OLD = FileTime.from(Instant.now().minus(3, ChronoUnit.DAYS));
+	
+	@TempDir
+	Path baseDir;
+	
+	@Autowired
+	private StorageLocationJdbcRepository locationRepository;
+	
+	@Autowired
+	private StorageObjectRepository storageObjectRepository;
+	
+	@Autowired
+	private ImageVariantRepository imageVariantRepository;
+	
+	@Autowired
+	private TestEntityManager em;
+	
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+	
+	private final LockProvider lockProvider = mock(LockProvider.class);
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.of(mock(SimpleLock.class)));
+		
+		new TransactionTemplate(transactionManager).executeWithoutResult(tx -> {
+			ReferenceType postType = em.persist(ReferenceType.builder().code("POST").name("Post").allowsMultiple(true).maxImages(20).build());
+			Extension webp = em.persist(Extension.builder().code("WEBP").name("WEBP").build());
+			Image kept = image("kept", postType, webp, DAY + "kept.webp");
+			em.persist(ImageVariant.builder()
+					.image(kept)
+					.variantCode("W320")
+					.storageLocation(DAY + "kept_w320.webp")
+					.fileSize(128L)
+					.build());
+			image("missing", postType, webp, DAY + "missing.webp");
+			image("other-day", postType, webp, "POST/2025/01/03/other-day.webp");
+		});
+		
+		file(DAY + "kept.webp", OLD);
+		file(DAY + "kept_w320.webp", OLD);
+		file(DAY + "orphan-1.webp", OLD);
+		file(DAY + "orphan-2.webp", OLD);
+		file(DAY + "uploading.webp", FileTime.from(Instant.now()));
+		file(DAY + ".hidden.tmp", OLD);
+		file(".spool/upload-1.tmp", OLD);
+		file("cache/POST/2025/01/02/resized.webp", OLD);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.update("DELETE FROM image_variants");
+		jdbcTemplate.update("DELETE FROM storage_objects");
+		jdbcTemplate.update("DELETE FROM images");
+		jdbcTemplate.update("DELETE FROM extensions");
+		jdbcTemplate.update("DELETE FROM reference_types");
+	}
+	
+	@Test
+	@DisplayName("REPORT 모드는 고아 파일과 파일 없는 경로를 보고만 하고, 최근 파일과 숨김/캐시 디렉토리는 건드리지 않는다")
+	void reconcile_reportsOrphansAndDanglingRows() {
+		// when
+		StorageReconcileService.ReconcileReport report =
+				service(10).reconcile(StorageReconcileService.Mode.REPORT).orElseThrow();
+		
+		// then
+		assertThat(report.partitions()).isEqualTo(2);
+		assertThat(report.files()).isEqualTo(5);
+		assertThat(report.knownLocations()).isEqualTo(4);
+		assertThat(report.orphanFiles()).isEqualTo(2);
+		assertThat(report.orphanSamples()).containsExactlyInAnyOrder(DAY + "orphan-1.webp", DAY + "orphan-2.webp");
+		assertThat(report.recentFiles()).isEqualTo(1);
+		assertThat(report.danglingRows()).isEqualTo(2);
+		assertThat(report.danglingSamples())
+				.containsExactlyInAnyOrder(DAY + "missing.webp", "POST/2025/01/03/other-day.webp");
+		assertThat(report.deletedFiles()).isZero();
+		assertThat(Files.exists(baseDir.resolve(DAY + "orphan-1.webp"))).isTrue();
+	}
+	
+	@Test
+	@DisplayName("DELETE 모드는 실행당 삭제 예산만큼만 유예 기간이 지난 고아 파일을 지운다")
+	void reconcile_deletesOrphansWithinBudget() {
+		// when
+		StorageReconcileService.ReconcileReport report =
+				service(1).reconcile(StorageReconcileService.Mode.DELETE).orElseThrow();
+		
+		// then
+		assertThat(report.deletedFiles()).isEqualTo(1);
+		assertThat(report.deleteBudgetExhausted()).isTrue();
+		assertThat(Files.exists(baseDir.resolve(DAY + "orphan-1.webp"))).isFalse();
+		assertThat(Files.exists(baseDir.resolve(DAY + "orphan-2.webp"))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(DAY + "kept.webp"))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(DAY + "kept_w320.webp"))).isTrue();
+		assertThat(Files.exists(baseDir.resolve(DAY + "uploading.webp"))).isTrue();
+		verify(lockProvider).lock(any(LockConfiguration.class));
+	}
+	
+	@Test
+	@DisplayName("관리 API 작업은 작업 id로 결과를 조회할 수 있고, 끝나면 잠금을 해제한다")
+	void start_recordsJobAndReleasesLock() {
+		// given
+		SimpleLock lock = mock(SimpleLock.class);
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.of(lock));
+		StorageReconcileService service = service(10);
+		
+		// when
+		StorageReconcileService.ReconcileJob started = service.start(StorageReconcileService.Mode.REPORT).orElseThrow();
+		
+		// then
+		StorageReconcileService.ReconcileJob job = service.findJob(started.jobId()).orElseThrow();
+		assertThat(job.status()).isEqualTo(StorageReconcileService.JobStatus.COMPLETED);
+		assertThat(job.report().orphanFiles()).isEqualTo(2);
+		assertThat(job.finishedAt()).isNotNull();
+		verify(lock).unlock();
+	}
+	
+	@Test
+	@DisplayName("다른 노드가 대조 중이면 작업을 시작하지 않는다")
+	void start_skipsWhenLockHeld() {
+		// given
+		when(lockProvider.lock(any(LockConfiguration.class))).thenReturn(Optional.empty());
+		
+		// when & then
+		assertThat(service(10).start(StorageReconcileService.Mode.DELETE)).isEmpty();
+		assertThat(Files.exists(baseDir.resolve(DAY + "orphan-1.webp"))).isTrue();
+	}
+	
+	private StorageReconcileService service(int maxDeletesPerRun) {
+		LocalImageStorage imageStorage = new LocalImageStorage(baseDir.toString());
+		StoredFileReleaser fileReleaser = new StoredFileReleaser(storageObjectRepository, imageVariantRepository,
+				imageStorage, Runnable::run);
+		return new StorageReconcileService(locationRepository, fileReleaser, lockProvider, Runnable::run,
+				Runnable::run, imageStorage, 2, 3600000, maxDeletesPerRun, 0, 20, 60000, StorageReconcileService.Mode.REPORT);
+	}
+	
+	private Image image(String id, ReferenceType referenceType, Extension format, String location) {
+		Image image = em.persist(Image.builder()
+				.id(id)
+				.uploaderId("user-1")
+				.referenceType(referenceType)
+				.status(ImageStatus.CONFIRMED)
+				.imageUrl("http://localhost/images/" + location)
+				.createdAt(LocalDateTime.now())
+				.build());
+		em.persist(StorageObject.builder()
+				.image(image)
+				.originFormat(format)
+				.convertedFormat(format)
+				.originSize(1024L)
+				.convertedSize(512L)
+				.storageLocation(location)
+				.build());
+		return image;
+	}
+	
+	private void file(String location, FileTime lastModified) throws IOException {
+		Path path = baseDir.resolve(location);
+		Files.createDirectories(path.getParent());
+		Files.write(path, new byte[64]);
+		Files.setLastModifiedTime(path, lastModified);
+	}
+}
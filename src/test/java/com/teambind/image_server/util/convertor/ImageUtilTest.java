@@ -0,0 +1,137 @@
+package com.teambind.image_server.util.convertor;
+
+import com.sksamuel.scrimage.ImmutableImage;
+import com.sksamuel.scrimage.webp.WebpWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageUtilTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("원본보다 좁은 폭마다 비율을 유지한 변형을 만든다")
+	void toWebpWithVariants_skipsWidthsNotSmallerThanSource() throws Exception {
+		// given
+		byte[] source = png(800, 400);
+
+		// when
+		EncodedImageSet result = ImageUtil.toWebpWithVariants(source, 0.8f, List.of(96, 320, 800, 1280));
+
+		// then
+		assertThat(result.getWidth()).isEqualTo(800);
+		assertThat(result.getHeight()).isEqualTo(400);
+		assertThat(result.getOriginal()).isNotEmpty();
+		assertThat(result.getVariants())
+				.extracting(EncodedVariant::getWidth)
+				.containsExactly(96, 320);
+		assertThat(result.getVariants())
+				.extracting(EncodedVariant::getHeight)
+				.containsExactly(48, 160);
+		assertThat(result.getVariants()).allSatisfy(variant ->
+				assertThat(variant.getBytes().length).isLessThan(result.getOriginal().length));
+	}
+
+	@Test
+	@DisplayName("축소한 사본의 dHash는 작은 해밍 거리 안에 있다")
+	void dHash_isStableUnderResize() throws Exception {
+		// given
+		ImmutableImage original = ImageUtil.decode(wave(800, 400, false));
+		ImmutableImage resized = ImageUtil.decode(original.scaleToWidth(320).bytes(new WebpWriter().withQ(60)));
+		ImmutableImage different = ImageUtil.decode(wave(800, 400, true));
+
+		// when
+		long originalHash = PerceptualHash.dHash(original);
+		long resizedHash = PerceptualHash.dHash(resized);
+		long differentHash = PerceptualHash.dHash(different);
+
+		// then
+		assertThat(PerceptualHash.distance(originalHash, resizedHash)).isLessThanOrEqualTo(4);
+		assertThat(PerceptualHash.distance(originalHash, differentHash)).isGreaterThan(10);
+	}
+
+	@Test
+	@DisplayName("스풀 파일은 ImageIO로 파일에서 바로 디코딩하고, ImageIO가 읽지 못하는 WebP는 Scrimage 로더로 읽는다")
+	void decodeFile_readsFromFileAndFallsBackForWebp() throws Exception {
+		// given
+		Path png = Files.write(tempDir.resolve("upload.png"), png(640, 360));
+		Path webp = Files.write(tempDir.resolve("upload.webp"), ImageUtil.decode(png(640, 360)).bytes(new WebpWriter().withQ(80)));
+		
+		// when
+		ImmutableImage fromPng = ImageUtil.decodeFile(png);
+		ImmutableImage fromWebp = ImageUtil.decodeFile(webp);
+		
+		// then
+		assertThat(fromPng.width).isEqualTo(640);
+		assertThat(fromPng.height).isEqualTo(360);
+		assertThat(fromPng.pixel(10, 20).argb).isEqualTo(ImageUtil.decode(png(640, 360)).pixel(10, 20).argb);
+		assertThat(fromWebp.width).isEqualTo(640);
+		assertThat(fromWebp.height).isEqualTo(360);
+	}
+
+	@Test
+	@DisplayName("리사이즈는 어떤 fit 모드에서도 원본보다 크게 만들지 않는다")
+	void resize_neverUpscales() throws Exception {
+		// given
+		byte[] source = png(100, 50);
+
+		// when
+		ImmutableImage cover = resized(source, ResizeSpec.parse("4096", "4096", "cover", null, 4096, 80));
+		ImmutableImage contain = resized(source, ResizeSpec.parse("4096", "4096", "contain", null, 4096, 80));
+		ImmutableImage fill = resized(source, ResizeSpec.parse("4096", "40", "fill", null, 4096, 80));
+		ImmutableImage shrunk = resized(source, ResizeSpec.parse("40", "40", "cover", null, 4096, 80));
+
+		// then
+		assertThat(cover.width).isEqualTo(50);
+		assertThat(cover.height).isEqualTo(50);
+		assertThat(contain.width).isEqualTo(100);
+		assertThat(contain.height).isEqualTo(50);
+		assertThat(fill.width).isEqualTo(100);
+		assertThat(fill.height).isEqualTo(40);
+		assertThat(shrunk.width).isEqualTo(40);
+		assertThat(shrunk.height).isEqualTo(40);
+	}
+
+	private ImmutableImage resized(byte[] source, ResizeSpec spec) throws Exception {
+		return ImageUtil.decode(ImageUtil.resize(new ByteArrayInputStream(source), spec));
+	}
+
+	// 가로 방향 물결 무늬 (mirror=true이면 좌우 반전)
+	private byte[] wave(int width, int height, boolean mirror) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			int sourceX = mirror ? width - 1 - x : x;
+			for (int y = 0; y < height; y++) {
+				int gray = (int) (128 + 100 * Math.sin(sourceX * 4.0 * Math.PI / width) * Math.cos(y * Math.PI / height));
+				image.setRGB(x, y, (gray << 16) | (gray << 8) | gray);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+
+	private byte[] png(int width, int height) throws Exception {
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				image.setRGB(x, y, (x * 31 + y * 17) & 0xFFFFFF);
+			}
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(image, "png", out);
+		return out.toByteArray();
+	}
+}
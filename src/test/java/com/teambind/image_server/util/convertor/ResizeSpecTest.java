@@ -0,0 +1,60 @@
+package com.teambind.image_server.util.convertor;
+
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResizeSpecTest {
+
+	private static final String IMAGE_ID = "0b9c6f1e-3a52-4c1d-9a7e-2f4b8d6c1e90";
+
+	@Test
+	@DisplayName("캐시 키는 nginx가 같은 경로를 만들 수 있도록 요청 파라미터를 그대로 쓴다")
+	void cacheKey_usesRawParameters() {
+		// when
+		ResizeSpec spec = ResizeSpec.parse("320", null, null, "70", 4096, 80);
+
+		// then
+		assertThat(spec.getWidth()).isEqualTo(320);
+		assertThat(spec.getHeight()).isNull();
+		assertThat(spec.getFit()).isEqualTo(ResizeSpec.FIT_COVER);
+		assertThat(spec.getQuality()).isEqualTo(70);
+		assertThat(spec.cacheKey(IMAGE_ID)).isEqualTo(IMAGE_ID + "/w320_h__q70.webp");
+	}
+
+	@Test
+	@DisplayName("품질은 허용 단계 중 가장 가까운 값으로 맞춰 캐시 키 수를 제한한다")
+	void parse_snapsQualityToAllowedSteps() {
+		// when
+		ResizeSpec low = ResizeSpec.parse("320", null, null, "1", 4096, 80);
+		ResizeSpec middle = ResizeSpec.parse("320", null, null, "73", 4096, 80);
+		ResizeSpec tie = ResizeSpec.parse("320", null, null, "85", 4096, 80);
+		ResizeSpec high = ResizeSpec.parse("320", null, null, "100", 4096, 80);
+
+		// then
+		assertThat(low.getQuality()).isEqualTo(50);
+		assertThat(middle.getQuality()).isEqualTo(70);
+		assertThat(middle.cacheKey(IMAGE_ID)).isEqualTo(IMAGE_ID + "/w320_h__q70.webp");
+		assertThat(tie.getQuality()).isEqualTo(90);
+		assertThat(high.getQuality()).isEqualTo(90);
+	}
+
+	@Test
+	@DisplayName("잘못된 크기, fit 모드, 이미지 ID는 거절한다")
+	void parse_rejectsInvalidParameters() {
+		// when & then
+		assertThatThrownBy(() -> ResizeSpec.parse(null, null, null, null, 4096, 80))
+				.isInstanceOf(CustomException.class)
+				.extracting("errorcode").isEqualTo(ErrorCode.INVALID_RESIZE_PARAMETER);
+		assertThatThrownBy(() -> ResizeSpec.parse("5000", null, null, null, 4096, 80))
+				.isInstanceOf(CustomException.class);
+		assertThatThrownBy(() -> ResizeSpec.parse("100", "100", "../x", null, 4096, 80))
+				.isInstanceOf(CustomException.class);
+		assertThatThrownBy(() -> ResizeSpec.parse("100", null, null, null, 4096, 80).cacheKey("../../etc"))
+				.isInstanceOf(CustomException.class);
+	}
+}
@@ -0,0 +1,77 @@
+package com.teambind.image_server.util.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PerceptualHashIndexTest {
+
+	@Test
+	@DisplayName("검색 결과는 거리 안에서 선형 탐색으로 찾은 해시와 정확히 같다")
+	void search_matchesLinearScan() {
+		// given
+		Random random = new Random(42);
+		PerceptualHashIndex index = new PerceptualHashIndex();
+		long[] hashes = new long[20_000];
+		long query = random.nextLong();
+		for (int i = 0; i < hashes.length; i++) {
+			// 일부는 기준 해시에서 몇 비트만 바꿔 근접 후보를 만든다
+			hashes[i] = i % 10 == 0 ? flipBits(query, random.nextInt(16), random) : random.nextLong();
+			index.add("image-" + i, hashes[i], "PRODUCT");
+		}
+
+		for (int maxDistance : new int[]{0, 3, 7, 12, 15}) {
+			// when
+			List<PerceptualHashIndex.Match> matches = index.search(query, maxDistance, Integer.MAX_VALUE, null, null);
+
+			// then
+			List<String> expected = new ArrayList<>();
+			for (int i = 0; i < hashes.length; i++) {
+				if (Long.bitCount(hashes[i] ^ query) <= maxDistance) {
+					expected.add("image-" + i);
+				}
+			}
+			assertThat(matches).extracting(PerceptualHashIndex.Match::imageId)
+					.containsExactlyInAnyOrderElementsOf(expected);
+			assertThat(matches).isSortedAccordingTo((a, b) -> Integer.compare(a.distance(), b.distance()));
+		}
+	}
+
+	@Test
+	@DisplayName("삭제/제외/다른 타입 항목은 압축 후에도 반환하지 않는다")
+	void search_skipsRemovedExcludedAndOtherTypes() {
+		// given
+		PerceptualHashIndex index = new PerceptualHashIndex();
+		long hash = 0x0123_4567_89AB_CDEFL;
+		index.add("self", hash, "PRODUCT");
+		index.add("near", hash ^ 0b101, "PRODUCT");
+		index.add("profile", hash ^ 0b1, "PROFILE");
+		for (int i = 0; i < 3000; i++) {
+			index.add("bulk-" + i, hash ^ (1L << 40), "PRODUCT");
+		}
+
+		// when
+		for (int i = 0; i < 3000; i++) {
+			index.remove("bulk-" + i);
+		}
+		List<PerceptualHashIndex.Match> matches = index.search(hash, 10, 10, "self", "PRODUCT");
+
+		// then
+		assertThat(index.size()).isEqualTo(3);
+		assertThat(matches).extracting(PerceptualHashIndex.Match::imageId).containsExactly("near");
+		assertThat(matches.get(0).distance()).isEqualTo(2);
+	}
+
+	private long flipBits(long value, int count, Random random) {
+		long result = value;
+		for (int i = 0; i < count; i++) {
+			result ^= 1L << random.nextInt(64);
+		}
+		return result;
+	}
+}
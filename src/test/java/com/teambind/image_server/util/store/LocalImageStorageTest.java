@@ -0,0 +1,79 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.exception.CustomException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalImageStorageTest {
+	
+	private static final String DAY = "POST/2025/01/02/";
+	
+	@TempDir
+	Path tempDir;
+	
+	@Test
+	@DisplayName("임시 파일에 쓴 뒤 rename하므로 덮어쓰기 후 최종 파일만 남고 임시 파일은 남지 않는다")
+	void store_writesAtomicallyWithoutLeftoverTempFiles() throws IOException {
+		// given
+		LocalImageStorage storage = new LocalImageStorage(tempDir.toString(), LocalImageStorage.FsyncMode.FULL);
+		
+		// when
+		storage.store(new byte[]{1, 2, 3}, DAY + "a.webp");
+		storage.store(new byte[]{4, 5}, DAY + "a.webp");
+		storage.put(DAY + "b.webp", new ByteArrayInputStream(new byte[]{6}), 1);
+		
+		// then
+		assertThat(Files.readAllBytes(tempDir.resolve(DAY + "a.webp"))).containsExactly(4, 5);
+		assertThat(Files.readAllBytes(tempDir.resolve(DAY + "b.webp"))).containsExactly(6);
+		try (Stream<Path> files = Files.list(tempDir.resolve(DAY))) {
+			assertThat(files.map(path -> path.getFileName().toString()))
+					.containsExactlyInAnyOrder("a.webp", "b.webp");
+		}
+	}
+	
+	@Test
+	@DisplayName("캐시된 일자 디렉토리가 외부에서 지워져도 다시 만들어 저장한다")
+	void store_recreatesDeletedDirectory() throws IOException {
+		// given
+		LocalImageStorage storage = new LocalImageStorage(tempDir.toString(), LocalImageStorage.FsyncMode.NONE);
+		storage.store(new byte[]{1}, DAY + "a.webp");
+		Files.delete(tempDir.resolve(DAY + "a.webp"));
+		Files.delete(tempDir.resolve(DAY));
+		Path spooled = Files.write(tempDir.resolve("spooled.tmp"), new byte[]{7});
+		
+		// when
+		storage.store(new byte[]{2}, DAY + "b.webp");
+		storage.store(spooled, DAY + "c.webp");
+		
+		// then
+		assertThat(Files.readAllBytes(tempDir.resolve(DAY + "b.webp"))).containsExactly(2);
+		assertThat(Files.readAllBytes(tempDir.resolve(DAY + "c.webp"))).containsExactly(7);
+		assertThat(Files.exists(spooled)).isFalse();
+	}
+	
+	@Test
+	@DisplayName("스트림 길이가 기대한 길이와 다르면 최종 경로에 파일을 남기지 않고 임시 파일도 지운다")
+	void put_rejectsShortContent() throws IOException {
+		// given
+		LocalImageStorage storage = new LocalImageStorage(tempDir.toString(), LocalImageStorage.FsyncMode.NONE);
+		storage.store(new byte[]{1, 2, 3}, DAY + "a.webp");
+		
+		// when & then
+		assertThatThrownBy(() -> storage.put(DAY + "a.webp", new ByteArrayInputStream(new byte[]{9}), 4))
+				.isInstanceOf(CustomException.class);
+		assertThat(Files.readAllBytes(tempDir.resolve(DAY + "a.webp"))).containsExactly(1, 2, 3);
+		try (Stream<Path> files = Files.list(tempDir.resolve(DAY))) {
+			assertThat(files.map(path -> path.getFileName().toString())).containsExactly("a.webp");
+		}
+	}
+}
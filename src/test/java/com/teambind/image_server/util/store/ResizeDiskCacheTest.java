@@ -0,0 +1,78 @@
+package com.teambind.image_server.util.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResizeDiskCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	@DisplayName("바이트 상한을 넘으면 가장 오래 쓰지 않은 항목부터 지운다")
+	void put_evictsLeastRecentlyUsedByBytes() {
+		// given
+		ResizeDiskCache cache = new ResizeDiskCache(tempDir.toString(), 250);
+		Path first = cache.put("a/w100_h__q.webp", new byte[100]);
+		Path second = cache.put("b/w100_h__q.webp", new byte[100]);
+		cache.lookup("a/w100_h__q.webp"); // a를 최근 사용으로
+
+		// when
+		Path third = cache.put("c/w100_h__q.webp", new byte[100]);
+
+		// then
+		assertThat(Files.exists(first)).isTrue();
+		assertThat(Files.exists(second)).isFalse();
+		assertThat(Files.exists(third)).isTrue();
+		assertThat(cache.getTotalBytes()).isEqualTo(200);
+		assertThat(cache.lookup("b/w100_h__q.webp")).isNull();
+	}
+
+	@Test
+	@DisplayName("시작 시 기존 캐시 파일을 색인하고 상한에 맞춰 줄인다")
+	void constructor_indexesExistingFiles() throws Exception {
+		// given
+		Files.createDirectories(tempDir.resolve("x"));
+		Files.write(tempDir.resolve("x/w10_h__q.webp"), new byte[100]);
+		Files.write(tempDir.resolve("x/w20_h__q.webp"), new byte[100]);
+		Files.write(tempDir.resolve("x/w30_h__q.webp"), new byte[100]);
+
+		// when
+		ResizeDiskCache cache = new ResizeDiskCache(tempDir.toString(), 250);
+
+		// then
+		assertThat(cache.size()).isEqualTo(2);
+		assertThat(cache.getTotalBytes()).isEqualTo(200);
+		try (var files = Files.list(tempDir.resolve("x"))) {
+			assertThat(files.count()).isEqualTo(2);
+		}
+	}
+
+	@Test
+	@DisplayName("이미지 단위로 리사이즈 결과 디렉토리를 지우고 인덱스에서도 뺀다")
+	void evictImages_removesImageDirectories() throws Exception {
+		// given
+		ResizeDiskCache cache = new ResizeDiskCache(tempDir.toString(), 1000);
+		cache.put("a/w100_h__q.webp", new byte[100]);
+		cache.put("a/w200_h__q.webp", new byte[100]);
+		Path kept = cache.put("ab/w100_h__q.webp", new byte[100]);
+		Files.write(tempDir.resolve("a/w300_h__q.webp"), new byte[100]); // 다른 노드가 만든 파일
+
+		// when
+		int deleted = cache.evictImages(List.of("a"));
+
+		// then
+		assertThat(deleted).isEqualTo(3);
+		assertThat(Files.exists(tempDir.resolve("a"))).isFalse();
+		assertThat(Files.exists(kept)).isTrue();
+		assertThat(cache.size()).isEqualTo(1);
+		assertThat(cache.getTotalBytes()).isEqualTo(100);
+	}
+}
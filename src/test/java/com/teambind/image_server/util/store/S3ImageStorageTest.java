@@ -0,0 +1,148 @@
+package com.teambind.image_server.util.store;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.teambind.image_server.exception.CustomException;
+import com.teambind.image_server.exception.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class S3ImageStorageTest {
+	
+	@TempDir
+	Path tempDir;
+	
+	private HttpServer server;
+	
+	// 메모리 S3 대역 (path-style: /bucket/key)
+	private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+	
+	private final Map<String, String> lastHeaders = new ConcurrentHashMap<>();
+	
+	private S3ImageStorage storage;
+	
+	@BeforeEach
+	void setUp() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", this::handle);
+		server.start();
+		storage = new S3ImageStorage("http://127.0.0.1:" + server.getAddress().getPort(), "us-east-1", "images",
+				"test-access", "test-secret", "uploads/", true, Duration.ofSeconds(5));
+	}
+	
+	@AfterEach
+	void tearDown() {
+		server.stop(0);
+	}
+	
+	@Test
+	@DisplayName("스트림으로 저장한 객체를 서명된 요청으로 다시 읽고, 삭제 후에는 없다고 응답한다")
+	void putGetDelete_roundTrip() throws IOException {
+		// given
+		byte[] content = "webp-bytes".getBytes(StandardCharsets.UTF_8);
+		
+		// when
+		storage.put("POST/2025/01/02/a.webp", new ByteArrayInputStream(content), content.length);
+		
+		// then
+		assertThat(objects).containsKey("/images/uploads/POST/2025/01/02/a.webp");
+		assertThat(lastHeaders.get("Authorization"))
+				.startsWith("AWS4-HMAC-SHA256 Credential=test-access/")
+				.contains("SignedHeaders=host;x-amz-content-sha256;x-amz-date");
+		assertThat(lastHeaders.get("Content-type")).isEqualTo("image/webp");
+		assertThat(storage.exists("POST/2025/01/02/a.webp")).isTrue();
+		try (InputStream in = storage.get("POST/2025/01/02/a.webp")) {
+			assertThat(in.readAllBytes()).isEqualTo(content);
+		}
+		
+		assertThat(storage.delete("POST/2025/01/02/a.webp")).isTrue();
+		assertThat(storage.exists("POST/2025/01/02/a.webp")).isFalse();
+		assertThatThrownBy(() -> storage.get("POST/2025/01/02/a.webp"))
+				.isInstanceOf(CustomException.class)
+				.extracting(e -> ((CustomException) e).getErrorcode())
+				.isEqualTo(ErrorCode.IMAGE_NOT_FOUND);
+	}
+	
+	@Test
+	@DisplayName("스풀 파일은 업로드 후 지우고, 여러 객체는 DeleteObjects 요청 하나로 지운다")
+	void storeFileAndDeleteAll() throws IOException {
+		// given
+		Path spool = Files.write(tempDir.resolve("upload.tmp"), new byte[128]);
+		storage.store(spool, "POST/2025/01/02/b.png");
+		storage.store(new byte[16], "POST/2025/01/02/c.webp");
+		
+		// when
+		int deleted = storage.deleteAll(List.of("POST/2025/01/02/b.png", "POST/2025/01/02/c.webp"));
+		
+		// then
+		assertThat(Files.exists(spool)).isFalse();
+		assertThat(deleted).isEqualTo(2);
+		assertThat(objects).isEmpty();
+		assertThat(lastHeaders).containsKey("Content-md5");
+	}
+	
+	private void handle(HttpExchange exchange) throws IOException {
+		String path = exchange.getRequestURI().getPath();
+		lastHeaders.clear();
+		exchange.getRequestHeaders().forEach((name, values) -> lastHeaders.put(name, values.get(0)));
+		if (!exchange.getRequestHeaders().containsKey("Authorization")) {
+			respond(exchange, 403, new byte[0]);
+			return;
+		}
+		byte[] body = exchange.getRequestBody().readAllBytes();
+		switch (exchange.getRequestMethod()) {
+			case "PUT" -> {
+				objects.put(path, body);
+				respond(exchange, 200, new byte[0]);
+			}
+			case "GET" -> {
+				byte[] object = objects.get(path);
+				respond(exchange, object == null ? 404 : 200, object == null ? new byte[0] : object);
+			}
+			case "HEAD" -> {
+				exchange.sendResponseHeaders(objects.containsKey(path) ? 200 : 404, -1);
+				exchange.close();
+			}
+			case "DELETE" -> {
+				objects.remove(path);
+				respond(exchange, 204, new byte[0]);
+			}
+			case "POST" -> {
+				Matcher keys = Pattern.compile("<Key>([^<]*)</Key>").matcher(new String(body, StandardCharsets.UTF_8));
+				while (keys.find()) {
+					objects.remove(path + keys.group(1));
+				}
+				respond(exchange, 200, "<DeleteResult/>".getBytes(StandardCharsets.UTF_8));
+			}
+			default -> respond(exchange, 405, new byte[0]);
+		}
+	}
+	
+	private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+		if (body.length > 0) {
+			exchange.getResponseBody().write(body);
+		}
+		exchange.close();
+	}
+}
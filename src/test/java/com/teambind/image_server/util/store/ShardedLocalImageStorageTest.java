@@ -0,0 +1,76 @@
+package com.teambind.image_server.util.store;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedLocalImageStorageTest {
+	
+	@TempDir
+	Path tempDir;
+	
+	@Test
+	@DisplayName("경로마다 한 볼륨에만 저장하고 여러 볼륨에 고르게 나눈다")
+	void store_spreadsAcrossVolumes() {
+		// given
+		ShardedLocalImageStorage storage = storage("vol1", "vol2", "vol3");
+		Map<String, Integer> counts = new HashMap<>();
+		
+		// when
+		for (int i = 0; i < 300; i++) {
+			String path = "POST/2025/01/02/image-" + i + ".webp";
+			storage.store(new byte[1], path);
+			counts.merge(storage.volumeFor(path).name(), 1, Integer::sum);
+		}
+		
+		// then
+		assertThat(counts).containsOnlyKeys("vol1", "vol2", "vol3");
+		assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(60, 140));
+		assertThat(Files.exists(tempDir.resolve(storage.volumeFor("POST/2025/01/02/image-7.webp").name())
+				.resolve("POST/2025/01/02/image-7.webp"))).isTrue();
+	}
+	
+	@Test
+	@DisplayName("볼륨을 추가하면 배정이 바뀐 기존 파일도 다른 볼륨에서 찾아 읽고, 삭제는 모든 볼륨에서 한다")
+	void addVolume_readsFromPreviousVolume() throws IOException {
+		// given
+		ShardedLocalImageStorage before = storage("vol1", "vol2");
+		for (int i = 0; i < 50; i++) {
+			before.store(new byte[]{(byte) i}, "POST/2025/01/02/image-" + i + ".webp");
+		}
+		ShardedLocalImageStorage after = storage("vol1", "vol2", "vol3");
+		String moved = null;
+		for (int i = 0; i < 50 && moved == null; i++) {
+			String path = "POST/2025/01/02/image-" + i + ".webp";
+			if (after.volumeFor(path).name().equals("vol3")) {
+				moved = path;
+			}
+		}
+		assertThat(moved).isNotNull();
+		
+		// when & then
+		assertThat(after.exists(moved)).isTrue();
+		try (InputStream in = after.get(moved)) {
+			assertThat(in.readAllBytes()).hasSize(1);
+		}
+		assertThat(after.delete(moved)).isTrue();
+		assertThat(after.exists(moved)).isFalse();
+		assertThat(after.localRoots()).hasSize(3);
+	}
+	
+	private ShardedLocalImageStorage storage(String... volumes) {
+		return new ShardedLocalImageStorage(List.of(volumes).stream()
+				.map(volume -> tempDir.resolve(volume).toString())
+				.toList());
+	}
+}
@@ -0,0 +1,115 @@
+package com.teambind.image_server.util.store;
+
+import com.teambind.image_server.fixture.TestFixtureFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadSpoolerTest {
+
+	@TempDir
+	Path tempDir;
+
+	private UploadSpooler uploadSpooler;
+
+	@BeforeEach
+	void setUp() {
+		uploadSpooler = new UploadSpooler(tempDir.resolve(".spool").toString(), 3600000);
+	}
+
+	@Test
+	@DisplayName("스풀 파일은 업로드와 내용과 크기가 같다")
+	void spool_copiesContent() throws Exception {
+		// given
+		byte[] content = new byte[3 * 1024 * 1024 + 17];
+		for (int i = 0; i < content.length; i++) {
+			content[i] = (byte) (i % 251);
+		}
+		MultipartFile file = TestFixtureFactory.createImageFile("large.jpg", "image/jpeg", content);
+
+		// when
+		SpooledUpload upload = uploadSpooler.spool(file, "image-1");
+
+		// then
+		assertThat(upload.getSize()).isEqualTo(content.length);
+		assertThat(upload.getOriginalFilename()).isEqualTo("large.jpg");
+		assertThat(upload.getPath().getParent()).isEqualTo(uploadSpooler.getSpoolDir());
+		assertThat(Files.readAllBytes(upload.getPath())).isEqualTo(content);
+	}
+
+	@Test
+	@DisplayName("스풀하면서 업로드의 SHA-256을 함께 계산한다")
+	void spool_computesContentHash() throws Exception {
+		// given
+		byte[] content = "same product photo".getBytes(StandardCharsets.UTF_8);
+		String expected = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+
+		// when
+		SpooledUpload first = uploadSpooler.spool(TestFixtureFactory.createImageFile("a.jpg", "image/jpeg", content), "image-4");
+		SpooledUpload second = uploadSpooler.spool(TestFixtureFactory.createImageFile("b.jpg", "image/jpeg", content), "image-5");
+
+		// then
+		assertThat(first.getContentHash()).isEqualTo(expected);
+		assertThat(second.getContentHash()).isEqualTo(first.getContentHash());
+	}
+
+	@Test
+	@DisplayName("delete는 스풀 파일을 지우며 여러 번 호출해도 된다")
+	void delete_removesFile() throws Exception {
+		// given
+		SpooledUpload upload = uploadSpooler.spool(TestFixtureFactory.createValidImageFile(), "image-2");
+
+		// when
+		upload.delete();
+		upload.delete();
+
+		// then
+		assertThat(Files.exists(upload.getPath())).isFalse();
+	}
+
+	@Test
+	@DisplayName("스풀 파일은 바이트 복사 없이 저장소로 이동할 수 있다")
+	void spool_thenStoreByMove() throws Exception {
+		// given
+		LocalImageStorage storage = new LocalImageStorage(tempDir.toString());
+		SpooledUpload upload = uploadSpooler.spool(TestFixtureFactory.createValidImageFile(), "image-3");
+
+		// when
+		storage.store(upload.getPath(), "PROFILE/2025/01/01/image-3.jpg");
+
+		// then
+		assertThat(Files.exists(upload.getPath())).isFalse();
+		assertThat(Files.readString(tempDir.resolve("PROFILE/2025/01/01/image-3.jpg")))
+				.isEqualTo("test image content");
+	}
+
+	@Test
+	@DisplayName("주기 정리는 기준 시간이 지난 스풀 파일만 지우고 처리 중인 파일은 남긴다")
+	void purgeStaleFiles_removesOnlyOldSpoolFiles() throws Exception {
+		// given
+		SpooledUpload stale = uploadSpooler.spool(TestFixtureFactory.createValidImageFile(), "image-6");
+		SpooledUpload inFlight = uploadSpooler.spool(TestFixtureFactory.createValidImageFile(), "image-7");
+		Files.setLastModifiedTime(stale.getPath(), FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+
+		// when
+		int purged = uploadSpooler.purgeStaleFiles();
+
+		// then
+		assertThat(purged).isEqualTo(1);
+		assertThat(Files.exists(stale.getPath())).isFalse();
+		assertThat(Files.exists(inFlight.getPath())).isTrue();
+	}
+}